@@ -0,0 +1,120 @@
+package it.unicas.project.template.address.model;
+
+import java.time.LocalDate;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Benchmark JMH delle classi del modello {@link Prodotti} e {@link Movimenti}, i cui campi sono proprietà JavaFX:
+ * <ul>
+ *     <li>{@code creaProdotto}, {@code creaMovimento}: costruzione di un oggetto, come per ogni riga letta
+ *     dal database;</li>
+ *     <li>{@code leggiProdotto}, {@code leggiMovimento}: lettura di tutti i campi con i getter, come
+ *     nell'esportazione e nei filtri;</li>
+ *     <li>{@code leggiProprietaProdotto}: lettura degli stessi campi attraverso le proprietà, come nelle
+ *     celle delle tabelle;</li>
+ *     <li>{@code aggiornaProdotto}: {@link Prodotti#aggiornaDa(Prodotti)}, usato dall'allineamento in background.</li>
+ * </ul>
+ * Non richiede il database.
+ *
+ * @author Cristian Corsini, Simone Feola, Daniela Spitaleri
+ * @since 19/11/2025
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class ModelloBenchmark {
+
+    private int id;
+    private String nome;
+    private String descrizione;
+    private LocalDate data;
+
+    private Prodotti prodotto;
+    private Prodotti altro;
+    private Movimenti movimento;
+
+    /**
+     * Prepara i valori in campi non costanti, così che il compilatore JIT non li tratti come costanti.
+     */
+    @Setup(Level.Trial)
+    public void setup() {
+        id = 42;
+        nome = "Notebook HP AB123";
+        descrizione = "Portatile professionale 15 pollici";
+        data = LocalDate.of(2025, 11, 19);
+        prodotto = new Prodotti(id, nome, descrizione, 12, 5, 499.9, 649.0);
+        altro = new Prodotti(id, nome + " v2", descrizione, 10, 4, 489.9, 639.0);
+        movimento = new Movimenti(id, id, "CARICO", 12, data, descrizione);
+    }
+
+    @Benchmark
+    public Prodotti creaProdotto() {
+        return new Prodotti(id, nome, descrizione, 12, 5, 499.9, 649.0);
+    }
+
+    @Benchmark
+    public Movimenti creaMovimento() {
+        return new Movimenti(id, id, "CARICO", 12, data, descrizione);
+    }
+
+    @Benchmark
+    public void leggiProdotto(Blackhole bh) {
+        bh.consume(prodotto.getIdProdotto());
+        bh.consume(prodotto.getNome());
+        bh.consume(prodotto.getDescrizione());
+        bh.consume(prodotto.getQuantita());
+        bh.consume(prodotto.getGiacenzaMin());
+        bh.consume(prodotto.getPrezzoAcquisto());
+        bh.consume(prodotto.getPrezzoVendita());
+    }
+
+    @Benchmark
+    public void leggiProprietaProdotto(Blackhole bh) {
+        bh.consume(prodotto.idProdottoProperty().get());
+        bh.consume(prodotto.nomeProperty().get());
+        bh.consume(prodotto.descrizioneProperty().get());
+        bh.consume(prodotto.quantitaProperty().get());
+        bh.consume(prodotto.giacenzaMinProperty().get());
+        bh.consume(prodotto.prezzoAcquistoProperty().get());
+        bh.consume(prodotto.prezzoVenditaProperty().get());
+    }
+
+    @Benchmark
+    public void leggiMovimento(Blackhole bh) {
+        bh.consume(movimento.getIdMovimento());
+        bh.consume(movimento.getIdProdotto());
+        bh.consume(movimento.getTipo());
+        bh.consume(movimento.getQuantita());
+        bh.consume(movimento.getData());
+        bh.consume(movimento.getDescrizione());
+    }
+
+    /**
+     * Alterna i valori di due prodotti, così che ogni invocazione modifichi tutti i campi.
+     *
+     * @return il prodotto aggiornato
+     */
+    @Benchmark
+    public Prodotti aggiornaProdotto() {
+        Prodotti aggiornato = prodotto;
+        aggiornato.aggiornaDa(altro);
+        prodotto = altro;
+        altro = aggiornato;
+        return aggiornato;
+    }
+}
@@ -0,0 +1,132 @@
+package it.unicas.project.template.address.model;
+
+import it.unicas.project.template.address.model.dao.DAOException;
+import it.unicas.project.template.address.model.dao.MovimentiDAO;
+import it.unicas.project.template.address.model.dao.ProdottiDAO;
+import it.unicas.project.template.address.model.dao.memoria.DAOMemoriaFactory;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Benchmark JMH delle aggregazioni mostrate da
+ * {@link it.unicas.project.template.address.view.MovimentiStatisticsController}:
+ * <ul>
+ *     <li>{@code classifica}: lettura dei totali per prodotto dal DAO e classifica dei primi 10 con
+ *     {@link ClassificaProdotti}, come il pannello dei prodotti più movimentati;</li>
+ *     <li>{@code calcolaClassifica}: la sola classifica, su totali già letti;</li>
+ *     <li>{@code riepilogo}: costruzione del {@link RiepilogoPeriodi} dal riepilogo giornaliero, eseguita una volta
+ *     all'avvio;</li>
+ *     <li>{@code dettaglioMese}: barre e totale di un mese letti dal riepilogo, cioè il lavoro di ogni cambio
+ *     di periodo nel grafico.</li>
+ * </ul>
+ * Al posto di MySQL i dati sono letti dai DAO in memoria di {@link DAOMemoriaFactory}, riempiti con {@code movimenti}
+ * movimenti sintetici distribuiti su cinque anni.
+ * <br>
+ * Non richiede il database.
+ *
+ * @author Cristian Corsini, Simone Feola, Daniela Spitaleri
+ * @since 19/11/2025
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class StatisticheBenchmark {
+
+    private static final LocalDate INIZIO = LocalDate.of(2021, 1, 1);
+
+    private static final int GIORNI = 1826;
+
+    /**
+     * Numero di prodotti.
+     */
+    @Param({"10000"})
+    private int prodotti;
+
+    /**
+     * Numero di movimenti.
+     */
+    @Param({"200000"})
+    private int movimenti;
+
+    private MovimentiDAO movimentiDAO;
+    private List<StatisticaProdotto> statistiche;
+    private RiepilogoPeriodi riepilogoPeriodi;
+    private LocalDate[] mesi;
+    private int mese;
+
+    /**
+     * Riempie i DAO in memoria con dati sintetici, con seme fisso, e prepara gli ingressi dei benchmark che non
+     * leggono dal DAO.
+     *
+     * @throws DAOException se l'inserimento fallisce
+     */
+    @Setup(Level.Trial)
+    public void setup() throws DAOException {
+        DAOMemoriaFactory factory = new DAOMemoriaFactory();
+        ProdottiDAO prodottiDAO = factory.getProdottiDAO();
+        movimentiDAO = factory.getMovimentiDAO();
+        Random random = new Random(42);
+
+        List<Prodotti> nuovi = new ArrayList<>(prodotti);
+        for (int i = 1; i <= prodotti; i++) {
+            nuovi.add(new Prodotti(null, "Prodotto " + i, "", 0, 10, 1.0, 2.0));
+        }
+        List<Integer> id = prodottiDAO.insertAll(nuovi);
+
+        List<Movimenti> storico = new ArrayList<>(movimenti);
+        for (int i = 0; i < movimenti; i++) {
+            storico.add(new Movimenti(null, id.get(random.nextInt(id.size())), random.nextBoolean() ? "CARICO" : "SCARICO",
+                    1 + random.nextInt(20), INIZIO.plusDays(random.nextInt(GIORNI)), ""));
+        }
+        movimentiDAO.insertAll(storico);
+
+        statistiche = movimentiDAO.selectStatisticheProdotti();
+        riepilogoPeriodi = movimentiDAO.selectRiepilogoPeriodi();
+        mesi = new LocalDate[60];
+        for (int i = 0; i < mesi.length; i++) {
+            mesi[i] = INIZIO.plusMonths(i);
+        }
+    }
+
+    @Benchmark
+    public ClassificaProdotti classifica() throws DAOException {
+        return ClassificaProdotti.calcola(movimentiDAO.selectStatisticheProdotti(), 10);
+    }
+
+    @Benchmark
+    public ClassificaProdotti calcolaClassifica() {
+        return ClassificaProdotti.calcola(statistiche, 10);
+    }
+
+    @Benchmark
+    public RiepilogoPeriodi riepilogo() throws DAOException {
+        return movimentiDAO.selectRiepilogoPeriodi();
+    }
+
+    @Benchmark
+    public void dettaglioMese(Blackhole bh) {
+        LocalDate giorno = mesi[mese];
+        mese = (mese + 1) % mesi.length;
+        bh.consume(riepilogoPeriodi.dettaglio(Periodo.MESE, giorno));
+        bh.consume(riepilogoPeriodi.totale(Periodo.MESE, giorno));
+    }
+}
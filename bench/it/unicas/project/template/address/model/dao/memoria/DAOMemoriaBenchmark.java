@@ -0,0 +1,155 @@
+package it.unicas.project.template.address.model.dao.memoria;
+
+import it.unicas.project.template.address.model.Movimenti;
+import it.unicas.project.template.address.model.Prodotti;
+import it.unicas.project.template.address.model.dao.DAOException;
+import it.unicas.project.template.address.model.dao.DAOFactory;
+import it.unicas.project.template.address.model.dao.MovimentiDAO;
+import it.unicas.project.template.address.model.dao.ProdottiDAO;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmark JMH dei DAO locali, con le operazioni più frequenti dell'interfaccia:
+ * <ul>
+ *     <li>{@code selectPerNome}: ricerca dei prodotti per inizio del nome;</li>
+ *     <li>{@code selectPage}: prima pagina di 50 movimenti dello storico;</li>
+ *     <li>{@code registraMovimento}: registrazione di un carico con aggiornamento della giacenza.</li>
+ * </ul>
+ * Con {@code backend=memoria} si usa {@link DAOMemoriaFactory}; con {@code backend=file} si usa {@link DAOFileFactory}
+ * su un file temporaneo, e {@code registraMovimento} comprende la scrittura del registro e la sua {@code fsync}:
+ * il tempo dipende quindi soprattutto dal disco, e con un solo thread la scrittura di gruppo non ha transazioni
+ * da raggruppare. I movimenti registrati restano nell'archivio, che cresce durante la misura.
+ * <br>
+ * Non richiede il database.
+ *
+ * @author Cristian Corsini, Simone Feola, Daniela Spitaleri
+ * @since 19/11/2025
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class DAOMemoriaBenchmark {
+
+    /**
+     * Fornitore dei DAO: "memoria" oppure "file".
+     */
+    @Param({"memoria", "file"})
+    private String backend;
+
+    /**
+     * Numero di prodotti.
+     */
+    @Param({"10000"})
+    private int prodotti;
+
+    /**
+     * Numero di movimenti iniziali.
+     */
+    @Param({"100000"})
+    private int movimenti;
+
+    private DAOFactory factory;
+    private Path cartella;
+    private ProdottiDAO prodottiDAO;
+    private MovimentiDAO movimentiDAO;
+    private List<Integer> id;
+    private Prodotti[] filtri;
+    private Random random;
+    private int prossimo;
+
+    /**
+     * Crea il fornitore e lo riempie con dati sintetici, con seme fisso.
+     *
+     * @throws DAOException se l'inserimento fallisce
+     * @throws IOException  se il file temporaneo non può essere creato
+     */
+    @Setup(Level.Trial)
+    public void setup() throws DAOException, IOException {
+        if ("file".equals(backend)) {
+            cartella = Files.createTempDirectory("dao-benchmark");
+            factory = new DAOFileFactory(cartella.resolve("magazzino.db"));
+        } else {
+            factory = new DAOMemoriaFactory();
+        }
+        prodottiDAO = factory.getProdottiDAO();
+        movimentiDAO = factory.getMovimentiDAO();
+        random = new Random(42);
+
+        List<Prodotti> nuovi = new ArrayList<>(prodotti);
+        for (int i = 1; i <= prodotti; i++) {
+            nuovi.add(new Prodotti(null, "Prodotto " + i, "", 1000, 10, 1.0, 2.0));
+        }
+        id = prodottiDAO.insertAll(nuovi);
+
+        LocalDate inizio = LocalDate.of(2021, 1, 1);
+        List<Movimenti> storico = new ArrayList<>(movimenti);
+        for (int i = 0; i < movimenti; i++) {
+            storico.add(new Movimenti(null, id.get(random.nextInt(id.size())), random.nextBoolean() ? "CARICO" : "SCARICO",
+                    1 + random.nextInt(20), inizio.plusDays(random.nextInt(1826)), ""));
+        }
+        movimentiDAO.insertAll(storico);
+
+        filtri = new Prodotti[64];
+        for (int i = 0; i < filtri.length; i++) {
+            filtri[i] = new Prodotti(null, "prodotto " + (1 + random.nextInt(prodotti)), "", -1, -1, 0.0, 0.0);
+        }
+    }
+
+    /**
+     * Chiude il fornitore ed elimina il file temporaneo.
+     *
+     * @throws IOException se il file non può essere eliminato
+     */
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        factory.chiudi();
+        if (cartella != null) {
+            try (var files = Files.list(cartella)) {
+                for (Path p : (Iterable<Path>) files::iterator) {
+                    Files.delete(p);
+                }
+            }
+            Files.delete(cartella);
+        }
+    }
+
+    @Benchmark
+    public List<Prodotti> selectPerNome() throws DAOException {
+        prossimo = (prossimo + 1) % filtri.length;
+        return prodottiDAO.select(filtri[prossimo], false);
+    }
+
+    @Benchmark
+    public List<Movimenti> selectPage() throws DAOException {
+        return movimentiDAO.selectPage(null, 50);
+    }
+
+    @Benchmark
+    public int registraMovimento() throws DAOException {
+        return movimentiDAO.registraMovimento(new Movimenti(null, id.get(random.nextInt(id.size())), "CARICO", 1,
+                LocalDate.of(2026, 1, 1), "Benchmark"));
+    }
+}
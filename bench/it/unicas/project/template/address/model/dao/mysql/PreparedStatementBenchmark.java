@@ -0,0 +1,125 @@
+package it.unicas.project.template.address.model.dao.mysql;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Benchmark JMH che confronta, su un MySQL locale, l'esecuzione di una query di selezione
+ * dei prodotti (stessa forma prodotta da {@code ProdottiDAOMySQLImpl.select} con filtro su nome
+ * e giacenza minima):
+ * <ul>
+ *     <li>{@code concatenazione}: SQL costruito concatenando i valori ed eseguito con {@link Statement},
+ *     quindi analizzato dal server a ogni chiamata (comportamento precedente);</li>
+ *     <li>{@code preparedSenzaCache}: statement preparato e chiuso a ogni chiamata;</li>
+ *     <li>{@code preparedConCache}: statement preparato recuperato dalla cache della connessione del pool.</li>
+ * </ul>
+ * Tutte le varianti usano una connessione già presa dal pool, così da misurare solo il costo
+ * di analisi ed esecuzione della query.
+ * <br>
+ * Pre-condizione: database inizializzato con {@code db/magazzino_schema.sql} e
+ * {@code db/magazzino_demo_data.sql}, credenziali nelle variabili d'ambiente
+ * {@code DB_USER}, {@code DB_PASSWORD}, {@code DB_SCHEMA}.
+ *
+ * @author Cristian Corsini, Simone Feola, Daniela Spitaleri
+ * @since 19/11/2025
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class PreparedStatementBenchmark {
+
+    /**
+     * Query con segnaposto, nella forma generata dal DAO.
+     */
+    private static final String SQL = "SELECT * FROM prodotti WHERE 1=1 AND nome LIKE ? AND giacenzaMin = ?";
+
+    /**
+     * Prefissi dei nomi cercati, alternati a ogni chiamata.
+     */
+    private static final String[] NOMI = {"Mouse", "Monitor", "Notebook", "Cavo", "Webcam", "Router"};
+
+    private Connection connection;
+    private int indice = 0;
+
+    /**
+     * Prende in prestito una connessione dal pool per l'intera iterazione.
+     *
+     * @throws SQLException se il database non è raggiungibile
+     */
+    @Setup(Level.Trial)
+    public void setup() throws SQLException {
+        connection = DAOMySQLSettings.getConnection();
+    }
+
+    /**
+     * Restituisce la connessione e chiude il pool.
+     */
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        DAOMySQLSettings.releaseConnection(connection);
+        DAOMySQLSettings.closePool();
+    }
+
+    @Benchmark
+    public void concatenazione(Blackhole bh) throws SQLException {
+        String nome = NOMI[indice++ % NOMI.length];
+        try (Statement st = connection.createStatement();
+             ResultSet rs = st.executeQuery("SELECT * FROM prodotti WHERE 1=1 AND nome LIKE '" + nome
+                     + "%' AND giacenzaMin = " + (indice % 5))) {
+            consuma(rs, bh);
+        }
+    }
+
+    @Benchmark
+    public void preparedSenzaCache(Blackhole bh) throws SQLException {
+        try (PreparedStatement ps = connection.prepareStatement(SQL)) {
+            DAOMySQLSettings.setParameters(ps, NOMI[indice++ % NOMI.length] + "%", indice % 5);
+            try (ResultSet rs = ps.executeQuery()) {
+                consuma(rs, bh);
+            }
+        }
+    }
+
+    @Benchmark
+    public void preparedConCache(Blackhole bh) throws SQLException {
+        PreparedStatement ps = DAOMySQLSettings.prepareStatement(connection, SQL);
+        DAOMySQLSettings.setParameters(ps, NOMI[indice++ % NOMI.length] + "%", indice % 5);
+        try (ResultSet rs = ps.executeQuery()) {
+            consuma(rs, bh);
+        }
+    }
+
+    /**
+     * Legge tutte le righe del risultato per includere nel tempo misurato anche il trasferimento.
+     *
+     * @param rs risultato della query
+     * @param bh blackhole JMH
+     * @throws SQLException in caso di errore di lettura
+     */
+    private static void consuma(ResultSet rs, Blackhole bh) throws SQLException {
+        while (rs.next()) {
+            bh.consume(rs.getInt("idProdotto"));
+            bh.consume(rs.getString("nome"));
+        }
+    }
+}
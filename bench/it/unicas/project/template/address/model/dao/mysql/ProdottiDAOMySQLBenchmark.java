@@ -0,0 +1,168 @@
+package it.unicas.project.template.address.model.dao.mysql;
+
+import it.unicas.project.template.address.model.Prodotti;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import javax.sql.rowset.CachedRowSet;
+import javax.sql.rowset.RowSetMetaDataImpl;
+import javax.sql.rowset.RowSetProvider;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Benchmark JMH del lavoro svolto da {@link ProdottiDAOMySQLImpl} nel processo dell'applicazione, senza server MySQL:
+ * <ul>
+ *     <li>{@code selectQuery}: costruzione della query e dei parametri di {@link ProdottiDAOMySQLImpl#select}
+ *     per un filtro vuoto, per il solo nome e con tutti i campi valorizzati;</li>
+ *     <li>{@code leggiProdotti}: conversione delle righe del result set in oggetti {@link Prodotti}, come nel ciclo
+ *     di {@code executeQuery};</li>
+ *     <li>{@code leggiColonne}: lo stesso ciclo con la sola lettura delle colonne, cioè il costo del result set
+ *     di appoggio, da sottrarre a {@code leggiProdotti}.</li>
+ * </ul>
+ * Il database è sostituito da un {@link CachedRowSet} del JDK con le colonne della tabella {@code prodotti}, riempito
+ * una volta sola: la lettura delle colonne non ha quindi il costo di decodifica del driver MySQL e i tempi di
+ * {@code leggiProdotti} ne sono un limite inferiore. Per la latenza complessiva delle query si veda
+ * {@link PreparedStatementBenchmark}, che richiede un server MySQL.
+ *
+ * @author Cristian Corsini, Simone Feola, Daniela Spitaleri
+ * @since 19/11/2025
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class ProdottiDAOMySQLBenchmark {
+
+    private static final String[] COLONNE = {"idProdotto", "nome", "descrizione", "quantita", "giacenzaMin",
+            "prezzoAcquisto", "prezzoVendita", "ultimaModifica"};
+
+    private static final int[] TIPI = {Types.INTEGER, Types.VARCHAR, Types.VARCHAR, Types.INTEGER, Types.INTEGER,
+            Types.DECIMAL, Types.DECIMAL, Types.TIMESTAMP};
+
+    /**
+     * Numero di righe del result set.
+     */
+    @Param({"1000"})
+    private int righe;
+
+    private CachedRowSet rs;
+
+    /**
+     * Filtro di {@code selectQuery}, separato dallo stato principale perché solo quel benchmark ne dipende.
+     */
+    @State(Scope.Thread)
+    public static class Filtro {
+
+        /**
+         * Campi valorizzati del filtro: nessuno, il solo nome oppure tutti.
+         */
+        @Param({"vuoto", "nome", "completo"})
+        private String filtro;
+
+        private Prodotti prodotto;
+
+        @Setup(Level.Trial)
+        public void setup() {
+            switch (filtro) {
+                case "vuoto":
+                    prodotto = null;
+                    break;
+                case "nome":
+                    prodotto = new Prodotti(null, "Note_book 100%", "", -1, -1, 0.0, 0.0);
+                    break;
+                default:
+                    prodotto = new Prodotti(null, "Notebook", "Portatile", 12, 5, 499.9, 649.0);
+            }
+        }
+    }
+
+    /**
+     * Riempie il result set con righe sintetiche, con seme fisso.
+     *
+     * @throws SQLException se il result set non può essere creato
+     */
+    @Setup(Level.Trial)
+    public void setup() throws SQLException {
+        RowSetMetaDataImpl metaDati = new RowSetMetaDataImpl();
+        metaDati.setColumnCount(COLONNE.length);
+        for (int i = 0; i < COLONNE.length; i++) {
+            metaDati.setColumnName(i + 1, COLONNE[i]);
+            metaDati.setColumnType(i + 1, TIPI[i]);
+        }
+        rs = RowSetProvider.newFactory().createCachedRowSet();
+        rs.setMetaData(metaDati);
+
+        Random random = new Random(42);
+        Timestamp ultimaModifica = Timestamp.valueOf(LocalDateTime.of(2025, 11, 19, 10, 30));
+        for (int i = 1; i <= righe; i++) {
+            rs.moveToInsertRow();
+            rs.updateInt(1, i);
+            rs.updateString(2, "Prodotto " + i);
+            rs.updateString(3, "Descrizione del prodotto " + i);
+            rs.updateInt(4, random.nextInt(500));
+            rs.updateInt(5, random.nextInt(50));
+            rs.updateDouble(6, random.nextInt(100_000) / 100.0);
+            rs.updateDouble(7, random.nextInt(100_000) / 100.0);
+            rs.updateTimestamp(8, ultimaModifica);
+            rs.insertRow();
+        }
+        rs.moveToCurrentRow();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws SQLException {
+        rs.close();
+    }
+
+    @Benchmark
+    public void selectQuery(Filtro filtro, Blackhole bh) {
+        List<Object> parametri = new ArrayList<>();
+        bh.consume(ProdottiDAOMySQLImpl.selectQuery(filtro.prodotto, false, parametri));
+        bh.consume(parametri);
+    }
+
+    @Benchmark
+    public List<Prodotti> leggiProdotti() throws SQLException {
+        List<Prodotti> lista = new ArrayList<>();
+        rs.beforeFirst();
+        while (rs.next()) {
+            lista.add(ProdottiDAOMySQLImpl.leggiProdotto(rs));
+        }
+        return lista;
+    }
+
+    @Benchmark
+    public void leggiColonne(Blackhole bh) throws SQLException {
+        rs.beforeFirst();
+        while (rs.next()) {
+            bh.consume(rs.getInt("idProdotto"));
+            bh.consume(rs.getString("nome"));
+            bh.consume(rs.getString("descrizione"));
+            bh.consume(rs.getInt("quantita"));
+            bh.consume(rs.getInt("giacenzaMin"));
+            bh.consume(rs.getDouble("prezzoAcquisto"));
+            bh.consume(rs.getDouble("prezzoVendita"));
+            bh.consume(rs.getTimestamp("ultimaModifica"));
+        }
+    }
+}
@@ -0,0 +1,136 @@
+package it.unicas.project.template.address.util;
+
+import it.unicas.project.template.address.model.Movimenti;
+import it.unicas.project.template.address.model.Prodotti;
+import it.unicas.project.template.address.model.dao.DAOException;
+import it.unicas.project.template.address.model.dao.MovimentiDAO;
+import it.unicas.project.template.address.model.dao.ProdottiDAO;
+import it.unicas.project.template.address.model.dao.memoria.DAOMemoriaFactory;
+import java.io.IOException;
+import java.io.Writer;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmark JMH delle scritture di {@link Esportazione}, senza il task JavaFX che le esegue:
+ * <ul>
+ *     <li>{@code scriviProdotti}: l'inventario di {@code prodotti} prodotti già in memoria;</li>
+ *     <li>{@code scriviStorico}: lo storico di {@code movimenti} movimenti, letto in streaming dal DAO.</li>
+ * </ul>
+ * Al posto di MySQL lo storico è letto dai DAO in memoria di {@link DAOMemoriaFactory}, riempiti con dati sintetici;
+ * i caratteri prodotti vengono scartati, quindi si misurano la lettura dal DAO e la formattazione, non il disco.
+ * <br>
+ * Non richiede il database.
+ *
+ * @author Cristian Corsini, Simone Feola, Daniela Spitaleri
+ * @since 19/11/2025
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class EsportazioneBenchmark {
+
+    private static final String[] DESCRIZIONI = {"Carico iniziale", "Vendita al banco", "Reso cliente; merce integra",
+            "Ordine fornitore n. 42", "Inventario di fine mese", "Trasferimento \"urgente\" in sede"};
+
+    /**
+     * Numero di prodotti dell'inventario.
+     */
+    @Param({"10000"})
+    private int prodotti;
+
+    /**
+     * Numero di movimenti dello storico.
+     */
+    @Param({"100000"})
+    private int movimenti;
+
+    private List<Prodotti> inventario;
+    private MovimentiDAO movimentiDAO;
+
+    /**
+     * Destinazione che scarta i caratteri ricevuti.
+     */
+    private final Writer scarto = new Writer() {
+        @Override
+        public void write(char[] cbuf, int off, int len) {
+        }
+
+        @Override
+        public void write(String str, int off, int len) {
+        }
+
+        @Override
+        public void flush() {
+        }
+
+        @Override
+        public void close() {
+        }
+    };
+
+    /**
+     * Riempie i DAO in memoria con prodotti e movimenti sintetici, con seme fisso.
+     *
+     * @throws DAOException se l'inserimento fallisce
+     */
+    @Setup(Level.Trial)
+    public void setup() throws DAOException {
+        DAOMemoriaFactory factory = new DAOMemoriaFactory();
+        ProdottiDAO prodottiDAO = factory.getProdottiDAO();
+        movimentiDAO = factory.getMovimentiDAO();
+        Random random = new Random(42);
+
+        List<Prodotti> nuovi = new ArrayList<>(prodotti);
+        for (int i = 1; i <= prodotti; i++) {
+            nuovi.add(new Prodotti(null, "Prodotto " + i, DESCRIZIONI[random.nextInt(DESCRIZIONI.length)],
+                    random.nextInt(500), random.nextInt(50), random.nextInt(100_000) / 100.0,
+                    random.nextInt(100_000) / 100.0));
+        }
+        List<Integer> id = prodottiDAO.insertAll(nuovi);
+        inventario = prodottiDAO.select(null, false);
+
+        LocalDate inizio = LocalDate.of(2021, 1, 1);
+        List<Movimenti> storico = new ArrayList<>(movimenti);
+        for (int i = 0; i < movimenti; i++) {
+            storico.add(new Movimenti(null, id.get(random.nextInt(id.size())), random.nextBoolean() ? "CARICO" : "SCARICO",
+                    1 + random.nextInt(20), inizio.plusDays(random.nextInt(1826)),
+                    DESCRIZIONI[random.nextInt(DESCRIZIONI.length)]));
+        }
+        movimentiDAO.insertAll(storico);
+    }
+
+    @Benchmark
+    public long scriviProdotti() throws IOException {
+        ScrittoreCSV csv = new ScrittoreCSV(scarto, ';');
+        long righe = Esportazione.scriviProdotti(csv, inventario, (r, t) -> true);
+        csv.flush();
+        return righe;
+    }
+
+    @Benchmark
+    public long scriviStorico() throws DAOException, IOException {
+        ScrittoreCSV csv = new ScrittoreCSV(scarto, ';');
+        long righe = Esportazione.scriviStorico(csv, movimentiDAO, (r, t) -> true);
+        csv.flush();
+        return righe;
+    }
+}
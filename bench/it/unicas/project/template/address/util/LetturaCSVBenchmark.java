@@ -0,0 +1,149 @@
+package it.unicas.project.template.address.util;
+
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmark JMH della lettura di un file CSV di storico movimenti generato con {@link ScrittoreCSV}:
+ * <ul>
+ *     <li>{@code lettoreCSV}: lettura in streaming con {@link LettoreCSV}, come per i file piccoli o compressi;</li>
+ *     <li>{@code lettoreCSVMappato}: lettura del file mappato in memoria con {@link LettoreCSVMappato},
+ *     sul pool comune.</li>
+ * </ul>
+ * Per ogni riga viene convertita la quantità e la data, come farebbe l'importazione; la registrazione
+ * sul database non è inclusa. Il file resta nella cache del sistema operativo dopo la prima lettura, quindi
+ * si misura la lettura e la conversione, non il disco.
+ * <br>
+ * Non richiede il database.
+ *
+ * @author Cristian Corsini, Simone Feola, Daniela Spitaleri
+ * @since 19/11/2025
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class LetturaCSVBenchmark {
+
+    private static final String[] PRODOTTI = {"Notebook HP AB123", "Monitor Dell CX44", "Mouse Logitech M90",
+            "Tastiera Razer K7", "Stampante Canon P2", "Router Netgear R6"};
+
+    private static final String[] DESCRIZIONI = {"Carico iniziale", "Vendita al banco", "Reso cliente; merce integra",
+            "Ordine fornitore n. 42", "Inventario di fine mese", "Trasferimento \"urgente\"\nin sede"};
+
+    /**
+     * Numero di righe del file.
+     */
+    @Param({"1000000"})
+    private int righe;
+
+    private Path file;
+
+    /**
+     * Scrive il file con seme fisso.
+     *
+     * @throws IOException se il file temporaneo non può essere scritto
+     */
+    @Setup(Level.Trial)
+    public void setup() throws IOException {
+        file = Files.createTempFile("movimenti", ".csv");
+        Random random = new Random(42);
+        LocalDate oggi = LocalDate.of(2025, 11, 19);
+        try (ScrittoreCSV csv = new ScrittoreCSV(new OutputStreamWriter(Files.newOutputStream(file),
+                StandardCharsets.UTF_8), ';')) {
+            csv.campo("ID_Movimento").campo("Nome prodotto").campo("Tipo").campo("Quantita").campo("Data")
+                    .campo("Descrizione").nuovaRiga();
+            for (int i = 0; i < righe; i++) {
+                csv.campo(righe - i).campo(PRODOTTI[random.nextInt(PRODOTTI.length)])
+                        .campo(random.nextBoolean() ? "CARICO" : "SCARICO").campo(1 + random.nextInt(500))
+                        .campo(oggi.minusDays(random.nextInt(3650)))
+                        .campo(DESCRIZIONI[random.nextInt(DESCRIZIONI.length)]).nuovaRiga();
+            }
+        }
+    }
+
+    /**
+     * Elimina il file.
+     *
+     * @throws IOException se il file non può essere eliminato
+     */
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(file);
+    }
+
+    /**
+     * Converte i campi di una riga come l'importazione dei movimenti.
+     */
+    private static long converti(String[] campi) {
+        return Integer.parseInt(campi[3].strip()) + LocalDate.parse(campi[4].strip()).toEpochDay();
+    }
+
+    /**
+     * Lettura in streaming con {@link LettoreCSV}.
+     *
+     * @return la somma dei valori convertiti, per evitare l'eliminazione del codice
+     * @throws IOException se la lettura fallisce
+     */
+    @Benchmark
+    public long lettoreCSV() throws IOException {
+        long somma = 0;
+        try (LettoreCSV csv = new LettoreCSV(new InputStreamReader(new FileInputStream(file.toFile()),
+                StandardCharsets.UTF_8), ';')) {
+            csv.leggiRiga();
+            while (csv.leggiRiga()) {
+                String[] campi = new String[csv.getNumeroCampi()];
+                for (int i = 0; i < campi.length; i++) {
+                    campi[i] = csv.campo(i);
+                }
+                somma += converti(campi);
+            }
+        }
+        return somma;
+    }
+
+    /**
+     * Lettura parallela con {@link LettoreCSVMappato}.
+     *
+     * @return la somma dei valori convertiti, per evitare l'eliminazione del codice
+     * @throws IOException se la lettura fallisce
+     */
+    @Benchmark
+    public long lettoreCSVMappato() throws IOException {
+        long somma = 0;
+        try (LettoreCSVMappato<Long> csv = new LettoreCSVMappato<>(file, ';',
+                (numero, campi) -> (numero == 1) ? null : converti(campi))) {
+            List<Long> porzione;
+            while ((porzione = csv.prossimo()) != null) {
+                for (Long valore : porzione) {
+                    somma += valore;
+                }
+            }
+        }
+        return somma;
+    }
+}
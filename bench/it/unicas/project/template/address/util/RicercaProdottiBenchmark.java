@@ -0,0 +1,136 @@
+package it.unicas.project.template.address.util;
+
+import it.unicas.project.template.address.model.Prodotti;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import javafx.collections.FXCollections;
+import javafx.collections.ObservableList;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmark JMH della ricerca in memoria sui prodotti, su un catalogo sintetico:
+ * <ul>
+ *     <li>{@code prefisso}: {@link IndiceRicercaProdotti#cerca(String)} con l'inizio di parole esistenti;</li>
+ *     <li>{@code simili}: {@link IndiceRicercaProdotti#cercaSimili(String, int)} con parole a cui è stato
+ *     applicato un errore di battitura (carattere sostituito, mancante o scambiato).</li>
+ * </ul>
+ * La modalità {@link Mode#SampleTime} riporta la distribuzione delle latenze: il valore di interesse
+ * è il percentile {@code p0.99}.
+ * <br>
+ * Non richiede il database.
+ *
+ * @author Cristian Corsini, Simone Feola, Daniela Spitaleri
+ * @since 19/11/2025
+ */
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class RicercaProdottiBenchmark {
+
+    private static final String[] CATEGORIE = {"Notebook", "Monitor", "Mouse", "Tastiera", "Stampante", "Router",
+            "Webcam", "Cuffie", "Smartphone", "Tablet", "Scanner", "Proiettore", "Altoparlante", "Microfono",
+            "Alimentatore", "Cavo", "Adattatore", "Batteria", "Caricatore", "Custodia"};
+
+    private static final String[] MARCHE = {"HP", "Dell", "Lenovo", "Asus", "Acer", "Logitech", "Samsung", "Canon",
+            "Epson", "Brother", "Netgear", "Sony", "Philips", "Xiaomi", "Microsoft", "Razer", "Corsair", "Kingston"};
+
+    private static final String[] AGGETTIVI = {"professionale", "compatto", "wireless", "ergonomico", "portatile",
+            "silenzioso", "resistente", "economico", "avanzato", "leggero", "luminoso", "veloce", "modulare"};
+
+    /**
+     * Numero di prodotti del catalogo sintetico.
+     */
+    @Param({"100000"})
+    private int prodotti;
+
+    private IndiceRicercaProdotti indice;
+    private String[] prefissi;
+    private String[] errate;
+    private int indiceRicerca = 0;
+
+    /**
+     * Genera il catalogo (con seme fisso), costruisce l'indice e prepara le ricerche.
+     */
+    @Setup(Level.Trial)
+    public void setup() {
+        Random random = new Random(42);
+        ObservableList<Prodotti> catalogo = FXCollections.observableArrayList();
+        List<String> parole = new ArrayList<>();
+        for (int i = 0; i < prodotti; i++) {
+            String categoria = CATEGORIE[random.nextInt(CATEGORIE.length)];
+            String marca = MARCHE[random.nextInt(MARCHE.length)];
+            String modello = (char) ('A' + random.nextInt(26)) + "" + (char) ('A' + random.nextInt(26)) + random.nextInt(1000);
+            String nome = categoria + " " + marca + " " + modello;
+            String descrizione = categoria + " " + AGGETTIVI[random.nextInt(AGGETTIVI.length)] + " "
+                    + AGGETTIVI[random.nextInt(AGGETTIVI.length)] + " codice " + modello.toLowerCase() + i;
+            catalogo.add(new Prodotti(i + 1, nome, descrizione, random.nextInt(100), 10, 10.0, 20.0));
+            if (i < 1000) {
+                parole.add(categoria.toLowerCase());
+                parole.add(marca.toLowerCase());
+                parole.add(modello.toLowerCase());
+            }
+        }
+        indice = new IndiceRicercaProdotti(catalogo);
+
+        prefissi = new String[1024];
+        errate = new String[1024];
+        for (int i = 0; i < prefissi.length; i++) {
+            String parola = parole.get(random.nextInt(parole.size()));
+            prefissi[i] = parola.substring(0, Math.max(1, Math.min(parola.length(), 2 + random.nextInt(4))));
+            errate[i] = conErrore(parola, random) + " " + conErrore(MARCHE[random.nextInt(MARCHE.length)].toLowerCase(), random);
+        }
+    }
+
+    /**
+     * Applica a una parola un errore di battitura casuale, se abbastanza lunga.
+     *
+     * @param parola la parola
+     * @param random generatore casuale
+     * @return la parola con un carattere sostituito, eliminato o scambiato con il successivo
+     */
+    private static String conErrore(String parola, Random random) {
+        if (parola.length() < 4) {
+            return parola;
+        }
+        int posizione = 1 + random.nextInt(parola.length() - 2);
+        char[] c = parola.toCharArray();
+        switch (random.nextInt(3)) {
+            case 0:
+                c[posizione] = (char) ('a' + random.nextInt(26));
+                return new String(c);
+            case 1:
+                return parola.substring(0, posizione) + parola.substring(posizione + 1);
+            default:
+                char t = c[posizione];
+                c[posizione] = c[posizione + 1];
+                c[posizione + 1] = t;
+                return new String(c);
+        }
+    }
+
+    @Benchmark
+    public Object prefisso() {
+        return indice.cerca(prefissi[indiceRicerca++ & (prefissi.length - 1)]);
+    }
+
+    @Benchmark
+    public Object simili() {
+        return indice.cercaSimili(errate[indiceRicerca++ & (errate.length - 1)], 50);
+    }
+}
@@ -0,0 +1,177 @@
+package it.unicas.project.template.address.util;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.Writer;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmark JMH della scrittura CSV dello storico movimenti, su righe sintetiche:
+ * <ul>
+ *     <li>{@code concatenazione}: la scrittura precedente dell'inventario, con la riga costruita concatenando
+ *     i campi;</li>
+ *     <li>{@code campoPerCampo}: la scrittura precedente dello storico, con i numeri convertiti in stringhe,
+ *     la data formattata con {@link DateTimeFormatter} e il separatore rimosso dalla descrizione;</li>
+ *     <li>{@code scrittoreCSV}: {@link ScrittoreCSV}, che scrive i campi direttamente nel suo buffer
+ *     e racchiude tra doppi apici le descrizioni che lo richiedono.</li>
+ * </ul>
+ * Le scritture precedenti passano da un {@link BufferedWriter} di 64K come nell'esportazione; i caratteri
+ * vengono poi scartati, quindi si misura solo il costo della formattazione. Eseguendo con
+ * {@code -prof gc} si ottengono anche i byte allocati per operazione ({@code gc.alloc.rate.norm}).
+ * <br>
+ * Non richiede il database.
+ *
+ * @author Cristian Corsini, Simone Feola, Daniela Spitaleri
+ * @since 19/11/2025
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class ScrittoreCSVBenchmark {
+
+    private static final String SEPARATORE = ";";
+
+    private static final String[] PRODOTTI = {"Notebook HP AB123", "Monitor Dell CX44", "Mouse Logitech M90",
+            "Tastiera Razer K7", "Stampante Canon P2", "Router Netgear R6"};
+
+    private static final String[] DESCRIZIONI = {"Carico iniziale", "Vendita al banco", "Reso cliente; merce integra",
+            "Ordine fornitore n. 42", "Inventario di fine mese", "Trasferimento \"urgente\" in sede"};
+
+    /**
+     * Numero di righe scritte per operazione.
+     */
+    @Param({"100000"})
+    private int righe;
+
+    private int[] id;
+    private String[] nomi;
+    private String[] tipi;
+    private int[] quantita;
+    private LocalDate[] date;
+    private String[] descrizioni;
+
+    /**
+     * Destinazione che scarta i caratteri ricevuti.
+     */
+    private final Writer scarto = new Writer() {
+        @Override
+        public void write(char[] cbuf, int off, int len) {
+        }
+
+        @Override
+        public void write(String str, int off, int len) {
+        }
+
+        @Override
+        public void flush() {
+        }
+
+        @Override
+        public void close() {
+        }
+    };
+
+    /**
+     * Genera le righe con seme fisso.
+     */
+    @Setup(Level.Trial)
+    public void setup() {
+        Random random = new Random(42);
+        id = new int[righe];
+        nomi = new String[righe];
+        tipi = new String[righe];
+        quantita = new int[righe];
+        date = new LocalDate[righe];
+        descrizioni = new String[righe];
+        LocalDate oggi = LocalDate.of(2025, 11, 19);
+        for (int i = 0; i < righe; i++) {
+            id[i] = righe - i;
+            nomi[i] = PRODOTTI[random.nextInt(PRODOTTI.length)];
+            tipi[i] = random.nextBoolean() ? "CARICO" : "SCARICO";
+            quantita[i] = 1 + random.nextInt(500);
+            date[i] = oggi.minusDays(random.nextInt(3650));
+            descrizioni[i] = DESCRIZIONI[random.nextInt(DESCRIZIONI.length)];
+        }
+    }
+
+    /**
+     * Scrittura precedente dell'inventario: una stringa concatenata per riga.
+     *
+     * @return il writer, per evitare l'eliminazione del codice
+     * @throws IOException mai, la destinazione scarta i caratteri
+     */
+    @Benchmark
+    public Writer concatenazione() throws IOException {
+        Writer writer = new BufferedWriter(scarto, ScrittoreCSV.DIMENSIONE_BUFFER);
+        for (int i = 0; i < righe; i++) {
+            writer.write(id[i] + SEPARATORE + nomi[i] + SEPARATORE + tipi[i] + SEPARATORE + quantita[i]
+                    + SEPARATORE + date[i] + SEPARATORE + descrizioni[i]);
+            writer.write(System.lineSeparator());
+        }
+        writer.flush();
+        return writer;
+    }
+
+    /**
+     * Scrittura precedente dello storico: un campo alla volta, convertito in stringa.
+     *
+     * @return il writer, per evitare l'eliminazione del codice
+     * @throws IOException mai, la destinazione scarta i caratteri
+     */
+    @Benchmark
+    public Writer campoPerCampo() throws IOException {
+        Writer writer = new BufferedWriter(scarto, ScrittoreCSV.DIMENSIONE_BUFFER);
+        DateTimeFormatter dateFormatter = DateTimeFormatter.ofPattern("yyyy-MM-dd");
+        for (int i = 0; i < righe; i++) {
+            writer.write(Integer.toString(id[i]));
+            writer.write(SEPARATORE);
+            writer.write(nomi[i]);
+            writer.write(SEPARATORE);
+            writer.write(tipi[i]);
+            writer.write(SEPARATORE);
+            writer.write(Integer.toString(quantita[i]));
+            writer.write(SEPARATORE);
+            dateFormatter.formatTo(date[i], writer);
+            writer.write(SEPARATORE);
+            writer.write(descrizioni[i].replace(SEPARATORE, ""));
+            writer.write(System.lineSeparator());
+        }
+        writer.flush();
+        return writer;
+    }
+
+    /**
+     * Scrittura con {@link ScrittoreCSV}.
+     *
+     * @return lo scrittore, per evitare l'eliminazione del codice
+     * @throws IOException mai, la destinazione scarta i caratteri
+     */
+    @Benchmark
+    public ScrittoreCSV scrittoreCSV() throws IOException {
+        ScrittoreCSV csv = new ScrittoreCSV(scarto, ';');
+        for (int i = 0; i < righe; i++) {
+            csv.campo(id[i]).campo(nomi[i]).campo(tipi[i]).campo(quantita[i]).campo(date[i])
+                    .campo(descrizioni[i]).nuovaRiga();
+        }
+        csv.flush();
+        return csv;
+    }
+}
@@ -46,6 +46,16 @@ INSERT INTO movimenti (idProdotto, tipo, quantita, data, descrizione) VALUES
 (9, 'CARICO', 20, '2025-11-01', 'Fornitura Centrale'),
 (9, 'SCARICO', 20, '2025-11-03', 'Scadenza breve - smaltito tutto');
 
+-- 2b. RIEPILOGO GIORNALIERO DEI MOVIMENTI
+-- (i movimenti inseriti direttamente non passano dall'applicazione: il riepilogo va ricostruito dallo storico;
+-- stessa operazione del menu Statistiche > Ricalcola riepilogo giornaliero)
+DELETE FROM movimenti_giornalieri;
+INSERT INTO movimenti_giornalieri (idProdotto, giorno, carichi, scarichi)
+SELECT idProdotto, data,
+       SUM(CASE WHEN tipo = 'CARICO' THEN quantita ELSE 0 END),
+       SUM(CASE WHEN tipo = 'SCARICO' THEN quantita ELSE 0 END)
+FROM movimenti
+GROUP BY idProdotto, data;
 
 -- 3. ALLINEAMENTO FINALE TABELLA PRODOTTI
 -- (Questi UPDATE non sono DML essenziali, ma completano la logica del tuo script originale)
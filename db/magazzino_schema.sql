@@ -10,6 +10,8 @@ USE magazzino;
 SET FOREIGN_KEY_CHECKS = 0;
 
 -- PULIZIA TOTALE (OPZIONALE, utile per l'esecuzione ripetuta)
+DROP TABLE IF EXISTS operazioni_applicate;
+DROP TABLE IF EXISTS movimenti_giornalieri;
 DROP TABLE IF EXISTS movimenti;
 DROP TABLE IF EXISTS prodotti;
 
@@ -22,9 +24,12 @@ CREATE TABLE prodotti (
   `giacenzaMin` INT NULL DEFAULT NULL,
   `prezzoAcquisto` DECIMAL(5,2) NULL DEFAULT NULL,
   `prezzoVendita` DECIMAL(5,2) NULL DEFAULT NULL,
+  -- aggiornata automaticamente a ogni modifica: usata per il caricamento incrementale dei prodotti
+  `ultimaModifica` TIMESTAMP(3) NOT NULL DEFAULT CURRENT_TIMESTAMP(3) ON UPDATE CURRENT_TIMESTAMP(3),
   PRIMARY KEY (`idProdotto`),
   UNIQUE INDEX `idprodotto_UNIQUE` (`idProdotto` ASC) VISIBLE,
-  UNIQUE INDEX `nome_UNIQUE` (`nome` ASC) VISIBLE
+  UNIQUE INDEX `nome_UNIQUE` (`nome` ASC) VISIBLE,
+  INDEX `ultimaModifica` (`ultimaModifica` ASC) VISIBLE
 ) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4;
 
 -- CREAZIONE TABELLA MOVIMENTI
@@ -37,10 +42,37 @@ CREATE TABLE IF NOT EXISTS movimenti (
   `descrizione` VARCHAR(255) NULL DEFAULT NULL,
   PRIMARY KEY (`idMovimento`),
   INDEX `idProdotto` (`idProdotto` ASC) VISIBLE,
+  -- indice per la lettura paginata dello storico (ORDER BY data DESC, idMovimento DESC)
+  INDEX `data_idMovimento` (`data` ASC, `idMovimento` ASC) VISIBLE,
   CONSTRAINT `movimenti_ibfk_1`
     FOREIGN KEY (`idProdotto`)
     REFERENCES `prodotti` (`idProdotto`)
 ) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4;
 
+-- CREAZIONE TABELLA RIEPILOGO GIORNALIERO DEI MOVIMENTI
+-- totali per prodotto e giorno, aggiornati dall'applicazione nella stessa transazione di ogni movimento:
+-- le statistiche leggono questa tabella invece di aggregare l'intero storico
+CREATE TABLE IF NOT EXISTS movimenti_giornalieri (
+    `idProdotto` INT NOT NULL,
+  `giorno` DATE NOT NULL,
+  `carichi` INT NOT NULL DEFAULT 0,
+  `scarichi` INT NOT NULL DEFAULT 0,
+  PRIMARY KEY (`giorno`, `idProdotto`),
+  INDEX `idProdotto` (`idProdotto` ASC) VISIBLE,
+  CONSTRAINT `movimenti_giornalieri_ibfk_1`
+    FOREIGN KEY (`idProdotto`)
+    REFERENCES `prodotti` (`idProdotto`)
+    ON DELETE CASCADE
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4;
+
+-- CREAZIONE TABELLA OPERAZIONI APPLICATE
+-- chiavi delle operazioni registrate nel giornale locale dell'applicazione (anche offline) e poi inviate:
+-- ogni chiave è inserita nella stessa transazione dell'operazione, così un nuovo invio non la applica due volte
+CREATE TABLE IF NOT EXISTS operazioni_applicate (
+    `chiave` CHAR(36) NOT NULL,
+  `applicata` TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+  PRIMARY KEY (`chiave`)
+) ENGINE=InnoDB DEFAULT CHARSET=ascii;
+
 -- Riabilita i controlli
 SET FOREIGN_KEY_CHECKS = 1;
\ No newline at end of file
@@ -2,17 +2,39 @@ package it.unicas.project.template.address;
 
 import it.unicas.project.template.address.model.Movimenti;
 import it.unicas.project.template.address.model.Prodotti;
+import it.unicas.project.template.address.model.RiepilogoPeriodi;
+import it.unicas.project.template.address.model.dao.AsyncDAO;
 import it.unicas.project.template.address.model.dao.DAOException;
+import it.unicas.project.template.address.model.dao.GiornaleOperazioni;
+import it.unicas.project.template.address.model.dao.MovimentiDAO;
 import it.unicas.project.template.address.model.dao.mysql.DAOMySQLSettings;
-import it.unicas.project.template.address.model.dao.mysql.MovimentiDAOMySQLImpl;
-import it.unicas.project.template.address.model.dao.mysql.ProdottiDAOMySQLImpl;
+import it.unicas.project.template.address.model.dao.DAOFactory;
+import it.unicas.project.template.address.util.IndiceRicercaProdotti;
+import it.unicas.project.template.address.util.SnapshotLocale;
 import it.unicas.project.template.address.view.*;
 import java.io.File;
 import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.logging.Logger;
 import java.util.prefs.Preferences;
 import javafx.application.Application;
+import javafx.application.Platform;
 import javafx.collections.FXCollections;
+import javafx.collections.ListChangeListener;
 import javafx.collections.ObservableList;
 import javafx.event.EventHandler;
 import javafx.fxml.FXMLLoader;
@@ -36,6 +58,36 @@ import javafx.stage.WindowEvent;
  */
 public class MainApp extends Application {
 
+    /**
+     * Istante (System.nanoTime) di caricamento della classe, usato come riferimento per i tempi di avvio.
+     */
+    private static final long AVVIO = System.nanoTime();
+
+    /**
+     * Logger per la classe MainApp (tempi di avvio).
+     */
+    private static Logger logger = Logger.getLogger(MainApp.class.getName());
+
+    /**
+     * File della copia locale dei dati, salvata all'uscita e mostrata all'avvio successivo.
+     *
+     * @see SnapshotLocale
+     */
+    private static final Path FILE_SNAPSHOT = Paths.get(System.getProperty("user.home"), ".gestione-magazzino",
+            "snapshot.bin");
+
+    /**
+     * Numero massimo di movimenti, dal più recente, salvati nella copia locale.
+     */
+    private static final int MOVIMENTI_SNAPSHOT = 1000;
+
+    /**
+     * File del giornale delle operazioni non ancora inviate al database.
+     *
+     * @see GiornaleOperazioni
+     */
+    private static final Path FILE_GIORNALE = FILE_SNAPSHOT.resolveSibling("giornale.log");
+
     /**
      * Stage principale dell'applicazione.
      * @see #getPrimaryStage()
@@ -58,38 +110,876 @@ public class MainApp extends Application {
     private ObservableList<Prodotti> prodottiData = FXCollections.observableArrayList();
 
     /**
-     * Lista osservabile dei movimenti registrati.
+     * Indice idProdotto -&gt; prodotto degli elementi di {@link #prodottiData}.
+     * <br>
+     * È mantenuto allineato alla lista da un {@link ListChangeListener}, così la ricerca di un prodotto
+     * per id (es. per mostrarne il nome accanto a un movimento) costa O(1) invece di una scansione della lista.
+     *
+     * @see #getProdotto(int)
+     */
+    private final Map<Integer, Prodotti> prodottiPerId = new HashMap<>();
+
+    /**
+     * Indice delle parole di nome e descrizione degli elementi di {@link #prodottiData}, per la ricerca
+     * durante la digitazione; si aggiorna da solo quando la lista o i prodotti cambiano.
+     */
+    private final IndiceRicercaProdotti indiceRicerca = new IndiceRicercaProdotti(prodottiData);
+
+    /**
+     * Numero di movimenti letti dal database per ogni pagina dello storico.
+     *
+     * @see #caricaAltriMovimenti()
+     */
+    private static final int DIMENSIONE_PAGINA_MOVIMENTI = 200;
+
+    /**
+     * Lista osservabile dei movimenti caricati finora, dal più recente.
+     * <br>
+     * Contiene solo le pagine dello storico già richieste dalla UI.
+     *
+     * @see #caricaAltriMovimenti()
      */
     private ObservableList<Movimenti> movimentiData = FXCollections.observableArrayList();
 
+    /**
+     * Indica se l'ultima pagina dello storico movimenti è già stata caricata.
+     */
+    private boolean movimentiCompleti = false;
+
+    /**
+     * Indica se è in corso la lettura di una pagina dello storico movimenti.
+     */
+    private boolean paginaMovimentiInCorso = false;
+
+    /**
+     * Letture in corso dei prodotti e dello storico movimenti, seguite dagli indicatori di attività delle
+     * rispettive tabelle.
+     */
+    private final AsyncDAO.Attivita attivitaProdotti = new AsyncDAO.Attivita();
+    private final AsyncDAO.Attivita attivitaMovimenti = new AsyncDAO.Attivita();
+
+    /**
+     * Contatore dei caricamenti avviati da {@link #caricaDati()}: i risultati asincroni che
+     * arrivano dopo un caricamento più recente vengono scartati.
+     */
+    private int generazioneDati = 0;
+
+    /**
+     * Tempo massimo tra l'istante in cui il database assegna {@code ultimaModifica} a un prodotto, o l'id a un
+     * movimento, e il commit che li rende visibili.
+     * <br>
+     * Con più postazioni una transazione può ricevere un istante o un id minore di un'altra e terminare dopo:
+     * {@link #aggiornaDati()} rilegge quindi i prodotti modificati in questo intervallo prima dell'ultima
+     * sincronizzazione e attende per questo tempo i movimenti con id mancanti.
+     */
+    private static final Duration RITARDO_MASSIMO_COMMIT = Duration.ofMinutes(1);
+
+    /**
+     * Istante di modifica più recente tra i prodotti letti dal database (orologio del server).
+     * <br>
+     * {@link #aggiornaDati()} rilegge solo i prodotti modificati a partire da {@link #RITARDO_MASSIMO_COMMIT}
+     * prima di questo istante.
+     */
+    private LocalDateTime ultimaSincronizzazioneProdotti = null;
+
+    /**
+     * Id del movimento più recente letto dal database.
+     * <br>
+     * {@link #aggiornaDati()} rilegge solo i movimenti con id maggiore e quelli in {@link #idMovimentiMancanti}.
+     */
+    private int ultimoIdMovimento = 0;
+
+    /**
+     * Id minori di {@link #ultimoIdMovimento} non ancora letti, con l'istante ({@link System#nanoTime()}) in cui
+     * sono stati notati: possono appartenere a movimenti di un'altra postazione non ancora confermati.
+     * <br>
+     * {@link #aggiornaDati()} li rilegge finché non arrivano o non passa {@link #RITARDO_MASSIMO_COMMIT}
+     * (es. transazione annullata o movimento eliminato).
+     */
+    private final TreeMap<Integer, Long> idMovimentiMancanti = new TreeMap<>();
+
+    /**
+     * Indica se le liste contengono dati completi (letti dal database o dalla copia locale) da salvare
+     * nella copia locale all'uscita; è falso durante un {@link #caricaDati()} o dopo un suo errore.
+     */
+    private boolean datiCompleti = false;
+
+    /**
+     * Giornale in cui movimenti e modifiche dei prodotti vengono scritti prima di essere inviati al database;
+     * {@code null} se non è stato possibile aprirlo (le operazioni vengono allora inviate direttamente).
+     */
+    private GiornaleOperazioni giornale = null;
+
+    /**
+     * Movimenti registrati nel giornale e già applicati alle liste, non ancora confermati dal database,
+     * per chiave dell'operazione. Hanno idMovimento -1.
+     */
+    private final Map<String, Movimenti> movimentiInAttesa = new HashMap<>();
+
+    /**
+     * Totali dei movimenti pre-aggregati per periodo, usati dalle statistiche.
+     * <br>
+     * Sono letti alla prima richiesta e poi aggiornati da {@link #inserisciMovimento(Movimenti)} a ogni nuovo
+     * movimento; {@code null} finché non vengono richiesti o dopo un {@link #caricaDati()}.
+     *
+     * @see #getRiepilogoPeriodi()
+     */
+    private CompletableFuture<RiepilogoPeriodi> riepilogoPeriodi = null;
+
+    /**
+     * Movimenti arrivati mentre {@link #riepilogoPeriodi} è in lettura, da aggiungere al termine.
+     */
+    private final List<Movimenti> movimentiInAttesaRiepilogo = new ArrayList<>();
+
 
     /**
      * Costruttore della classe MainApp.
-     * Inizializza i dati caricandoli dal database.
+     * Collega l'indice {@link #prodottiPerId} alla lista dei prodotti; i dati vengono caricati da {@link #start(Stage)}.
      */
     public MainApp() {
-        caricaDati();
+        prodottiData.addListener(this::aggiornaIndiceProdotti);
+    }
+
+    /**
+     * Applica a {@link #prodottiPerId} le modifiche avvenute su {@link #prodottiData}.
+     * <br>
+     * Le rimozioni sono applicate prima delle aggiunte, così una sostituzione di un prodotto con
+     * lo stesso id lascia nell'indice il nuovo elemento.
+     *
+     * @param change modifica notificata dalla lista osservabile
+     */
+    private void aggiornaIndiceProdotti(ListChangeListener.Change<? extends Prodotti> change) {
+        while (change.next()) {
+            for (Prodotti p : change.getRemoved()) {
+                prodottiPerId.remove(p.getIdProdotto(), p);
+            }
+            for (Prodotti p : change.getAddedSubList()) {
+                prodottiPerId.put(p.getIdProdotto(), p);
+            }
+        }
     }
 
     /**
-     * Carica i dati dei prodotti e dei movimenti dal database.
+     * Carica da zero i dati dei prodotti e dei movimenti dal database, sostituendo le liste osservabili.
      * <br>
-     * Pre-condizione: la connessione al DB deve essere disponibile; eventuali errori sono catturati e stampati su stderr.
+     * Da usare all'avvio o quando cambia la sorgente dati; dopo le modifiche dell'utente è preferibile
+     * {@link #aggiornaDati()}, che applica solo le differenze.
      * <br>
-     * Post-condizione: le liste osservabili {@link #prodottiData}, {@link #prodottiCritici} e {@link #movimentiData}
-     * sono popolate con i dati prelevati dal database.
+     * Le tre letture (prodotti, prodotti critici, prima pagina dei movimenti) partono insieme e sono eseguite
+     * in parallelo fuori dal thread JavaFX tramite {@link AsyncDAO}. I risultati vengono applicati sul thread
+     * JavaFX in due passi: prima i prodotti e i prodotti critici, appena disponibili, poi la pagina dei movimenti,
+     * che non viene mai applicata prima dei prodotti perché la tabella dei movimenti ne mostra i nomi
+     * tramite {@link #getProdotto(int)}.
+     * <br>
+     * Pre-condizione: va invocato dal thread JavaFX; eventuali errori sono catturati e stampati su stderr
+     * (in tal caso le liste interessate vengono svuotate).
+     * <br>
+     * Post-condizione: al completamento del future restituito le liste osservabili {@link #prodottiData} e
+     * {@link #prodottiCritici} sono popolate con i dati prelevati dal database; {@link #movimentiData}
+     * contiene solo la prima pagina dello storico.
+     *
+     * @return un future completato sul thread JavaFX dopo l'aggiornamento di tutte le liste
      */
-    public void caricaDati(){
-        prodottiData.clear();
-        prodottiCritici.clear();
-        movimentiData.clear();
+    public CompletableFuture<Void> caricaDati(){
+        int generazione = ++generazioneDati;
+        paginaMovimentiInCorso = true;
+        datiCompleti = false;
+        invalidaRiepilogoPeriodi();
+
+        CompletableFuture<List<Prodotti>> prodotti = AsyncDAO.submit(attivitaProdotti, () -> DAOFactory.getCurrentDAOFactory().getProdottiDAO().select(null, false));
+        CompletableFuture<List<Prodotti>> critici = AsyncDAO.submit(attivitaProdotti, () -> DAOFactory.getCurrentDAOFactory().getProdottiDAO().select(null, true));
+        CompletableFuture<List<Movimenti>> movimenti = AsyncDAO.submit(attivitaMovimenti, () ->
+                DAOFactory.getCurrentDAOFactory().getMovimentiDAO().selectPage(null, DIMENSIONE_PAGINA_MOVIMENTI));
+
+        CompletableFuture<Void> prodottiCaricati = AsyncDAO.suFX(CompletableFuture.allOf(prodotti, critici), nessuno -> {
+            if (generazione != generazioneDati) {
+                return;
+            }
+            prodottiData.setAll(prodotti.join());
+            prodottiCritici.setAll(critici.join());
+            applicaGiacenzeInAttesa();
+
+            ultimaSincronizzazioneProdotti = null;
+            for (Prodotti p : prodottiData) {
+                aggiornaSincronizzazione(p);
+            }
+            registraTempo("Prodotti caricati (" + prodottiData.size() + ")");
+        }, errore -> {
+            if (generazione != generazioneDati) {
+                return;
+            }
+            prodottiData.clear();
+            prodottiCritici.clear();
+            System.err.println("Errore caricamento prodotti dal DB: " + errore.getMessage());
+        });
+
+        return AsyncDAO.suFX(prodottiCaricati.thenCombine(movimenti, (nessuno, pagina) -> pagina), pagina -> {
+            if (generazione != generazioneDati) {
+                return;
+            }
+            movimentiData.setAll(pagina);
+            movimentiCompleti = pagina.size() < DIMENSIONE_PAGINA_MOVIMENTI;
+            paginaMovimentiInCorso = false;
+
+            ultimoIdMovimento = 0;
+            for (Movimenti m : pagina) {
+                ultimoIdMovimento = Math.max(ultimoIdMovimento, m.getIdMovimento());
+            }
+            segnaMovimentiMancanti(pagina);
+            movimentiInAttesa.values().forEach(this::inserisciMovimento);
+            datiCompleti = true;
+            registraTempo("Movimenti caricati (" + pagina.size() + ")");
+        }, errore -> {
+            if (generazione != generazioneDati) {
+                return;
+            }
+            movimentiData.clear();
+            movimentiCompleti = false;
+            paginaMovimentiInCorso = false;
+            System.err.println("Errore caricamento movimenti dal DB: " + errore.getMessage());
+        });
+    }
+
+    /**
+     * Carica i dati all'avvio: se esiste una copia locale per la sorgente dati attuale la mostra subito e poi
+     * la riallinea al database con {@link #aggiornaDati()}, altrimenti esegue {@link #caricaDati()}.
+     * <br>
+     * La copia viene letta con un'unica lettura sul thread JavaFX: costa pochi millisecondi anche con migliaia
+     * di prodotti, contro i round-trip al database del caricamento completo. Una copia danneggiata viene
+     * ignorata.
+     * <br>
+     * Pre-condizione: va invocato dal thread JavaFX.
+     *
+     * @return un future completato sul thread JavaFX al termine della lettura dal database
+     */
+    public CompletableFuture<Void> caricaDatiAvvio() {
+        SnapshotLocale snapshot = null;
         try {
-            prodottiData.addAll(ProdottiDAOMySQLImpl.getInstance().select(null, false));
-            prodottiCritici.addAll(ProdottiDAOMySQLImpl.getInstance().select(null, true));
-            movimentiData.addAll(MovimentiDAOMySQLImpl.getInstance().select(null, false));
-        } catch (DAOException e) {
-            System.err.println("Errore caricamento dati dal DB: " + e.getMessage());
+            snapshot = SnapshotLocale.carica(FILE_SNAPSHOT, sorgenteDati());
+        } catch (IOException e) {
+            System.err.println("Copia locale dei dati ignorata: " + e.getMessage());
+        }
+        if (snapshot == null) {
+            return caricaDati();
         }
+
+        generazioneDati++;
+        invalidaRiepilogoPeriodi();
+        prodottiData.setAll(snapshot.getProdotti());
+        prodottiCritici.setAll(snapshot.getProdotti().stream().filter(Prodotti::vincoloQuantita).toList());
+        movimentiData.setAll(snapshot.getMovimenti());
+        movimentiCompleti = snapshot.isMovimentiCompleti();
+        paginaMovimentiInCorso = false;
+        ultimaSincronizzazioneProdotti = snapshot.getUltimaSincronizzazioneProdotti();
+        ultimoIdMovimento = snapshot.getUltimoIdMovimento();
+        segnaMovimentiMancanti(snapshot.getMovimenti());
+        applicaGiacenzeInAttesa();
+        movimentiInAttesa.values().forEach(this::inserisciMovimento);
+        datiCompleti = true;
+        registraTempo("Copia locale caricata (" + prodottiData.size() + " prodotti, " + movimentiData.size()
+                + " movimenti)");
+
+        return aggiornaDati();
+    }
+
+    /**
+     * Salva nella copia locale tutti i prodotti, i primi {@link #MOVIMENTI_SNAPSHOT} movimenti e il punto di
+     * sincronizzazione, se i dati sono completi e la sorgente dati è remota. Gli errori vengono stampati su stderr.
+     * <br>
+     * La copia contiene i dati come sono nel database: le giacenze senza i movimenti ancora nel giornale
+     * e senza questi movimenti, che vengono applicati di nuovo dopo il caricamento.
+     * <br>
+     * Pre-condizione: va invocato dal thread JavaFX.
+     */
+    private void salvaSnapshot() {
+        if (!datiCompleti || !DAOFactory.getCurrentDAOFactory().isRemoto()) {
+            return;
+        }
+        List<Prodotti> prodotti = new ArrayList<>(prodottiData.size());
+        for (Prodotti p : prodottiData) {
+            int variazione = variazioneInAttesa(p.getIdProdotto());
+            if (variazione != 0) {
+                Prodotti copia = new Prodotti(p.getIdProdotto(), p.getNome(), p.getDescrizione(),
+                        p.getQuantita() - variazione, p.getGiacenzaMin(), p.getPrezzoAcquisto(), p.getPrezzoVendita());
+                copia.setUltimaModifica(p.getUltimaModifica());
+                p = copia;
+            }
+            prodotti.add(p);
+        }
+        List<Movimenti> recenti = new ArrayList<>(Math.min(movimentiData.size(), MOVIMENTI_SNAPSHOT));
+        for (Movimenti m : movimentiData) {
+            if (recenti.size() == MOVIMENTI_SNAPSHOT) {
+                break;
+            }
+            if (m.getIdMovimento() > 0) {
+                recenti.add(m);
+            }
+        }
+        SnapshotLocale snapshot = new SnapshotLocale(sorgenteDati(), prodotti, recenti,
+                movimentiCompleti && recenti.size() + movimentiInAttesa.size() >= movimentiData.size(),
+                ultimaSincronizzazioneProdotti, ultimoIdMovimento);
+        try {
+            snapshot.salva(FILE_SNAPSHOT);
+        } catch (IOException e) {
+            System.err.println("Errore salvataggio copia locale dei dati: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Identifica la sorgente dati attuale, così la copia locale di un altro database non viene mostrata.
+     *
+     * @return la descrizione della sorgente dati in uso
+     * @see DAOFactory#getDescrizione()
+     */
+    private static String sorgenteDati() {
+        return DAOFactory.getCurrentDAOFactory().getDescrizione();
+    }
+
+    /**
+     * Registra nel log un evento di avvio con i millisecondi trascorsi dal caricamento dell'applicazione.
+     *
+     * @param evento descrizione dell'evento
+     */
+    private static void registraTempo(String evento) {
+        registraAvvio(evento + " dopo " + (System.nanoTime() - AVVIO) / 1_000_000 + " ms dall'avvio");
+    }
+
+    /**
+     * Registra nel log un messaggio sui tempi di avvio.
+     *
+     * @param messaggio il messaggio
+     */
+    private static void registraAvvio(String messaggio) {
+        try {
+            logger.info(messaggio);
+        } catch (NullPointerException nullPointerException) {
+            System.out.println(messaggio);
+        }
+    }
+
+    /**
+     * Aggiorna in modo incrementale i dati già caricati, applicando alle liste osservabili solo le differenze.
+     * <br>
+     * Vengono letti in parallelo, fuori dal thread JavaFX:
+     * <ul>
+     *     <li>i prodotti modificati dall'ultima sincronizzazione (colonna {@code ultimaModifica}, meno
+     *     {@link #RITARDO_MASSIMO_COMMIT} per quelli confermati in ritardo), che vengono aggiornati in place se già
+     *     presenti (mantenendo selezione e posizione nelle tabelle) o aggiunti;</li>
+     *     <li>il numero di prodotti: se differisce da quelli in lista vengono letti gli id esistenti
+     *     per rimuovere i prodotti eliminati e i loro movimenti;</li>
+     *     <li>i movimenti con id maggiore dell'ultimo noto o tra gli {@link #idMovimentiMancanti}, inseriti nella
+     *     posizione dell'ordinamento; quelli già letti vengono ignorati.</li>
+     * </ul>
+     * Il costo dipende dal numero di modifiche e non dalla dimensione delle tabelle.
+     * <br>
+     * Pre-condizione: va invocato dal thread JavaFX dopo un {@link #caricaDati()}.
+     *
+     * @return un future completato sul thread JavaFX dopo l'applicazione delle differenze
+     */
+    public CompletableFuture<Void> aggiornaDati() {
+        int generazione = generazioneDati;
+        LocalDateTime da = (ultimaSincronizzazioneProdotti != null)
+                ? ultimaSincronizzazioneProdotti.minus(RITARDO_MASSIMO_COMMIT) : null;
+        long adesso = System.nanoTime();
+        idMovimentiMancanti.values().removeIf(notato -> adesso - notato > RITARDO_MASSIMO_COMMIT.toNanos());
+        int daIdMovimento = idMovimentiMancanti.isEmpty() ? ultimoIdMovimento : idMovimentiMancanti.firstKey() - 1;
+
+        CompletableFuture<List<Prodotti>> modificati = AsyncDAO.submit(() -> DAOFactory.getCurrentDAOFactory().getProdottiDAO().selectModificatiDa(da));
+        CompletableFuture<Integer> numeroProdotti = AsyncDAO.submit(() -> DAOFactory.getCurrentDAOFactory().getProdottiDAO().count());
+        CompletableFuture<List<Movimenti>> nuoviMovimenti = AsyncDAO.submit(() ->
+                DAOFactory.getCurrentDAOFactory().getMovimentiDAO().selectSuccessivi(daIdMovimento));
+
+        return AsyncDAO.suFX(CompletableFuture.allOf(modificati, numeroProdotti, nuoviMovimenti), nessuno -> {
+            if (generazione != generazioneDati) {
+                return;
+            }
+            for (Prodotti p : modificati.join()) {
+                Prodotti esistente = prodottiPerId.get(p.getIdProdotto());
+                if (esistente != null) {
+                    esistente.aggiornaDa(p);
+                } else {
+                    prodottiData.add(p);
+                    esistente = p;
+                }
+                esistente.setQuantita(esistente.getQuantita() + variazioneInAttesa(esistente.getIdProdotto()));
+                aggiornaCritico(esistente);
+                aggiornaSincronizzazione(esistente);
+            }
+            for (Movimenti m : nuoviMovimenti.join()) {
+                if (m.getIdMovimento() > ultimoIdMovimento || idMovimentiMancanti.containsKey(m.getIdMovimento())) {
+                    inserisciMovimento(m);
+                }
+            }
+            if (numeroProdotti.join() != prodottiData.size()) {
+                rimuoviProdottiEliminati(generazione);
+            }
+        }, errore -> System.err.println("Errore aggiornamento dati dal DB: " + errore.getMessage()));
+    }
+
+    /**
+     * Legge gli id dei prodotti esistenti e rimuove dalle liste osservabili i prodotti eliminati
+     * e i movimenti che li riguardano.
+     *
+     * @param generazione generazione dei dati a cui si riferisce la richiesta
+     */
+    private void rimuoviProdottiEliminati(int generazione) {
+        AsyncDAO.esegui(() -> DAOFactory.getCurrentDAOFactory().getProdottiDAO().selectIdProdotti(), ids -> {
+            if (generazione != generazioneDati) {
+                return;
+            }
+            Set<Integer> esistenti = new HashSet<>(ids);
+            if (prodottiData.removeIf(p -> !esistenti.contains(p.getIdProdotto()))) {
+                // I movimenti dei prodotti eliminati escono anche dai totali: il riepilogo va riletto.
+                invalidaRiepilogoPeriodi();
+            }
+            prodottiCritici.removeIf(p -> !esistenti.contains(p.getIdProdotto()));
+            movimentiData.removeIf(m -> !esistenti.contains(m.getIdProdotto()));
+        }, errore -> System.err.println("Errore aggiornamento dati dal DB: " + errore.getMessage()));
+    }
+
+    /**
+     * Aggiunge a {@link #movimentiData} la pagina successiva dello storico movimenti.
+     * <br>
+     * La pagina viene letta a partire dall'ultimo movimento già presente nella lista
+     * (paginazione a chiave), quindi il costo è costante indipendentemente da quante pagine sono già state caricate.
+     * <br>
+     * La lettura avviene in background con {@link AsyncDAO} e la pagina viene aggiunta sul thread JavaFX;
+     * le chiamate successive, finché la lettura è in corso, vengono ignorate.
+     * <br>
+     * Post-condizione: se la pagina letta è più corta di {@link #DIMENSIONE_PAGINA_MOVIMENTI} lo storico
+     * è considerato completo e le chiamate successive non interrogano il database.
+     */
+    public void caricaAltriMovimenti() {
+        if (movimentiCompleti || paginaMovimentiInCorso) {
+            return;
+        }
+        paginaMovimentiInCorso = true;
+        int generazione = generazioneDati;
+        Movimenti ultimo = movimentiData.isEmpty() ? null : movimentiData.get(movimentiData.size() - 1);
+
+        AsyncDAO.esegui(attivitaMovimenti, () -> DAOFactory.getCurrentDAOFactory().getMovimentiDAO().selectPage(ultimo, DIMENSIONE_PAGINA_MOVIMENTI), pagina -> {
+            if (generazione != generazioneDati) {
+                return;
+            }
+            movimentiCompleti = pagina.size() < DIMENSIONE_PAGINA_MOVIMENTI;
+            movimentiData.addAll(pagina);
+            paginaMovimentiInCorso = false;
+        }, errore -> {
+            if (generazione != generazioneDati) {
+                return;
+            }
+            paginaMovimentiInCorso = false;
+            System.err.println("Errore caricamento movimenti dal DB: " + errore.getMessage());
+        });
+    }
+
+    /**
+     * Apre il giornale delle operazioni e rende visibili le operazioni rimaste in attesa dall'esecuzione
+     * precedente; l'invio viene avviato da {@link #avviaInvioGiornale()}. Se il giornale non può essere aperto,
+     * o la sorgente dati non è remota ({@link DAOFactory#isRemoto()}), le operazioni vengono inviate direttamente.
+     */
+    private void apriGiornale() {
+        DAOFactory daoFactory = DAOFactory.getCurrentDAOFactory();
+        if (!daoFactory.isRemoto()) {
+            return;
+        }
+        try {
+            giornale = new GiornaleOperazioni(FILE_GIORNALE, GiornaleOperazioni.destinazione(
+                    daoFactory.getMovimentiDAO(), daoFactory.getProdottiDAO()));
+        } catch (IOException e) {
+            System.err.println("Giornale delle operazioni non disponibile: " + e.getMessage());
+            return;
+        }
+        for (GiornaleOperazioni.Operazione operazione : giornale.getInAttesa()) {
+            if (operazione.isMovimento()) {
+                Movimenti m = operazione.getMovimento();
+                movimentiInAttesa.put(operazione.getChiave(), new Movimenti(null, m.getIdProdotto(), m.getTipo(),
+                        m.getQuantita(), m.getData(), m.getDescrizione()));
+            }
+        }
+    }
+
+    /**
+     * Avvia l'invio in background delle operazioni del giornale; l'esito di ogni lotto viene applicato
+     * sul thread JavaFX da {@link #operazioniInviate(List, Map)}.
+     */
+    private void avviaInvioGiornale() {
+        if (giornale != null) {
+            giornale.avvia((applicate, rifiutate) -> Platform.runLater(() -> operazioniInviate(applicate, rifiutate)));
+        }
+    }
+
+    /**
+     * Registra un movimento: lo scrive nel giornale e lo applica subito a giacenza e storico, senza attendere
+     * il database, che lo riceve in background anche se al momento non è raggiungibile.
+     * <br>
+     * Uno SCARICO viene rifiutato se supera la giacenza nota; se nel frattempo il database ha una giacenza
+     * minore, il movimento verrà rifiutato all'invio e annullato.
+     * <br>
+     * Senza giornale il movimento viene registrato direttamente con
+     * {@link it.unicas.project.template.address.model.dao.MovimentiDAO#registraMovimento(Movimenti)}.
+     * <br>
+     * Pre-condizione: va invocato dal thread JavaFX.
+     *
+     * @param prodotto  il prodotto movimentato, presente in {@link #prodottiData}
+     * @param movimento il movimento da registrare
+     * @return un future completato sul thread JavaFX dopo l'aggiornamento delle liste, o con l'errore
+     */
+    public CompletableFuture<Void> registraMovimento(Prodotti prodotto, Movimenti movimento) {
+        CompletableFuture<Void> esito = new CompletableFuture<>();
+        if (giornale == null) {
+            AsyncDAO.esegui(() -> DAOFactory.getCurrentDAOFactory().getMovimentiDAO().registraMovimento(movimento), nuovaQuantita -> {
+                prodotto.setQuantita(nuovaQuantita);
+                aggiornaDopoMovimento(prodotto, movimento);
+                esito.complete(null);
+            }, esito::completeExceptionally);
+            return esito;
+        }
+
+        int variazione = variazione(movimento);
+        try {
+            if (!"CARICO".equals(movimento.getTipo()) && !"SCARICO".equals(movimento.getTipo())) {
+                throw new DAOException("Tipo di movimento non valido: " + movimento.getTipo());
+            }
+            if (movimento.getQuantita() <= 0 || movimento.getData() == null) {
+                throw new DAOException("Quantità o data del movimento non valide.");
+            }
+            if (prodotto.getQuantita() + variazione < 0) {
+                throw new DAOException("Quantità insufficiente (disponibili " + prodotto.getQuantita() + ").");
+            }
+            GiornaleOperazioni.Operazione operazione = giornale.registraMovimento(movimento);
+            movimentiInAttesa.put(operazione.getChiave(), movimento);
+        } catch (DAOException | IOException e) {
+            esito.completeExceptionally(e);
+            return esito;
+        }
+        prodotto.setQuantita(prodotto.getQuantita() + variazione);
+        aggiornaDopoMovimento(prodotto, movimento);
+        esito.complete(null);
+        return esito;
+    }
+
+    /**
+     * Registra la modifica di un prodotto già applicata all'oggetto (es. dal dialog di modifica): la scrive nel
+     * giornale, da cui viene inviata al database in background. Senza giornale il prodotto viene aggiornato
+     * direttamente e i dati vengono riallineati con {@link #aggiornaDati()}.
+     * <br>
+     * Nel giornale la modifica non contiene la quantità: se è cambiata, la differenza rispetto a
+     * {@code quantitaPrecedente} viene registrata come movimento di rettifica con
+     * {@link #registraMovimento(Prodotti, Movimenti)}, così all'invio non sovrascrive i movimenti
+     * registrati nel frattempo.
+     * <br>
+     * Pre-condizione: va invocato dal thread JavaFX.
+     *
+     * @param prodotto           il prodotto modificato, presente in {@link #prodottiData}
+     * @param quantitaPrecedente la quantità del prodotto prima della modifica
+     * @return un future completato sul thread JavaFX dopo la registrazione, o con l'errore
+     */
+    public CompletableFuture<Void> modificaProdotto(Prodotti prodotto, int quantitaPrecedente) {
+        CompletableFuture<Void> esito = new CompletableFuture<>();
+        if (giornale == null) {
+            AsyncDAO.esegui(() -> {
+                DAOFactory.getCurrentDAOFactory().getProdottiDAO().update(prodotto);
+                return null;
+            }, nessuno -> aggiornaDati().thenRun(() -> esito.complete(null)), esito::completeExceptionally);
+            return esito;
+        }
+
+        int rettifica = prodotto.getQuantita() - quantitaPrecedente;
+        prodotto.setQuantita(quantitaPrecedente);
+        try {
+            giornale.registraModifica(prodotto);
+        } catch (IOException e) {
+            esito.completeExceptionally(e);
+            return esito;
+        }
+        if (rettifica != 0) {
+            return registraMovimento(prodotto, new Movimenti(null, prodotto.getIdProdotto(),
+                    (rettifica > 0) ? "CARICO" : "SCARICO", Math.abs(rettifica), LocalDate.now(), "Rettifica giacenza"));
+        }
+        aggiornaCritico(prodotto);
+        esito.complete(null);
+        return esito;
+    }
+
+    /**
+     * Applica alle liste l'esito di un lotto del giornale: i movimenti confermati lasciano il posto a quelli
+     * letti dal database con {@link #aggiornaDati()}; quelli rifiutati vengono annullati e segnalati
+     * all'utente. Una modifica rifiutata ricarica i dati con {@link #caricaDati()}.
+     *
+     * @param applicate le operazioni registrate nel database
+     * @param rifiutate le operazioni rifiutate, con il motivo
+     */
+    private void operazioniInviate(List<GiornaleOperazioni.Operazione> applicate,
+                                   Map<GiornaleOperazioni.Operazione, String> rifiutate) {
+        for (GiornaleOperazioni.Operazione operazione : applicate) {
+            Movimenti ottimistico = movimentiInAttesa.remove(operazione.getChiave());
+            if (ottimistico != null) {
+                movimentiData.remove(ottimistico);
+            }
+        }
+
+        boolean modificaRifiutata = false;
+        StringBuilder motivi = new StringBuilder();
+        for (Map.Entry<GiornaleOperazioni.Operazione, String> rifiutata : rifiutate.entrySet()) {
+            GiornaleOperazioni.Operazione operazione = rifiutata.getKey();
+            if (operazione.isMovimento()) {
+                Movimenti m = operazione.getMovimento();
+                Movimenti ottimistico = movimentiInAttesa.remove(operazione.getChiave());
+                Prodotti prodotto = prodottiPerId.get(m.getIdProdotto());
+                if (ottimistico != null) {
+                    movimentiData.remove(ottimistico);
+                    if (prodotto != null) {
+                        prodotto.setQuantita(prodotto.getQuantita() - variazione(m));
+                        aggiornaCritico(prodotto);
+                    }
+                }
+                motivi.append(m.getTipo()).append(" di ").append(m.getQuantita()).append(" (")
+                        .append((prodotto != null) ? prodotto.getNome() : m.getIdProdotto()).append(", ")
+                        .append(m.getData()).append(")");
+            } else {
+                modificaRifiutata = true;
+                motivi.append("Modifica di ").append(operazione.getProdotto().getNome());
+            }
+            motivi.append(": ").append(rifiutata.getValue()).append('\n');
+        }
+
+        if (rifiutate.isEmpty()) {
+            aggiornaDati();
+            return;
+        }
+        System.err.println("Operazioni rifiutate dal database:\n" + motivi);
+        if (modificaRifiutata) {
+            caricaDati();
+        } else {
+            aggiornaDati();
+        }
+        Alert alert = new Alert(Alert.AlertType.WARNING);
+        alert.initOwner(primaryStage);
+        alert.setTitle("Operazioni annullate");
+        alert.setHeaderText("Il database ha rifiutato " + rifiutate.size() + " operazioni registrate in precedenza.");
+        alert.setContentText(motivi.toString());
+        alert.show();
+    }
+
+    /**
+     * @param movimento un movimento di CARICO o SCARICO
+     * @return la variazione della giacenza dovuta al movimento
+     */
+    private static int variazione(Movimenti movimento) {
+        return "CARICO".equals(movimento.getTipo()) ? movimento.getQuantita() : -movimento.getQuantita();
+    }
+
+    /**
+     * @param idProdotto l'id di un prodotto
+     * @return la variazione della giacenza dovuta ai movimenti del prodotto non ancora confermati dal database
+     */
+    private int variazioneInAttesa(int idProdotto) {
+        int variazione = 0;
+        for (Movimenti m : movimentiInAttesa.values()) {
+            if (m.getIdProdotto() == idProdotto) {
+                variazione += variazione(m);
+            }
+        }
+        return variazione;
+    }
+
+    /**
+     * Somma alle giacenze lette dal database (o dalla copia locale) i movimenti non ancora confermati.
+     */
+    private void applicaGiacenzeInAttesa() {
+        for (Movimenti m : movimentiInAttesa.values()) {
+            Prodotti prodotto = prodottiPerId.get(m.getIdProdotto());
+            if (prodotto != null) {
+                prodotto.setQuantita(prodotto.getQuantita() + variazione(m));
+                aggiornaCritico(prodotto);
+            }
+        }
+    }
+
+    /**
+     * Aggiorna le liste osservabili dopo la registrazione di un movimento, senza rileggerle dal database.
+     * <br>
+     * Il prodotto viene aggiunto o rimosso da {@link #prodottiCritici} in base alla nuova quantità; il movimento
+     * viene inserito in {@link #movimentiData} nella posizione dell'ordinamento (data e idMovimento decrescenti)
+     * se ricade nelle pagine già caricate, altrimenti verrà letto con le pagine successive.
+     * <br>
+     * Pre-condizione: la quantità di {@code prodotto} è già stata aggiornata al valore restituito dal DAO.
+     *
+     * @param prodotto  il prodotto movimentato
+     * @param movimento il movimento registrato, con idMovimento impostato
+     */
+    public void aggiornaDopoMovimento(Prodotti prodotto, Movimenti movimento) {
+        aggiornaCritico(prodotto);
+        inserisciMovimento(movimento);
+    }
+
+    /**
+     * Aggiunge, sostituisce o rimuove {@code prodotto} da {@link #prodottiCritici} in base alla sua quantità.
+     *
+     * @param prodotto il prodotto da valutare
+     */
+    private void aggiornaCritico(Prodotti prodotto) {
+        int posizione = -1;
+        for (int i = 0; i < prodottiCritici.size(); i++) {
+            if (prodottiCritici.get(i).getIdProdotto().equals(prodotto.getIdProdotto())) {
+                posizione = i;
+                break;
+            }
+        }
+        if (prodotto.vincoloQuantita()) {
+            if (posizione >= 0) {
+                prodottiCritici.set(posizione, prodotto);
+            } else {
+                prodottiCritici.add(prodotto);
+            }
+        } else if (posizione >= 0) {
+            prodottiCritici.remove(posizione);
+        }
+    }
+
+    /**
+     * Inserisce {@code movimento} in {@link #movimentiData} nella posizione dell'ordinamento
+     * (data e idMovimento decrescenti), se ricade nelle pagine già caricate e non è già presente.
+     * I movimenti non ancora confermati dal database (idMovimento -1) sono confrontati per identità.
+     *
+     * @param movimento il movimento da inserire
+     */
+    private void inserisciMovimento(Movimenti movimento) {
+        registraIdMovimento(movimento.getIdMovimento());
+        aggiungiARiepilogoPeriodi(movimento);
+        for (int i = 0; i < movimentiData.size(); i++) {
+            Movimenti m = movimentiData.get(i);
+            if (m == movimento || (movimento.getIdMovimento() > 0 && m.getIdMovimento() == movimento.getIdMovimento())) {
+                return;
+            }
+            int confronto = movimento.getData().compareTo(m.getData());
+            if (confronto > 0 || (confronto == 0 && movimento.getIdMovimento() > m.getIdMovimento())) {
+                movimentiData.add(i, movimento);
+                return;
+            }
+        }
+        if (movimentiCompleti) {
+            movimentiData.add(movimento);
+        }
+    }
+
+    /**
+     * Aggiorna {@link #ultimoIdMovimento} e {@link #idMovimentiMancanti} con l'id di un movimento letto o registrato.
+     * <br>
+     * Gli id saltati (al più gli ultimi {@link MovimentiDAO#FINESTRA_ID_RECENTI}) diventano mancanti; un id
+     * mancante viene rimosso.
+     *
+     * @param idMovimento l'id del movimento; -1 per un movimento non ancora confermato
+     */
+    private void registraIdMovimento(int idMovimento) {
+        if (idMovimento <= ultimoIdMovimento) {
+            idMovimentiMancanti.remove(idMovimento);
+            return;
+        }
+        long adesso = System.nanoTime();
+        for (int id = Math.max(ultimoIdMovimento + 1, idMovimento - MovimentiDAO.FINESTRA_ID_RECENTI); id < idMovimento; id++) {
+            idMovimentiMancanti.put(id, adesso);
+        }
+        ultimoIdMovimento = idMovimento;
+    }
+
+    /**
+     * Dopo un caricamento completo (dal database o dalla copia locale), segna come mancanti gli id degli ultimi
+     * {@link MovimentiDAO#FINESTRA_ID_RECENTI} movimenti fino a {@link #ultimoIdMovimento} che non compaiono tra
+     * quelli letti. Possono essere movimenti più vecchi delle pagine lette o movimenti non ancora confermati:
+     * {@link #aggiornaDati()} li rilegge e {@link #inserisciMovimento(Movimenti)} aggiunge solo quelli che
+     * ricadono nelle pagine caricate.
+     *
+     * @param letti i movimenti letti
+     */
+    private void segnaMovimentiMancanti(List<Movimenti> letti) {
+        idMovimentiMancanti.clear();
+        Set<Integer> presenti = new HashSet<>();
+        for (Movimenti m : letti) {
+            presenti.add(m.getIdMovimento());
+        }
+        long adesso = System.nanoTime();
+        for (int id = Math.max(1, ultimoIdMovimento - MovimentiDAO.FINESTRA_ID_RECENTI); id < ultimoIdMovimento; id++) {
+            if (!presenti.contains(id)) {
+                idMovimentiMancanti.put(id, adesso);
+            }
+        }
+    }
+
+    /**
+     * Restituisce i totali dei movimenti pre-aggregati per giorno, settimana, mese, trimestre e anno.
+     * <br>
+     * Alla prima richiesta il riepilogo viene letto in background dal database (una riga per giorno con movimenti);
+     * in seguito viene mantenuto aggiornato in memoria con i nuovi movimenti registrati o letti da
+     * {@link #aggiornaDati()}, quindi le richieste successive non accedono al database.
+     * <br>
+     * Pre-condizione: va invocato dal thread JavaFX.
+     *
+     * @return un future completato sul thread JavaFX con il riepilogo
+     */
+    public CompletableFuture<RiepilogoPeriodi> getRiepilogoPeriodi() {
+        if (riepilogoPeriodi == null || riepilogoPeriodi.isCompletedExceptionally()) {
+            CompletableFuture<RiepilogoPeriodi> lettura = new CompletableFuture<>();
+            riepilogoPeriodi = lettura;
+            AsyncDAO.esegui(() -> DAOFactory.getCurrentDAOFactory().getMovimentiDAO().selectRiepilogoPeriodi(), riepilogo -> {
+                if (riepilogoPeriodi == lettura) {
+                    for (Movimenti m : movimentiInAttesaRiepilogo) {
+                        riepilogo.aggiungi(m);
+                    }
+                    movimentiInAttesaRiepilogo.clear();
+                }
+                lettura.complete(riepilogo);
+            }, lettura::completeExceptionally);
+        }
+        return riepilogoPeriodi;
+    }
+
+    /**
+     * Aggiunge un nuovo movimento a {@link #riepilogoPeriodi}, oppure lo mette in attesa se il riepilogo
+     * è ancora in lettura.
+     *
+     * @param movimento il movimento, con idMovimento impostato
+     */
+    private void aggiungiARiepilogoPeriodi(Movimenti movimento) {
+        if (riepilogoPeriodi == null) {
+            return;
+        }
+        if (!riepilogoPeriodi.isDone()) {
+            movimentiInAttesaRiepilogo.add(movimento);
+        } else if (!riepilogoPeriodi.isCompletedExceptionally()) {
+            riepilogoPeriodi.join().aggiungi(movimento);
+        }
+    }
+
+    /**
+     * Scarta {@link #riepilogoPeriodi}: verrà riletto alla prossima richiesta.
+     * Le finestre già aperte continuano a mostrare il riepilogo precedente.
+     */
+    private void invalidaRiepilogoPeriodi() {
+        riepilogoPeriodi = null;
+        movimentiInAttesaRiepilogo.clear();
+    }
+
+    /**
+     * Aggiorna {@link #ultimaSincronizzazioneProdotti} con l'istante di modifica di {@code prodotto}, se più recente.
+     *
+     * @param prodotto un prodotto letto dal database
+     */
+    private void aggiornaSincronizzazione(Prodotti prodotto) {
+        LocalDateTime modifica = prodotto.getUltimaModifica();
+        if (modifica != null && (ultimaSincronizzazioneProdotti == null || modifica.isAfter(ultimaSincronizzazioneProdotti))) {
+            ultimaSincronizzazioneProdotti = modifica;
+        }
+    }
+
+    /**
+     * Indica se tutte le pagine dello storico movimenti sono state caricate in {@link #movimentiData}.
+     *
+     * @return true se lo storico è completo
+     */
+    public boolean isMovimentiCompleti() {
+        return movimentiCompleti;
     }
 
     /**
@@ -101,6 +991,34 @@ public class MainApp extends Application {
         return prodottiData;
     }
 
+    /**
+     * Restituisce il prodotto di {@link #prodottiData} con l'id indicato, in tempo costante.
+     *
+     * @param idProdotto l'id del prodotto cercato
+     * @return il prodotto, o {@code null} se non è presente nella lista dei prodotti
+     */
+    public Prodotti getProdotto(int idProdotto) {
+        return prodottiPerId.get(idProdotto);
+    }
+
+    /**
+     * Restituisce una vista in sola lettura dell'indice idProdotto -&gt; prodotto, sempre allineata a {@link #prodottiData}.
+     *
+     * @return la mappa non modificabile dei prodotti per id
+     */
+    public Map<Integer, Prodotti> getProdottiPerId() {
+        return Collections.unmodifiableMap(prodottiPerId);
+    }
+
+    /**
+     * Restituisce l'indice di ricerca sulle parole di nome e descrizione dei prodotti.
+     *
+     * @return l'indice, sempre allineato a {@link #prodottiData}
+     */
+    public IndiceRicercaProdotti getIndiceRicerca() {
+        return indiceRicerca;
+    }
+
     /**
      * Restituisce la lista osservabile dei prodotti critici.
      *
@@ -111,7 +1029,7 @@ public class MainApp extends Application {
     }
 
     /**
-     * Restituisce la lista osservabile dei movimenti.
+     * Restituisce la lista osservabile dei movimenti caricati finora (pagine già lette dello storico).
      *
      * @return la {@link ObservableList} di {@link Movimenti}
      */
@@ -119,9 +1037,34 @@ public class MainApp extends Application {
         return movimentiData;
     }
 
+    /**
+     * Restituisce le letture in corso dei prodotti avviate da {@link #caricaDati()}.
+     *
+     * @return l'attività da cui l'indicatore della tabella prodotti legge se è occupata
+     */
+    public AsyncDAO.Attivita getAttivitaProdotti() {
+        return attivitaProdotti;
+    }
+
+    /**
+     * Restituisce le letture in corso dello storico movimenti avviate da {@link #caricaDati()} e
+     * {@link #caricaAltriMovimenti()}.
+     *
+     * @return l'attività da cui l'indicatore della tabella movimenti legge se è occupata
+     */
+    public AsyncDAO.Attivita getAttivitaMovimenti() {
+        return attivitaMovimenti;
+    }
+
     /**
      * Entry point JavaFX: imposta lo stage primario, mostra il dialogo di autenticazione
      * e, se l'accesso va a buon fine, inizializza e mostra l'interfaccia principale.
+     * <br>
+     * Il caricamento dei dati ({@link #caricaDatiAvvio()}) parte prima del dialogo di autenticazione e prosegue
+     * in background mentre l'utente inserisce la password: la finestra principale viene mostrata subito dopo
+     * l'accesso, senza attendere il database, con i dati della copia locale se presente; le tabelle si
+     * aggiornano quando arrivano i dati dal database.
+     * Il tempo al primo frame della finestra principale viene registrato nel log ({@link #registraAvvio(String)}).
      *
      * @param primaryStage lo stage principale fornito dal runtime JavaFX
      */
@@ -132,18 +1075,48 @@ public class MainApp extends Application {
 
         primaryStage.getIcons().add(new Image("file:resources/images/logo.png"));
 
+        apriGiornale();
+        caricaDatiAvvio();
+        avviaInvioGiornale();
+
+        long inizioAutenticazione = System.nanoTime();
         boolean autenticazione = showAutenticazioneDialog();
+        long attesaAutenticazione = System.nanoTime() - inizioAutenticazione;
 
         if (autenticazione) {
             initRootLayout();
             showProdottiOverview();
             primaryStage.setMaximized(true);
+            registraPrimoFrame(attesaAutenticazione);
             primaryStage.show();
         } else {
             System.exit(0);
         }
     }
 
+    /**
+     * Registra nel log il tempo al primo frame della finestra principale, al netto dell'attesa
+     * dell'utente sul dialogo di autenticazione.
+     *
+     * @param attesaAutenticazione nanosecondi trascorsi con il dialogo di autenticazione aperto
+     */
+    private void registraPrimoFrame(long attesaAutenticazione) {
+        Scene scene = primaryStage.getScene();
+        if (scene == null) {
+            return;
+        }
+        Runnable primoFrame = new Runnable() {
+            @Override
+            public void run() {
+                scene.removePostLayoutPulseListener(this);
+                long totale = System.nanoTime() - AVVIO;
+                registraAvvio("Primo frame dopo " + (totale - attesaAutenticazione) / 1_000_000
+                        + " ms dall'avvio (escluso il login, " + totale / 1_000_000 + " ms totali)");
+            }
+        };
+        scene.addPostLayoutPulseListener(primoFrame);
+    }
+
     /**
      * Mostra la finestra di dialogo di login e attende l'autenticazione.
      *
@@ -207,7 +1180,7 @@ public class MainApp extends Application {
 
     /**
      * Mostra un dialog di conferma per l'uscita dall'applicazione e, se confermato,
-     * termina il processo.
+     * salva la copia locale dei dati e termina il processo.
      * <br>
      * Post-condizione: l'applicazione termina se l'utente conferma l'uscita.
      */
@@ -215,7 +1188,10 @@ public class MainApp extends Application {
         Alert alert = new Alert(Alert.AlertType.CONFIRMATION);
         alert.setTitle("Conferma Uscita");
         alert.setHeaderText("Vuoi davvero uscire dall'applicazione?");
-        alert.setContentText("I dati sono già stati salvati automaticamente nel database.");
+        int inAttesa = (giornale != null) ? giornale.getInAttesa().size() : 0;
+        alert.setContentText((inAttesa == 0) ? "I dati sono già stati salvati automaticamente nel database."
+                : inAttesa + " operazioni non sono ancora state inviate al database: sono salvate in locale "
+                + "e verranno inviate al prossimo avvio.");
 
         Stage stage = (Stage) alert.getDialogPane().getScene().getWindow();
 
@@ -230,6 +1206,10 @@ public class MainApp extends Application {
 
         result.ifPresent(button -> {
             if (button == exitButton) {
+                salvaSnapshot();
+                chiudiGiornale();
+                AsyncDAO.shutdown();
+                DAOFactory.getCurrentDAOFactory().chiudi();
                 System.exit(0);
             }
         });
@@ -237,6 +1217,20 @@ public class MainApp extends Application {
 
 
 
+    /**
+     * Ferma l'invio e chiude il giornale; le operazioni non inviate restano nel file.
+     */
+    private void chiudiGiornale() {
+        if (giornale == null) {
+            return;
+        }
+        try {
+            giornale.close();
+        } catch (IOException e) {
+            System.err.println("Errore chiusura giornale delle operazioni: " + e.getMessage());
+        }
+    }
+
     /**
      * Mostra la vista principale dei prodotti all'interno del root layout.
      */
@@ -347,6 +1341,7 @@ public class MainApp extends Application {
 
             ScaricoDialogController controller = loader.getController();
             controller.setDialogStage(dialogStage);
+            controller.setIndiceRicerca(indiceRicerca);
             controller.setProdotto(prodotto);
             controller.setMovimento(movimento);
 
@@ -379,7 +1374,7 @@ public class MainApp extends Application {
             dialogStage.setMaximized(true);
 
             MovimentiStatisticsController controller = loader.getController();
-            controller.setMovimentiData(movimentiData, null);
+            controller.setMovimentiData(getRiepilogoPeriodi(), null);
 
             dialogStage.show();
         } catch (IOException e) {
@@ -388,7 +1383,7 @@ public class MainApp extends Application {
     }
 
     /**
-     * Mostra le statistiche relative ai prodotti.
+     * Mostra le statistiche relative ai prodotti: i prodotti più movimentati e il totale degli altri.
      */
     public void showProdottiStatistics() {
         try {
@@ -404,7 +1399,7 @@ public class MainApp extends Application {
             dialogStage.setMaximized(true);
 
             MovimentiStatisticsController controller = loader.getController();
-            controller.setProdottiData(prodottiData, movimentiData);
+            controller.setProdottiData(getProdottiPerId());
 
             dialogStage.show();
         } catch (IOException e) {
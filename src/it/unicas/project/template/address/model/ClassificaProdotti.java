@@ -0,0 +1,149 @@
+package it.unicas.project.template.address.model;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+
+/**
+ * Classifica dei prodotti più movimentati: i primi N prodotti per quantità movimentata
+ * (carichi + scarichi) e i totali aggregati di tutti gli altri.
+ * <br>
+ * La selezione usa un heap di dimensione N con il prodotto meno movimentato in testa:
+ * ogni riga viene confrontata solo con la testa, quindi il costo è O(P log N) e la memoria O(N)
+ * invece di ordinare tutte le P righe.
+ *
+ * @author Cristian Corsini, Simone Feola, Daniela Spitaleri
+ * @since 19/11/2025
+ */
+public class ClassificaProdotti {
+
+    /**
+     * Ordine crescente di quantità movimentata; a parità, il prodotto con id maggiore viene prima
+     * (così tra prodotti con lo stesso totale restano in classifica quelli con id minore).
+     */
+    private static final Comparator<StatisticaProdotto> ORDINE = Comparator
+            .comparingLong(ClassificaProdotti::totale)
+            .thenComparing(Comparator.comparingInt(StatisticaProdotto::getIdProdotto).reversed());
+
+    /**
+     * Primi N prodotti, dal più movimentato.
+     */
+    private final List<StatisticaProdotto> primi;
+
+    /**
+     * Numero di prodotti esclusi dai primi N.
+     */
+    private final int numeroAltri;
+
+    /**
+     * Totali di carichi e scarichi dei prodotti esclusi dai primi N.
+     */
+    private final long altriCarichi;
+    private final long altriScarichi;
+
+    /**
+     * Costruisce la classifica con valori già calcolati.
+     *
+     * @param primi         i primi prodotti, dal più movimentato
+     * @param numeroAltri   numero di prodotti esclusi
+     * @param altriCarichi  totale caricato dai prodotti esclusi
+     * @param altriScarichi totale scaricato dai prodotti esclusi
+     */
+    private ClassificaProdotti(List<StatisticaProdotto> primi, int numeroAltri, long altriCarichi, long altriScarichi) {
+        this.primi = primi;
+        this.numeroAltri = numeroAltri;
+        this.altriCarichi = altriCarichi;
+        this.altriScarichi = altriScarichi;
+    }
+
+    /**
+     * Calcola la classifica in un solo passaggio sulle righe aggregate per prodotto.
+     * <br>
+     * Pre-condizione: {@code n} deve essere positivo; ogni prodotto compare al più una volta in {@code statistiche}.
+     *
+     * @param statistiche i totali per prodotto
+     * @param n           numero di prodotti da mettere in classifica
+     * @return la classifica
+     * @throws IllegalArgumentException se {@code n} non è positivo
+     */
+    public static ClassificaProdotti calcola(Iterable<StatisticaProdotto> statistiche, int n) {
+        if (n <= 0) {
+            throw new IllegalArgumentException("Il numero di prodotti in classifica deve essere positivo: " + n);
+        }
+        PriorityQueue<StatisticaProdotto> heap = new PriorityQueue<>(n + 1, ORDINE);
+        int numeroAltri = 0;
+        long altriCarichi = 0;
+        long altriScarichi = 0;
+
+        for (StatisticaProdotto s : statistiche) {
+            StatisticaProdotto escluso = s;
+            if (heap.size() < n) {
+                heap.add(s);
+                escluso = null;
+            } else if (ORDINE.compare(s, heap.peek()) > 0) {
+                escluso = heap.poll();
+                heap.add(s);
+            }
+            if (escluso != null) {
+                numeroAltri++;
+                altriCarichi += escluso.getCarichi();
+                altriScarichi += escluso.getScarichi();
+            }
+        }
+
+        List<StatisticaProdotto> primi = new ArrayList<>(heap);
+        primi.sort(ORDINE.reversed());
+        return new ClassificaProdotti(Collections.unmodifiableList(primi), numeroAltri, altriCarichi, altriScarichi);
+    }
+
+    /**
+     * Quantità totale movimentata da un prodotto.
+     *
+     * @param s i totali del prodotto
+     * @return carichi + scarichi
+     */
+    private static long totale(StatisticaProdotto s) {
+        return (long) s.getCarichi() + s.getScarichi();
+    }
+
+    /**
+     * @return i primi prodotti in classifica, dal più movimentato (lista non modificabile)
+     */
+    public List<StatisticaProdotto> getPrimi() {
+        return primi;
+    }
+
+    /**
+     * @return il numero di prodotti movimentati esclusi dai primi N
+     */
+    public int getNumeroAltri() {
+        return numeroAltri;
+    }
+
+    /**
+     * @return la quantità totale caricata dai prodotti esclusi dai primi N
+     */
+    public long getAltriCarichi() {
+        return altriCarichi;
+    }
+
+    /**
+     * @return la quantità totale scaricata dai prodotti esclusi dai primi N
+     */
+    public long getAltriScarichi() {
+        return altriScarichi;
+    }
+
+    /**
+     * Restituisce una rappresentazione testuale della classifica, utile per logging e debug.
+     *
+     * @return stringa con i primi prodotti e i totali degli altri
+     */
+    @Override
+    public String toString() {
+        return "ClassificaProdotti{primi=" + primi + ", numeroAltri=" + numeroAltri
+                + ", altriCarichi=" + altriCarichi + ", altriScarichi=" + altriScarichi + "}";
+    }
+}
@@ -0,0 +1,197 @@
+package it.unicas.project.template.address.model;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.time.temporal.IsoFields;
+import java.time.temporal.TemporalAdjusters;
+import java.util.Locale;
+
+/**
+ * Ampiezza dei periodi in cui sono raggruppate le statistiche dei movimenti.
+ * <br>
+ * Ogni periodo è identificato dal suo primo giorno ({@link #inizio(LocalDate)}); le settimane iniziano
+ * il lunedì. I periodi formano una gerarchia usata per il drill-down:
+ * anno &gt; trimestre &gt; mese &gt; giorno e settimana &gt; giorno.
+ *
+ * @author Cristian Corsini, Simone Feola, Daniela Spitaleri
+ * @since 19/11/2025
+ * @see RiepilogoPeriodi
+ */
+public enum Periodo {
+
+    GIORNO("Giorno"),
+    SETTIMANA("Settimana"),
+    MESE("Mese"),
+    TRIMESTRE("Trimestre"),
+    ANNO("Anno");
+
+    private static final DateTimeFormatter GIORNO_SETTIMANA = DateTimeFormatter.ofPattern("EEE d", Locale.ITALIAN);
+    private static final DateTimeFormatter DATA = DateTimeFormatter.ofPattern("dd/MM/yyyy", Locale.ITALIAN);
+    private static final DateTimeFormatter DATA_ESTESA = DateTimeFormatter.ofPattern("EEEE d MMMM yyyy", Locale.ITALIAN);
+    private static final DateTimeFormatter NOME_MESE = DateTimeFormatter.ofPattern("MMMM", Locale.ITALIAN);
+    private static final DateTimeFormatter MESE_ANNO = DateTimeFormatter.ofPattern("MMMM yyyy", Locale.ITALIAN);
+
+    /**
+     * Nome mostrato nell'interfaccia.
+     */
+    private final String nome;
+
+    Periodo(String nome) {
+        this.nome = nome;
+    }
+
+    /**
+     * Restituisce il primo giorno del periodo che contiene {@code giorno}.
+     *
+     * @param giorno un giorno qualsiasi
+     * @return il primo giorno del periodo
+     */
+    public LocalDate inizio(LocalDate giorno) {
+        switch (this) {
+            case GIORNO:
+                return giorno;
+            case SETTIMANA:
+                return giorno.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
+            case MESE:
+                return giorno.withDayOfMonth(1);
+            case TRIMESTRE:
+                return giorno.withDayOfMonth(1).withMonth(giorno.getMonth().firstMonthOfQuarter().getValue());
+            default:
+                return giorno.withDayOfYear(1);
+        }
+    }
+
+    /**
+     * Restituisce il primo giorno del periodo successivo.
+     *
+     * @param inizio il primo giorno di un periodo
+     * @return il primo giorno del periodo seguente
+     */
+    public LocalDate successivo(LocalDate inizio) {
+        switch (this) {
+            case GIORNO:
+                return inizio.plusDays(1);
+            case SETTIMANA:
+                return inizio.plusWeeks(1);
+            case MESE:
+                return inizio.plusMonths(1);
+            case TRIMESTRE:
+                return inizio.plusMonths(3);
+            default:
+                return inizio.plusYears(1);
+        }
+    }
+
+    /**
+     * Restituisce il primo giorno del periodo precedente.
+     *
+     * @param inizio il primo giorno di un periodo
+     * @return il primo giorno del periodo che precede
+     */
+    public LocalDate precedente(LocalDate inizio) {
+        switch (this) {
+            case GIORNO:
+                return inizio.minusDays(1);
+            case SETTIMANA:
+                return inizio.minusWeeks(1);
+            case MESE:
+                return inizio.minusMonths(1);
+            case TRIMESTRE:
+                return inizio.minusMonths(3);
+            default:
+                return inizio.minusYears(1);
+        }
+    }
+
+    /**
+     * Periodo in cui viene suddiviso questo periodo nel drill-down.
+     *
+     * @return il periodo di dettaglio, oppure {@code null} per {@link #GIORNO}
+     */
+    public Periodo dettaglio() {
+        switch (this) {
+            case SETTIMANA:
+            case MESE:
+                return GIORNO;
+            case TRIMESTRE:
+                return MESE;
+            case ANNO:
+                return TRIMESTRE;
+            default:
+                return null;
+        }
+    }
+
+    /**
+     * Periodo che contiene questo periodo, per risalire dal drill-down.
+     * <br>
+     * Una settimana a cavallo di due mesi risale al mese del suo lunedì.
+     *
+     * @return il periodo superiore, oppure {@code null} per {@link #ANNO}
+     */
+    public Periodo superiore() {
+        switch (this) {
+            case GIORNO:
+            case SETTIMANA:
+                return MESE;
+            case MESE:
+                return TRIMESTRE;
+            case TRIMESTRE:
+                return ANNO;
+            default:
+                return null;
+        }
+    }
+
+    /**
+     * Etichetta breve del periodo, distinta tra i periodi dello stesso livello all'interno
+     * del periodo superiore (es. "lun 17", "novembre", "T4", "2025").
+     *
+     * @param inizio il primo giorno del periodo
+     * @return l'etichetta, adatta all'asse di un grafico
+     */
+    public String etichetta(LocalDate inizio) {
+        switch (this) {
+            case GIORNO:
+                return inizio.format(GIORNO_SETTIMANA);
+            case SETTIMANA:
+                return "Sett. " + inizio.get(IsoFields.WEEK_OF_WEEK_BASED_YEAR);
+            case MESE:
+                return inizio.format(NOME_MESE);
+            case TRIMESTRE:
+                return "T" + inizio.get(IsoFields.QUARTER_OF_YEAR);
+            default:
+                return String.valueOf(inizio.getYear());
+        }
+    }
+
+    /**
+     * Descrizione completa del periodo (es. "novembre 2025", "T4 2025", "settimana dal 17/11/2025 al 23/11/2025").
+     *
+     * @param inizio il primo giorno del periodo
+     * @return la descrizione, adatta a un titolo
+     */
+    public String descrizione(LocalDate inizio) {
+        switch (this) {
+            case GIORNO:
+                return inizio.format(DATA_ESTESA);
+            case SETTIMANA:
+                return "settimana dal " + inizio.format(DATA) + " al " + inizio.plusDays(6).format(DATA);
+            case MESE:
+                return inizio.format(MESE_ANNO);
+            case TRIMESTRE:
+                return etichetta(inizio) + " " + inizio.getYear();
+            default:
+                return etichetta(inizio);
+        }
+    }
+
+    /**
+     * @return il nome del periodo mostrato nell'interfaccia
+     */
+    @Override
+    public String toString() {
+        return nome;
+    }
+}
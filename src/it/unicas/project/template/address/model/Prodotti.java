@@ -1,6 +1,7 @@
 package it.unicas.project.template.address.model;
 
 import javafx.beans.property.*;
+import java.time.LocalDateTime;
 
 /**
  * Rappresenta un prodotto gestito dall'applicazione, esponendo le sue proprietà
@@ -70,6 +71,17 @@ public class Prodotti {
      */
     private DoubleProperty prezzoVendita;
 
+    /**
+     * Istante dell'ultima modifica del prodotto nella sorgente dati ({@code null} se non noto).
+     * <br>
+     * Usato per l'aggiornamento incrementale dei dati: vengono riletti solo i prodotti modificati
+     * dopo l'ultima sincronizzazione.
+     *
+     * @see #getUltimaModifica()
+     * @see #setUltimaModifica(LocalDateTime)
+     */
+    private ObjectProperty<LocalDateTime> ultimaModifica = new SimpleObjectProperty<>(null);
+
     /**
      * Costruttore di default che inizializza il prodotto con valori di fallback.
      *
@@ -310,6 +322,53 @@ public class Prodotti {
         return prezzoVendita;
     }
 
+    /**
+     * Restituisce l'istante dell'ultima modifica del prodotto nella sorgente dati.
+     *
+     * @return l'istante dell'ultima modifica, o {@code null} se non noto
+     */
+    public LocalDateTime getUltimaModifica() {
+        return ultimaModifica.get();
+    }
+
+    /**
+     * Imposta l'istante dell'ultima modifica del prodotto.
+     *
+     * @param ultimaModifica istante dell'ultima modifica (può essere {@code null})
+     */
+    public void setUltimaModifica(LocalDateTime ultimaModifica) {
+        this.ultimaModifica.set(ultimaModifica);
+    }
+
+    /**
+     * Fornisce la property JavaFX per l'istante dell'ultima modifica.
+     *
+     * @return la property ObjectProperty che rappresenta l'ultima modifica
+     */
+    public ObjectProperty<LocalDateTime> ultimaModificaProperty() {
+        return ultimaModifica;
+    }
+
+    /**
+     * Copia in questo prodotto tutti i valori di {@code altro}, escluso l'id.
+     * <br>
+     * Permette di aggiornare in place un prodotto già visualizzato (mantenendo selezione e binding
+     * della UI) con i valori riletti dalla sorgente dati.
+     *
+     * @param altro prodotto da cui copiare i valori
+     *
+     * Post-condizione: tutte le property tranne {@code idProdotto} hanno i valori di {@code altro}.
+     */
+    public void aggiornaDa(Prodotti altro) {
+        setNome(altro.getNome());
+        setDescrizione(altro.getDescrizione());
+        setQuantita(altro.getQuantita());
+        setGiacenzaMin(altro.getGiacenzaMin());
+        setPrezzoAcquisto(altro.getPrezzoAcquisto());
+        setPrezzoVendita(altro.getPrezzoVendita());
+        setUltimaModifica(altro.getUltimaModifica());
+    }
+
     /**
      * Verifica se il prodotto ha raggiunto o è al di sotto della giacenza minima.
      *
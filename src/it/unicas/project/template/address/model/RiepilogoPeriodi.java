@@ -0,0 +1,185 @@
+package it.unicas.project.template.address.model;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import javafx.beans.property.ReadOnlyIntegerProperty;
+import javafx.beans.property.ReadOnlyIntegerWrapper;
+
+/**
+ * Totali di carichi e scarichi pre-aggregati per giorno, settimana, mese, trimestre e anno.
+ * <br>
+ * Viene costruito una sola volta dai totali giornalieri (una riga per giorno con movimenti) e poi
+ * aggiornato in modo incrementale a ogni nuovo movimento: ciascun movimento somma la sua quantità al
+ * contenitore del proprio giorno e a quelli della settimana, del mese, del trimestre e dell'anno che lo contengono.
+ * Le interrogazioni leggono solo i contenitori del livello richiesto, quindi cambiare intervallo o fare
+ * drill-down non rilegge né lo storico né il database.
+ * <br>
+ * La classe non è thread-safe: dopo la costruzione va usata dal thread JavaFX, come le liste osservabili
+ * a cui è collegata.
+ *
+ * @author Cristian Corsini, Simone Feola, Daniela Spitaleri
+ * @since 19/11/2025
+ * @see Periodo
+ */
+public class RiepilogoPeriodi {
+
+    /**
+     * Per ogni livello, primo giorno del periodo -&gt; {carichi, scarichi}.
+     */
+    private final Map<Periodo, TreeMap<LocalDate, long[]>> livelli = new EnumMap<>(Periodo.class);
+
+    /**
+     * Id fino al quale tutti i movimenti sono già compresi nei totali giornalieri iniziali.
+     */
+    private final int sogliaIdIniziale;
+
+    /**
+     * Id dei movimenti successivi a {@link #sogliaIdIniziale} già sommati, nei totali iniziali o con
+     * {@link #aggiungi(Movimenti)}, per non contarli due volte.
+     */
+    private final Set<Integer> idAggiunti = new HashSet<>();
+
+    /**
+     * Incrementata a ogni modifica dei totali, per permettere alle viste di ridisegnarsi.
+     */
+    private final ReadOnlyIntegerWrapper versione = new ReadOnlyIntegerWrapper(0);
+
+    /**
+     * Costruisce il riepilogo dai totali giornalieri.
+     *
+     * @param giorni           totali per giorno (ogni giorno al più una volta)
+     * @param sogliaIdIniziale i movimenti con id minore o uguale sono tutti compresi in {@code giorni}
+     *                         e vengono ignorati da {@link #aggiungi(Movimenti)}
+     * @param idSuccessivi     id dei movimenti maggiori di {@code sogliaIdIniziale} compresi in {@code giorni};
+     *                         un movimento oltre la soglia che non vi compare (es. confermato dopo la lettura dei
+     *                         totali) viene invece sommato
+     */
+    public RiepilogoPeriodi(Iterable<StatisticaGiornaliera> giorni, int sogliaIdIniziale,
+                            Collection<Integer> idSuccessivi) {
+        this.sogliaIdIniziale = sogliaIdIniziale;
+        idAggiunti.addAll(idSuccessivi);
+        for (Periodo periodo : Periodo.values()) {
+            livelli.put(periodo, new TreeMap<>());
+        }
+        for (StatisticaGiornaliera g : giorni) {
+            somma(g.getGiorno(), g.getCarichi(), g.getScarichi());
+        }
+    }
+
+    /**
+     * Somma un nuovo movimento ai totali di tutti i periodi che lo contengono.
+     * <br>
+     * Un movimento già compreso nei totali (per id) viene ignorato, quindi il metodo può essere invocato
+     * più volte per lo stesso movimento.
+     *
+     * @param movimento il movimento registrato, con idMovimento impostato
+     * @return true se i totali sono cambiati
+     */
+    public boolean aggiungi(Movimenti movimento) {
+        if (movimento.getIdMovimento() <= sogliaIdIniziale || !idAggiunti.add(movimento.getIdMovimento())) {
+            return false;
+        }
+        boolean carico = "CARICO".equals(movimento.getTipo());
+        somma(movimento.getData(), carico ? movimento.getQuantita() : 0, carico ? 0 : movimento.getQuantita());
+        versione.set(versione.get() + 1);
+        return true;
+    }
+
+    /**
+     * Somma le quantità al contenitore di ciascun livello che contiene {@code giorno}.
+     *
+     * @param giorno   giorno delle quantità
+     * @param carichi  quantità caricata
+     * @param scarichi quantità scaricata
+     */
+    private void somma(LocalDate giorno, long carichi, long scarichi) {
+        for (Map.Entry<Periodo, TreeMap<LocalDate, long[]>> livello : livelli.entrySet()) {
+            long[] totali = livello.getValue().computeIfAbsent(livello.getKey().inizio(giorno), k -> new long[2]);
+            totali[0] += carichi;
+            totali[1] += scarichi;
+        }
+    }
+
+    /**
+     * Restituisce i totali di ogni periodo di ampiezza {@code periodo} tra quello che contiene {@code da}
+     * e quello che precede {@code a}, compresi i periodi senza movimenti.
+     *
+     * @param periodo ampiezza dei periodi
+     * @param da      primo giorno dell'intervallo (incluso)
+     * @param a       ultimo giorno dell'intervallo (escluso)
+     * @return i totali in ordine cronologico, uno per periodo
+     */
+    public List<StatisticaPeriodo> serie(Periodo periodo, LocalDate da, LocalDate a) {
+        TreeMap<LocalDate, long[]> livello = livelli.get(periodo);
+        List<StatisticaPeriodo> risultato = new ArrayList<>();
+        for (LocalDate inizio = periodo.inizio(da); inizio.isBefore(a); inizio = periodo.successivo(inizio)) {
+            long[] totali = livello.get(inizio);
+            risultato.add((totali != null)
+                    ? new StatisticaPeriodo(periodo, inizio, totali[0], totali[1])
+                    : new StatisticaPeriodo(periodo, inizio, 0, 0));
+        }
+        return risultato;
+    }
+
+    /**
+     * Restituisce il dettaglio del periodo di ampiezza {@code periodo} che contiene {@code giorno}:
+     * i totali dei periodi di ampiezza {@link Periodo#dettaglio()} in cui si suddivide
+     * (per {@link Periodo#GIORNO}, il giorno stesso).
+     *
+     * @param periodo ampiezza del periodo
+     * @param giorno  un giorno del periodo
+     * @return i totali in ordine cronologico
+     */
+    public List<StatisticaPeriodo> dettaglio(Periodo periodo, LocalDate giorno) {
+        LocalDate inizio = periodo.inizio(giorno);
+        Periodo dettaglio = (periodo.dettaglio() != null) ? periodo.dettaglio() : periodo;
+        return serie(dettaglio, inizio, periodo.successivo(inizio));
+    }
+
+    /**
+     * Restituisce i totali del periodo di ampiezza {@code periodo} che contiene {@code giorno}.
+     *
+     * @param periodo ampiezza del periodo
+     * @param giorno  un giorno del periodo
+     * @return i totali del periodo (zero se non ci sono movimenti)
+     */
+    public StatisticaPeriodo totale(Periodo periodo, LocalDate giorno) {
+        LocalDate inizio = periodo.inizio(giorno);
+        long[] totali = livelli.get(periodo).get(inizio);
+        return (totali != null)
+                ? new StatisticaPeriodo(periodo, inizio, totali[0], totali[1])
+                : new StatisticaPeriodo(periodo, inizio, 0, 0);
+    }
+
+    /**
+     * @return il primo giorno con movimenti, oppure {@code null} se non ce ne sono
+     */
+    public LocalDate getPrimoGiorno() {
+        TreeMap<LocalDate, long[]> giorni = livelli.get(Periodo.GIORNO);
+        return giorni.isEmpty() ? null : giorni.firstKey();
+    }
+
+    /**
+     * @return l'ultimo giorno con movimenti, oppure {@code null} se non ce ne sono
+     */
+    public LocalDate getUltimoGiorno() {
+        TreeMap<LocalDate, long[]> giorni = livelli.get(Periodo.GIORNO);
+        return giorni.isEmpty() ? null : giorni.lastKey();
+    }
+
+    /**
+     * Proprietà incrementata a ogni modifica dei totali.
+     *
+     * @return la proprietà in sola lettura
+     */
+    public ReadOnlyIntegerProperty versioneProperty() {
+        return versione.getReadOnlyProperty();
+    }
+}
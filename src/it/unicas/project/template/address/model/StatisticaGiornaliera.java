@@ -0,0 +1,74 @@
+package it.unicas.project.template.address.model;
+
+import java.time.LocalDate;
+
+/**
+ * Riga aggregata delle statistiche dei movimenti per un singolo giorno.
+ * <br>
+ * Contiene le quantità totali caricate e scaricate nel giorno, calcolate dalla sorgente dati
+ * senza leggere i singoli movimenti.
+ *
+ * @author Cristian Corsini, Simone Feola, Daniela Spitaleri
+ * @since 19/11/2025
+ */
+public class StatisticaGiornaliera {
+
+    /**
+     * Giorno a cui si riferiscono i totali.
+     */
+    private final LocalDate giorno;
+
+    /**
+     * Quantità totale dei movimenti di CARICO del giorno.
+     */
+    private final int carichi;
+
+    /**
+     * Quantità totale dei movimenti di SCARICO del giorno.
+     */
+    private final int scarichi;
+
+    /**
+     * Costruisce la riga aggregata.
+     *
+     * @param giorno   giorno di riferimento
+     * @param carichi  quantità totale caricata
+     * @param scarichi quantità totale scaricata
+     */
+    public StatisticaGiornaliera(LocalDate giorno, int carichi, int scarichi) {
+        this.giorno = giorno;
+        this.carichi = carichi;
+        this.scarichi = scarichi;
+    }
+
+    /**
+     * @return il giorno di riferimento
+     */
+    public LocalDate getGiorno() {
+        return giorno;
+    }
+
+    /**
+     * @return la quantità totale caricata nel giorno
+     */
+    public int getCarichi() {
+        return carichi;
+    }
+
+    /**
+     * @return la quantità totale scaricata nel giorno
+     */
+    public int getScarichi() {
+        return scarichi;
+    }
+
+    /**
+     * Restituisce una rappresentazione testuale della riga, utile per logging e debug.
+     *
+     * @return stringa con giorno e totali
+     */
+    @Override
+    public String toString() {
+        return "StatisticaGiornaliera{giorno=" + giorno + ", carichi=" + carichi + ", scarichi=" + scarichi + "}";
+    }
+}
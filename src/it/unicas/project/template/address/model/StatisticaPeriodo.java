@@ -0,0 +1,87 @@
+package it.unicas.project.template.address.model;
+
+import java.time.LocalDate;
+
+/**
+ * Totali di carichi e scarichi di un periodo (giorno, settimana, mese, trimestre o anno).
+ *
+ * @author Cristian Corsini, Simone Feola, Daniela Spitaleri
+ * @since 19/11/2025
+ * @see RiepilogoPeriodi
+ */
+public class StatisticaPeriodo {
+
+    /**
+     * Ampiezza del periodo.
+     */
+    private final Periodo periodo;
+
+    /**
+     * Primo giorno del periodo.
+     */
+    private final LocalDate inizio;
+
+    /**
+     * Quantità totale dei movimenti di CARICO del periodo.
+     */
+    private final long carichi;
+
+    /**
+     * Quantità totale dei movimenti di SCARICO del periodo.
+     */
+    private final long scarichi;
+
+    /**
+     * Costruisce la riga aggregata.
+     *
+     * @param periodo  ampiezza del periodo
+     * @param inizio   primo giorno del periodo
+     * @param carichi  quantità totale caricata
+     * @param scarichi quantità totale scaricata
+     */
+    public StatisticaPeriodo(Periodo periodo, LocalDate inizio, long carichi, long scarichi) {
+        this.periodo = periodo;
+        this.inizio = inizio;
+        this.carichi = carichi;
+        this.scarichi = scarichi;
+    }
+
+    /**
+     * @return l'ampiezza del periodo
+     */
+    public Periodo getPeriodo() {
+        return periodo;
+    }
+
+    /**
+     * @return il primo giorno del periodo
+     */
+    public LocalDate getInizio() {
+        return inizio;
+    }
+
+    /**
+     * @return la quantità totale caricata nel periodo
+     */
+    public long getCarichi() {
+        return carichi;
+    }
+
+    /**
+     * @return la quantità totale scaricata nel periodo
+     */
+    public long getScarichi() {
+        return scarichi;
+    }
+
+    /**
+     * Restituisce una rappresentazione testuale della riga, utile per logging e debug.
+     *
+     * @return stringa con periodo e totali
+     */
+    @Override
+    public String toString() {
+        return "StatisticaPeriodo{periodo=" + periodo + ", inizio=" + inizio + ", carichi=" + carichi
+                + ", scarichi=" + scarichi + "}";
+    }
+}
@@ -0,0 +1,72 @@
+package it.unicas.project.template.address.model;
+
+/**
+ * Riga aggregata delle statistiche dei movimenti per un singolo prodotto.
+ * <br>
+ * Contiene le quantità totali caricate e scaricate per il prodotto su tutto lo storico,
+ * calcolate dalla sorgente dati senza leggere i singoli movimenti.
+ *
+ * @author Cristian Corsini, Simone Feola, Daniela Spitaleri
+ * @since 19/11/2025
+ */
+public class StatisticaProdotto {
+
+    /**
+     * Identificatore del prodotto a cui si riferiscono i totali.
+     */
+    private final int idProdotto;
+
+    /**
+     * Quantità totale dei movimenti di CARICO del prodotto.
+     */
+    private final int carichi;
+
+    /**
+     * Quantità totale dei movimenti di SCARICO del prodotto.
+     */
+    private final int scarichi;
+
+    /**
+     * Costruisce la riga aggregata.
+     *
+     * @param idProdotto identificatore del prodotto
+     * @param carichi    quantità totale caricata
+     * @param scarichi   quantità totale scaricata
+     */
+    public StatisticaProdotto(int idProdotto, int carichi, int scarichi) {
+        this.idProdotto = idProdotto;
+        this.carichi = carichi;
+        this.scarichi = scarichi;
+    }
+
+    /**
+     * @return l'identificatore del prodotto
+     */
+    public int getIdProdotto() {
+        return idProdotto;
+    }
+
+    /**
+     * @return la quantità totale caricata per il prodotto
+     */
+    public int getCarichi() {
+        return carichi;
+    }
+
+    /**
+     * @return la quantità totale scaricata per il prodotto
+     */
+    public int getScarichi() {
+        return scarichi;
+    }
+
+    /**
+     * Restituisce una rappresentazione testuale della riga, utile per logging e debug.
+     *
+     * @return stringa con prodotto e totali
+     */
+    @Override
+    public String toString() {
+        return "StatisticaProdotto{idProdotto=" + idProdotto + ", carichi=" + carichi + ", scarichi=" + scarichi + "}";
+    }
+}
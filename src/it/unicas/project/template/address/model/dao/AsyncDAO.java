@@ -0,0 +1,285 @@
+package it.unicas.project.template.address.model.dao;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import javafx.application.Platform;
+import javafx.beans.property.ReadOnlyBooleanProperty;
+import javafx.beans.property.ReadOnlyBooleanWrapper;
+import javafx.concurrent.Task;
+
+/**
+ * Facciata per eseguire le operazioni DAO fuori dal JavaFX Application Thread.
+ * <br>
+ * Le operazioni vengono eseguite su un executor dedicato (thread virtuali se la JVM li supporta,
+ * altrimenti un pool fisso di thread daemon) e restituiscono un {@link CompletableFuture};
+ * con {@link #esegui(Operazione, Consumer, Consumer)} il risultato o l'errore vengono riportati
+ * sul thread JavaFX tramite {@link Platform#runLater(Runnable)}, così le callback possono aggiornare la UI.
+ * <br>
+ * {@link #occupatoProperty()} indica se ci sono operazioni in corso; per l'indicatore di attività di una vista
+ * si usa invece un'{@link Attivita} propria, passata alle operazioni che la riguardano, così le altre operazioni
+ * in background (statistiche, sincronizzazione, altre tabelle) non la accendono.
+ *
+ * @author Cristian Corsini, Simone Feola, Daniela Spitaleri
+ * @since 19/11/2025
+ */
+public class AsyncDAO {
+
+    /**
+     * Numero di thread del pool usato quando i thread virtuali non sono disponibili.
+     */
+    public final static int THREADS = 4;
+
+    /**
+     * Operazione sulla sorgente dati eseguita in background.
+     *
+     * @param <T> tipo del risultato
+     */
+    @FunctionalInterface
+    public interface Operazione<T> {
+
+        /**
+         * Esegue l'operazione.
+         *
+         * @return il risultato dell'operazione (può essere {@code null})
+         * @throws DAOException se l'operazione fallisce
+         */
+        T esegui() throws DAOException;
+    }
+
+    /**
+     * Gruppo di operazioni seguito da un indicatore di attività, ad esempio i caricamenti di una tabella.
+     * <br>
+     * Conta le operazioni del gruppo avviate e non ancora concluse; va osservato solo dal thread JavaFX.
+     */
+    public static final class Attivita {
+
+        /**
+         * Numero di operazioni avviate e non ancora concluse; aggiornato solo sul thread JavaFX.
+         */
+        private int inCorso = 0;
+
+        /**
+         * Vale {@code true} finché c'è almeno un'operazione del gruppo in corso.
+         */
+        private final ReadOnlyBooleanWrapper occupato = new ReadOnlyBooleanWrapper(false);
+
+        /**
+         * Proprietà che vale {@code true} finché ci sono operazioni del gruppo in corso.
+         *
+         * @return la proprietà in sola lettura
+         */
+        public ReadOnlyBooleanProperty occupatoProperty() {
+            return occupato.getReadOnlyProperty();
+        }
+
+        /**
+         * Aggiorna il contatore sul thread JavaFX.
+         *
+         * @param delta +1 all'avvio di un'operazione, -1 alla sua conclusione
+         */
+        private void aggiorna(int delta) {
+            Runnable aggiorna = () -> {
+                inCorso += delta;
+                occupato.set(inCorso > 0);
+            };
+            if (Platform.isFxApplicationThread()) {
+                aggiorna.run();
+            } else {
+                Platform.runLater(aggiorna);
+            }
+        }
+    }
+
+    /**
+     * Logger per la classe AsyncDAO.
+     */
+    private static Logger logger = Logger.getLogger(AsyncDAO.class.getName());
+
+    /**
+     * Executor su cui vengono eseguite le operazioni.
+     */
+    private static final ExecutorService executor = creaExecutor();
+
+    /**
+     * Tutte le operazioni avviate con {@link #submit(Operazione)}.
+     */
+    private static final Attivita tutte = new Attivita();
+
+    /**
+     * Costruttore privato: la classe espone solo metodi statici.
+     */
+    private AsyncDAO() {}
+
+    /**
+     * Crea l'executor: usa {@code Executors.newVirtualThreadPerTaskExecutor()} se disponibile,
+     * altrimenti un pool fisso di {@link #THREADS} thread daemon.
+     *
+     * @return l'executor delle operazioni DAO
+     */
+    private static ExecutorService creaExecutor() {
+        try {
+            Method virtuali = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+            return (ExecutorService) virtuali.invoke(null);
+        } catch (ReflectiveOperationException | UnsupportedOperationException e) {
+            AtomicInteger contatore = new AtomicInteger();
+            return Executors.newFixedThreadPool(THREADS, r -> {
+                Thread t = new Thread(r, "dao-" + contatore.incrementAndGet());
+                t.setDaemon(true);
+                return t;
+            });
+        }
+    }
+
+    /**
+     * Avvia l'operazione in background.
+     * <br>
+     * Se l'operazione lancia una {@link DAOException}, il future viene completato eccezionalmente
+     * con una {@link CompletionException} che la contiene come causa.
+     *
+     * @param operazione l'operazione da eseguire
+     * @param <T>        tipo del risultato
+     * @return il future del risultato, completato su un thread dell'executor
+     */
+    public static <T> CompletableFuture<T> submit(Operazione<T> operazione) {
+        tutte.aggiorna(+1);
+        CompletableFuture<T> future = CompletableFuture.supplyAsync(() -> {
+            try {
+                return operazione.esegui();
+            } catch (DAOException e) {
+                throw new CompletionException(e);
+            }
+        }, executor);
+        future.whenComplete((risultato, errore) -> tutte.aggiorna(-1));
+        return future;
+    }
+
+    /**
+     * Avvia l'operazione in background come {@link #submit(Operazione)}, conteggiandola anche in {@code attivita}
+     * finché non è conclusa.
+     *
+     * @param attivita   il gruppo di cui fa parte l'operazione
+     * @param operazione l'operazione da eseguire
+     * @param <T>        tipo del risultato
+     * @return il future del risultato, completato su un thread dell'executor
+     */
+    public static <T> CompletableFuture<T> submit(Attivita attivita, Operazione<T> operazione) {
+        attivita.aggiorna(+1);
+        CompletableFuture<T> future = submit(operazione);
+        future.whenComplete((risultato, errore) -> attivita.aggiorna(-1));
+        return future;
+    }
+
+    /**
+     * Avvia l'operazione in background e ne consegna l'esito sul thread JavaFX.
+     *
+     * @param operazione l'operazione da eseguire
+     * @param successo   callback invocata sul thread JavaFX con il risultato
+     * @param errore     callback invocata sul thread JavaFX con la causa dell'errore
+     * @param <T>        tipo del risultato
+     * @return un future completato dopo l'esecuzione della callback
+     */
+    public static <T> CompletableFuture<Void> esegui(Operazione<T> operazione, Consumer<? super T> successo,
+                                                     Consumer<Throwable> errore) {
+        return suFX(submit(operazione), successo, errore);
+    }
+
+    /**
+     * Avvia l'operazione in background, conteggiandola in {@code attivita}, e ne consegna l'esito sul thread JavaFX.
+     *
+     * @param attivita   il gruppo di cui fa parte l'operazione
+     * @param operazione l'operazione da eseguire
+     * @param successo   callback invocata sul thread JavaFX con il risultato
+     * @param errore     callback invocata sul thread JavaFX con la causa dell'errore
+     * @param <T>        tipo del risultato
+     * @return un future completato dopo l'esecuzione della callback
+     */
+    public static <T> CompletableFuture<Void> esegui(Attivita attivita, Operazione<T> operazione,
+                                                     Consumer<? super T> successo, Consumer<Throwable> errore) {
+        return suFX(submit(attivita, operazione), successo, errore);
+    }
+
+    /**
+     * Avvia in background un {@link Task} JavaFX sullo stesso executor delle operazioni DAO.
+     * <br>
+     * A differenza di {@link #submit(Operazione)} il task non è conteggiato in {@link #occupatoProperty()}:
+     * è pensato per operazioni lunghe (es. esportazioni) che mostrano già avanzamento e stato tramite le
+     * proprietà del task, e che possono essere eseguite in parallelo tra loro.
+     *
+     * @param task il task da eseguire
+     */
+    public static void avvia(Task<?> task) {
+        executor.execute(task);
+    }
+
+    /**
+     * Consegna sul thread JavaFX l'esito di un future già avviato.
+     * <br>
+     * Un'eccezione lanciata da una callback viene registrata nel log e completa eccezionalmente il future
+     * restituito, che di solito nessuno osserva.
+     *
+     * @param future   il future da attendere
+     * @param successo callback invocata sul thread JavaFX con il risultato
+     * @param errore   callback invocata sul thread JavaFX con la causa dell'errore
+     * @param <T>      tipo del risultato
+     * @return un future completato dopo l'esecuzione della callback
+     */
+    public static <T> CompletableFuture<Void> suFX(CompletableFuture<T> future, Consumer<? super T> successo,
+                                                   Consumer<Throwable> errore) {
+        return future.handleAsync((risultato, eccezione) -> {
+            try {
+                if (eccezione == null) {
+                    successo.accept(risultato);
+                } else {
+                    errore.accept(causa(eccezione));
+                }
+            } catch (RuntimeException e) {
+                logger.log(Level.SEVERE, "Errore nella callback di un'operazione DAO", e);
+                throw e;
+            }
+            return null;
+        }, Platform::runLater);
+    }
+
+    /**
+     * Restituisce la causa effettiva di un errore asincrono, eliminando gli involucri
+     * {@link CompletionException} ed {@link ExecutionException}.
+     *
+     * @param eccezione l'eccezione ricevuta dal future
+     * @return la causa originale
+     */
+    public static Throwable causa(Throwable eccezione) {
+        while ((eccezione instanceof CompletionException || eccezione instanceof ExecutionException)
+                && eccezione.getCause() != null) {
+            eccezione = eccezione.getCause();
+        }
+        return eccezione;
+    }
+
+    /**
+     * Proprietà che vale {@code true} finché ci sono operazioni in corso.
+     * <br>
+     * Va osservata solo dal thread JavaFX.
+     *
+     * @return la proprietà in sola lettura
+     */
+    public static ReadOnlyBooleanProperty occupatoProperty() {
+        return tutte.occupatoProperty();
+    }
+
+    /**
+     * Arresta l'executor; le operazioni già avviate vengono completate.
+     * <br>
+     * Da invocare alla chiusura dell'applicazione.
+     */
+    public static void shutdown() {
+        executor.shutdown();
+    }
+}
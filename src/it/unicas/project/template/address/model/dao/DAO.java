@@ -1,5 +1,7 @@
 package it.unicas.project.template.address.model.dao;
 
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
 
 /**
@@ -39,6 +41,23 @@ public interface DAO <T>{
      */
     void update(T a) throws DAOException;
 
+    /**
+     * Aggiorna lo stato persistente di una collezione di entità.
+     * <br>
+     * L'implementazione di default invoca {@link #update(Object)} per ogni elemento; le implementazioni
+     * concrete possono ridefinirla per inviare gli aggiornamenti in blocchi.
+     * <br>
+     * Pre-condizione: ogni elemento di {@code a} deve contenere l'identificatore del record da aggiornare.
+     *
+     * @param a le entità con i valori aggiornati
+     * @throws DAOException se si verifica un errore durante l'operazione di aggiornamento
+     */
+    default void updateAll(Collection<T> a) throws DAOException {
+        for (T elemento : a) {
+            update(elemento);
+        }
+    }
+
     /**
      * Inserisce una nuova entità nella sorgente dati
      * <br>
@@ -53,6 +72,28 @@ public interface DAO <T>{
      */
     int insert(T a) throws DAOException;
 
+    /**
+     * Inserisce una collezione di entità nella sorgente dati.
+     * <br>
+     * L'implementazione di default invoca {@link #insert(Object)} per ogni elemento; le implementazioni
+     * concrete possono ridefinirla per inviare le righe in blocchi con un numero ridotto di round trip.
+     * <br>
+     * Pre-condizione: ogni elemento di {@code a} deve avere i campi necessari per l'inserimento.
+     * <br>
+     * Post-condizione: se l'operazione ha successo, tutte le entità sono persistite nella sorgente dati.
+     *
+     * @param a le entità da inserire, nell'ordine di inserimento
+     * @return i risultati dei singoli inserimenti (es. chiavi generate), nello stesso ordine di {@code a}
+     * @throws DAOException se si verifica un errore durante l'inserimento
+     */
+    default List<Integer> insertAll(Collection<T> a) throws DAOException {
+        List<Integer> risultati = new ArrayList<>(a.size());
+        for (T elemento : a) {
+            risultati.add(insert(elemento));
+        }
+        return risultati;
+    }
+
     /**
      * Rimuove l'entità corrispondente dalla sorgente dati.
      * <br>
@@ -16,4 +16,15 @@ public class DAOException extends Exception{
     public DAOException(String message){
         super(message);
     }
+
+    /**
+     * Costruisce una nuova {@code DAOException} con un messaggio descrittivo e l'errore che l'ha causata,
+     * così che il chiamante possa distinguere ad esempio un errore di connessione da un vincolo violato.
+     *
+     * @param message descrizione dell'errore che ha causato l'eccezione
+     * @param cause   errore originale dell'infrastruttura di persistenza
+     */
+    public DAOException(String message, Throwable cause){
+        super(message, cause);
+    }
 }
\ No newline at end of file
@@ -0,0 +1,136 @@
+package it.unicas.project.template.address.model.dao;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.ServiceLoader;
+
+/**
+ * Fornitore dei DAO di una sorgente dati (service provider interface).
+ * <br>
+ * Ogni implementazione (es. MySQL, in memoria) è registrata in
+ * {@code META-INF/services/it.unicas.project.template.address.model.dao.DAOFactory} e viene individuata con
+ * {@link ServiceLoader} in base al nome restituito da {@link #getNome()}. All'avvio viene scelta quella indicata
+ * dalla variabile d'ambiente {@code DB_BACKEND} ({@value #BACKEND_DEFAULT} se non impostata); i test e i benchmark
+ * possono sostituirla con {@link #setCurrentDAOFactory(DAOFactory)}.
+ * <br>
+ * Le implementazioni devono avere un costruttore pubblico senza parametri.
+ *
+ * @author Cristian Corsini, Simone Feola, Daniela Spitaleri
+ * @since 19/11/2025
+ */
+public abstract class DAOFactory {
+
+    /**
+     * Nome della sorgente dati usata se {@code DB_BACKEND} non è impostata.
+     */
+    public static final String BACKEND_DEFAULT = "mysql";
+
+    /**
+     * Nome della sorgente dati indicato dalla variabile d'ambiente {@code DB_BACKEND}.
+     */
+    public static final String BACKEND = System.getenv("DB_BACKEND");
+
+    /**
+     * Numero di righe registrate in ogni transazione dalle importazioni, se il fornitore non ne indica uno proprio.
+     *
+     * @see #getDimensioneLotto()
+     */
+    public static final int DIMENSIONE_LOTTO = 500;
+
+    /**
+     * Fornitore in uso; creato alla prima richiesta.
+     *
+     * @see #getCurrentDAOFactory()
+     */
+    private static DAOFactory currentDAOFactory = null;
+
+    /**
+     * @return il nome con cui il fornitore viene scelto (es. "mysql")
+     */
+    public abstract String getNome();
+
+    /**
+     * @return il DAO dei prodotti
+     */
+    public abstract ProdottiDAO getProdottiDAO();
+
+    /**
+     * @return il DAO dei movimenti, sulla stessa sorgente dati di {@link #getProdottiDAO()}
+     */
+    public abstract MovimentiDAO getMovimentiDAO();
+
+    /**
+     * Descrive la sorgente dati, così da riconoscere dati locali (es. la copia letta all'avvio) che
+     * appartengono a un'altra sorgente.
+     *
+     * @return una descrizione che identifica la sorgente dati
+     */
+    public abstract String getDescrizione();
+
+    /**
+     * Indica se la sorgente dati è remota e può quindi diventare irraggiungibile o lenta da leggere: solo in
+     * questo caso le operazioni vengono prima scritte nel giornale locale e i dati salvati in una copia locale
+     * letta all'avvio.
+     *
+     * @return true per una sorgente dati remota
+     */
+    public abstract boolean isRemoto();
+
+    /**
+     * Restituisce il numero di righe da registrare in ogni transazione nelle operazioni su molte righe
+     * (es. le importazioni da CSV). L'implementazione di default restituisce {@value #DIMENSIONE_LOTTO}.
+     *
+     * @return la dimensione dei blocchi, sempre positiva
+     */
+    public int getDimensioneLotto() {
+        return DIMENSIONE_LOTTO;
+    }
+
+    /**
+     * Rilascia le risorse della sorgente dati (es. il pool di connessioni). Da invocare alla chiusura
+     * dell'applicazione; l'implementazione di default non fa nulla.
+     */
+    public void chiudi() {
+    }
+
+    /**
+     * Restituisce il fornitore in uso, creando alla prima richiesta quello indicato da {@code DB_BACKEND}.
+     *
+     * @return il fornitore in uso
+     * @throws IllegalStateException se nessun fornitore registrato ha il nome indicato
+     */
+    public static synchronized DAOFactory getCurrentDAOFactory() {
+        if (currentDAOFactory == null) {
+            String nome = (BACKEND == null || BACKEND.trim().isEmpty()) ? BACKEND_DEFAULT : BACKEND.trim();
+            currentDAOFactory = carica(nome);
+        }
+        return currentDAOFactory;
+    }
+
+    /**
+     * Sostituisce il fornitore in uso.
+     *
+     * @param daoFactory il nuovo fornitore
+     */
+    public static synchronized void setCurrentDAOFactory(DAOFactory daoFactory) {
+        currentDAOFactory = daoFactory;
+    }
+
+    /**
+     * Crea il fornitore registrato con il nome indicato.
+     *
+     * @param nome il nome del fornitore (senza distinzione tra maiuscole e minuscole)
+     * @return una nuova istanza del fornitore
+     * @throws IllegalStateException se nessun fornitore registrato ha quel nome
+     */
+    public static DAOFactory carica(String nome) {
+        List<String> disponibili = new ArrayList<>();
+        for (DAOFactory daoFactory : ServiceLoader.load(DAOFactory.class)) {
+            if (daoFactory.getNome().equalsIgnoreCase(nome)) {
+                return daoFactory;
+            }
+            disponibili.add(daoFactory.getNome());
+        }
+        throw new IllegalStateException("Sorgente dati \"" + nome + "\" non disponibile; disponibili: " + disponibili);
+    }
+}
@@ -0,0 +1,681 @@
+package it.unicas.project.template.address.model.dao;
+
+import it.unicas.project.template.address.model.Movimenti;
+import it.unicas.project.template.address.model.Prodotti;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.sql.SQLException;
+import java.sql.SQLRecoverableException;
+import java.sql.SQLTransientException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.zip.CRC32;
+
+/**
+ * Giornale locale (write-ahead log) delle operazioni dell'utente: movimenti e modifiche di prodotti.
+ * <br>
+ * Ogni operazione viene prima aggiunta in fondo al file del giornale e resa persistente con
+ * {@link FileChannel#force(boolean)}; solo dopo l'applicazione può mostrarla come già avvenuta. Un thread di invio
+ * la registra poi sulla sorgente dati, a lotti di movimenti consecutivi, e in caso di errore di connessione
+ * riprova con attesa crescente finché la connessione non torna disponibile: un'operazione registrata mentre il
+ * database non è raggiungibile non va persa, nemmeno se l'applicazione viene chiusa o termina in modo anomalo.
+ * <br>
+ * Ogni operazione ha una chiave univoca (UUID) che la sorgente dati memorizza nella stessa transazione
+ * dell'operazione ({@link MovimentiDAO#registraMovimenti(List, List)}, {@link ProdottiDAO#update(Prodotti, String)}):
+ * se l'applicazione termina dopo il commit ma prima di aver scritto la conferma nel giornale, l'operazione
+ * viene inviata di nuovo al riavvio e saltata, senza contare due volte la giacenza.
+ * <br>
+ * Formato del file: una sequenza di record {@code [lunghezza][CRC32][dati]} (interi big-endian), di tipo
+ * movimento, modifica di prodotto o conferma (chiave di un'operazione inviata). La modifica di un prodotto non
+ * contiene la quantità: la giacenza cambia solo con i movimenti, che il database applica come variazioni relative.
+ * All'apertura i record vengono riletti per ricostruire le operazioni in attesa; un record finale incompleto o
+ * con CRC errato (scrittura interrotta) viene eliminato. Quando non ci sono operazioni in attesa il file viene
+ * svuotato; se cresce oltre {@link #SOGLIA_COMPATTAZIONE} byte viene riscritto con le sole operazioni in attesa.
+ * <br>
+ * I metodi sono thread-safe.
+ *
+ * @author Cristian Corsini, Simone Feola, Daniela Spitaleri
+ * @since 19/11/2025
+ */
+public class GiornaleOperazioni implements Closeable {
+
+    /**
+     * Logger per la classe GiornaleOperazioni.
+     */
+    private static final Logger LOGGER = Logger.getLogger(GiornaleOperazioni.class.getName());
+
+    /**
+     * Numero massimo di movimenti inviati in un'unica transazione.
+     */
+    public static final int DIMENSIONE_LOTTO = 200;
+
+    /**
+     * Dimensione oltre la quale il file viene riscritto con le sole operazioni in attesa.
+     */
+    public static final long SOGLIA_COMPATTAZIONE = 4L << 20;
+
+    /**
+     * Attesa iniziale e massima, in millisecondi, prima di un nuovo tentativo dopo un errore di connessione.
+     */
+    private static final long ATTESA_MINIMA = 1000;
+    private static final long ATTESA_MASSIMA = 30_000;
+
+    /**
+     * Dimensione massima dei dati di un record: un valore maggiore indica un record danneggiato.
+     */
+    private static final int DIMENSIONE_MASSIMA_RECORD = 1 << 20;
+
+    private static final byte RECORD_MOVIMENTO = 1;
+    private static final byte RECORD_MODIFICA_PRODOTTO = 2;
+    private static final byte RECORD_CONFERMA = 3;
+
+    /**
+     * Operazione del giornale: un movimento da registrare oppure una modifica di prodotto.
+     * <br>
+     * Movimento e prodotto sono copie indipendenti da quelli mostrati dalla UI.
+     */
+    public static final class Operazione {
+
+        private final String chiave;
+        private final Movimenti movimento;
+        private final Prodotti prodotto;
+
+        private Operazione(String chiave, Movimenti movimento, Prodotti prodotto) {
+            this.chiave = chiave;
+            this.movimento = movimento;
+            this.prodotto = prodotto;
+        }
+
+        /**
+         * @return la chiave univoca dell'operazione
+         */
+        public String getChiave() {
+            return chiave;
+        }
+
+        /**
+         * @return il movimento, oppure {@code null} per una modifica di prodotto; dopo l'invio ha l'idMovimento
+         * assegnato dalla sorgente dati
+         */
+        public Movimenti getMovimento() {
+            return movimento;
+        }
+
+        /**
+         * @return il prodotto modificato, oppure {@code null} per un movimento; la quantità non fa parte della
+         * modifica e vale 0
+         */
+        public Prodotti getProdotto() {
+            return prodotto;
+        }
+
+        /**
+         * @return true se l'operazione è un movimento
+         */
+        public boolean isMovimento() {
+            return movimento != null;
+        }
+    }
+
+    /**
+     * Sorgente dati su cui vengono registrate le operazioni, in modo idempotente.
+     */
+    public interface Destinazione {
+
+        /**
+         * @see MovimentiDAO#registraMovimenti(List, List)
+         */
+        Map<Integer, String> registraMovimenti(List<Movimenti> movimenti, List<String> chiavi) throws DAOException;
+
+        /**
+         * @see ProdottiDAO#update(Prodotti, String)
+         */
+        boolean aggiornaProdotto(Prodotti prodotto, String chiave) throws DAOException;
+    }
+
+    /**
+     * Riceve l'esito di ogni lotto inviato, sul thread di invio.
+     */
+    @FunctionalInterface
+    public interface Ascoltatore {
+
+        /**
+         * Notifica le operazioni concluse, già confermate nel giornale.
+         *
+         * @param applicate le operazioni registrate sulla sorgente dati (o già registrate in precedenza)
+         * @param rifiutate le operazioni che la sorgente dati non può registrare (es. giacenza insufficiente),
+         *                  con il motivo; non verranno inviate di nuovo
+         */
+        void inviate(List<Operazione> applicate, Map<Operazione, String> rifiutate);
+    }
+
+    private final Path file;
+    private final Destinazione destinazione;
+    private FileChannel canale;
+
+    /**
+     * Operazioni non ancora confermate, nell'ordine del giornale.
+     */
+    private final LinkedHashMap<String, Operazione> inAttesa = new LinkedHashMap<>();
+
+    private Thread invio;
+    private Ascoltatore ascoltatore;
+    private boolean chiuso = false;
+
+    /**
+     * Indica che è stata aggiunta un'operazione durante l'attesa dopo un errore: il thread di invio riprova subito.
+     */
+    private boolean nuoveOperazioni = false;
+
+    /**
+     * Apre il giornale, creando il file se non esiste, e ne rilegge le operazioni in attesa.
+     *
+     * @param file         il file del giornale; la cartella viene creata se non esiste
+     * @param destinazione sorgente dati su cui inviare le operazioni
+     * @throws IOException se il file non può essere aperto o letto
+     */
+    public GiornaleOperazioni(Path file, Destinazione destinazione) throws IOException {
+        this.file = file.toAbsolutePath();
+        this.destinazione = destinazione;
+        Files.createDirectories(this.file.getParent());
+        canale = FileChannel.open(this.file, StandardOpenOption.READ, StandardOpenOption.WRITE,
+                StandardOpenOption.CREATE);
+        try {
+            recupera();
+        } catch (IOException | RuntimeException e) {
+            canale.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Crea la destinazione che invia le operazioni ai DAO indicati.
+     *
+     * @param movimenti DAO dei movimenti
+     * @param prodotti  DAO dei prodotti
+     * @return la destinazione
+     */
+    public static Destinazione destinazione(MovimentiDAO movimenti, ProdottiDAO prodotti) {
+        return new Destinazione() {
+            @Override
+            public Map<Integer, String> registraMovimenti(List<Movimenti> lotto, List<String> chiavi) throws DAOException {
+                return movimenti.registraMovimenti(lotto, chiavi);
+            }
+
+            @Override
+            public boolean aggiornaProdotto(Prodotti prodotto, String chiave) throws DAOException {
+                return prodotti.update(prodotto, chiave);
+            }
+        };
+    }
+
+    /**
+     * Aggiunge al giornale un movimento e lo rende persistente prima di restituire.
+     *
+     * @param movimento il movimento da registrare (ne viene salvata una copia)
+     * @return l'operazione, con la sua chiave
+     * @throws IOException se la scrittura fallisce: il movimento non è stato registrato
+     */
+    public synchronized Operazione registraMovimento(Movimenti movimento) throws IOException {
+        return aggiungi(new Operazione(UUID.randomUUID().toString(), new Movimenti(null, movimento.getIdProdotto(),
+                movimento.getTipo(), movimento.getQuantita(), movimento.getData(), movimento.getDescrizione()), null));
+    }
+
+    /**
+     * Aggiunge al giornale la modifica di un prodotto e la rende persistente prima di restituire.
+     * <br>
+     * La quantità non viene registrata: un valore assoluto letto dalla UI include i movimenti non ancora inviati
+     * e all'invio sovrascriverebbe quelli registrati nel frattempo da altri client. Una variazione della giacenza
+     * va registrata come movimento con {@link #registraMovimento(Movimenti)}.
+     *
+     * @param prodotto il prodotto con i nuovi valori (ne viene salvata una copia, senza la quantità)
+     * @return l'operazione, con la sua chiave
+     * @throws IOException se la scrittura fallisce: la modifica non è stata registrata
+     */
+    public synchronized Operazione registraModifica(Prodotti prodotto) throws IOException {
+        return aggiungi(new Operazione(UUID.randomUUID().toString(), null, new Prodotti(prodotto.getIdProdotto(),
+                prodotto.getNome(), prodotto.getDescrizione(), 0, prodotto.getGiacenzaMin(),
+                prodotto.getPrezzoAcquisto(), prodotto.getPrezzoVendita())));
+    }
+
+    private Operazione aggiungi(Operazione operazione) throws IOException {
+        if (chiuso) {
+            throw new IOException("Giornale chiuso: " + file);
+        }
+        scrivi(Collections.singletonList(record(operazione)));
+        inAttesa.put(operazione.chiave, operazione);
+        nuoveOperazioni = true;
+        notifyAll();
+        return operazione;
+    }
+
+    /**
+     * @return le operazioni non ancora confermate, nell'ordine in cui sono state registrate
+     */
+    public synchronized List<Operazione> getInAttesa() {
+        return new ArrayList<>(inAttesa.values());
+    }
+
+    /**
+     * Avvia il thread di invio delle operazioni in attesa.
+     *
+     * @param ascoltatore riceve l'esito di ogni lotto, sul thread di invio
+     * @throws IllegalStateException se l'invio è già stato avviato
+     */
+    public synchronized void avvia(Ascoltatore ascoltatore) {
+        if (invio != null) {
+            throw new IllegalStateException("Invio già avviato");
+        }
+        this.ascoltatore = ascoltatore;
+        invio = new Thread(this::invia, "giornale-invio");
+        invio.setDaemon(true);
+        invio.start();
+    }
+
+    /**
+     * Ferma il thread di invio e chiude il file. Le operazioni non ancora confermate restano nel giornale
+     * e vengono inviate alla prossima apertura.
+     *
+     * @throws IOException se la chiusura del file fallisce
+     */
+    @Override
+    public synchronized void close() throws IOException {
+        chiuso = true;
+        notifyAll();
+        canale.close();
+    }
+
+    /**
+     * Ciclo del thread di invio: attende operazioni in attesa, le invia a lotti e le conferma.
+     * <br>
+     * Un lotto rifiutato con un errore che non dipende dalla connessione viene inviato di nuovo un'operazione
+     * alla volta, per individuare e scartare solo quella che non può essere registrata.
+     */
+    private void invia() {
+        long attesa = ATTESA_MINIMA;
+        boolean singolo = false;
+        while (true) {
+            List<Operazione> lotto;
+            synchronized (this) {
+                try {
+                    while (!chiuso && inAttesa.isEmpty()) {
+                        wait();
+                    }
+                } catch (InterruptedException e) {
+                    return;
+                }
+                if (chiuso) {
+                    return;
+                }
+                lotto = prossimoLotto(singolo ? 1 : DIMENSIONE_LOTTO);
+                nuoveOperazioni = false;
+            }
+
+            Map<Operazione, String> rifiutate;
+            try {
+                rifiutate = invia(lotto);
+            } catch (DAOException e) {
+                if (isErroreDiConnessione(e)) {
+                    LOGGER.log(Level.INFO, lotto.size() + " operazioni del giornale non inviate, nuovo tentativo tra "
+                            + attesa + " ms: " + e.getMessage());
+                    if (!attendi(attesa)) {
+                        return;
+                    }
+                    attesa = Math.min(2 * attesa, ATTESA_MASSIMA);
+                    continue;
+                }
+                if (lotto.size() > 1) {
+                    singolo = true;
+                    continue;
+                }
+                rifiutate = Collections.singletonMap(lotto.get(0), e.getMessage());
+            }
+
+            try {
+                conferma(lotto);
+            } catch (IOException e) {
+                // Le operazioni restano in attesa e verranno inviate di nuovo, senza effetto grazie alle chiavi.
+                LOGGER.log(Level.SEVERE, "Errore di scrittura del giornale " + file + ": " + e.getMessage());
+                if (!attendi(attesa)) {
+                    return;
+                }
+                continue;
+            }
+            attesa = ATTESA_MINIMA;
+            singolo = false;
+
+            List<Operazione> applicate = new ArrayList<>(lotto.size());
+            for (Operazione operazione : lotto) {
+                if (!rifiutate.containsKey(operazione)) {
+                    applicate.add(operazione);
+                }
+            }
+            try {
+                ascoltatore.inviate(applicate, rifiutate);
+            } catch (RuntimeException e) {
+                LOGGER.log(Level.WARNING, "Errore nella notifica delle operazioni inviate", e);
+            }
+        }
+    }
+
+    /**
+     * Sceglie le prossime operazioni da inviare: i movimenti consecutivi in testa al giornale, fino a
+     * {@code massimo}, oppure la sola modifica di prodotto in testa.
+     */
+    private List<Operazione> prossimoLotto(int massimo) {
+        List<Operazione> lotto = new ArrayList<>();
+        for (Operazione operazione : inAttesa.values()) {
+            if (!lotto.isEmpty() && (!operazione.isMovimento() || lotto.size() == massimo)) {
+                break;
+            }
+            lotto.add(operazione);
+            if (!operazione.isMovimento()) {
+                break;
+            }
+        }
+        return lotto;
+    }
+
+    /**
+     * Invia un lotto alla destinazione.
+     *
+     * @return le operazioni rifiutate, con il motivo
+     */
+    private Map<Operazione, String> invia(List<Operazione> lotto) throws DAOException {
+        Operazione prima = lotto.get(0);
+        if (!prima.isMovimento()) {
+            destinazione.aggiornaProdotto(prima.prodotto, prima.chiave);
+            return Collections.emptyMap();
+        }
+
+        List<Movimenti> movimenti = new ArrayList<>(lotto.size());
+        List<String> chiavi = new ArrayList<>(lotto.size());
+        for (Operazione operazione : lotto) {
+            movimenti.add(operazione.movimento);
+            chiavi.add(operazione.chiave);
+        }
+        Map<Operazione, String> rifiutate = new LinkedHashMap<>();
+        for (Map.Entry<Integer, String> scarto : destinazione.registraMovimenti(movimenti, chiavi).entrySet()) {
+            rifiutate.put(lotto.get(scarto.getKey()), scarto.getValue());
+        }
+        return rifiutate;
+    }
+
+    /**
+     * Indica se un errore della sorgente dati dipende dalla connessione (e l'operazione va ritentata) invece che
+     * dall'operazione stessa: errori SQL transitori o recuperabili, di classe 08 (connessione) o del pool
+     * di connessioni (senza SQLState).
+     *
+     * @param e l'errore
+     * @return true se l'operazione va ritentata
+     */
+    static boolean isErroreDiConnessione(DAOException e) {
+        if (!(e.getCause() instanceof SQLException)) {
+            return false;
+        }
+        SQLException sql = (SQLException) e.getCause();
+        return sql instanceof SQLTransientException || sql instanceof SQLRecoverableException
+                || sql.getSQLState() == null || sql.getSQLState().startsWith("08");
+    }
+
+    /**
+     * Attende prima di un nuovo tentativo, fino alla registrazione di una nuova operazione o alla chiusura.
+     *
+     * @return false se il giornale è stato chiuso
+     */
+    private synchronized boolean attendi(long millisecondi) {
+        long fine = System.currentTimeMillis() + millisecondi;
+        try {
+            long mancanti;
+            while (!chiuso && !nuoveOperazioni && (mancanti = fine - System.currentTimeMillis()) > 0) {
+                wait(mancanti);
+            }
+        } catch (InterruptedException e) {
+            return false;
+        }
+        return !chiuso;
+    }
+
+    /**
+     * Scrive le conferme del lotto con un'unica sincronizzazione su disco e lo rimuove dalle operazioni in attesa;
+     * svuota o compatta il file se possibile.
+     */
+    private synchronized void conferma(List<Operazione> lotto) throws IOException {
+        if (chiuso) {
+            throw new IOException("Giornale chiuso: " + file);
+        }
+        List<ByteBuffer> conferme = new ArrayList<>(lotto.size());
+        for (Operazione operazione : lotto) {
+            conferme.add(conferma(operazione.chiave));
+        }
+        scrivi(conferme);
+        for (Operazione operazione : lotto) {
+            inAttesa.remove(operazione.chiave);
+        }
+
+        if (inAttesa.isEmpty()) {
+            canale.truncate(0);
+            canale.force(true);
+        } else if (canale.size() > SOGLIA_COMPATTAZIONE) {
+            compatta();
+        }
+    }
+
+    /**
+     * Riscrive il giornale con le sole operazioni in attesa, in un file temporaneo che sostituisce il giornale.
+     */
+    private void compatta() throws IOException {
+        Path temporaneo = Files.createTempFile(file.getParent(), file.getFileName().toString(), ".tmp");
+        try {
+            try (FileChannel nuovo = FileChannel.open(temporaneo, StandardOpenOption.WRITE)) {
+                for (Operazione operazione : inAttesa.values()) {
+                    ByteBuffer record = record(operazione);
+                    while (record.hasRemaining()) {
+                        nuovo.write(record);
+                    }
+                }
+                nuovo.force(true);
+            }
+            canale.close();
+            try {
+                Files.move(temporaneo, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(temporaneo, file, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } finally {
+            Files.deleteIfExists(temporaneo);
+            if (!canale.isOpen()) {
+                canale = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE,
+                        StandardOpenOption.CREATE);
+                canale.position(canale.size());
+            }
+        }
+    }
+
+    /**
+     * Scrive i record in fondo al file e li rende persistenti.
+     */
+    private void scrivi(List<ByteBuffer> records) throws IOException {
+        canale.position(canale.size());
+        for (ByteBuffer record : records) {
+            while (record.hasRemaining()) {
+                canale.write(record);
+            }
+        }
+        canale.force(false);
+    }
+
+    /**
+     * Rilegge il file, ricostruendo le operazioni in attesa, ed elimina l'eventuale record finale incompleto.
+     */
+    private void recupera() throws IOException {
+        long dimensione = canale.size();
+        long posizione = 0;
+        ByteBuffer intestazione = ByteBuffer.allocate(2 * Integer.BYTES);
+        while (posizione + intestazione.capacity() <= dimensione) {
+            intestazione.clear();
+            leggi(intestazione, posizione);
+            int lunghezza = intestazione.getInt(0);
+            int crc = intestazione.getInt(Integer.BYTES);
+            long fine = posizione + intestazione.capacity() + lunghezza;
+            if (lunghezza <= 0 || lunghezza > DIMENSIONE_MASSIMA_RECORD || fine > dimensione) {
+                break;
+            }
+            ByteBuffer dati = ByteBuffer.allocate(lunghezza);
+            leggi(dati, posizione + intestazione.capacity());
+            CRC32 calcolato = new CRC32();
+            calcolato.update(dati.array());
+            if ((int) calcolato.getValue() != crc) {
+                break;
+            }
+            try {
+                applica(dati);
+            } catch (BufferUnderflowException | IllegalArgumentException e) {
+                break;
+            }
+            posizione = fine;
+        }
+
+        if (posizione < dimensione) {
+            LOGGER.log(Level.WARNING, "Giornale " + file + ": eliminati " + (dimensione - posizione)
+                    + " byte finali incompleti o danneggiati");
+            canale.truncate(posizione);
+            canale.force(true);
+        }
+        if (!inAttesa.isEmpty()) {
+            LOGGER.log(Level.INFO, "Giornale " + file + ": " + inAttesa.size() + " operazioni da inviare");
+        }
+    }
+
+    private void leggi(ByteBuffer buffer, long posizione) throws IOException {
+        while (buffer.hasRemaining()) {
+            if (canale.read(buffer, posizione + buffer.position()) < 0) {
+                throw new EOFException();
+            }
+        }
+        buffer.flip();
+    }
+
+    /**
+     * Applica alle operazioni in attesa un record letto dal file.
+     */
+    private void applica(ByteBuffer in) {
+        byte tipo = in.get();
+        String chiave = leggiStringa(in);
+        switch (tipo) {
+            case RECORD_MOVIMENTO: {
+                int idProdotto = in.getInt();
+                String tipoMovimento = leggiStringa(in);
+                int quantita = in.getInt();
+                LocalDate data = LocalDate.ofEpochDay(in.getLong());
+                inAttesa.put(chiave, new Operazione(chiave, new Movimenti(null, idProdotto, tipoMovimento, quantita,
+                        data, leggiStringa(in)), null));
+                break;
+            }
+            case RECORD_MODIFICA_PRODOTTO: {
+                Prodotti p = new Prodotti(in.getInt(), leggiStringa(in), leggiStringa(in), 0, in.getInt(),
+                        in.getDouble(), in.getDouble());
+                inAttesa.put(chiave, new Operazione(chiave, null, p));
+                break;
+            }
+            case RECORD_CONFERMA:
+                inAttesa.remove(chiave);
+                break;
+            default:
+                throw new IllegalArgumentException("Tipo di record sconosciuto: " + tipo);
+        }
+    }
+
+    /**
+     * Codifica un'operazione come record.
+     */
+    private static ByteBuffer record(Operazione operazione) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(128);
+        DataOutputStream out = new DataOutputStream(bytes);
+        if (operazione.isMovimento()) {
+            Movimenti m = operazione.movimento;
+            out.writeByte(RECORD_MOVIMENTO);
+            scriviStringa(out, operazione.chiave);
+            out.writeInt(m.getIdProdotto());
+            scriviStringa(out, m.getTipo());
+            out.writeInt(m.getQuantita());
+            out.writeLong(m.getData().toEpochDay());
+            scriviStringa(out, m.getDescrizione());
+        } else {
+            Prodotti p = operazione.prodotto;
+            out.writeByte(RECORD_MODIFICA_PRODOTTO);
+            scriviStringa(out, operazione.chiave);
+            out.writeInt(p.getIdProdotto());
+            scriviStringa(out, p.getNome());
+            scriviStringa(out, p.getDescrizione());
+            out.writeInt(p.getGiacenzaMin());
+            out.writeDouble(p.getPrezzoAcquisto());
+            out.writeDouble(p.getPrezzoVendita());
+        }
+        return incapsula(bytes.toByteArray());
+    }
+
+    /**
+     * Codifica la conferma di un'operazione come record.
+     */
+    private static ByteBuffer conferma(String chiave) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(48);
+        DataOutputStream out = new DataOutputStream(bytes);
+        out.writeByte(RECORD_CONFERMA);
+        scriviStringa(out, chiave);
+        return incapsula(bytes.toByteArray());
+    }
+
+    /**
+     * Antepone ai dati la lunghezza e il CRC32.
+     */
+    private static ByteBuffer incapsula(byte[] dati) {
+        CRC32 crc = new CRC32();
+        crc.update(dati);
+        ByteBuffer record = ByteBuffer.allocate(2 * Integer.BYTES + dati.length);
+        record.putInt(dati.length).putInt((int) crc.getValue()).put(dati).flip();
+        return record;
+    }
+
+    private static void scriviStringa(DataOutputStream out, String s) throws IOException {
+        if (s == null) {
+            out.writeInt(-1);
+            return;
+        }
+        byte[] bytes = s.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    private static String leggiStringa(ByteBuffer in) {
+        int lunghezza = in.getInt();
+        if (lunghezza == -1) {
+            return null;
+        }
+        if (lunghezza < 0 || lunghezza > in.remaining()) {
+            throw new IllegalArgumentException("Lunghezza non valida: " + lunghezza);
+        }
+        byte[] bytes = new byte[lunghezza];
+        in.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,208 @@
+package it.unicas.project.template.address.model.dao;
+
+import it.unicas.project.template.address.model.Movimenti;
+import it.unicas.project.template.address.model.RiepilogoPeriodi;
+import it.unicas.project.template.address.model.StatisticaGiornaliera;
+import it.unicas.project.template.address.model.StatisticaProdotto;
+import java.io.IOException;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Interfaccia DAO specifica per l'entità {@link Movimenti}.
+ * <br>
+ * Oltre alle operazioni CRUD di {@link DAO} espone la lettura paginata dello storico e
+ * le statistiche aggregate, così che la UI possa mostrare movimenti e grafici senza leggere l'intera tabella.
+ * Le statistiche sono lette da un riepilogo giornaliero (totali per prodotto e giorno) che le implementazioni
+ * mantengono aggiornato a ogni scrittura.
+ *
+ * @author Cristian Corsini, Simone Feola, Daniela Spitaleri
+ * @since 19/11/2025
+ */
+public interface MovimentiDAO extends DAO<Movimenti> {
+
+    /**
+     * Numero di id, sotto il più recente, entro cui un movimento può diventare visibile dopo movimenti con id
+     * maggiore.
+     * <br>
+     * L'id viene assegnato all'inserimento ma il movimento è visibile solo al commit: con più postazioni una
+     * transazione può ricevere un id minore e terminare dopo un'altra. Chi legge i movimenti per id (es.
+     * {@link #selectSuccessivi(int)}) non può quindi considerare completi gli id appena sotto l'ultimo letto.
+     */
+    int FINESTRA_ID_RECENTI = 1000;
+
+    /**
+     * Riceve una alla volta le righe dello storico lette da {@link #scorriStorico(VisitatoreMovimenti)}.
+     * <br>
+     * I valori sono passati come parametri, senza creare un oggetto {@link Movimenti} per ogni riga.
+     */
+    @FunctionalInterface
+    interface VisitatoreMovimenti {
+
+        /**
+         * Elabora una riga dello storico.
+         *
+         * @param idMovimento  id del movimento
+         * @param nomeProdotto nome del prodotto movimentato
+         * @param tipo         "CARICO" o "SCARICO"
+         * @param quantita     quantità movimentata
+         * @param data         data del movimento
+         * @param descrizione  descrizione del movimento (può essere {@code null})
+         * @return true per continuare con la riga successiva, false per interrompere la lettura
+         * @throws IOException se l'elaborazione della riga fallisce (la lettura viene interrotta)
+         */
+        boolean visita(int idMovimento, String nomeProdotto, String tipo, int quantita, LocalDate data,
+                       String descrizione) throws IOException;
+    }
+
+    /**
+     * Restituisce una pagina di movimenti in ordine dal più recente al più vecchio
+     * (data decrescente, a parità di data idMovimento decrescente).
+     * <br>
+     * La paginazione è a chiave (keyset): la pagina successiva parte dal movimento che segue
+     * {@code ultimo} nell'ordinamento, quindi il costo non dipende da quante pagine sono già state lette
+     * e non si hanno duplicati o salti se nel frattempo vengono inseriti nuovi movimenti.
+     * <br>
+     * Pre-condizione: {@code dimensione} deve essere positiva.
+     * <br>
+     * Post-condizione: la lista contiene al più {@code dimensione} movimenti; una lista più corta
+     * indica che lo storico è terminato.
+     *
+     * @param ultimo     ultimo movimento della pagina precedente; {@code null} per la prima pagina
+     * @param dimensione numero massimo di movimenti da restituire
+     * @return i movimenti della pagina (eventualmente vuota)
+     * @throws DAOException se si verifica un errore di accesso alla sorgente dati
+     */
+    List<Movimenti> selectPage(Movimenti ultimo, int dimensione) throws DAOException;
+
+    /**
+     * Restituisce i movimenti registrati dopo quello con l'id indicato, per l'aggiornamento incrementale.
+     *
+     * @param idMovimento id dell'ultimo movimento già noto (escluso)
+     * @return i movimenti con id maggiore, in ordine di id crescente
+     * @throws DAOException se si verifica un errore di accesso alla sorgente dati
+     */
+    List<Movimenti> selectSuccessivi(int idMovimento) throws DAOException;
+
+    /**
+     * Restituisce il numero di movimenti presenti nella sorgente dati.
+     *
+     * @return il numero di movimenti
+     * @throws DAOException se si verifica un errore di accesso alla sorgente dati
+     */
+    int count() throws DAOException;
+
+    /**
+     * Legge l'intero storico dei movimenti, dal più recente, consegnando ogni riga a {@code visitatore}
+     * man mano che arriva dalla sorgente dati.
+     * <br>
+     * Le righe non vengono accumulate in memoria: la memoria usata non dipende dalla dimensione dello storico.
+     *
+     * @param visitatore destinatario delle righe
+     * @return il numero di righe consegnate
+     * @throws DAOException se si verifica un errore di accesso alla sorgente dati
+     * @throws IOException  se {@code visitatore} fallisce
+     */
+    long scorriStorico(VisitatoreMovimenti visitatore) throws DAOException, IOException;
+
+    /**
+     * Registra un movimento e aggiorna la giacenza del prodotto associato in un'unica transazione.
+     * <br>
+     * La quantità del prodotto viene modificata in modo relativo (incrementata per un CARICO,
+     * decrementata per uno SCARICO) sul valore presente nella sorgente dati, non su una copia in memoria:
+     * movimenti registrati contemporaneamente da più postazioni non si sovrascrivono.
+     * <br>
+     * Pre-condizione: {@code m} deve essere un movimento valido di tipo "CARICO" o "SCARICO".
+     * <br>
+     * Post-condizione: se l'operazione ha successo il movimento è registrato, il suo idMovimento
+     * è impostato e la giacenza del prodotto è aggiornata; in caso di errore nulla viene modificato.
+     *
+     * @param m il movimento da registrare
+     * @return la nuova quantità del prodotto dopo il movimento
+     * @throws DAOException se il movimento non è valido, il prodotto non esiste, uno SCARICO
+     *                      renderebbe negativa la giacenza o si verifica un errore di accesso alla sorgente dati
+     */
+    int registraMovimento(Movimenti m) throws DAOException;
+
+    /**
+     * Registra un blocco di movimenti e aggiorna le giacenze dei prodotti in un'unica transazione.
+     * <br>
+     * I movimenti sono applicati nell'ordine della lista: uno SCARICO è accettato solo se la giacenza,
+     * comprensiva dei movimenti precedenti del blocco, è sufficiente. I movimenti non validi, relativi a prodotti
+     * inesistenti o con giacenza insufficiente vengono scartati senza interrompere il blocco.
+     * <br>
+     * Post-condizione: i movimenti registrati hanno l'idMovimento impostato.
+     *
+     * @param movimenti i movimenti da registrare, di tipo "CARICO" o "SCARICO"
+     * @return per ogni movimento scartato, la sua posizione in {@code movimenti} e il motivo; vuota se sono
+     *         stati registrati tutti
+     * @throws DAOException se si verifica un errore di accesso alla sorgente dati (il blocco viene annullato)
+     */
+    Map<Integer, String> registraMovimenti(List<Movimenti> movimenti) throws DAOException;
+
+    /**
+     * Registra un blocco di movimenti come {@link #registraMovimenti(List)}, in modo idempotente.
+     * <br>
+     * Ogni movimento ha una chiave univoca, memorizzata nella stessa transazione del movimento: i movimenti
+     * la cui chiave è già memorizzata sono stati registrati in precedenza e vengono saltati. Lo stesso blocco
+     * può quindi essere inviato di nuovo (es. dopo un'interruzione prima della conferma) senza contare due
+     * volte le giacenze.
+     * <br>
+     * Post-condizione: i movimenti registrati hanno l'idMovimento impostato; quelli saltati no.
+     *
+     * @param movimenti i movimenti da registrare, di tipo "CARICO" o "SCARICO"
+     * @param chiavi    la chiave di ogni movimento, nella stessa posizione di {@code movimenti}
+     * @return per ogni movimento scartato, la sua posizione in {@code movimenti} e il motivo; i movimenti
+     *         saltati non sono scartati
+     * @throws DAOException se si verifica un errore di accesso alla sorgente dati (il blocco viene annullato)
+     */
+    Map<Integer, String> registraMovimenti(List<Movimenti> movimenti, List<String> chiavi) throws DAOException;
+
+    /**
+     * Restituisce i totali giornalieri di carichi e scarichi in un intervallo di date.
+     * <br>
+     * I giorni senza movimenti non compaiono nel risultato.
+     *
+     * @param da primo giorno dell'intervallo (incluso)
+     * @param a  ultimo giorno dell'intervallo (escluso)
+     * @return una riga per ogni giorno con movimenti, in ordine di data crescente
+     * @throws DAOException se si verifica un errore di accesso alla sorgente dati
+     */
+    List<StatisticaGiornaliera> selectStatisticheGiornaliere(LocalDate da, LocalDate a) throws DAOException;
+
+    /**
+     * Restituisce i totali di carichi e scarichi di tutto lo storico, pre-aggregati per giorno, settimana,
+     * mese, trimestre e anno.
+     * <br>
+     * Il riepilogo restituito conosce i movimenti compresi nei totali (tutti quelli sotto gli ultimi
+     * {@link #FINESTRA_ID_RECENTI} id, e tra questi gli id presenti): gli altri, anche se confermati in ritardo con
+     * un id minore dell'ultimo, possono essergli aggiunti con {@link RiepilogoPeriodi#aggiungi(Movimenti)} senza
+     * rileggere la sorgente dati.
+     *
+     * @return il riepilogo per periodi
+     * @throws DAOException se si verifica un errore di accesso alla sorgente dati
+     */
+    RiepilogoPeriodi selectRiepilogoPeriodi() throws DAOException;
+
+    /**
+     * Restituisce, per ogni prodotto movimentato, i totali di carichi e scarichi su tutto lo storico.
+     * <br>
+     * I prodotti senza movimenti non compaiono nel risultato.
+     *
+     * @return una riga per ogni prodotto con movimenti, in ordine di idProdotto
+     * @throws DAOException se si verifica un errore di accesso alla sorgente dati
+     */
+    List<StatisticaProdotto> selectStatisticheProdotti() throws DAOException;
+
+    /**
+     * Ricostruisce il riepilogo giornaliero usato dalle statistiche a partire dall'intero storico dei movimenti.
+     * <br>
+     * Post-condizione: i totali restituiti da {@link #selectStatisticheGiornaliere(LocalDate, LocalDate)} e
+     * {@link #selectStatisticheProdotti()} corrispondono ai movimenti registrati.
+     *
+     * @return il numero di righe (prodotto, giorno) del riepilogo
+     * @throws DAOException se si verifica un errore di accesso alla sorgente dati
+     */
+    int ricostruisciRiepilogoGiornaliero() throws DAOException;
+}
@@ -0,0 +1,77 @@
+package it.unicas.project.template.address.model.dao;
+
+import it.unicas.project.template.address.model.Prodotti;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Interfaccia DAO specifica per l'entità {@link Prodotti}.
+ * <br>
+ * Oltre alle operazioni CRUD di {@link DAO} espone le letture necessarie all'aggiornamento
+ * incrementale dei dati: i prodotti modificati dopo un certo istante e l'elenco degli id esistenti
+ * (per riconoscere i prodotti eliminati).
+ *
+ * @author Cristian Corsini, Simone Feola, Daniela Spitaleri
+ * @since 19/11/2025
+ */
+public interface ProdottiDAO extends DAO<Prodotti> {
+
+    /**
+     * Restituisce i prodotti inseriti o modificati a partire dall'istante indicato.
+     * <br>
+     * Il confronto è inclusivo, così che modifiche registrate nello stesso istante dell'ultima
+     * sincronizzazione non vengano perse; i prodotti già noti vanno quindi aggiornati in modo idempotente.
+     *
+     * @param da istante dell'ultima sincronizzazione (incluso); {@code null} per tutti i prodotti
+     * @return i prodotti modificati, con {@link Prodotti#getUltimaModifica()} valorizzata
+     * @throws DAOException se si verifica un errore di accesso alla sorgente dati
+     */
+    List<Prodotti> selectModificatiDa(LocalDateTime da) throws DAOException;
+
+    /**
+     * Restituisce il numero di prodotti presenti nella sorgente dati.
+     *
+     * @return il numero di prodotti
+     * @throws DAOException se si verifica un errore di accesso alla sorgente dati
+     */
+    int count() throws DAOException;
+
+    /**
+     * Restituisce gli id di tutti i prodotti presenti nella sorgente dati.
+     *
+     * @return la lista degli id
+     * @throws DAOException se si verifica un errore di accesso alla sorgente dati
+     */
+    List<Integer> selectIdProdotti() throws DAOException;
+
+    /**
+     * Inserisce o aggiorna un blocco di prodotti in un'unica transazione.
+     * <br>
+     * Un prodotto senza id (id non positivo) viene inserito come nuovo; uno con id sostituisce i valori del prodotto con lo
+     * stesso id, oppure viene inserito con quell'id se non esiste. I prodotti non validi vengono scartati
+     * senza interrompere il blocco.
+     *
+     * @param prodotti i prodotti da registrare
+     * @return per ogni prodotto scartato, la sua posizione in {@code prodotti} e il motivo; vuota se sono
+     *         stati registrati tutti
+     * @throws DAOException se si verifica un errore di accesso alla sorgente dati (il blocco viene annullato)
+     */
+    Map<Integer, String> upsertAll(List<Prodotti> prodotti) throws DAOException;
+
+    /**
+     * Aggiorna un prodotto come {@link #update(Object)}, in modo idempotente: la chiave viene memorizzata
+     * nella stessa transazione dell'aggiornamento e un aggiornamento con una chiave già memorizzata
+     * non viene applicato di nuovo.
+     * <br>
+     * La quantità di {@code a} viene ignorata: la giacenza cambia solo con i movimenti, così un aggiornamento
+     * inviato in differita non sovrascrive i movimenti registrati nel frattempo.
+     *
+     * @param a      il prodotto con i nuovi valori (esclusa la quantità)
+     * @param chiave chiave univoca dell'aggiornamento
+     * @return true se l'aggiornamento è stato applicato, false se la chiave era già memorizzata
+     * @throws DAOException se il prodotto non è valido o non esiste, o si verifica un errore di accesso
+     *                      alla sorgente dati
+     */
+    boolean update(Prodotti a, String chiave) throws DAOException;
+}
@@ -0,0 +1,391 @@
+package it.unicas.project.template.address.model.dao.memoria;
+
+import it.unicas.project.template.address.model.Movimenti;
+import it.unicas.project.template.address.model.Prodotti;
+import it.unicas.project.template.address.model.dao.DAOException;
+import java.time.Clock;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Dati di una sorgente in memoria, condivisi dai DAO di prodotti e movimenti.
+ * <br>
+ * Le righe sono oggetti immutabili ({@link RigaProdotto}, {@link RigaMovimento}): i DAO restituiscono sempre
+ * nuovi oggetti {@link Prodotti} e {@link Movimenti}, così le modifiche del chiamante non alterano i dati.
+ * <br>
+ * L'accesso è regolato da un {@link ReentrantReadWriteLock}: le letture procedono in parallelo, mentre ogni
+ * scrittura (anche di più righe, come un blocco di movimenti) è eseguita da sola tenendo il lock in scrittura,
+ * e risulta quindi atomica come una transazione del database. Le strutture qui sotto vanno lette solo
+ * tenendo il lock in lettura e modificate solo tenendo il lock in scrittura, acquisito con {@link #bloccaScrittura()}
+ * e rilasciato con {@link #sbloccaScrittura()}, e solo con i metodi di questa classe.
+ * <br>
+ * Se all'archivio è collegato un {@link RegistroArchivio}, i metodi che modificano le righe le registrano anche
+ * nella transazione in corso, che {@link #sbloccaScrittura()} rende persistente su file.
+ *
+ * @author Cristian Corsini, Simone Feola, Daniela Spitaleri
+ * @since 19/11/2025
+ */
+final class ArchivioMemoria {
+
+    /**
+     * Riga immutabile della tabella prodotti.
+     */
+    static final class RigaProdotto {
+
+        final int idProdotto;
+        final String nome;
+        final String descrizione;
+        final int quantita;
+        final int giacenzaMin;
+        final double prezzoAcquisto;
+        final double prezzoVendita;
+        final LocalDateTime ultimaModifica;
+
+        RigaProdotto(int idProdotto, Prodotti p, LocalDateTime ultimaModifica) {
+            this(idProdotto, p.getNome(), p.getDescrizione(), p.getQuantita(), p.getGiacenzaMin(),
+                    p.getPrezzoAcquisto(), p.getPrezzoVendita(), ultimaModifica);
+        }
+
+        RigaProdotto(int idProdotto, String nome, String descrizione, int quantita, int giacenzaMin,
+                     double prezzoAcquisto, double prezzoVendita, LocalDateTime ultimaModifica) {
+            this.idProdotto = idProdotto;
+            this.nome = nome;
+            this.descrizione = descrizione;
+            this.quantita = quantita;
+            this.giacenzaMin = giacenzaMin;
+            this.prezzoAcquisto = prezzoAcquisto;
+            this.prezzoVendita = prezzoVendita;
+            this.ultimaModifica = ultimaModifica;
+        }
+
+        /**
+         * @return la riga con la giacenza indicata
+         */
+        RigaProdotto conQuantita(int quantita, LocalDateTime ultimaModifica) {
+            return new RigaProdotto(idProdotto, nome, descrizione, quantita, giacenzaMin, prezzoAcquisto,
+                    prezzoVendita, ultimaModifica);
+        }
+
+        /**
+         * @return un nuovo oggetto {@link Prodotti} con i valori della riga
+         */
+        Prodotti comeProdotto() {
+            Prodotti p = new Prodotti(idProdotto, nome, descrizione, quantita, giacenzaMin, prezzoAcquisto,
+                    prezzoVendita);
+            p.setUltimaModifica(ultimaModifica);
+            return p;
+        }
+    }
+
+    /**
+     * Riga immutabile della tabella movimenti.
+     */
+    static final class RigaMovimento {
+
+        final int idMovimento;
+        final int idProdotto;
+        final String tipo;
+        final int quantita;
+        final LocalDate data;
+        final String descrizione;
+
+        RigaMovimento(int idMovimento, Movimenti m) {
+            this(idMovimento, m.getIdProdotto(), m.getTipo(), m.getQuantita(), m.getData(), m.getDescrizione());
+        }
+
+        RigaMovimento(int idMovimento, int idProdotto, String tipo, int quantita, LocalDate data, String descrizione) {
+            this.idMovimento = idMovimento;
+            this.idProdotto = idProdotto;
+            this.tipo = tipo;
+            this.quantita = quantita;
+            this.data = data;
+            this.descrizione = descrizione;
+        }
+
+        /**
+         * @return true per un CARICO
+         */
+        boolean isCarico() {
+            return "CARICO".equals(tipo);
+        }
+
+        /**
+         * @return un nuovo oggetto {@link Movimenti} con i valori della riga
+         */
+        Movimenti comeMovimento() {
+            return new Movimenti(idMovimento, idProdotto, tipo, quantita, data, descrizione);
+        }
+    }
+
+    /**
+     * Ordinamento dello storico: data e idMovimento decrescenti.
+     */
+    static final Comparator<RigaMovimento> ORDINE_STORICO = (a, b) -> {
+        int c = b.data.compareTo(a.data);
+        return (c != 0) ? c : Integer.compare(b.idMovimento, a.idMovimento);
+    };
+
+    final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    /**
+     * Prodotti per id, in ordine di id come la chiave primaria.
+     */
+    final TreeMap<Integer, RigaProdotto> prodotti = new TreeMap<>();
+
+    /**
+     * Indice univoco dei nomi dei prodotti, senza distinzione tra maiuscole e minuscole come la collation
+     * di MySQL: nome normalizzato da {@link #chiaveNome(String)} -&gt; idProdotto.
+     */
+    final Map<String, Integer> nomi = new HashMap<>();
+
+    /**
+     * Movimenti per id.
+     */
+    final TreeMap<Integer, RigaMovimento> movimenti = new TreeMap<>();
+
+    /**
+     * Movimenti in ordine di storico ({@link #ORDINE_STORICO}).
+     */
+    final TreeSet<RigaMovimento> storico = new TreeSet<>(ORDINE_STORICO);
+
+    /**
+     * Riepilogo giornaliero: giorno -&gt; idProdotto -&gt; {carichi, scarichi}.
+     */
+    final TreeMap<LocalDate, TreeMap<Integer, int[]>> riepilogo = new TreeMap<>();
+
+    /**
+     * Chiavi delle operazioni idempotenti già applicate.
+     */
+    final Set<String> chiavi = new HashSet<>();
+
+    /**
+     * Ultimi id generati (AUTO_INCREMENT).
+     */
+    int ultimoIdProdotto = 0;
+    int ultimoIdMovimento = 0;
+
+    /**
+     * Registro su file delle modifiche; {@code null} per un archivio solo in memoria.
+     */
+    RegistroArchivio registro = null;
+
+    /**
+     * Orologio da cui vengono letti gli istanti delle modifiche.
+     */
+    private final Clock orologio;
+
+    /**
+     * Ultimo istante assegnato a {@link RigaProdotto#ultimaModifica}.
+     */
+    private LocalDateTime ultimoIstante = LocalDateTime.MIN;
+
+    /**
+     * Crea un archivio vuoto che legge gli istanti delle modifiche dall'orologio di sistema.
+     */
+    ArchivioMemoria() {
+        this(Clock.systemDefaultZone());
+    }
+
+    /**
+     * Crea un archivio vuoto.
+     *
+     * @param orologio l'orologio da cui leggere gli istanti delle modifiche
+     */
+    ArchivioMemoria(Clock orologio) {
+        this.orologio = orologio;
+    }
+
+    /**
+     * Restituisce l'istante da assegnare a una modifica, al millisecondo come {@code TIMESTAMP(3)}, mai precedente
+     * a quello assegnato alla modifica precedente.
+     * <br>
+     * Pre-condizione: il chiamante tiene il lock in scrittura.
+     *
+     * @return l'istante della modifica
+     */
+    LocalDateTime adesso() {
+        LocalDateTime adesso = LocalDateTime.now(orologio).truncatedTo(ChronoUnit.MILLIS);
+        if (adesso.isAfter(ultimoIstante)) {
+            ultimoIstante = adesso;
+        }
+        return ultimoIstante;
+    }
+
+    /**
+     * Acquisisce il lock in scrittura. Non è rientrante: ogni scrittura va conclusa con {@link #sbloccaScrittura()}
+     * prima di iniziarne un'altra.
+     *
+     * @throws DAOException se il registro su file non accetta scritture (chiuso o dopo un errore di scrittura)
+     */
+    void bloccaScrittura() throws DAOException {
+        lock.writeLock().lock();
+        if (registro != null) {
+            try {
+                registro.verifica();
+            } catch (DAOException e) {
+                lock.writeLock().unlock();
+                throw e;
+            }
+        }
+    }
+
+    /**
+     * Rilascia il lock in scrittura; se c'è un registro su file accoda le modifiche fatte tenendo il lock come
+     * un'unica transazione e attende, dopo aver rilasciato il lock, che sia su disco.
+     *
+     * @throws DAOException se la transazione non può essere scritta su disco
+     */
+    void sbloccaScrittura() throws DAOException {
+        long transazione;
+        try {
+            transazione = (registro == null) ? 0 : registro.accoda();
+        } finally {
+            lock.writeLock().unlock();
+        }
+        if (transazione > 0) {
+            registro.attendi(transazione);
+        }
+    }
+
+    /**
+     * Inserisce o sostituisce un prodotto, aggiornando l'indice dei nomi.
+     * <br>
+     * Pre-condizione: il chiamante tiene il lock in scrittura e ha verificato che il nome non appartenga a un altro
+     * prodotto.
+     *
+     * @param riga la nuova riga
+     */
+    void salvaProdotto(RigaProdotto riga) {
+        RigaProdotto precedente = prodotti.put(riga.idProdotto, riga);
+        if (precedente != null) {
+            nomi.remove(chiaveNome(precedente.nome));
+        }
+        nomi.put(chiaveNome(riga.nome), riga.idProdotto);
+        ultimoIdProdotto = Math.max(ultimoIdProdotto, riga.idProdotto);
+        if (riga.ultimaModifica.isAfter(ultimoIstante)) {
+            ultimoIstante = riga.ultimaModifica;
+        }
+        if (registro != null) {
+            registro.prodotto(riga);
+        }
+    }
+
+    /**
+     * Elimina un prodotto con i suoi movimenti, compreso il riepilogo giornaliero.
+     * <br>
+     * Pre-condizione: il chiamante tiene il lock in scrittura.
+     *
+     * @param riga il prodotto, presente nell'archivio
+     */
+    void rimuoviProdotto(RigaProdotto riga) {
+        prodotti.remove(riga.idProdotto);
+        nomi.remove(chiaveNome(riga.nome));
+        for (Iterator<RigaMovimento> it = movimenti.values().iterator(); it.hasNext(); ) {
+            RigaMovimento m = it.next();
+            if (m.idProdotto == riga.idProdotto) {
+                it.remove();
+                storico.remove(m);
+            }
+        }
+        for (Map<Integer, int[]> giorno : riepilogo.values()) {
+            giorno.remove(riga.idProdotto);
+        }
+        riepilogo.values().removeIf(Map::isEmpty);
+        if (registro != null) {
+            registro.prodottoEliminato(riga.idProdotto);
+        }
+    }
+
+    /**
+     * Aggiunge un movimento allo storico e al riepilogo giornaliero.
+     * <br>
+     * Pre-condizione: il chiamante tiene il lock in scrittura.
+     *
+     * @param riga il movimento
+     */
+    void aggiungiMovimento(RigaMovimento riga) {
+        movimenti.put(riga.idMovimento, riga);
+        storico.add(riga);
+        aggiornaRiepilogo(riga, 1);
+        ultimoIdMovimento = Math.max(ultimoIdMovimento, riga.idMovimento);
+        if (registro != null) {
+            registro.movimento(riga);
+        }
+    }
+
+    /**
+     * Rimuove un movimento dallo storico e dal riepilogo giornaliero.
+     * <br>
+     * Pre-condizione: il chiamante tiene il lock in scrittura.
+     *
+     * @param riga il movimento, presente nello storico
+     */
+    void rimuoviMovimento(RigaMovimento riga) {
+        movimenti.remove(riga.idMovimento);
+        storico.remove(riga);
+        aggiornaRiepilogo(riga, -1);
+        if (registro != null) {
+            registro.movimentoEliminato(riga.idMovimento);
+        }
+    }
+
+    /**
+     * Memorizza la chiave di un'operazione idempotente.
+     * <br>
+     * Pre-condizione: il chiamante tiene il lock in scrittura.
+     *
+     * @param chiave la chiave
+     * @return false se la chiave era già memorizzata
+     */
+    boolean aggiungiChiave(String chiave) {
+        if (!chiavi.add(chiave)) {
+            return false;
+        }
+        if (registro != null) {
+            registro.chiave(chiave);
+        }
+        return true;
+    }
+
+    /**
+     * Rimuove la chiave di un'operazione idempotente.
+     * <br>
+     * Pre-condizione: il chiamante tiene il lock in scrittura.
+     *
+     * @param chiave la chiave, memorizzata
+     */
+    void rimuoviChiave(String chiave) {
+        chiavi.remove(chiave);
+        if (registro != null) {
+            registro.chiaveEliminata(chiave);
+        }
+    }
+
+    /**
+     * Somma ({@code segno} 1) o sottrae ({@code segno} -1) un movimento dal riepilogo giornaliero.
+     */
+    void aggiornaRiepilogo(RigaMovimento riga, int segno) {
+        int[] totali = riepilogo.computeIfAbsent(riga.data, g -> new TreeMap<>())
+                .computeIfAbsent(riga.idProdotto, id -> new int[2]);
+        totali[riga.isCarico() ? 0 : 1] += segno * riga.quantita;
+    }
+
+    /**
+     * @param nome nome di un prodotto
+     * @return la chiave del nome nell'indice univoco
+     */
+    static String chiaveNome(String nome) {
+        return nome.toLowerCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,134 @@
+package it.unicas.project.template.address.model.dao.memoria;
+
+import it.unicas.project.template.address.model.dao.DAOFactory;
+import it.unicas.project.template.address.model.dao.MovimentiDAO;
+import it.unicas.project.template.address.model.dao.ProdottiDAO;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Fornitore dei DAO su file, per chi non vuole amministrare un server MySQL: i dati sono tenuti in memoria come nel
+ * {@link DAOMemoriaFactory} e ogni modifica è salvata in un file append-only da un {@link RegistroArchivio},
+ * da cui vengono ricostruiti alla successiva apertura.
+ * <br>
+ * Si sceglie con {@code DB_BACKEND=file}; il file è indicato dalla variabile d'ambiente {@code DB_FILE}
+ * ({@link #FILE_DEFAULT} se non impostata) e può essere usato da un solo processo alla volta.
+ * Il file viene aperto alla prima richiesta di un DAO e chiuso da {@link #chiudi()}.
+ *
+ * @author Cristian Corsini, Simone Feola, Daniela Spitaleri
+ * @since 19/11/2025
+ */
+public class DAOFileFactory extends DAOFactory {
+
+    /**
+     * Logger per la classe DAOFileFactory.
+     */
+    private static final Logger LOGGER = Logger.getLogger(DAOFileFactory.class.getName());
+
+    /**
+     * File usato se {@code DB_FILE} non è impostata.
+     */
+    public static final Path FILE_DEFAULT = Paths.get(System.getProperty("user.home"), ".gestione-magazzino",
+            "magazzino.db");
+
+    private final Path file;
+    private RegistroArchivio registro;
+    private ProdottiDAOMemoriaImpl prodottiDAO;
+    private MovimentiDAOMemoriaImpl movimentiDAO;
+
+    /**
+     * Crea il fornitore sul file indicato da {@code DB_FILE}, o su {@link #FILE_DEFAULT}.
+     */
+    public DAOFileFactory() {
+        this(fileConfigurato());
+    }
+
+    /**
+     * Crea il fornitore su un file.
+     *
+     * @param file il file dei dati; viene creato, con la sua cartella, se non esiste
+     */
+    public DAOFileFactory(Path file) {
+        this.file = file.toAbsolutePath();
+    }
+
+    private static Path fileConfigurato() {
+        String file = System.getenv("DB_FILE");
+        return (file == null || file.trim().isEmpty()) ? FILE_DEFAULT : Paths.get(file.trim());
+    }
+
+    /**
+     * Apre il file, se non è già aperto, e ricostruisce i dati.
+     *
+     * @throws IllegalStateException se il file non può essere aperto o letto
+     */
+    private synchronized void apri() {
+        if (registro != null) {
+            return;
+        }
+        ArchivioMemoria archivio = new ArchivioMemoria();
+        try {
+            registro = RegistroArchivio.apri(file, archivio);
+        } catch (IOException e) {
+            throw new IllegalStateException("Impossibile aprire l'archivio " + file + ": " + e.getMessage(), e);
+        }
+        prodottiDAO = new ProdottiDAOMemoriaImpl(archivio);
+        movimentiDAO = new MovimentiDAOMemoriaImpl(archivio);
+    }
+
+    /**
+     * @return "file"
+     */
+    @Override
+    public String getNome() {
+        return "file";
+    }
+
+    @Override
+    public synchronized ProdottiDAO getProdottiDAO() {
+        apri();
+        return prodottiDAO;
+    }
+
+    @Override
+    public synchronized MovimentiDAO getMovimentiDAO() {
+        apri();
+        return movimentiDAO;
+    }
+
+    /**
+     * @return "file:" seguito dal percorso del file
+     */
+    @Override
+    public String getDescrizione() {
+        return "file:" + file;
+    }
+
+    /**
+     * @return false: il file è locale
+     */
+    @Override
+    public boolean isRemoto() {
+        return false;
+    }
+
+    /**
+     * Scrive le modifiche in attesa, compatta il file se è cresciuto e lo chiude. I DAO restituiti in precedenza
+     * non accettano più scritture; una nuova richiesta di un DAO riapre il file.
+     */
+    @Override
+    public synchronized void chiudi() {
+        if (registro == null) {
+            return;
+        }
+        try {
+            registro.close();
+        } catch (IOException e) {
+            LOGGER.log(Level.WARNING, "Errore nella chiusura dell'archivio " + file, e);
+        }
+        registro = null;
+    }
+}
@@ -0,0 +1,75 @@
+package it.unicas.project.template.address.model.dao.memoria;
+
+import it.unicas.project.template.address.model.dao.DAOFactory;
+import it.unicas.project.template.address.model.dao.MovimentiDAO;
+import it.unicas.project.template.address.model.dao.ProdottiDAO;
+import java.time.Clock;
+
+/**
+ * Fornitore dei DAO in memoria: ogni istanza ha i propri dati, inizialmente vuoti, condivisi dal suo
+ * {@link ProdottiDAOMemoriaImpl} e dal suo {@link MovimentiDAOMemoriaImpl} e persi alla chiusura dell'applicazione.
+ * <br>
+ * Non richiede un server MySQL: si usa nei test, nelle dimostrazioni ({@code DB_BACKEND=memoria}, con i dati
+ * caricati dal menu Importa) e come riferimento nei benchmark.
+ *
+ * @author Cristian Corsini, Simone Feola, Daniela Spitaleri
+ * @since 19/11/2025
+ */
+public class DAOMemoriaFactory extends DAOFactory {
+
+    private final ProdottiDAOMemoriaImpl prodottiDAO;
+    private final MovimentiDAOMemoriaImpl movimentiDAO;
+
+    /**
+     * Crea una sorgente dati in memoria vuota.
+     */
+    public DAOMemoriaFactory() {
+        this(Clock.systemDefaultZone());
+    }
+
+    /**
+     * Crea una sorgente dati in memoria vuota che legge l'istante delle modifiche dei prodotti
+     * ({@code ultimaModifica}) da {@code orologio}, ad esempio un orologio controllato da un test.
+     *
+     * @param orologio l'orologio da cui leggere gli istanti delle modifiche
+     */
+    public DAOMemoriaFactory(Clock orologio) {
+        ArchivioMemoria archivio = new ArchivioMemoria(orologio);
+        prodottiDAO = new ProdottiDAOMemoriaImpl(archivio);
+        movimentiDAO = new MovimentiDAOMemoriaImpl(archivio);
+    }
+
+    /**
+     * @return "memoria"
+     */
+    @Override
+    public String getNome() {
+        return "memoria";
+    }
+
+    @Override
+    public ProdottiDAO getProdottiDAO() {
+        return prodottiDAO;
+    }
+
+    @Override
+    public MovimentiDAO getMovimentiDAO() {
+        return movimentiDAO;
+    }
+
+    /**
+     * @return "memoria"
+     */
+    @Override
+    public String getDescrizione() {
+        return "memoria";
+    }
+
+    /**
+     * @return false: i dati sono nello stesso processo
+     */
+    @Override
+    public boolean isRemoto() {
+        return false;
+    }
+}
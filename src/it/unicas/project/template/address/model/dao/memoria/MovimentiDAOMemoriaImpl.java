@@ -0,0 +1,563 @@
+package it.unicas.project.template.address.model.dao.memoria;
+
+import it.unicas.project.template.address.model.Movimenti;
+import it.unicas.project.template.address.model.RiepilogoPeriodi;
+import it.unicas.project.template.address.model.StatisticaGiornaliera;
+import it.unicas.project.template.address.model.StatisticaProdotto;
+import it.unicas.project.template.address.model.dao.DAOException;
+import it.unicas.project.template.address.model.dao.MovimentiDAO;
+import it.unicas.project.template.address.model.dao.memoria.ArchivioMemoria.RigaMovimento;
+import it.unicas.project.template.address.model.dao.memoria.ArchivioMemoria.RigaProdotto;
+import java.io.IOException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+
+/**
+ * Implementazione in memoria del DAO per l'entità Movimenti, con la stessa semantica di
+ * {@link it.unicas.project.template.address.model.dao.mysql.MovimentiDAOMySQLImpl}.
+ * <br>
+ * Lo storico è mantenuto ordinato per data e idMovimento decrescenti, quindi {@link #selectPage(Movimenti, int)}
+ * si posiziona direttamente sulla pagina richiesta; il riepilogo giornaliero è aggiornato a ogni scrittura
+ * come la tabella {@code movimenti_giornalieri}. Le registrazioni con aggiornamento della giacenza sono atomiche
+ * rispetto a tutte le altre operazioni sui dati condivisi con {@link ProdottiDAOMemoriaImpl}, e con
+ * {@link DAOFileFactory} sono salvate su file come un'unica transazione.
+ * <br>
+ * La classe è thread-safe.
+ *
+ * @author Cristian Corsini, Simone Feola, Daniela Spitaleri
+ * @since 19/11/2025
+ */
+public class MovimentiDAOMemoriaImpl implements MovimentiDAO {
+
+    /**
+     * Lunghezza massima della descrizione ({@code VARCHAR(255)}).
+     */
+    private static final int LUNGHEZZA_DESCRIZIONE = 255;
+
+    /**
+     * Righe lette per ogni acquisizione del lock durante {@link #scorriStorico(VisitatoreMovimenti)}.
+     */
+    private static final int RIGHE_PER_LETTURA = 1000;
+
+    private final ArchivioMemoria archivio;
+
+    /**
+     * @param archivio i dati condivisi con il DAO dei prodotti
+     */
+    MovimentiDAOMemoriaImpl(ArchivioMemoria archivio) {
+        this.archivio = archivio;
+    }
+
+    /**
+     * Inserisce un movimento senza modificare la giacenza del prodotto.
+     *
+     * @param m il movimento da inserire (idMovimento ignorato)
+     * @return l'id generato
+     * @throws DAOException se il movimento non è valido o il prodotto non esiste
+     */
+    @Override
+    public int insert(Movimenti m) throws DAOException {
+        return insertAll(Collections.singletonList(m)).get(0);
+    }
+
+    /**
+     * Inserisce una collezione di movimenti in modo atomico, senza modificare le giacenze.
+     *
+     * @param movimenti i movimenti da inserire (idMovimento ignorato)
+     * @return gli id generati, nello stesso ordine di {@code movimenti}
+     * @throws DAOException se un movimento non è valido o il suo prodotto non esiste (nessun movimento viene inserito)
+     */
+    @Override
+    public List<Integer> insertAll(Collection<Movimenti> movimenti) throws DAOException {
+        for (Movimenti m : movimenti) {
+            verifyObject(m);
+        }
+
+        List<Integer> ids = new ArrayList<>(movimenti.size());
+        archivio.bloccaScrittura();
+        try {
+            for (Movimenti m : movimenti) {
+                verificaProdotto(m);
+            }
+            for (Movimenti m : movimenti) {
+                RigaMovimento riga = new RigaMovimento(archivio.ultimoIdMovimento + 1, m);
+                archivio.aggiungiMovimento(riga);
+                ids.add(riga.idMovimento);
+            }
+        } finally {
+            archivio.sbloccaScrittura();
+        }
+        return ids;
+    }
+
+    /**
+     * Elimina il movimento con l'id di {@code m}, senza modificare la giacenza del prodotto; se non esiste non viene
+     * modificato nulla.
+     *
+     * @param m il movimento da eliminare
+     * @throws DAOException se {@code m} è {@code null}
+     */
+    @Override
+    public void delete(Movimenti m) throws DAOException {
+        if (m == null) {
+            throw new DAOException("Il movimento è null.");
+        }
+        archivio.bloccaScrittura();
+        try {
+            RigaMovimento riga = archivio.movimenti.get(m.getIdMovimento());
+            if (riga != null) {
+                archivio.rimuoviMovimento(riga);
+            }
+        } finally {
+            archivio.sbloccaScrittura();
+        }
+    }
+
+    @Override
+    public void update(Movimenti m) throws DAOException {
+        updateAll(Collections.singletonList(m));
+    }
+
+    /**
+     * Aggiorna una collezione di movimenti in modo atomico, riportando le differenze nel riepilogo giornaliero
+     * senza modificare le giacenze.
+     *
+     * @param movimenti i movimenti con i nuovi valori
+     * @throws DAOException se un movimento non è valido o non esiste (nessun movimento viene aggiornato)
+     */
+    @Override
+    public void updateAll(Collection<Movimenti> movimenti) throws DAOException {
+        for (Movimenti m : movimenti) {
+            verifyObject(m);
+            if (m.getIdMovimento() <= 0) {
+                throw new DAOException("In update: idMovimento non valido.");
+            }
+        }
+
+        archivio.bloccaScrittura();
+        try {
+            for (Movimenti m : movimenti) {
+                if (!archivio.movimenti.containsKey(m.getIdMovimento())) {
+                    throw new DAOException("In updateAll(): il movimento " + m.getIdMovimento() + " non esiste.");
+                }
+                verificaProdotto(m);
+            }
+            for (Movimenti m : movimenti) {
+                archivio.rimuoviMovimento(archivio.movimenti.get(m.getIdMovimento()));
+                archivio.aggiungiMovimento(new RigaMovimento(m.getIdMovimento(), m));
+            }
+        } finally {
+            archivio.sbloccaScrittura();
+        }
+    }
+
+    /**
+     * Restituisce tutti i movimenti; il filtro non è usato, come nel DAO MySQL.
+     *
+     * @param m non usato
+     * @param c non usato
+     * @return i movimenti ordinati per data (e idMovimento) decrescente
+     */
+    @Override
+    public List<Movimenti> select(Movimenti m, boolean c) {
+        archivio.lock.readLock().lock();
+        try {
+            return comeMovimenti(archivio.storico);
+        } finally {
+            archivio.lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public int count() {
+        archivio.lock.readLock().lock();
+        try {
+            return archivio.movimenti.size();
+        } finally {
+            archivio.lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Legge lo storico a blocchi di {@value #RIGHE_PER_LETTURA} righe, rilasciando il lock tra un blocco e l'altro:
+     * il visitatore non blocca le scritture e la memoria usata non dipende dalla dimensione dello storico.
+     * Ogni blocco riparte dal movimento che segue l'ultimo consegnato, come la paginazione a chiave.
+     * <br>
+     * Il nome del prodotto è {@code null} per i movimenti di prodotti inesistenti, come con il {@code LEFT JOIN}.
+     *
+     * @param visitatore destinatario delle righe
+     * @return il numero di righe consegnate
+     * @throws DAOException se {@code visitatore} è {@code null}
+     * @throws IOException  se {@code visitatore} fallisce
+     */
+    @Override
+    public long scorriStorico(VisitatoreMovimenti visitatore) throws DAOException, IOException {
+        if (visitatore == null) {
+            throw new DAOException("In scorriStorico: visitatore nullo.");
+        }
+
+        long righe = 0;
+        RigaMovimento ultimo = null;
+        List<RigaMovimento> blocco = new ArrayList<>(RIGHE_PER_LETTURA);
+        List<String> nomi = new ArrayList<>(RIGHE_PER_LETTURA);
+        do {
+            blocco.clear();
+            nomi.clear();
+            archivio.lock.readLock().lock();
+            try {
+                for (RigaMovimento riga : (ultimo == null) ? archivio.storico : archivio.storico.tailSet(ultimo, false)) {
+                    blocco.add(riga);
+                    RigaProdotto prodotto = archivio.prodotti.get(riga.idProdotto);
+                    nomi.add((prodotto != null) ? prodotto.nome : null);
+                    if (blocco.size() == RIGHE_PER_LETTURA) {
+                        break;
+                    }
+                }
+            } finally {
+                archivio.lock.readLock().unlock();
+            }
+
+            for (int i = 0; i < blocco.size(); i++) {
+                RigaMovimento riga = blocco.get(i);
+                righe++;
+                if (!visitatore.visita(riga.idMovimento, nomi.get(i), riga.tipo, riga.quantita, riga.data,
+                        riga.descrizione)) {
+                    return righe;
+                }
+            }
+            if (!blocco.isEmpty()) {
+                ultimo = blocco.get(blocco.size() - 1);
+            }
+        } while (blocco.size() == RIGHE_PER_LETTURA);
+        return righe;
+    }
+
+    /**
+     * Registra il movimento e aggiorna la giacenza del prodotto in modo atomico.
+     *
+     * @param m il movimento da registrare; al termine il suo idMovimento è impostato
+     * @return la nuova quantità del prodotto
+     * @throws DAOException se il movimento non è valido, il prodotto non esiste o la giacenza è insufficiente
+     */
+    @Override
+    public int registraMovimento(Movimenti m) throws DAOException {
+        verifyObject(m);
+        boolean carico = "CARICO".equals(m.getTipo());
+
+        archivio.bloccaScrittura();
+        try {
+            RigaProdotto prodotto = archivio.prodotti.get(m.getIdProdotto());
+            if (prodotto == null || (!carico && prodotto.quantita < m.getQuantita())) {
+                throw new DAOException(carico
+                        ? "Prodotto " + m.getIdProdotto() + " inesistente."
+                        : "Quantità insufficiente o prodotto " + m.getIdProdotto() + " inesistente.");
+            }
+
+            int nuovaQuantita = carico ? prodotto.quantita + m.getQuantita() : prodotto.quantita - m.getQuantita();
+            archivio.salvaProdotto(prodotto.conQuantita(nuovaQuantita, archivio.adesso()));
+            RigaMovimento riga = new RigaMovimento(archivio.ultimoIdMovimento + 1, m);
+            archivio.aggiungiMovimento(riga);
+            m.setIdMovimento(riga.idMovimento);
+            return nuovaQuantita;
+        } finally {
+            archivio.sbloccaScrittura();
+        }
+    }
+
+    @Override
+    public Map<Integer, String> registraMovimenti(List<Movimenti> movimenti) throws DAOException {
+        return registraMovimenti(movimenti, null);
+    }
+
+    /**
+     * Registra un blocco di movimenti in modo atomico e idempotente: i movimenti con una chiave già memorizzata
+     * vengono saltati e le chiavi dei movimenti registrati vengono memorizzate insieme ai movimenti.
+     *
+     * @param movimenti i movimenti da registrare
+     * @param chiavi    la chiave di ogni movimento; {@code null} per una registrazione non idempotente
+     * @return per ogni movimento scartato, la sua posizione in {@code movimenti} e il motivo
+     * @throws DAOException se il numero di chiavi è diverso dal numero di movimenti
+     */
+    @Override
+    public Map<Integer, String> registraMovimenti(List<Movimenti> movimenti, List<String> chiavi) throws DAOException {
+        if (chiavi != null && chiavi.size() != movimenti.size()) {
+            throw new DAOException("In registraMovimenti(): numero di chiavi diverso dal numero di movimenti.");
+        }
+        Map<Integer, String> scartati = new TreeMap<>();
+        List<Integer> validi = new ArrayList<>(movimenti.size());
+        for (int i = 0; i < movimenti.size(); i++) {
+            Movimenti m = movimenti.get(i);
+            try {
+                verifyObject(m);
+                validi.add(i);
+            } catch (DAOException e) {
+                scartati.put(i, e.getMessage());
+            }
+        }
+        if (validi.isEmpty()) {
+            return scartati;
+        }
+
+        archivio.bloccaScrittura();
+        try {
+            Map<Integer, Integer> giacenze = new HashMap<>();
+            for (int i : validi) {
+                Movimenti m = movimenti.get(i);
+                if (chiavi != null && !archivio.aggiungiChiave(chiavi.get(i))) {
+                    continue;
+                }
+                RigaProdotto prodotto = archivio.prodotti.get(m.getIdProdotto());
+                Integer giacenza = (prodotto == null) ? null : giacenze.getOrDefault(m.getIdProdotto(), prodotto.quantita);
+                if (giacenza == null) {
+                    scartati.put(i, "Prodotto " + m.getIdProdotto() + " inesistente.");
+                } else if ("SCARICO".equals(m.getTipo()) && giacenza < m.getQuantita()) {
+                    scartati.put(i, "Quantità insufficiente per il prodotto " + m.getIdProdotto()
+                            + " (disponibili " + giacenza + ").");
+                } else {
+                    giacenze.put(m.getIdProdotto(), "CARICO".equals(m.getTipo())
+                            ? giacenza + m.getQuantita() : giacenza - m.getQuantita());
+                    RigaMovimento riga = new RigaMovimento(archivio.ultimoIdMovimento + 1, m);
+                    archivio.aggiungiMovimento(riga);
+                    m.setIdMovimento(riga.idMovimento);
+                    continue;
+                }
+                if (chiavi != null) {
+                    archivio.rimuoviChiave(chiavi.get(i));
+                }
+            }
+
+            LocalDateTime adesso = archivio.adesso();
+            for (Map.Entry<Integer, Integer> giacenza : giacenze.entrySet()) {
+                archivio.salvaProdotto(archivio.prodotti.get(giacenza.getKey()).conQuantita(giacenza.getValue(), adesso));
+            }
+        } finally {
+            archivio.sbloccaScrittura();
+        }
+        return scartati;
+    }
+
+    /**
+     * Restituisce una pagina dello storico, posizionandosi direttamente dopo {@code ultimo} nell'ordinamento.
+     *
+     * @param ultimo     ultimo movimento della pagina precedente; {@code null} per la prima pagina
+     * @param dimensione numero massimo di movimenti da restituire
+     * @return i movimenti della pagina, dal più recente
+     * @throws DAOException se {@code dimensione} non è positiva
+     */
+    @Override
+    public List<Movimenti> selectPage(Movimenti ultimo, int dimensione) throws DAOException {
+        if (dimensione <= 0) {
+            throw new DAOException("In selectPage: dimensione della pagina non valida.");
+        }
+
+        archivio.lock.readLock().lock();
+        try {
+            Iterable<RigaMovimento> righe = (ultimo == null) ? archivio.storico
+                    : archivio.storico.tailSet(new RigaMovimento(ultimo.getIdMovimento(), ultimo), false);
+            List<Movimenti> pagina = new ArrayList<>(Math.min(dimensione, archivio.storico.size()));
+            for (RigaMovimento riga : righe) {
+                if (pagina.size() == dimensione) {
+                    break;
+                }
+                pagina.add(riga.comeMovimento());
+            }
+            return pagina;
+        } finally {
+            archivio.lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public List<Movimenti> selectSuccessivi(int idMovimento) {
+        archivio.lock.readLock().lock();
+        try {
+            return comeMovimenti(archivio.movimenti.tailMap(idMovimento, false).values());
+        } finally {
+            archivio.lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Somma per giorno il riepilogo giornaliero nell'intervallo {@code [da, a)}.
+     *
+     * @param da primo giorno dell'intervallo (incluso)
+     * @param a  ultimo giorno dell'intervallo (escluso)
+     * @return i totali per giorno, in ordine di data crescente
+     * @throws DAOException se gli estremi sono {@code null}
+     */
+    @Override
+    public List<StatisticaGiornaliera> selectStatisticheGiornaliere(LocalDate da, LocalDate a) throws DAOException {
+        if (da == null || a == null) {
+            throw new DAOException("In selectStatisticheGiornaliere: intervallo di date non valido.");
+        }
+        if (!da.isBefore(a)) {
+            return new ArrayList<>();
+        }
+
+        archivio.lock.readLock().lock();
+        try {
+            return statisticheGiornaliere(archivio.riepilogo.subMap(da, true, a, false));
+        } finally {
+            archivio.lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Legge i totali di tutto lo storico e gli id degli ultimi {@link MovimentiDAO#FINESTRA_ID_RECENTI} movimenti sotto lo
+     * stesso lock in lettura, quindi in modo coerente.
+     *
+     * @return i totali per giorno, settimana, mese, trimestre e anno
+     */
+    @Override
+    public RiepilogoPeriodi selectRiepilogoPeriodi() {
+        archivio.lock.readLock().lock();
+        try {
+            int ultimoId = archivio.movimenti.isEmpty() ? 0 : archivio.movimenti.lastKey();
+            int soglia = Math.max(0, ultimoId - FINESTRA_ID_RECENTI);
+            return new RiepilogoPeriodi(statisticheGiornaliere(archivio.riepilogo), soglia,
+                    new ArrayList<>(archivio.movimenti.tailMap(soglia, false).keySet()));
+        } finally {
+            archivio.lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public List<StatisticaProdotto> selectStatisticheProdotti() {
+        archivio.lock.readLock().lock();
+        try {
+            TreeMap<Integer, int[]> perProdotto = new TreeMap<>();
+            for (Map<Integer, int[]> giorno : archivio.riepilogo.values()) {
+                for (Map.Entry<Integer, int[]> voce : giorno.entrySet()) {
+                    int[] totali = perProdotto.computeIfAbsent(voce.getKey(), id -> new int[2]);
+                    totali[0] += voce.getValue()[0];
+                    totali[1] += voce.getValue()[1];
+                }
+            }
+
+            List<StatisticaProdotto> lista = new ArrayList<>(perProdotto.size());
+            for (Map.Entry<Integer, int[]> voce : perProdotto.entrySet()) {
+                int[] totali = voce.getValue();
+                if (totali[0] != 0 || totali[1] != 0) {
+                    lista.add(new StatisticaProdotto(voce.getKey(), totali[0], totali[1]));
+                }
+            }
+            return lista;
+        } finally {
+            archivio.lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Ricostruisce il riepilogo giornaliero dall'intero storico dei movimenti.
+     *
+     * @return il numero di righe (prodotto, giorno) del riepilogo ricostruito
+     */
+    @Override
+    public int ricostruisciRiepilogoGiornaliero() {
+        archivio.lock.writeLock().lock();
+        try {
+            archivio.riepilogo.clear();
+            for (RigaMovimento riga : archivio.movimenti.values()) {
+                archivio.aggiornaRiepilogo(riga, 1);
+            }
+            int righe = 0;
+            for (Map<Integer, int[]> giorno : archivio.riepilogo.values()) {
+                righe += giorno.size();
+            }
+            return righe;
+        } finally {
+            archivio.lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Somma per giorno le righe del riepilogo, saltando i giorni con totali nulli.
+     * <br>
+     * Pre-condizione: il chiamante tiene il lock in lettura.
+     */
+    private static List<StatisticaGiornaliera> statisticheGiornaliere(NavigableMap<LocalDate, TreeMap<Integer, int[]>> giorni) {
+        List<StatisticaGiornaliera> lista = new ArrayList<>(giorni.size());
+        for (Map.Entry<LocalDate, TreeMap<Integer, int[]>> giorno : giorni.entrySet()) {
+            int carichi = 0;
+            int scarichi = 0;
+            for (int[] totali : giorno.getValue().values()) {
+                carichi += totali[0];
+                scarichi += totali[1];
+            }
+            if (carichi != 0 || scarichi != 0) {
+                lista.add(new StatisticaGiornaliera(giorno.getKey(), carichi, scarichi));
+            }
+        }
+        return lista;
+    }
+
+    /**
+     * Converte le righe in nuovi oggetti {@link Movimenti}.
+     * <br>
+     * Pre-condizione: il chiamante tiene il lock in lettura.
+     */
+    private static List<Movimenti> comeMovimenti(Collection<RigaMovimento> righe) {
+        List<Movimenti> lista = new ArrayList<>(righe.size());
+        for (RigaMovimento riga : righe) {
+            lista.add(riga.comeMovimento());
+        }
+        return lista;
+    }
+
+    /**
+     * Verifica che il prodotto del movimento esista (vincolo di chiave esterna).
+     * <br>
+     * Pre-condizione: il chiamante tiene il lock in scrittura.
+     */
+    private void verificaProdotto(Movimenti m) throws DAOException {
+        if (!archivio.prodotti.containsKey(m.getIdProdotto())) {
+            throw new DAOException("Prodotto " + m.getIdProdotto() + " inesistente.");
+        }
+    }
+
+    /**
+     * Verifica la validità del movimento, con le stesse regole del DAO MySQL e i vincoli dello schema
+     * (tipo {@code ENUM('CARICO', 'SCARICO')}, data obbligatoria, descrizione {@code VARCHAR(255)}).
+     *
+     * @param m oggetto {@link Movimenti} da verificare
+     * @throws DAOException se l'oggetto non è valido
+     */
+    private void verifyObject(Movimenti m) throws DAOException {
+        if (m == null) {
+            throw new DAOException("Il movimento è null.");
+        }
+
+        if (m.getIdProdotto() <= 0) {
+            throw new DAOException("idProdotto non valido.");
+        }
+
+        if (m.getTipo() == null || m.getTipo().isEmpty()) {
+            throw new DAOException("Il tipo di movimento non può essere vuoto.");
+        }
+
+        if (!"CARICO".equals(m.getTipo()) && !"SCARICO".equals(m.getTipo())) {
+            throw new DAOException("Tipo di movimento non valido: " + m.getTipo());
+        }
+
+        if (m.getQuantita() < 0 || (m.getQuantita() == 0 && !"Carico iniziale".equalsIgnoreCase(m.getDescrizione()))) {
+            throw new DAOException("La quantità non può essere negativa.");
+        }
+
+        if (m.getData() == null) {
+            throw new DAOException("La data del movimento non può essere null.");
+        }
+
+        if (m.getDescrizione() != null && m.getDescrizione().length() > LUNGHEZZA_DESCRIZIONE) {
+            throw new DAOException("La descrizione del movimento non può superare " + LUNGHEZZA_DESCRIZIONE
+                    + " caratteri.");
+        }
+    }
+}
@@ -0,0 +1,378 @@
+package it.unicas.project.template.address.model.dao.memoria;
+
+import it.unicas.project.template.address.model.Prodotti;
+import it.unicas.project.template.address.model.dao.DAOException;
+import it.unicas.project.template.address.model.dao.ProdottiDAO;
+import it.unicas.project.template.address.model.dao.memoria.ArchivioMemoria.RigaProdotto;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.function.Predicate;
+
+/**
+ * Implementazione in memoria del DAO per l'entità Prodotti, con la stessa semantica di
+ * {@link it.unicas.project.template.address.model.dao.mysql.ProdottiDAOMySQLImpl} e dello schema
+ * {@code db/magazzino_schema.sql}: stessi filtri di {@link #select(Prodotti, boolean)}, nome univoco senza
+ * distinzione tra maiuscole e minuscole, prezzi arrotondati a due decimali ({@code DECIMAL(5,2)}),
+ * {@code ultimaModifica} aggiornata a ogni modifica e cancellazione a cascata dei movimenti.
+ * <br>
+ * I dati sono condivisi con il {@link MovimentiDAOMemoriaImpl} dello stesso fornitore ({@link DAOMemoriaFactory}
+ * oppure {@link DAOFileFactory}, che salva anche ogni modifica su file). La classe è thread-safe.
+ *
+ * @author Cristian Corsini, Simone Feola, Daniela Spitaleri
+ * @since 19/11/2025
+ */
+public class ProdottiDAOMemoriaImpl implements ProdottiDAO {
+
+    /**
+     * Lunghezza massima del nome ({@code VARCHAR(45)}).
+     */
+    private static final int LUNGHEZZA_NOME = 45;
+
+    /**
+     * Valore massimo di un prezzo ({@code DECIMAL(5,2)}).
+     */
+    private static final double PREZZO_MASSIMO = 999.99;
+
+    private final ArchivioMemoria archivio;
+
+    /**
+     * @param archivio i dati condivisi con il DAO dei movimenti
+     */
+    ProdottiDAOMemoriaImpl(ArchivioMemoria archivio) {
+        this.archivio = archivio;
+    }
+
+    /**
+     * Seleziona i prodotti che soddisfano i campi valorizzati del filtro, in ordine di id.
+     * <br>
+     * Come nella query MySQL: nome e descrizione non vuoti sono cercati come prefisso, senza distinzione tra
+     * maiuscole e minuscole; quantità e giacenza minima sono confrontate se maggiori di -1, i prezzi se positivi;
+     * con {@code critico} vengono selezionati solo i prodotti con quantità minore o uguale alla giacenza minima.
+     *
+     * @param a       oggetto {@code Prodotti} usato come filtro; se {@code null} seleziona tutti i prodotti
+     * @param critico true per filtrare i prodotti con quantità critica (&lt;= giacenzaMin)
+     * @return i prodotti che soddisfano i criteri
+     */
+    @Override
+    public List<Prodotti> select(Prodotti a, boolean critico) {
+        Predicate<RigaProdotto> filtro = filtro(a, critico);
+        archivio.lock.readLock().lock();
+        try {
+            List<Prodotti> lista = new ArrayList<>();
+            for (RigaProdotto riga : archivio.prodotti.values()) {
+                if (filtro == null || filtro.test(riga)) {
+                    lista.add(riga.comeProdotto());
+                }
+            }
+            return lista;
+        } finally {
+            archivio.lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Costruisce il filtro di {@link #select(Prodotti, boolean)}.
+     *
+     * @return il filtro, oppure {@code null} se non ci sono criteri
+     */
+    private static Predicate<RigaProdotto> filtro(Prodotti a, boolean critico) {
+        Predicate<RigaProdotto> filtro = critico ? r -> r.quantita <= r.giacenzaMin : null;
+        if (a == null) {
+            return filtro;
+        }
+
+        String nome = a.getNome();
+        if (nome != null && !nome.trim().isEmpty()) {
+            filtro = combina(filtro, r -> r.nome.regionMatches(true, 0, nome, 0, nome.length()));
+        }
+        String descrizione = a.getDescrizione();
+        if (descrizione != null && !descrizione.trim().isEmpty()) {
+            filtro = combina(filtro, r -> r.descrizione != null
+                    && r.descrizione.regionMatches(true, 0, descrizione, 0, descrizione.length()));
+        }
+        int quantita = a.getQuantita();
+        if (quantita > -1) {
+            filtro = combina(filtro, r -> r.quantita == quantita);
+        }
+        int giacenzaMin = a.getGiacenzaMin();
+        if (giacenzaMin > -1) {
+            filtro = combina(filtro, r -> r.giacenzaMin == giacenzaMin);
+        }
+        double prezzoAcquisto = arrotonda(a.getPrezzoAcquisto());
+        if (a.getPrezzoAcquisto() > 0.0) {
+            filtro = combina(filtro, r -> r.prezzoAcquisto == prezzoAcquisto);
+        }
+        double prezzoVendita = arrotonda(a.getPrezzoVendita());
+        if (a.getPrezzoVendita() > 0.0) {
+            filtro = combina(filtro, r -> r.prezzoVendita == prezzoVendita);
+        }
+        return filtro;
+    }
+
+    private static Predicate<RigaProdotto> combina(Predicate<RigaProdotto> filtro, Predicate<RigaProdotto> condizione) {
+        return (filtro == null) ? condizione : filtro.and(condizione);
+    }
+
+    /**
+     * Seleziona i prodotti con {@code ultimaModifica} maggiore o uguale a {@code da}.
+     *
+     * @param da istante dell'ultima sincronizzazione (incluso); {@code null} per tutti i prodotti
+     * @return i prodotti modificati, in ordine di id
+     */
+    @Override
+    public List<Prodotti> selectModificatiDa(LocalDateTime da) {
+        if (da == null) {
+            return select(null, false);
+        }
+        archivio.lock.readLock().lock();
+        try {
+            List<Prodotti> lista = new ArrayList<>();
+            for (RigaProdotto riga : archivio.prodotti.values()) {
+                if (!riga.ultimaModifica.isBefore(da)) {
+                    lista.add(riga.comeProdotto());
+                }
+            }
+            return lista;
+        } finally {
+            archivio.lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public int count() {
+        archivio.lock.readLock().lock();
+        try {
+            return archivio.prodotti.size();
+        } finally {
+            archivio.lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public List<Integer> selectIdProdotti() {
+        archivio.lock.readLock().lock();
+        try {
+            return new ArrayList<>(archivio.prodotti.keySet());
+        } finally {
+            archivio.lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Aggiorna il prodotto con l'id di {@code a}; se non esiste non viene modificato nulla.
+     *
+     * @param a oggetto {@code Prodotti} contenente i nuovi valori e l'id del prodotto da aggiornare
+     * @throws DAOException se l'oggetto non è valido o il nome appartiene a un altro prodotto
+     */
+    @Override
+    public void update(Prodotti a) throws DAOException {
+        verifyObject(a);
+        archivio.bloccaScrittura();
+        try {
+            if (archivio.prodotti.containsKey(a.getIdProdotto())) {
+                verificaNome(a.getNome(), a.getIdProdotto());
+                archivio.salvaProdotto(riga(a.getIdProdotto(), a));
+            }
+        } finally {
+            archivio.sbloccaScrittura();
+        }
+    }
+
+    /**
+     * Aggiorna un prodotto in modo idempotente: la chiave viene memorizzata insieme all'aggiornamento.
+     * La quantità non viene modificata.
+     *
+     * @param a      oggetto {@code Prodotti} contenente i nuovi valori e l'id del prodotto da aggiornare
+     * @param chiave chiave univoca dell'aggiornamento
+     * @return true se l'aggiornamento è stato applicato, false se la chiave era già memorizzata
+     * @throws DAOException se l'oggetto non è valido, il prodotto non esiste o il nome appartiene a un altro prodotto
+     */
+    @Override
+    public boolean update(Prodotti a, String chiave) throws DAOException {
+        verifyObject(a);
+        archivio.bloccaScrittura();
+        try {
+            if (archivio.chiavi.contains(chiave)) {
+                return false;
+            }
+            RigaProdotto precedente = archivio.prodotti.get(a.getIdProdotto());
+            if (precedente == null) {
+                throw new DAOException("Prodotto " + a.getIdProdotto() + " inesistente.");
+            }
+            verificaNome(a.getNome(), a.getIdProdotto());
+            RigaProdotto riga = riga(a.getIdProdotto(), a);
+            archivio.salvaProdotto(riga.conQuantita(precedente.quantita, riga.ultimaModifica));
+            archivio.aggiungiChiave(chiave);
+            return true;
+        } finally {
+            archivio.sbloccaScrittura();
+        }
+    }
+
+    /**
+     * Inserisce un nuovo prodotto con un nuovo id (l'id di {@code a} viene ignorato).
+     *
+     * @param a oggetto {@code Prodotti} da inserire
+     * @return l'id generato
+     * @throws DAOException se l'oggetto non è valido o il nome appartiene a un altro prodotto
+     */
+    @Override
+    public int insert(Prodotti a) throws DAOException {
+        verifyObject(a);
+        archivio.bloccaScrittura();
+        try {
+            verificaNome(a.getNome(), null);
+            int id = archivio.ultimoIdProdotto + 1;
+            archivio.salvaProdotto(riga(id, a));
+            return id;
+        } finally {
+            archivio.sbloccaScrittura();
+        }
+    }
+
+    /**
+     * Inserisce o aggiorna un blocco di prodotti in modo atomico, come {@code INSERT ... ON DUPLICATE KEY UPDATE}:
+     * un prodotto il cui id o nome esiste già sostituisce i valori del prodotto esistente.
+     *
+     * @param prodotti i prodotti da registrare; un id non positivo indica un nuovo prodotto
+     * @return per ogni prodotto scartato, la sua posizione in {@code prodotti} e il motivo
+     * @throws DAOException se un prodotto prenderebbe il nome di un altro prodotto (il blocco viene annullato)
+     */
+    @Override
+    public Map<Integer, String> upsertAll(List<Prodotti> prodotti) throws DAOException {
+        Map<Integer, String> scartati = new TreeMap<>();
+        List<Prodotti> validi = new ArrayList<>(prodotti.size());
+        for (int i = 0; i < prodotti.size(); i++) {
+            try {
+                verifyObject(prodotti.get(i));
+                validi.add(prodotti.get(i));
+            } catch (DAOException e) {
+                scartati.put(i, e.getMessage());
+            }
+        }
+        if (validi.isEmpty()) {
+            return scartati;
+        }
+
+        archivio.bloccaScrittura();
+        try {
+            // Le righe vengono prima preparate, con le modifiche all'indice dei nomi a parte, e salvate solo se
+            // tutto il blocco è valido.
+            Map<Integer, RigaProdotto> righe = new LinkedHashMap<>();
+            Map<String, Integer> nomi = new HashMap<>();
+            int ultimoId = archivio.ultimoIdProdotto;
+            for (Prodotti p : validi) {
+                String chiave = ArchivioMemoria.chiaveNome(p.getNome());
+                Integer idNome = nomi.containsKey(chiave) ? nomi.get(chiave) : archivio.nomi.get(chiave);
+                int id = p.getIdProdotto();
+                boolean esiste = righe.containsKey(id) || archivio.prodotti.containsKey(id);
+                if (id <= 0 || (!esiste && idNome != null)) {
+                    id = (idNome != null) ? idNome : ++ultimoId;
+                } else if (idNome != null && idNome != id) {
+                    throw new DAOException("In upsertAll(): il nome \"" + p.getNome()
+                            + "\" appartiene già al prodotto " + idNome + ".");
+                }
+                ultimoId = Math.max(ultimoId, id);
+
+                RigaProdotto precedente = righe.containsKey(id) ? righe.get(id) : archivio.prodotti.get(id);
+                if (precedente != null) {
+                    nomi.put(ArchivioMemoria.chiaveNome(precedente.nome), null);
+                }
+                nomi.put(chiave, id);
+                righe.put(id, riga(id, p));
+            }
+            for (RigaProdotto riga : righe.values()) {
+                archivio.salvaProdotto(riga);
+            }
+        } finally {
+            archivio.sbloccaScrittura();
+        }
+        return scartati;
+    }
+
+    /**
+     * Elimina il prodotto con l'id di {@code a} e i suoi movimenti, compreso il riepilogo giornaliero.
+     *
+     * @param a oggetto {@code Prodotti} che identifica il prodotto da cancellare
+     * @throws DAOException se {@code a} è {@code null}
+     */
+    @Override
+    public void delete(Prodotti a) throws DAOException {
+        if (a == null || a.getIdProdotto() == null) {
+            throw new DAOException("In delete: il campo idProdotto non può essere null");
+        }
+
+        archivio.bloccaScrittura();
+        try {
+            RigaProdotto riga = archivio.prodotti.get(a.getIdProdotto());
+            if (riga != null) {
+                archivio.rimuoviProdotto(riga);
+            }
+        } finally {
+            archivio.sbloccaScrittura();
+        }
+    }
+
+    /**
+     * Crea la riga di un prodotto, con i prezzi arrotondati e l'istante di modifica corrente.
+     * <br>
+     * Pre-condizione: il chiamante tiene il lock in scrittura.
+     */
+    private RigaProdotto riga(int id, Prodotti p) {
+        return new RigaProdotto(id, p.getNome(), p.getDescrizione(), p.getQuantita(), p.getGiacenzaMin(),
+                arrotonda(p.getPrezzoAcquisto()), arrotonda(p.getPrezzoVendita()), archivio.adesso());
+    }
+
+    /**
+     * Verifica che il nome non appartenga a un prodotto diverso da {@code idProdotto}.
+     * <br>
+     * Pre-condizione: il chiamante tiene il lock in scrittura.
+     */
+    private void verificaNome(String nome, Integer idProdotto) throws DAOException {
+        Integer id = archivio.nomi.get(ArchivioMemoria.chiaveNome(nome));
+        if (id != null && !id.equals(idProdotto)) {
+            throw new DAOException("Il nome \"" + nome + "\" appartiene già al prodotto " + id + ".");
+        }
+    }
+
+    /**
+     * Verifica la validità dei campi del prodotto, con le stesse regole del DAO MySQL e i vincoli dello schema.
+     *
+     * @param a oggetto {@code Prodotti} da verificare
+     * @throws DAOException se {@code a} è null, se uno dei campi numerici è negativo, se nome/descrizione sono null,
+     *                      se il nome è troppo lungo o un prezzo supera {@value #PREZZO_MASSIMO}
+     */
+    private void verifyObject(Prodotti a) throws DAOException {
+        if (a == null) {
+            throw new DAOException("Il prodotto è null.");
+        }
+
+        if (a.getQuantita() < 0 || a.getGiacenzaMin() < 0 || a.getPrezzoAcquisto() < 0 || a.getPrezzoVendita() < 0) {
+            throw new DAOException("I campi numerici (quantità, giacenza e prezzi) non possono essere negativi.");
+        }
+
+        if (a.getNome() == null || a.getDescrizione() == null) {
+            throw new DAOException("I campi Nome e Descrizione del Prodotto non possono essere null.");
+        }
+
+        if (a.getNome().length() > LUNGHEZZA_NOME) {
+            throw new DAOException("Il nome del prodotto non può superare " + LUNGHEZZA_NOME + " caratteri.");
+        }
+
+        if (arrotonda(a.getPrezzoAcquisto()) > PREZZO_MASSIMO || arrotonda(a.getPrezzoVendita()) > PREZZO_MASSIMO) {
+            throw new DAOException("I prezzi non possono superare " + PREZZO_MASSIMO + ".");
+        }
+    }
+
+    /**
+     * @return il prezzo arrotondato a due decimali, come in una colonna {@code DECIMAL(5,2)}
+     */
+    private static double arrotonda(double prezzo) {
+        return Math.round(prezzo * 100) / 100.0;
+    }
+}
@@ -0,0 +1,651 @@
+package it.unicas.project.template.address.model.dao.memoria;
+
+import it.unicas.project.template.address.model.dao.DAOException;
+import it.unicas.project.template.address.model.dao.GiornaleOperazioni;
+import it.unicas.project.template.address.model.dao.memoria.ArchivioMemoria.RigaMovimento;
+import it.unicas.project.template.address.model.dao.memoria.ArchivioMemoria.RigaProdotto;
+import java.io.BufferedInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.channels.OverlappingFileLockException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.zip.CRC32;
+
+/**
+ * Registro append-only che rende persistente su file un {@link ArchivioMemoria}.
+ * <br>
+ * Ogni scrittura dei DAO sull'archivio diventa una transazione: le modifiche alle righe (prodotto salvato o
+ * eliminato, movimento aggiunto o eliminato, chiave di un'operazione idempotente) vengono codificate mentre la
+ * scrittura tiene il lock e, al rilascio, accodate come un unico record. Un thread di scrittura aggiunge in fondo
+ * al file tutti i record in coda e li rende persistenti con un'unica {@link FileChannel#force(boolean)}
+ * (group commit): ogni DAO restituisce solo dopo che la sua transazione è su disco, ma le transazioni accodate
+ * mentre il disco è occupato condividono la sincronizzazione successiva.
+ * <br>
+ * All'apertura il file viene riletto dall'inizio per ricostruire l'archivio e i suoi indici in memoria. Come nel
+ * {@link GiornaleOperazioni}, ogni record è {@code [lunghezza][CRC32][dati]} (interi big-endian) e un record finale
+ * incompleto o con CRC errato (scrittura interrotta) viene eliminato: una transazione viene recuperata per intero
+ * o per niente.
+ * <br>
+ * Quando il file supera il doppio della dimensione dopo l'ultimo checkpoint (e almeno {@link #SOGLIA_CHECKPOINT}
+ * byte, limite che alla chiusura non si applica) il registro esegue un checkpoint: scrive in un nuovo file lo stato corrente, cioè le sole
+ * righe esistenti senza le versioni precedenti e le righe eliminate, seguito dalle transazioni accodate nel
+ * frattempo, e lo sostituisce al file. Le righe sono immutabili, quindi il lock in lettura serve solo per copiarne
+ * i riferimenti e le scritture non restano bloccate durante il checkpoint.
+ * <br>
+ * Il file resta bloccato ({@link FileChannel#tryLock()}) finché il registro è aperto. Se una scrittura su disco
+ * fallisce il registro non accetta altre scritture: l'archivio in memoria può contenere modifiche non salvate,
+ * che vanno perse alla riapertura.
+ *
+ * @author Cristian Corsini, Simone Feola, Daniela Spitaleri
+ * @since 19/11/2025
+ */
+final class RegistroArchivio implements Closeable {
+
+    /**
+     * Logger per la classe RegistroArchivio.
+     */
+    private static final Logger LOGGER = Logger.getLogger(RegistroArchivio.class.getName());
+
+    /**
+     * Dimensione minima del file prima di un checkpoint.
+     */
+    static final long SOGLIA_CHECKPOINT = 4L << 20;
+
+    /**
+     * Righe per record nel file scritto da un checkpoint.
+     */
+    private static final int RIGHE_PER_RECORD = 1000;
+
+    /**
+     * Dimensione massima dei dati di un record (una transazione): un valore maggiore indica un record danneggiato.
+     */
+    private static final int DIMENSIONE_MASSIMA_RECORD = 64 << 20;
+
+    private static final byte PRODOTTO = 1;
+    private static final byte PRODOTTO_ELIMINATO = 2;
+    private static final byte MOVIMENTO = 3;
+    private static final byte MOVIMENTO_ELIMINATO = 4;
+    private static final byte CHIAVE = 5;
+    private static final byte CHIAVE_ELIMINATA = 6;
+    private static final byte CONTATORI = 7;
+
+    private final Path file;
+    private final ArchivioMemoria archivio;
+    private FileChannel canale;
+
+    /**
+     * Dimensione del file dopo l'apertura o l'ultimo checkpoint.
+     */
+    private long dimensioneCheckpoint;
+
+    /**
+     * Modifiche della transazione in corso; usate solo tenendo il lock in scrittura dell'archivio.
+     */
+    private final ByteArrayOutputStream transazione = new ByteArrayOutputStream(256);
+    private final DataOutputStream out = new DataOutputStream(transazione);
+
+    /**
+     * Record accodati e non ancora scritti: le transazioni da {@code salvate + 1} ad {@code accodate}.
+     */
+    private final ArrayDeque<ByteBuffer> coda = new ArrayDeque<>();
+    private long accodate = 0;
+    private long salvate = 0;
+
+    private IOException errore = null;
+    private boolean chiuso = false;
+    private Thread scrittura;
+
+    private RegistroArchivio(Path file, ArchivioMemoria archivio) {
+        this.file = file;
+        this.archivio = archivio;
+    }
+
+    /**
+     * Apre il registro, creando il file se non esiste, ricostruisce l'archivio dal suo contenuto e da quel momento
+     * salva ogni modifica dell'archivio.
+     *
+     * @param file     il file del registro; la cartella viene creata se non esiste
+     * @param archivio un archivio vuoto
+     * @return il registro aperto
+     * @throws IOException se il file non può essere aperto o letto, o è già aperto da un altro processo
+     */
+    static RegistroArchivio apri(Path file, ArchivioMemoria archivio) throws IOException {
+        RegistroArchivio registro = new RegistroArchivio(file.toAbsolutePath(), archivio);
+        Files.createDirectories(registro.file.getParent());
+        Files.deleteIfExists(registro.temporaneo());
+        registro.apriCanale();
+        try {
+            registro.recupera();
+        } catch (IOException | RuntimeException e) {
+            registro.canale.close();
+            throw e;
+        }
+        registro.dimensioneCheckpoint = registro.canale.size();
+        archivio.registro = registro;
+        registro.scrittura = new Thread(registro::scrivi, "archivio-scrittura");
+        registro.scrittura.setDaemon(true);
+        registro.scrittura.start();
+        return registro;
+    }
+
+    private Path temporaneo() {
+        return file.resolveSibling(file.getFileName() + ".checkpoint");
+    }
+
+    private void apriCanale() throws IOException {
+        canale = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE, StandardOpenOption.CREATE);
+        FileLock blocco;
+        try {
+            blocco = canale.tryLock();
+        } catch (OverlappingFileLockException e) {
+            blocco = null;
+        }
+        if (blocco == null) {
+            canale.close();
+            throw new IOException("Archivio " + file + " già in uso da un altro processo.");
+        }
+        canale.position(canale.size());
+    }
+
+    /**
+     * Verifica che il registro accetti scritture.
+     * <br>
+     * Pre-condizione: il chiamante tiene il lock in scrittura dell'archivio.
+     *
+     * @throws DAOException se il registro è chiuso o una scrittura precedente è fallita
+     */
+    synchronized void verifica() throws DAOException {
+        if (chiuso) {
+            throw new DAOException("Archivio " + file + " chiuso.");
+        }
+        if (errore != null) {
+            throw new DAOException("Archivio " + file + " non scrivibile dopo un errore: " + errore.getMessage(),
+                    errore);
+        }
+    }
+
+    /**
+     * Accoda la transazione in corso, se contiene modifiche.
+     * <br>
+     * Pre-condizione: il chiamante tiene il lock in scrittura dell'archivio, così l'ordine della coda è
+     * l'ordine delle modifiche.
+     *
+     * @return il numero progressivo della transazione, da passare ad {@link #attendi(long)}; 0 se non ci sono
+     * modifiche
+     */
+    synchronized long accoda() {
+        if (transazione.size() == 0) {
+            return 0;
+        }
+        coda.add(incapsula(transazione.toByteArray()));
+        transazione.reset();
+        notifyAll();
+        return ++accodate;
+    }
+
+    /**
+     * Attende che una transazione accodata sia su disco.
+     *
+     * @param numero il numero restituito da {@link #accoda()}
+     * @throws DAOException se la transazione non può essere scritta
+     */
+    synchronized void attendi(long numero) throws DAOException {
+        boolean interrotto = false;
+        while (salvate < numero && errore == null) {
+            try {
+                wait();
+            } catch (InterruptedException e) {
+                interrotto = true;
+            }
+        }
+        if (interrotto) {
+            Thread.currentThread().interrupt();
+        }
+        if (salvate < numero) {
+            throw new DAOException("Errore di scrittura dell'archivio " + file + ": " + errore.getMessage(), errore);
+        }
+    }
+
+    /**
+     * Ferma il thread di scrittura dopo aver scritto le transazioni in coda, esegue un checkpoint se il file è
+     * almeno raddoppiato e chiude il file.
+     *
+     * @throws IOException se la scrittura o la chiusura del file fallisce
+     */
+    @Override
+    public void close() throws IOException {
+        // Il lock in scrittura garantisce che nessuna scrittura sia a metà: quelle successive vengono rifiutate.
+        archivio.lock.writeLock().lock();
+        try {
+            synchronized (this) {
+                if (chiuso) {
+                    return;
+                }
+                chiuso = true;
+                notifyAll();
+            }
+        } finally {
+            archivio.lock.writeLock().unlock();
+        }
+
+        try {
+            scrittura.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        try {
+            if (errore == null && canale.size() > 2 * dimensioneCheckpoint) {
+                checkpoint();
+            }
+        } finally {
+            canale.close();
+        }
+    }
+
+    /**
+     * Ciclo del thread di scrittura: scrive le transazioni in coda con un'unica sincronizzazione su disco,
+     * poi esegue un checkpoint se il file è cresciuto abbastanza.
+     */
+    private void scrivi() {
+        while (true) {
+            List<ByteBuffer> lotto;
+            long ultima;
+            synchronized (this) {
+                while (coda.isEmpty() && !chiuso) {
+                    try {
+                        wait();
+                    } catch (InterruptedException e) {
+                        return;
+                    }
+                }
+                if (coda.isEmpty()) {
+                    return;
+                }
+                lotto = new ArrayList<>(coda);
+                coda.clear();
+                ultima = accodate;
+            }
+
+            try {
+                for (ByteBuffer record : lotto) {
+                    while (record.hasRemaining()) {
+                        canale.write(record);
+                    }
+                }
+                canale.force(false);
+                salvate(ultima);
+
+                if (canale.size() > Math.max(SOGLIA_CHECKPOINT, 2 * dimensioneCheckpoint)) {
+                    checkpoint();
+                }
+            } catch (IOException e) {
+                LOGGER.log(Level.SEVERE, "Errore di scrittura dell'archivio " + file, e);
+                synchronized (this) {
+                    errore = e;
+                    notifyAll();
+                }
+                return;
+            }
+        }
+    }
+
+    private synchronized void salvate(long ultima) {
+        salvate = ultima;
+        notifyAll();
+    }
+
+    /**
+     * Scrive lo stato corrente dell'archivio in un nuovo file, seguito dalle transazioni accodate dopo la copia
+     * dello stato, e lo sostituisce al file del registro.
+     * <br>
+     * Eseguito solo dal thread di scrittura, o alla chiusura dopo la sua terminazione.
+     */
+    private void checkpoint() throws IOException {
+        List<RigaProdotto> prodotti;
+        List<RigaMovimento> movimenti;
+        List<String> chiavi;
+        int ultimoIdProdotto;
+        int ultimoIdMovimento;
+        long coperte;
+        archivio.lock.readLock().lock();
+        try {
+            prodotti = new ArrayList<>(archivio.prodotti.values());
+            movimenti = new ArrayList<>(archivio.movimenti.values());
+            chiavi = new ArrayList<>(archivio.chiavi);
+            ultimoIdProdotto = archivio.ultimoIdProdotto;
+            ultimoIdMovimento = archivio.ultimoIdMovimento;
+            // Con il lock in lettura nessuna transazione può essere accodata: lo stato copiato comprende
+            // esattamente le prime "coperte" transazioni.
+            synchronized (this) {
+                coperte = accodate;
+            }
+        } finally {
+            archivio.lock.readLock().unlock();
+        }
+
+        Path temporaneo = temporaneo();
+        long ultima;
+        try {
+            try (FileChannel nuovo = FileChannel.open(temporaneo, StandardOpenOption.WRITE, StandardOpenOption.CREATE,
+                    StandardOpenOption.TRUNCATE_EXISTING)) {
+                ByteArrayOutputStream bytes = new ByteArrayOutputStream(1 << 16);
+                DataOutputStream stato = new DataOutputStream(bytes);
+                stato.writeByte(CONTATORI);
+                stato.writeInt(ultimoIdProdotto);
+                stato.writeInt(ultimoIdMovimento);
+                int righe = 0;
+                for (RigaProdotto riga : prodotti) {
+                    scriviProdotto(stato, riga);
+                    righe = scriviSePieno(nuovo, bytes, righe + 1);
+                }
+                for (RigaMovimento riga : movimenti) {
+                    scriviMovimento(stato, riga);
+                    righe = scriviSePieno(nuovo, bytes, righe + 1);
+                }
+                for (String chiave : chiavi) {
+                    stato.writeByte(CHIAVE);
+                    scriviStringa(stato, chiave);
+                    righe = scriviSePieno(nuovo, bytes, righe + 1);
+                }
+                scriviSePieno(nuovo, bytes, RIGHE_PER_RECORD);
+
+                List<ByteBuffer> successive;
+                synchronized (this) {
+                    for (long i = salvate; i < coperte; i++) {
+                        coda.poll();
+                    }
+                    successive = new ArrayList<>(coda);
+                    coda.clear();
+                    ultima = accodate;
+                }
+                for (ByteBuffer record : successive) {
+                    while (record.hasRemaining()) {
+                        nuovo.write(record);
+                    }
+                }
+                nuovo.force(true);
+            }
+
+            canale.close();
+            try {
+                Files.move(temporaneo, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(temporaneo, file, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } finally {
+            Files.deleteIfExists(temporaneo);
+            if (!canale.isOpen()) {
+                apriCanale();
+            }
+        }
+        LOGGER.log(Level.INFO, "Checkpoint dell'archivio " + file + ": " + dimensioneCheckpoint + " -> "
+                + canale.size() + " byte");
+        dimensioneCheckpoint = canale.size();
+        salvate(ultima);
+    }
+
+    /**
+     * Scrive come un record le righe codificate in {@code bytes} se sono almeno {@link #RIGHE_PER_RECORD}.
+     *
+     * @return il numero di righe rimaste in {@code bytes}
+     */
+    private static int scriviSePieno(FileChannel canale, ByteArrayOutputStream bytes, int righe) throws IOException {
+        if (righe < RIGHE_PER_RECORD || bytes.size() == 0) {
+            return righe;
+        }
+        ByteBuffer record = incapsula(bytes.toByteArray());
+        while (record.hasRemaining()) {
+            canale.write(record);
+        }
+        bytes.reset();
+        return 0;
+    }
+
+    /**
+     * Rilegge il file applicando all'archivio le transazioni complete ed elimina l'eventuale record finale
+     * incompleto o danneggiato.
+     */
+    private void recupera() throws IOException {
+        long dimensione = canale.size();
+        long posizione = 0;
+        int transazioni = 0;
+        DataInputStream in = new DataInputStream(new BufferedInputStream(Channels.newInputStream(canale.position(0)),
+                1 << 16));
+        while (posizione + 2 * Integer.BYTES <= dimensione) {
+            int lunghezza = in.readInt();
+            int crc = in.readInt();
+            long fine = posizione + 2 * Integer.BYTES + lunghezza;
+            if (lunghezza <= 0 || lunghezza > DIMENSIONE_MASSIMA_RECORD || fine > dimensione) {
+                break;
+            }
+            byte[] dati = new byte[lunghezza];
+            try {
+                in.readFully(dati);
+            } catch (EOFException e) {
+                break;
+            }
+            CRC32 calcolato = new CRC32();
+            calcolato.update(dati);
+            if ((int) calcolato.getValue() != crc) {
+                break;
+            }
+            try {
+                applica(ByteBuffer.wrap(dati));
+            } catch (BufferUnderflowException | IllegalArgumentException e) {
+                break;
+            }
+            posizione = fine;
+            transazioni++;
+        }
+
+        if (posizione < dimensione) {
+            LOGGER.log(Level.WARNING, "Archivio " + file + ": eliminati " + (dimensione - posizione)
+                    + " byte finali incompleti o danneggiati");
+            canale.truncate(posizione);
+            canale.force(true);
+        }
+        canale.position(posizione);
+        LOGGER.log(Level.INFO, "Archivio " + file + ": " + transazioni + " record, " + archivio.prodotti.size()
+                + " prodotti, " + archivio.movimenti.size() + " movimenti");
+    }
+
+    /**
+     * Applica all'archivio le modifiche di un record.
+     */
+    private void applica(ByteBuffer in) {
+        while (in.hasRemaining()) {
+            byte tipo = in.get();
+            switch (tipo) {
+                case PRODOTTO: {
+                    int id = in.getInt();
+                    String nome = leggiStringa(in);
+                    String descrizione = leggiStringa(in);
+                    int quantita = in.getInt();
+                    int giacenzaMin = in.getInt();
+                    double prezzoAcquisto = in.getDouble();
+                    double prezzoVendita = in.getDouble();
+                    LocalDateTime ultimaModifica = LocalDateTime.ofInstant(Instant.ofEpochMilli(in.getLong()),
+                            ZoneOffset.UTC);
+                    archivio.salvaProdotto(new RigaProdotto(id, nome, descrizione, quantita, giacenzaMin,
+                            prezzoAcquisto, prezzoVendita, ultimaModifica));
+                    break;
+                }
+                case PRODOTTO_ELIMINATO: {
+                    RigaProdotto riga = archivio.prodotti.get(in.getInt());
+                    if (riga != null) {
+                        archivio.rimuoviProdotto(riga);
+                    }
+                    break;
+                }
+                case MOVIMENTO: {
+                    int id = in.getInt();
+                    int idProdotto = in.getInt();
+                    String tipoMovimento = in.get() != 0 ? "CARICO" : "SCARICO";
+                    int quantita = in.getInt();
+                    LocalDate data = LocalDate.ofEpochDay(in.getLong());
+                    RigaMovimento riga = new RigaMovimento(id, idProdotto, tipoMovimento, quantita, data,
+                            leggiStringa(in));
+                    RigaMovimento precedente = archivio.movimenti.get(id);
+                    if (precedente != null) {
+                        archivio.rimuoviMovimento(precedente);
+                    }
+                    archivio.aggiungiMovimento(riga);
+                    break;
+                }
+                case MOVIMENTO_ELIMINATO: {
+                    RigaMovimento riga = archivio.movimenti.get(in.getInt());
+                    if (riga != null) {
+                        archivio.rimuoviMovimento(riga);
+                    }
+                    break;
+                }
+                case CHIAVE:
+                    archivio.aggiungiChiave(leggiStringa(in));
+                    break;
+                case CHIAVE_ELIMINATA:
+                    archivio.rimuoviChiave(leggiStringa(in));
+                    break;
+                case CONTATORI:
+                    archivio.ultimoIdProdotto = Math.max(archivio.ultimoIdProdotto, in.getInt());
+                    archivio.ultimoIdMovimento = Math.max(archivio.ultimoIdMovimento, in.getInt());
+                    break;
+                default:
+                    throw new IllegalArgumentException("Tipo di modifica sconosciuto: " + tipo);
+            }
+        }
+    }
+
+    // Modifiche della transazione in corso, registrate da ArchivioMemoria tenendo il lock in scrittura.
+
+    void prodotto(RigaProdotto riga) {
+        try {
+            scriviProdotto(out, riga);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    void prodottoEliminato(int idProdotto) {
+        try {
+            out.writeByte(PRODOTTO_ELIMINATO);
+            out.writeInt(idProdotto);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    void movimento(RigaMovimento riga) {
+        try {
+            scriviMovimento(out, riga);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    void movimentoEliminato(int idMovimento) {
+        try {
+            out.writeByte(MOVIMENTO_ELIMINATO);
+            out.writeInt(idMovimento);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    void chiave(String chiave) {
+        try {
+            out.writeByte(CHIAVE);
+            scriviStringa(out, chiave);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    void chiaveEliminata(String chiave) {
+        try {
+            out.writeByte(CHIAVE_ELIMINATA);
+            scriviStringa(out, chiave);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static void scriviProdotto(DataOutputStream out, RigaProdotto riga) throws IOException {
+        out.writeByte(PRODOTTO);
+        out.writeInt(riga.idProdotto);
+        scriviStringa(out, riga.nome);
+        scriviStringa(out, riga.descrizione);
+        out.writeInt(riga.quantita);
+        out.writeInt(riga.giacenzaMin);
+        out.writeDouble(riga.prezzoAcquisto);
+        out.writeDouble(riga.prezzoVendita);
+        out.writeLong(riga.ultimaModifica.toInstant(ZoneOffset.UTC).toEpochMilli());
+    }
+
+    private static void scriviMovimento(DataOutputStream out, RigaMovimento riga) throws IOException {
+        out.writeByte(MOVIMENTO);
+        out.writeInt(riga.idMovimento);
+        out.writeInt(riga.idProdotto);
+        out.writeByte(riga.isCarico() ? 1 : 0);
+        out.writeInt(riga.quantita);
+        out.writeLong(riga.data.toEpochDay());
+        scriviStringa(out, riga.descrizione);
+    }
+
+    /**
+     * Antepone ai dati la lunghezza e il CRC32.
+     */
+    private static ByteBuffer incapsula(byte[] dati) {
+        CRC32 crc = new CRC32();
+        crc.update(dati);
+        ByteBuffer record = ByteBuffer.allocate(2 * Integer.BYTES + dati.length);
+        record.putInt(dati.length).putInt((int) crc.getValue()).put(dati).flip();
+        return record;
+    }
+
+    private static void scriviStringa(DataOutputStream out, String s) throws IOException {
+        if (s == null) {
+            out.writeInt(-1);
+            return;
+        }
+        byte[] bytes = s.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    private static String leggiStringa(ByteBuffer in) {
+        int lunghezza = in.getInt();
+        if (lunghezza == -1) {
+            return null;
+        }
+        if (lunghezza < 0 || lunghezza > in.remaining()) {
+            throw new IllegalArgumentException("Lunghezza non valida: " + lunghezza);
+        }
+        byte[] bytes = new byte[lunghezza];
+        in.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,572 @@
+package it.unicas.project.template.address.model.dao.mysql;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Pool limitato di connessioni JDBC verso MySQL.
+ * <br>
+ * Le connessioni vengono aperte al bisogno fino a {@code maxSize}, restituite al pool
+ * dopo l'uso e riutilizzate dalle richieste successive, evitando l'handshake TCP e
+ * l'autenticazione MySQL per ogni statement. Un thread di manutenzione chiude le
+ * connessioni inattive oltre {@code idleTimeoutMillis} (mantenendone almeno {@code minSize})
+ * e segnala le connessioni prese in prestito e non restituite entro {@code leakThresholdMillis}.
+ * Lo stack trace del prestito, costoso da catturare a ogni richiesta, viene registrato e riportato nella
+ * segnalazione solo se il logger del pool è abilitato al livello {@link Level#FINE}.
+ * <br>
+ * Le connessioni inattive da più di {@link #VALIDATION_INTERVAL_MILLIS} vengono validate
+ * prima di essere consegnate; quelle non più valide vengono scartate e sostituite.
+ * <br>
+ * Ogni connessione possiede una {@link StatementCache} LRU, così che gli statement preparati
+ * sopravvivano al rilascio della connessione e vengano riusati dai prestiti successivi.
+ *
+ * @author Cristian Corsini, Simone Feola, Daniela Spitaleri
+ * @since 19/11/2025
+ * @see DAOMySQLSettings#getConnection()
+ * @see DAOMySQLSettings#releaseConnection(Connection)
+ */
+public class ConnectionPool {
+
+    /**
+     * Intervallo (ms) sotto il quale una connessione appena usata non viene rivalidata al prestito.
+     */
+    public final static long VALIDATION_INTERVAL_MILLIS = 1000;
+
+    /**
+     * Timeout (s) concesso a {@link Connection#isValid(int)} durante la validazione.
+     */
+    private final static int VALIDATION_TIMEOUT_SECONDS = 2;
+
+    /**
+     * Logger del pool (eventi di creazione, eviction e leak).
+     */
+    private static final Logger LOGGER = Logger.getLogger(ConnectionPool.class.getName());
+
+    /**
+     * Wrapper di una connessione fisica con i metadati usati dal pool.
+     */
+    private class PooledConnection {
+        private final Connection connection;
+        private final StatementCache statements;
+        private long lastUsed = System.currentTimeMillis();
+        private long borrowedAt;
+        private String borrowThread;
+        private Throwable borrowTrace;
+        private boolean leakReported;
+
+        private PooledConnection(Connection connection) {
+            this.connection = connection;
+            this.statements = new StatementCache(connection, statementCacheSize, statementHits, statementMisses);
+        }
+    }
+
+    private final String url;
+    private final String userName;
+    private final String pwd;
+    private final int minSize;
+    private final int maxSize;
+    private final long idleTimeoutMillis;
+    private final long borrowTimeoutMillis;
+    private final long leakThresholdMillis;
+    private final int statementCacheSize;
+
+    /**
+     * Connessioni libere, usate in ordine LIFO così che quelle in coda invecchino e vengano rimosse.
+     */
+    private final Deque<PooledConnection> idle = new ArrayDeque<>();
+
+    /**
+     * Connessioni attualmente in prestito, indicizzate per identità della connessione fisica.
+     */
+    private final Map<Connection, PooledConnection> inUse = new IdentityHashMap<>();
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition available = lock.newCondition();
+    private final ScheduledExecutorService maintenance;
+
+    /**
+     * Numero di connessioni aperte o in apertura (libere + in prestito).
+     */
+    private int total = 0;
+    private int waiting = 0;
+    private boolean closed = false;
+
+    private long borrowCount = 0;
+    private long totalWaitNanos = 0;
+    private long maxWaitNanos = 0;
+    private long timeoutCount = 0;
+    private long createdCount = 0;
+    private long destroyedCount = 0;
+    private long validationFailures = 0;
+    private long leakCount = 0;
+    private final LongAdder statementHits = new LongAdder();
+    private final LongAdder statementMisses = new LongAdder();
+
+    /**
+     * Crea un nuovo pool per l'URL e le credenziali fornite.
+     * <br>
+     * Il pool non apre connessioni nel costruttore: la prima viene creata alla prima richiesta
+     * e il thread di manutenzione riporta il pool a {@code minSize} in background.
+     *
+     * @param url                 URL JDBC completo (inclusi i parametri)
+     * @param userName            utente MySQL
+     * @param pwd                 password MySQL
+     * @param minSize             connessioni da mantenere aperte anche se inattive
+     * @param maxSize             numero massimo di connessioni aperte contemporaneamente
+     * @param idleTimeoutMillis   inattività oltre la quale una connessione eccedente {@code minSize} viene chiusa
+     * @param borrowTimeoutMillis attesa massima per ottenere una connessione quando il pool è esaurito
+     * @param leakThresholdMillis durata del prestito oltre la quale una connessione è segnalata come leak;
+     *                            un valore non positivo disattiva la segnalazione
+     * @param statementCacheSize  numero massimo di statement preparati mantenuti per ciascuna connessione
+     */
+    public ConnectionPool(String url, String userName, String pwd, int minSize, int maxSize,
+                          long idleTimeoutMillis, long borrowTimeoutMillis, long leakThresholdMillis,
+                          int statementCacheSize) {
+        if (minSize < 0 || maxSize < 1 || minSize > maxSize) {
+            throw new IllegalArgumentException("Dimensioni del pool non valide: min=" + minSize + ", max=" + maxSize);
+        }
+        this.url = url;
+        this.userName = userName;
+        this.pwd = pwd;
+        this.minSize = minSize;
+        this.maxSize = maxSize;
+        this.idleTimeoutMillis = idleTimeoutMillis;
+        this.borrowTimeoutMillis = borrowTimeoutMillis;
+        this.leakThresholdMillis = leakThresholdMillis;
+        this.statementCacheSize = statementCacheSize;
+
+        maintenance = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "connection-pool-maintenance");
+            t.setDaemon(true);
+            return t;
+        });
+        long period = Math.max(1000, (isLeakDetectionEnabled() ? Math.min(idleTimeoutMillis, leakThresholdMillis)
+                : idleTimeoutMillis) / 2);
+        maintenance.scheduleWithFixedDelay(this::maintain, 0, period, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * @return true se le connessioni non restituite entro {@code leakThresholdMillis} vengono segnalate
+     */
+    private boolean isLeakDetectionEnabled() {
+        return leakThresholdMillis > 0;
+    }
+
+    /**
+     * Indica se questo pool è stato creato per la configurazione fornita.
+     *
+     * @param url      URL JDBC
+     * @param userName utente MySQL
+     * @param pwd      password MySQL
+     * @return true se URL e credenziali coincidono con quelli del pool
+     */
+    public boolean matches(String url, String userName, String pwd) {
+        return Objects.equals(this.url, url)
+                && Objects.equals(this.userName, userName)
+                && Objects.equals(this.pwd, pwd);
+    }
+
+    /**
+     * Prende in prestito una connessione dal pool.
+     * <br>
+     * Se non ci sono connessioni libere e il pool ha raggiunto {@code maxSize}, attende
+     * al più {@code borrowTimeoutMillis} che un'altra connessione venga restituita.
+     * <br>
+     * Post-condizione: la connessione restituita è in autocommit e deve essere
+     * riconsegnata con {@link #release(Connection)}.
+     *
+     * @return una connessione valida
+     * @throws SQLException se il pool è chiuso, scade l'attesa o non è possibile aprire una nuova connessione
+     */
+    public Connection borrow() throws SQLException {
+        long start = System.nanoTime();
+        long remaining = TimeUnit.MILLISECONDS.toNanos(borrowTimeoutMillis);
+
+        while (true) {
+            PooledConnection pc = null;
+            boolean create = false;
+
+            lock.lock();
+            try {
+                while (pc == null && !create) {
+                    if (closed) {
+                        throw new SQLException("Il pool di connessioni è stato chiuso.");
+                    }
+                    pc = idle.pollFirst();
+                    if (pc == null) {
+                        if (total < maxSize) {
+                            total++;
+                            create = true;
+                        } else {
+                            if (remaining <= 0) {
+                                timeoutCount++;
+                                throw new SQLException("Timeout: nessuna connessione disponibile dopo "
+                                        + borrowTimeoutMillis + " ms (pool di " + maxSize + " connessioni esaurito).");
+                            }
+                            waiting++;
+                            try {
+                                remaining = available.awaitNanos(remaining);
+                            } catch (InterruptedException e) {
+                                Thread.currentThread().interrupt();
+                                throw new SQLException("Interrotto in attesa di una connessione.");
+                            } finally {
+                                waiting--;
+                            }
+                        }
+                    }
+                }
+            } finally {
+                lock.unlock();
+            }
+
+            if (create) {
+                try {
+                    pc = new PooledConnection(open());
+                } catch (SQLException e) {
+                    lock.lock();
+                    try {
+                        total--;
+                        available.signal();
+                    } finally {
+                        lock.unlock();
+                    }
+                    throw e;
+                }
+            } else if (!isValid(pc)) {
+                destroy(pc);
+                continue;
+            }
+
+            long waited = System.nanoTime() - start;
+            pc.borrowedAt = System.currentTimeMillis();
+            pc.borrowThread = Thread.currentThread().getName();
+            pc.borrowTrace = (isLeakDetectionEnabled() && LOGGER.isLoggable(Level.FINE))
+                    ? new Throwable("Connessione presa in prestito da " + pc.borrowThread) : null;
+            pc.leakReported = false;
+
+            lock.lock();
+            try {
+                if (closed) {
+                    total--;
+                    destroyedCount++;
+                    closeQuietly(pc.connection);
+                    throw new SQLException("Il pool di connessioni è stato chiuso.");
+                }
+                inUse.put(pc.connection, pc);
+                borrowCount++;
+                totalWaitNanos += waited;
+                maxWaitNanos = Math.max(maxWaitNanos, waited);
+            } finally {
+                lock.unlock();
+            }
+            return pc.connection;
+        }
+    }
+
+    /**
+     * Restituisce uno statement preparato per {@code sql} dalla cache della connessione,
+     * preparandolo solo se non è già presente.
+     * <br>
+     * Pre-condizione: {@code connection} deve essere in prestito dal thread chiamante.
+     * <br>
+     * Lo statement appartiene alla cache: il chiamante non deve chiuderlo, ma solo chiudere
+     * i {@link java.sql.ResultSet} ottenuti. Per connessioni estranee al pool lo statement
+     * viene preparato senza cache.
+     *
+     * @param connection        connessione ottenuta con {@link #borrow()}
+     * @param sql               testo SQL con segnaposto {@code ?}
+     * @param autoGeneratedKeys {@link java.sql.Statement#RETURN_GENERATED_KEYS} o {@link java.sql.Statement#NO_GENERATED_KEYS}
+     * @return lo statement preparato
+     * @throws SQLException se la preparazione fallisce
+     */
+    public PreparedStatement prepareStatement(Connection connection, String sql, int autoGeneratedKeys) throws SQLException {
+        PooledConnection pc;
+        lock.lock();
+        try {
+            pc = inUse.get(connection);
+        } finally {
+            lock.unlock();
+        }
+        if (pc == null) {
+            return connection.prepareStatement(sql, autoGeneratedKeys);
+        }
+        return pc.statements.prepare(sql, autoGeneratedKeys);
+    }
+
+    /**
+     * Restituisce al pool una connessione ottenuta con {@link #borrow()}.
+     * <br>
+     * Eventuali transazioni lasciate aperte vengono annullate e l'autocommit ripristinato;
+     * se la connessione è chiusa o non ripristinabile viene scartata. Connessioni che non
+     * appartengono al pool vengono semplicemente chiuse.
+     *
+     * @param connection la connessione da restituire; ignorata se {@code null}
+     */
+    public void release(Connection connection) {
+        if (connection == null) {
+            return;
+        }
+
+        PooledConnection pc;
+        lock.lock();
+        try {
+            pc = inUse.remove(connection);
+        } finally {
+            lock.unlock();
+        }
+
+        if (pc == null) {
+            closeQuietly(connection);
+            return;
+        }
+
+        boolean reusable;
+        try {
+            if (!connection.getAutoCommit()) {
+                connection.rollback();
+                connection.setAutoCommit(true);
+            }
+            reusable = !connection.isClosed();
+        } catch (SQLException e) {
+            reusable = false;
+        }
+
+        if (!reusable) {
+            destroy(pc);
+            return;
+        }
+
+        pc.lastUsed = System.currentTimeMillis();
+        pc.borrowTrace = null;
+        lock.lock();
+        try {
+            if (closed) {
+                total--;
+                destroyedCount++;
+                closeQuietly(connection);
+            } else {
+                idle.addFirst(pc);
+                available.signal();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Restituisce un'istantanea delle statistiche del pool.
+     *
+     * @return le statistiche correnti (dimensione, attese, timeout, leak...)
+     */
+    public ConnectionPoolStatistics getStatistics() {
+        lock.lock();
+        try {
+            return new ConnectionPoolStatistics(total, inUse.size(), idle.size(), waiting, maxSize,
+                    borrowCount, totalWaitNanos, maxWaitNanos, timeoutCount,
+                    createdCount, destroyedCount, validationFailures, leakCount,
+                    statementHits.sum(), statementMisses.sum());
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Chiude il pool: le connessioni libere vengono chiuse subito, quelle in prestito alla restituzione.
+     * Le richieste successive falliscono con {@link SQLException}.
+     */
+    public void close() {
+        List<PooledConnection> toClose;
+        lock.lock();
+        try {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            toClose = new ArrayList<>(idle);
+            total -= idle.size();
+            destroyedCount += idle.size();
+            idle.clear();
+            available.signalAll();
+        } finally {
+            lock.unlock();
+        }
+        maintenance.shutdownNow();
+        for (PooledConnection pc : toClose) {
+            closeQuietly(pc.connection);
+        }
+        LOGGER.info("Pool chiuso: " + getStatistics());
+    }
+
+    /**
+     * Apre una nuova connessione fisica verso il database.
+     *
+     * @return la connessione aperta
+     * @throws SQLException se la connessione non può essere stabilita
+     */
+    private Connection open() throws SQLException {
+        Connection connection = DriverManager.getConnection(url, userName, pwd);
+        lock.lock();
+        try {
+            createdCount++;
+        } finally {
+            lock.unlock();
+        }
+        LOGGER.fine("Aperta nuova connessione verso " + url);
+        return connection;
+    }
+
+    /**
+     * Valida una connessione libera prima del prestito, saltando il controllo
+     * se è stata usata negli ultimi {@link #VALIDATION_INTERVAL_MILLIS} ms.
+     *
+     * @param pc la connessione da validare
+     * @return true se la connessione è utilizzabile
+     */
+    private boolean isValid(PooledConnection pc) {
+        if (System.currentTimeMillis() - pc.lastUsed < VALIDATION_INTERVAL_MILLIS) {
+            return true;
+        }
+        try {
+            if (pc.connection.isValid(VALIDATION_TIMEOUT_SECONDS)) {
+                return true;
+            }
+        } catch (SQLException e) {
+            LOGGER.log(Level.FINE, "Validazione fallita", e);
+        }
+        lock.lock();
+        try {
+            validationFailures++;
+        } finally {
+            lock.unlock();
+        }
+        return false;
+    }
+
+    /**
+     * Scarta definitivamente una connessione liberando il suo posto nel pool.
+     *
+     * @param pc la connessione da chiudere
+     */
+    private void destroy(PooledConnection pc) {
+        closeQuietly(pc.connection);
+        lock.lock();
+        try {
+            total--;
+            destroyedCount++;
+            available.signal();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Attività periodica: chiude le connessioni inattive in eccesso, segnala i leak
+     * e riporta il pool alla dimensione minima.
+     */
+    private void maintain() {
+        long now = System.currentTimeMillis();
+        List<PooledConnection> expired = new ArrayList<>();
+        List<PooledConnection> leaks = new ArrayList<>();
+        int missing;
+
+        lock.lock();
+        try {
+            if (closed) {
+                return;
+            }
+            Iterator<PooledConnection> it = idle.descendingIterator();
+            while (it.hasNext() && total - expired.size() > minSize) {
+                PooledConnection pc = it.next();
+                if (now - pc.lastUsed > idleTimeoutMillis) {
+                    it.remove();
+                    expired.add(pc);
+                }
+            }
+            total -= expired.size();
+            destroyedCount += expired.size();
+
+            for (PooledConnection pc : inUse.values()) {
+                if (isLeakDetectionEnabled() && !pc.leakReported && now - pc.borrowedAt > leakThresholdMillis) {
+                    pc.leakReported = true;
+                    leakCount++;
+                    leaks.add(pc);
+                }
+            }
+
+            missing = Math.max(0, minSize - total);
+            total += missing;
+        } finally {
+            lock.unlock();
+        }
+
+        for (PooledConnection pc : expired) {
+            closeQuietly(pc.connection);
+        }
+        for (PooledConnection pc : leaks) {
+            LOGGER.log(Level.WARNING, "Possibile leak: connessione presa in prestito da " + pc.borrowThread
+                    + " non restituita da oltre " + leakThresholdMillis + " ms", pc.borrowTrace);
+        }
+
+        for (int i = 0; i < missing; i++) {
+            PooledConnection pc;
+            try {
+                pc = new PooledConnection(open());
+            } catch (SQLException e) {
+                LOGGER.fine("Impossibile aprire connessioni di riserva: " + e.getMessage());
+                lock.lock();
+                try {
+                    total -= missing - i;
+                } finally {
+                    lock.unlock();
+                }
+                break;
+            }
+            lock.lock();
+            try {
+                if (closed) {
+                    total--;
+                    destroyedCount++;
+                    closeQuietly(pc.connection);
+                } else {
+                    idle.addLast(pc);
+                    available.signal();
+                }
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        LOGGER.fine(() -> "Statistiche pool: " + getStatistics());
+    }
+
+    /**
+     * Chiude una connessione ignorando eventuali errori.
+     *
+     * @param connection connessione da chiudere
+     */
+    private static void closeQuietly(Connection connection) {
+        try {
+            connection.close();
+        } catch (SQLException e) {
+            LOGGER.log(Level.FINE, "Errore in chiusura connessione", e);
+        }
+    }
+}
@@ -0,0 +1,193 @@
+package it.unicas.project.template.address.model.dao.mysql;
+
+import java.util.Locale;
+
+/**
+ * Istantanea immutabile delle statistiche di un {@link ConnectionPool}.
+ * <br>
+ * Permette di osservare la dimensione corrente del pool e i tempi di attesa
+ * sostenuti dai DAO per ottenere una connessione.
+ *
+ * @author Cristian Corsini, Simone Feola, Daniela Spitaleri
+ * @since 19/11/2025
+ * @see DAOMySQLSettings#getPoolStatistics()
+ */
+public class ConnectionPoolStatistics {
+
+    private final int totali;
+    private final int inUso;
+    private final int libere;
+    private final int inAttesa;
+    private final int massimo;
+    private final long richieste;
+    private final long attesaTotaleNanos;
+    private final long attesaMassimaNanos;
+    private final long timeout;
+    private final long create;
+    private final long chiuse;
+    private final long validazioniFallite;
+    private final long leak;
+    private final long statementRiusati;
+    private final long statementPreparati;
+
+    /**
+     * Costruisce l'istantanea con i valori letti dal pool.
+     *
+     * @param totali             connessioni aperte (libere + in uso)
+     * @param inUso              connessioni in prestito
+     * @param libere             connessioni libere
+     * @param inAttesa           thread in attesa di una connessione
+     * @param massimo            dimensione massima del pool
+     * @param richieste          prestiti completati
+     * @param attesaTotaleNanos  somma dei tempi di attesa dei prestiti (ns)
+     * @param attesaMassimaNanos attesa massima osservata (ns)
+     * @param timeout            richieste fallite per timeout
+     * @param create             connessioni fisiche aperte
+     * @param chiuse             connessioni fisiche chiuse
+     * @param validazioniFallite connessioni scartate alla validazione
+     * @param leak               connessioni segnalate come leak
+     * @param statementRiusati   statement preparati serviti dalla cache
+     * @param statementPreparati statement preparati ex novo
+     */
+    ConnectionPoolStatistics(int totali, int inUso, int libere, int inAttesa, int massimo,
+                             long richieste, long attesaTotaleNanos, long attesaMassimaNanos, long timeout,
+                             long create, long chiuse, long validazioniFallite, long leak,
+                             long statementRiusati, long statementPreparati) {
+        this.totali = totali;
+        this.inUso = inUso;
+        this.libere = libere;
+        this.inAttesa = inAttesa;
+        this.massimo = massimo;
+        this.richieste = richieste;
+        this.attesaTotaleNanos = attesaTotaleNanos;
+        this.attesaMassimaNanos = attesaMassimaNanos;
+        this.timeout = timeout;
+        this.create = create;
+        this.chiuse = chiuse;
+        this.validazioniFallite = validazioniFallite;
+        this.leak = leak;
+        this.statementRiusati = statementRiusati;
+        this.statementPreparati = statementPreparati;
+    }
+
+    /**
+     * @return connessioni aperte (libere + in uso)
+     */
+    public int getTotali() {
+        return totali;
+    }
+
+    /**
+     * @return connessioni attualmente in prestito
+     */
+    public int getInUso() {
+        return inUso;
+    }
+
+    /**
+     * @return connessioni libere pronte al riuso
+     */
+    public int getLibere() {
+        return libere;
+    }
+
+    /**
+     * @return thread in attesa di una connessione
+     */
+    public int getInAttesa() {
+        return inAttesa;
+    }
+
+    /**
+     * @return dimensione massima del pool
+     */
+    public int getMassimo() {
+        return massimo;
+    }
+
+    /**
+     * @return numero di prestiti completati
+     */
+    public long getRichieste() {
+        return richieste;
+    }
+
+    /**
+     * @return attesa media per ottenere una connessione, in millisecondi
+     */
+    public double getAttesaMediaMillis() {
+        return richieste == 0 ? 0.0 : attesaTotaleNanos / (double) richieste / 1_000_000.0;
+    }
+
+    /**
+     * @return attesa massima osservata, in millisecondi
+     */
+    public double getAttesaMassimaMillis() {
+        return attesaMassimaNanos / 1_000_000.0;
+    }
+
+    /**
+     * @return richieste fallite per timeout
+     */
+    public long getTimeout() {
+        return timeout;
+    }
+
+    /**
+     * @return connessioni fisiche aperte dalla creazione del pool
+     */
+    public long getCreate() {
+        return create;
+    }
+
+    /**
+     * @return connessioni fisiche chiuse dalla creazione del pool
+     */
+    public long getChiuse() {
+        return chiuse;
+    }
+
+    /**
+     * @return connessioni scartate perché non più valide
+     */
+    public long getValidazioniFallite() {
+        return validazioniFallite;
+    }
+
+    /**
+     * @return connessioni segnalate come non restituite
+     */
+    public long getLeak() {
+        return leak;
+    }
+
+    /**
+     * @return statement preparati serviti dalla cache delle connessioni
+     */
+    public long getStatementRiusati() {
+        return statementRiusati;
+    }
+
+    /**
+     * @return statement preparati ex novo (cache miss)
+     */
+    public long getStatementPreparati() {
+        return statementPreparati;
+    }
+
+    /**
+     * Restituisce una rappresentazione testuale delle statistiche, utile per logging e debug.
+     *
+     * @return stringa con i valori dell'istantanea
+     */
+    @Override
+    public String toString() {
+        return String.format(Locale.ROOT,
+                "ConnectionPoolStatistics{totali=%d/%d, inUso=%d, libere=%d, inAttesa=%d, richieste=%d, "
+                        + "attesaMedia=%.3f ms, attesaMassima=%.3f ms, timeout=%d, create=%d, chiuse=%d, "
+                        + "validazioniFallite=%d, leak=%d, statementRiusati=%d, statementPreparati=%d}",
+                totali, massimo, inUso, libere, inAttesa, richieste, getAttesaMediaMillis(),
+                getAttesaMassimaMillis(), timeout, create, chiuse, validazioniFallite, leak,
+                statementRiusati, statementPreparati);
+    }
+}
@@ -0,0 +1,66 @@
+package it.unicas.project.template.address.model.dao.mysql;
+
+import it.unicas.project.template.address.model.dao.DAOFactory;
+import it.unicas.project.template.address.model.dao.MovimentiDAO;
+import it.unicas.project.template.address.model.dao.ProdottiDAO;
+
+/**
+ * Fornitore dei DAO MySQL: restituisce i singleton {@link ProdottiDAOMySQLImpl} e {@link MovimentiDAOMySQLImpl},
+ * che usano il pool di connessioni configurato in {@link DAOMySQLSettings}.
+ *
+ * @author Cristian Corsini, Simone Feola, Daniela Spitaleri
+ * @since 19/11/2025
+ */
+public class DAOMySQLFactory extends DAOFactory {
+
+    /**
+     * @return "mysql"
+     */
+    @Override
+    public String getNome() {
+        return "mysql";
+    }
+
+    @Override
+    public ProdottiDAO getProdottiDAO() {
+        return ProdottiDAOMySQLImpl.getInstance();
+    }
+
+    @Override
+    public MovimentiDAO getMovimentiDAO() {
+        return MovimentiDAOMySQLImpl.getInstance();
+    }
+
+    /**
+     * @return utente, host e schema delle impostazioni correnti (es. "root@localhost/magazzino")
+     */
+    @Override
+    public String getDescrizione() {
+        DAOMySQLSettings settings = DAOMySQLSettings.getCurrentDAOMySQLSettings();
+        return settings.getUserName() + "@" + settings.getHost() + "/" + settings.getSchema();
+    }
+
+    /**
+     * @return true: il server MySQL può diventare irraggiungibile
+     */
+    @Override
+    public boolean isRemoto() {
+        return true;
+    }
+
+    /**
+     * @return la dimensione dei batch delle impostazioni correnti ({@link DAOMySQLSettings#getBatchSize()})
+     */
+    @Override
+    public int getDimensioneLotto() {
+        return DAOMySQLSettings.getCurrentDAOMySQLSettings().getBatchSize();
+    }
+
+    /**
+     * Chiude il pool di connessioni.
+     */
+    @Override
+    public void chiudi() {
+        DAOMySQLSettings.closePool();
+    }
+}
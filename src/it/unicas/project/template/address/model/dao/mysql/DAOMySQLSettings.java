@@ -1,8 +1,12 @@
 package it.unicas.project.template.address.model.dao.mysql;
 
-import java.sql.DriverManager;
+import java.sql.Connection;
+import java.sql.Date;
+import java.sql.PreparedStatement;
 import java.sql.SQLException;
 import java.sql.Statement;
+import java.sql.Types;
+import java.time.LocalDate;
 
 /**
  * Utility per la configurazione e la gestione delle impostazioni di
@@ -10,6 +14,10 @@ import java.sql.Statement;
  * <br>
  * Fornisce costanti di default, accesso al singleton {@code DAOMySQLSettings}
  * corrente e metodi helper per creare e chiudere {@link Statement}.
+ * <br>
+ * Le connessioni sono gestite da un {@link ConnectionPool}: {@link #getStatement()} prende
+ * in prestito una connessione dal pool e {@link #closeStatement(Statement)} la restituisce,
+ * evitando di riaprire la connessione verso MySQL a ogni operazione.
  *
  * @author Cristian Corsini, Simone Feola, Daniela Spitaleri
  * @since 19/11/2025
@@ -53,10 +61,66 @@ public class DAOMySQLSettings {
 
     /**
      * Parametri di connessione JDBC da appendere all'URL.
+     * <br>
+     * {@code useServerPrepStmts} fa preparare gli statement sul server, così che MySQL
+     * analizzi ogni forma di query una sola volta per connessione; {@code rewriteBatchedStatements}
+     * riscrive i batch di INSERT in un'unica INSERT multi-riga; {@code connectTimeout} limita l'attesa
+     * quando il server non è raggiungibile, così i caricamenti in background falliscono in pochi secondi.
      *
      * @see #getStatement()
+     * @see #prepareStatement(Connection, String)
+     */
+    public final static String PARAMETERS = "?useSSL=false&allowPublicKeyRetrieval=true&serverTimezone=UTC&useServerPrepStmts=true"
+            + "&rewriteBatchedStatements=true&connectTimeout=5000";
+
+    /**
+     * Numero di default di righe inviate in un singolo batch JDBC (e in una singola transazione).
+     *
+     * @see #getBatchSize()
+     */
+    public final static int BATCH_SIZE = 500;
+
+    /**
+     * Numero minimo di connessioni mantenute aperte dal pool.
+     *
+     * @see ConnectionPool
+     */
+    public final static int POOL_MIN_SIZE = 2;
+
+    /**
+     * Numero massimo di connessioni aperte contemporaneamente dal pool.
+     *
+     * @see ConnectionPool
      */
-    public final static String PARAMETERS = "?useSSL=false&allowPublicKeyRetrieval=true&serverTimezone=UTC";
+    public final static int POOL_MAX_SIZE = 10;
+
+    /**
+     * Inattività (ms) dopo la quale le connessioni eccedenti {@link #POOL_MIN_SIZE} vengono chiuse.
+     *
+     * @see ConnectionPool
+     */
+    public final static long POOL_IDLE_TIMEOUT_MILLIS = 5 * 60 * 1000;
+
+    /**
+     * Attesa massima (ms) per ottenere una connessione quando il pool è esaurito.
+     *
+     * @see ConnectionPool
+     */
+    public final static long POOL_BORROW_TIMEOUT_MILLIS = 10 * 1000;
+
+    /**
+     * Durata (ms) di un prestito oltre la quale la connessione viene segnalata come possibile leak.
+     *
+     * @see ConnectionPool
+     */
+    public final static long POOL_LEAK_THRESHOLD_MILLIS = 60 * 1000;
+
+    /**
+     * Numero massimo di statement preparati mantenuti in cache per ogni connessione del pool.
+     *
+     * @see StatementCache
+     */
+    public final static int STATEMENT_CACHE_SIZE = 32;
 
     /**
      * Host corrente da usare per la connessione (istanza).
@@ -86,6 +150,13 @@ public class DAOMySQLSettings {
      */
     private String schema = System.getenv("DB_SCHEMA");//"magazzino";
 
+    /**
+     * Numero di righe per batch (istanza).
+     *
+     * @see #getBatchSize()
+     */
+    private int batchSize = BATCH_SIZE;
+
     /**
      * Restituisce l'host configurato per questa istanza.
      *
@@ -122,6 +193,16 @@ public class DAOMySQLSettings {
         return schema;
     }
 
+    /**
+     * Restituisce il numero di righe inviate in ciascun batch JDBC dalle operazioni massive
+     * (es. {@code insertAll}); ogni batch è eseguito in una propria transazione.
+     *
+     * @return la dimensione del batch
+     */
+    public int getBatchSize() {
+        return batchSize;
+    }
+
     /**
      * Imposta l'host per questa istanza di configurazione.
      *
@@ -158,6 +239,18 @@ public class DAOMySQLSettings {
         this.schema = schema;
     }
 
+    /**
+     * Imposta il numero di righe per batch per questa istanza di configurazione.
+     *
+     * @param batchSize nuova dimensione del batch; deve essere positiva
+     */
+    public void setBatchSize(int batchSize) {
+        if (batchSize <= 0) {
+            throw new IllegalArgumentException("La dimensione del batch deve essere positiva.");
+        }
+        this.batchSize = batchSize;
+    }
+
     static{
         try {
             Class.forName(DRIVERNAME);
@@ -173,6 +266,13 @@ public class DAOMySQLSettings {
      */
     private static DAOMySQLSettings currentDAOMySQLSettings = null;
 
+    /**
+     * Pool di connessioni associato alla configurazione corrente.
+     *
+     * @see #getPool()
+     */
+    private static ConnectionPool pool = null;
+
     /**
      * Restituisce l'istanza corrente di {@code DAOMySQLSettings}.
      * <br>
@@ -214,32 +314,179 @@ public class DAOMySQLSettings {
         currentDAOMySQLSettings = daoMySQLSettings;
     }
 
+    /**
+     * Restituisce l'URL JDBC corrispondente a questa configurazione.
+     *
+     * @return l'URL JDBC comprensivo di {@link #PARAMETERS}
+     */
+    public String getUrl() {
+        return "jdbc:mysql://" + host + "/" + schema + PARAMETERS;
+    }
+
+    /**
+     * Restituisce il pool di connessioni per la configurazione corrente.
+     * <br>
+     * Se la configurazione è cambiata (host, schema o credenziali) il pool precedente
+     * viene chiuso e ne viene creato uno nuovo.
+     *
+     * @return il pool associato a {@link #getCurrentDAOMySQLSettings()}
+     */
+    private static synchronized ConnectionPool getPool() {
+        DAOMySQLSettings settings = getCurrentDAOMySQLSettings();
+        String url = settings.getUrl();
+        if (pool == null || !pool.matches(url, settings.userName, settings.pwd)) {
+            if (pool != null) {
+                pool.close();
+            }
+            pool = new ConnectionPool(url, settings.userName, settings.pwd, POOL_MIN_SIZE, POOL_MAX_SIZE,
+                    POOL_IDLE_TIMEOUT_MILLIS, POOL_BORROW_TIMEOUT_MILLIS, POOL_LEAK_THRESHOLD_MILLIS,
+                    STATEMENT_CACHE_SIZE);
+        }
+        return pool;
+    }
+
+    /**
+     * Prende in prestito una connessione dal pool della configurazione corrente.
+     * <br>
+     * Post-condizione: la connessione deve essere restituita con {@link #releaseConnection(Connection)}.
+     *
+     * @return una connessione valida verso il database
+     * @throws SQLException se il pool è esaurito oltre il timeout o la connessione non può essere aperta
+     */
+    public static Connection getConnection() throws SQLException {
+        return getPool().borrow();
+    }
+
+    /**
+     * Restituisce al pool una connessione ottenuta con {@link #getConnection()}.
+     *
+     * @param connection la connessione da restituire; ignorata se {@code null}
+     */
+    public static void releaseConnection(Connection connection) {
+        ConnectionPool current;
+        synchronized (DAOMySQLSettings.class) {
+            current = pool;
+        }
+        if (current != null) {
+            current.release(connection);
+        } else if (connection != null) {
+            try {
+                connection.close();
+            } catch (SQLException ignored) {
+            }
+        }
+    }
+
+    /**
+     * Restituisce uno statement preparato per {@code sql} dalla cache della connessione.
+     * <br>
+     * Lo statement non deve essere chiuso dal chiamante: resta nella cache della connessione
+     * e viene riusato dalle esecuzioni successive della stessa query.
+     *
+     * @param connection connessione ottenuta con {@link #getConnection()}
+     * @param sql        testo SQL con segnaposto {@code ?}
+     * @return lo statement preparato
+     * @throws SQLException se la preparazione fallisce
+     */
+    public static PreparedStatement prepareStatement(Connection connection, String sql) throws SQLException {
+        return getPool().prepareStatement(connection, sql, Statement.NO_GENERATED_KEYS);
+    }
+
+    /**
+     * Come {@link #prepareStatement(Connection, String)}, ma lo statement restituisce le chiavi generate.
+     *
+     * @param connection connessione ottenuta con {@link #getConnection()}
+     * @param sql        testo SQL con segnaposto {@code ?}
+     * @return lo statement preparato con {@link Statement#RETURN_GENERATED_KEYS}
+     * @throws SQLException se la preparazione fallisce
+     */
+    public static PreparedStatement prepareStatementWithKeys(Connection connection, String sql) throws SQLException {
+        return getPool().prepareStatement(connection, sql, Statement.RETURN_GENERATED_KEYS);
+    }
+
+    /**
+     * Imposta in ordine i parametri di uno statement preparato.
+     * <br>
+     * I valori {@link LocalDate} sono convertiti in {@link Date}; i {@code null} sono impostati come SQL NULL.
+     *
+     * @param ps         statement preparato
+     * @param parameters valori dei segnaposto, nell'ordine in cui compaiono nella query
+     * @throws SQLException se un parametro non può essere impostato
+     */
+    public static void setParameters(PreparedStatement ps, Object... parameters) throws SQLException {
+        for (int i = 0; i < parameters.length; i++) {
+            Object value = parameters[i];
+            if (value == null) {
+                ps.setNull(i + 1, Types.NULL);
+            } else if (value instanceof LocalDate) {
+                ps.setDate(i + 1, Date.valueOf((LocalDate) value));
+            } else {
+                ps.setObject(i + 1, value);
+            }
+        }
+    }
+
+    /**
+     * Restituisce le statistiche del pool di connessioni corrente (dimensione, attese, leak).
+     * <br>
+     * Non crea il pool se non esiste ancora.
+     *
+     * @return le statistiche del pool, oppure {@code null} se non è stata ancora richiesta alcuna connessione
+     */
+    public static ConnectionPoolStatistics getPoolStatistics() {
+        ConnectionPool current;
+        synchronized (DAOMySQLSettings.class) {
+            current = pool;
+        }
+        return (current != null) ? current.getStatistics() : null;
+    }
+
+    /**
+     * Chiude il pool di connessioni corrente, se presente.
+     * <br>
+     * Da invocare alla chiusura dell'applicazione.
+     */
+    public static synchronized void closePool() {
+        if (pool != null) {
+            pool.close();
+            pool = null;
+        }
+    }
+
     /**
      * Crea e restituisce un {@link Statement} utilizzando la configurazione corrente.
      * <br>
      * Se non esiste un'istanza corrente, viene creata con i valori di default.
+     * La connessione sottostante è presa in prestito dal pool.
      *
      * @return un oggetto {@link Statement} pronto per eseguire query sul database
-     * @throws SQLException se non è possibile aprire la connessione o creare lo statement
+     * @throws SQLException se non è possibile ottenere la connessione o creare lo statement
      * @see #getCurrentDAOMySQLSettings()
      */
     public static Statement getStatement() throws SQLException{
-        if (currentDAOMySQLSettings == null){
-            currentDAOMySQLSettings = getDefaultDAOSettings();
+        Connection connection = getConnection();
+        try {
+            return connection.createStatement();
+        } catch (SQLException e) {
+            releaseConnection(connection);
+            throw e;
         }
-        return DriverManager.getConnection("jdbc:mysql://" + currentDAOMySQLSettings.host  + "/" + currentDAOMySQLSettings.schema + PARAMETERS, currentDAOMySQLSettings.userName, currentDAOMySQLSettings.pwd).createStatement();
     }
 
     /**
-     * Chiude lo {@link Statement} fornito e la connessione sottostante.
+     * Chiude lo {@link Statement} fornito e restituisce la connessione sottostante al pool.
      * <br>
      * Pre-condizioni: {@code st} non deve essere {@code null} e deve essere aperto.
      *
-     * @param st lo {@link Statement} da chiudere; la connessione associata verrà chiusa anch'essa
+     * @param st lo {@link Statement} da chiudere; la connessione associata torna nel pool
      * @throws SQLException se si verifica un errore durante la chiusura della risorsa
      */
     public static void closeStatement(Statement st) throws SQLException{
-        st.getConnection().close();
-        st.close();
+        Connection connection = st.getConnection();
+        try {
+            st.close();
+        } finally {
+            releaseConnection(connection);
+        }
     }
 }
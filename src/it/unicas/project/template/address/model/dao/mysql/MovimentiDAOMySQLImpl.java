@@ -1,13 +1,28 @@
 package it.unicas.project.template.address.model.dao.mysql;
 
 import it.unicas.project.template.address.model.Movimenti;
-import it.unicas.project.template.address.model.dao.DAO;
+import it.unicas.project.template.address.model.RiepilogoPeriodi;
+import it.unicas.project.template.address.model.StatisticaGiornaliera;
+import it.unicas.project.template.address.model.StatisticaProdotto;
 import it.unicas.project.template.address.model.dao.DAOException;
+import it.unicas.project.template.address.model.dao.MovimentiDAO;
+import java.io.IOException;
+import java.sql.Connection;
+import java.sql.Date;
+import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
-import java.sql.Statement;
+import java.time.LocalDate;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
 import java.util.logging.Logger;
 
 /**
@@ -15,11 +30,20 @@ import java.util.logging.Logger;
  * <br>
  * Fornisce operazioni di base (insert, delete, update, select) sulla tabella
  * "movimenti" del database e mappatura dei risultati su oggetti {@link Movimenti}.
+ * Le query sono parametrizzate ed eseguite tramite gli statement preparati in cache
+ * sulle connessioni del pool.
+ * <br>
+ * Lo storico può essere letto a pagine con {@link #selectPage(Movimenti, int)}, che sfrutta l'indice
+ * {@code data_idMovimento} per posizionarsi direttamente sulla pagina richiesta.
+ * <br>
+ * Ogni scrittura sui movimenti aggiorna, nella stessa transazione, il riepilogo giornaliero
+ * {@code movimenti_giornalieri} (totali di carichi e scarichi per prodotto e giorno), da cui sono lette
+ * le statistiche: il loro costo dipende dal numero di giorni e prodotti e non dal numero di movimenti.
  *
  * @author Cristian Corsini, Simone Feola, Daniela Spitaleri
  * @since 19/11/2025
  */
-public class MovimentiDAOMySQLImpl implements DAO<Movimenti> {
+public class MovimentiDAOMySQLImpl implements MovimentiDAO {
 
     /**
      * Costruttore privato per applicare il pattern Singleton.
@@ -31,19 +55,142 @@ public class MovimentiDAOMySQLImpl implements DAO<Movimenti> {
      *
      * @see #getInstance()
      */
-    private static DAO dao = null;
+    private static MovimentiDAO dao = null;
 
     /**
      * Logger per registrare query ed eventi relativi al DAO.
      */
     private static Logger logger = null;
 
+    /**
+     * Query di inserimento di un movimento, condivisa da {@link #insert(Movimenti)} e {@link #insertAll(Collection)}.
+     */
+    private static final String INSERT_QUERY = "INSERT INTO movimenti (idMovimento, idProdotto, tipo, quantita, data, descrizione) "
+            + "VALUES (NULL, ?, ?, ?, ?, ?)";
+
+    /**
+     * Query della prima pagina dello storico (movimenti più recenti).
+     */
+    private static final String PAGE_QUERY = "SELECT * FROM movimenti ORDER BY data DESC, idMovimento DESC LIMIT ?";
+
+    /**
+     * Query delle pagine successive alla prima: riparte dalla coppia (data, idMovimento) dell'ultimo movimento letto.
+     */
+    private static final String NEXT_PAGE_QUERY = "SELECT * FROM movimenti WHERE data < ? OR (data = ? AND idMovimento < ?) "
+            + "ORDER BY data DESC, idMovimento DESC LIMIT ?";
+
+    /**
+     * Movimenti registrati dopo un dato id, letti sull'indice primario.
+     */
+    private static final String SUCCESSIVI_QUERY = "SELECT * FROM movimenti WHERE idMovimento > ? ORDER BY idMovimento";
+
+    /**
+     * Intero storico con il nome del prodotto, dal più recente; l'ordinamento usa l'indice {@code data_idMovimento}.
+     */
+    private static final String STORICO_QUERY = "SELECT m.idMovimento, p.nome, m.tipo, m.quantita, m.data, m.descrizione "
+            + "FROM movimenti m LEFT JOIN prodotti p ON p.idProdotto = m.idProdotto ORDER BY m.data DESC, m.idMovimento DESC";
+
+    /**
+     * Incremento relativo della giacenza di un prodotto, usato per i movimenti di CARICO.
+     */
+    private static final String CARICO_QUERY = "UPDATE prodotti SET quantita = COALESCE(quantita, 0) + ? WHERE idProdotto = ?";
+
+    /**
+     * Decremento relativo della giacenza di un prodotto, usato per i movimenti di SCARICO:
+     * la condizione sulla quantità impedisce che la giacenza diventi negativa.
+     */
+    private static final String SCARICO_QUERY = "UPDATE prodotti SET quantita = quantita - ? WHERE idProdotto = ? AND quantita >= ?";
+
+    /**
+     * Lettura della giacenza aggiornata, eseguita nella stessa transazione del movimento.
+     */
+    private static final String QUANTITA_QUERY = "SELECT quantita FROM prodotti WHERE idProdotto = ?";
+
+    /**
+     * Impostazione della giacenza di un prodotto già bloccato nella transazione corrente.
+     */
+    private static final String IMPOSTA_QUANTITA_QUERY = "UPDATE prodotti SET quantita = ? WHERE idProdotto = ?";
+
+    /**
+     * Memorizzazione della chiave di un movimento registrato in modo idempotente.
+     */
+    private static final String REGISTRA_CHIAVE_QUERY = "INSERT INTO operazioni_applicate (chiave) VALUES (?)";
+
+    /**
+     * Totali per giorno in un intervallo di date, dal riepilogo giornaliero; il filtro su {@code giorno}
+     * usa la chiave primaria (giorno, idProdotto).
+     */
+    private static final String STATISTICHE_GIORNALIERE_QUERY = "SELECT giorno, SUM(carichi) AS carichi, SUM(scarichi) AS scarichi "
+            + "FROM movimenti_giornalieri WHERE giorno >= ? AND giorno < ? GROUP BY giorno "
+            + "HAVING carichi <> 0 OR scarichi <> 0 ORDER BY giorno";
+
+    /**
+     * Totali per giorno su tutto lo storico, dal riepilogo giornaliero.
+     */
+    private static final String STATISTICHE_TUTTI_GIORNI_QUERY = "SELECT giorno, SUM(carichi) AS carichi, SUM(scarichi) AS scarichi "
+            + "FROM movimenti_giornalieri GROUP BY giorno HAVING carichi <> 0 OR scarichi <> 0 ORDER BY giorno";
+
+    /**
+     * Id del movimento più recente (0 se non ci sono movimenti).
+     */
+    private static final String ULTIMO_ID_QUERY = "SELECT COALESCE(MAX(idMovimento), 0) FROM movimenti";
+
+    /**
+     * Id dei movimenti successivi a quello indicato.
+     */
+    private static final String ID_SUCCESSIVI_QUERY = "SELECT idMovimento FROM movimenti WHERE idMovimento > ?";
+
+    /**
+     * Totali per prodotto su tutto lo storico, dal riepilogo giornaliero.
+     */
+    private static final String STATISTICHE_PRODOTTI_QUERY = "SELECT idProdotto, SUM(carichi) AS carichi, SUM(scarichi) AS scarichi "
+            + "FROM movimenti_giornalieri GROUP BY idProdotto HAVING carichi <> 0 OR scarichi <> 0 ORDER BY idProdotto";
+
+    /**
+     * Somma al riepilogo giornaliero le variazioni di carichi e scarichi di un prodotto in un giorno,
+     * creando la riga se non esiste.
+     */
+    private static final String RIEPILOGO_QUERY = "INSERT INTO movimenti_giornalieri (idProdotto, giorno, carichi, scarichi) "
+            + "VALUES (?, ?, ?, ?) ON DUPLICATE KEY UPDATE carichi = carichi + VALUES(carichi), scarichi = scarichi + VALUES(scarichi)";
+
+    /**
+     * Svuotamento del riepilogo giornaliero prima della ricostruzione.
+     */
+    private static final String SVUOTA_RIEPILOGO_QUERY = "DELETE FROM movimenti_giornalieri";
+
+    /**
+     * Ricostruzione del riepilogo giornaliero dall'intero storico dei movimenti.
+     */
+    private static final String RICOSTRUISCI_RIEPILOGO_QUERY = "INSERT INTO movimenti_giornalieri (idProdotto, giorno, carichi, scarichi) "
+            + "SELECT idProdotto, data, SUM(CASE WHEN tipo = 'CARICO' THEN quantita ELSE 0 END), "
+            + "SUM(CASE WHEN tipo = 'SCARICO' THEN quantita ELSE 0 END) FROM movimenti GROUP BY idProdotto, data";
+
+    /**
+     * Query di aggiornamento di un movimento identificato da idMovimento.
+     */
+    private static final String UPDATE_QUERY = "UPDATE movimenti SET idProdotto = ?, tipo = ?, quantita = ?, data = ?, "
+            + "descrizione = ? WHERE idMovimento = ?";
+
+    /**
+     * Numeri di segnaposto ammessi in una lista {@code IN (?, ...)}, in ordine crescente.
+     * <br>
+     * Ogni lunghezza è una query diversa per la {@link StatementCache} e per il server: una lista viene
+     * completata ripetendo l'ultimo valore fino alla prima lunghezza sufficiente, e una lista più lunga
+     * dell'ultima viene divisa in più query, così le query distinte restano al più quattro.
+     */
+    private static final int[] DIMENSIONI_IN = {1, 8, 32, 128};
+
+    /**
+     * Numero massimo di valori di una lista {@code IN} in un'unica query.
+     */
+    private static final int DIMENSIONE_MASSIMA_IN = DIMENSIONI_IN[DIMENSIONI_IN.length - 1];
+
     /**
      * Restituisce l'istanza singleton del DAO per Movimenti.
      *
-     * @return l'istanza singleton di {@code DAO<Movimenti>}
+     * @return l'istanza singleton di {@link MovimentiDAO}
      */
-    public static DAO getInstance() {
+    public static MovimentiDAO getInstance() {
         if (dao == null) {
             dao = new MovimentiDAOMySQLImpl();
             logger = Logger.getLogger(MovimentiDAOMySQLImpl.class.getName());
@@ -59,32 +206,86 @@ public class MovimentiDAOMySQLImpl implements DAO<Movimenti> {
      * <br>
      * Post-condizioni: viene eseguita una INSERT nel database; l'effetto
      * è l'aggiunta di una riga nella tabella movimenti corrispondente ai valori
-     * di {@code m}.
+     * di {@code m} e l'aggiornamento del riepilogo giornaliero, nella stessa transazione.
+     * <br>
+     * Equivale a {@link #insertAll(Collection)} con un solo elemento.
      *
      * @param m oggetto {@link Movimenti} da inserire (idMovimento ignorato)
-     * @return valore intero di convenzione (attualmente 0); in implementazioni future può restituire l'id generato
+     * @return l'id generato dal database per il nuovo movimento (o -1 se non disponibile)
      * @throws DAOException se {@code m} non è valido o si verifica un errore SQL durante l'insert
      */
     @Override
     public int insert(Movimenti m) throws DAOException {
-        verifyObject(m);
+        List<Integer> ids = insertAll(Collections.singletonList(m));
+        return ids.isEmpty() ? -1 : ids.get(0);
+    }
 
-        String query = "INSERT INTO movimenti (idMovimento, idProdotto, tipo, quantita, data, descrizione) VALUES ("
-                + "NULL, "
-                + m.getIdProdotto() + ", '"
-                + m.getTipo() + "', "
-                + m.getQuantita() + ", '"
-                + m.getData() + "', '"
-                + m.getDescrizione() + "')";
+    /**
+     * Inserisce una collezione di movimenti usando batch JDBC.
+     * <br>
+     * I movimenti sono inviati in blocchi di {@link DAOMySQLSettings#getBatchSize()} righe sulla stessa
+     * connessione; grazie a {@code rewriteBatchedStatements} ogni blocco diventa un'unica INSERT multi-riga
+     * ed è confermato in una propria transazione, insieme all'aggiornamento del riepilogo giornaliero
+     * (una sola riga per prodotto e giorno del blocco).
+     * <br>
+     * Pre-condizioni: ogni movimento deve essere valido secondo {@link #verifyObject(Movimenti)};
+     * la validazione avviene prima di inviare qualunque riga.
+     * <br>
+     * Post-condizioni: se si verifica un errore, il blocco in corso viene annullato mentre i blocchi
+     * precedenti restano registrati.
+     *
+     * @param movimenti i movimenti da inserire (idMovimento ignorato)
+     * @return gli id generati, nello stesso ordine di {@code movimenti}
+     * @throws DAOException se un movimento non è valido o si verifica un errore SQL
+     */
+    @Override
+    public List<Integer> insertAll(Collection<Movimenti> movimenti) throws DAOException {
+        for (Movimenti m : movimenti) {
+            verifyObject(m);
+        }
 
         try {
-            logger.info("SQL: " + query);
+            logger.info("SQL (batch " + movimenti.size() + "): " + INSERT_QUERY);
         } catch (NullPointerException e) {
-            System.out.println("SQL: " + query);
+            System.out.println("SQL (batch " + movimenti.size() + "): " + INSERT_QUERY);
         }
 
-        executeUpdate(query);
-        return 0;
+        List<Integer> ids = new ArrayList<>(movimenti.size());
+        int batchSize = DAOMySQLSettings.getCurrentDAOMySQLSettings().getBatchSize();
+
+        Connection connection = null;
+        try {
+            connection = DAOMySQLSettings.getConnection();
+            connection.setAutoCommit(false);
+            PreparedStatement ps = DAOMySQLSettings.prepareStatementWithKeys(connection, INSERT_QUERY);
+            try {
+                List<Movimenti> blocco = new ArrayList<>(Math.min(batchSize, movimenti.size()));
+                for (Movimenti m : movimenti) {
+                    DAOMySQLSettings.setParameters(ps, m.getIdProdotto(), m.getTipo(), m.getQuantita(), m.getData(), m.getDescrizione());
+                    ps.addBatch();
+                    blocco.add(m);
+                    if (blocco.size() == batchSize) {
+                        executeBatch(ps, ids);
+                        aggiornaRiepilogo(connection, blocco, Collections.emptyList());
+                        connection.commit();
+                        blocco.clear();
+                    }
+                }
+                if (!blocco.isEmpty()) {
+                    executeBatch(ps, ids);
+                    aggiornaRiepilogo(connection, blocco, Collections.emptyList());
+                    connection.commit();
+                }
+            } finally {
+                ps.clearBatch();
+            }
+        } catch (SQLException e) {
+            throw new DAOException("In insertAll(): " + e.getMessage() + " (" + ids.size() + " movimenti già registrati)", e);
+        } finally {
+            DAOMySQLSettings.releaseConnection(connection);
+        }
+
+        return ids;
     }
 
     /**
@@ -100,11 +301,71 @@ public class MovimentiDAOMySQLImpl implements DAO<Movimenti> {
     /**
      * Aggiorna il movimento esistente nel database con i valori forniti in {@code m}.
      * <br>
-     * Non implementato.
+     * Equivale a {@link #updateAll(Collection)} con un solo elemento.
+     *
+     * @param m movimento con i nuovi valori; deve avere un idMovimento valido
+     * @throws DAOException se {@code m} non è valido o si verifica un errore SQL
      */
     @Override
     public void update(Movimenti m) throws DAOException {
+        updateAll(Collections.singletonList(m));
+    }
+
+    /**
+     * Aggiorna una collezione di movimenti usando batch JDBC, in blocchi di
+     * {@link DAOMySQLSettings#getBatchSize()} righe confermati ciascuno in una propria transazione.
+     * <br>
+     * Prima dell'aggiornamento i valori precedenti del blocco vengono letti con {@code SELECT ... FOR UPDATE}:
+     * nel riepilogo giornaliero vengono sottratti i valori precedenti e sommati i nuovi.
+     * <br>
+     * Pre-condizioni: ogni movimento deve avere un idMovimento valido ed essere valido
+     * secondo {@link #verifyObject(Movimenti)}.
+     *
+     * @param movimenti i movimenti con i nuovi valori
+     * @throws DAOException se un movimento non è valido o si verifica un errore SQL
+     */
+    @Override
+    public void updateAll(Collection<Movimenti> movimenti) throws DAOException {
+        for (Movimenti m : movimenti) {
+            verifyObject(m);
+            if (m.getIdMovimento() <= 0) {
+                throw new DAOException("In update: idMovimento non valido.");
+            }
+        }
 
+        try {
+            logger.info("SQL (batch " + movimenti.size() + "): " + UPDATE_QUERY);
+        } catch (NullPointerException e) {
+            System.out.println("SQL (batch " + movimenti.size() + "): " + UPDATE_QUERY);
+        }
+
+        int batchSize = DAOMySQLSettings.getCurrentDAOMySQLSettings().getBatchSize();
+
+        Connection connection = null;
+        try {
+            connection = DAOMySQLSettings.getConnection();
+            connection.setAutoCommit(false);
+            PreparedStatement ps = DAOMySQLSettings.prepareStatement(connection, UPDATE_QUERY);
+            try {
+                List<Movimenti> blocco = new ArrayList<>(Math.min(batchSize, movimenti.size()));
+                for (Movimenti m : movimenti) {
+                    blocco.add(m);
+                    if (blocco.size() == batchSize) {
+                        aggiornaBlocco(connection, ps, blocco);
+                        blocco.clear();
+                    }
+                }
+                if (!blocco.isEmpty()) {
+                    aggiornaBlocco(connection, ps, blocco);
+                }
+            } finally {
+                ps.clearBatch();
+            }
+        } catch (SQLException e) {
+            throw new DAOException("In updateAll(): " + e.getMessage(), e);
+        } finally {
+            DAOMySQLSettings.releaseConnection(connection);
+        }
     }
 
     /**
@@ -112,18 +373,20 @@ public class MovimentiDAOMySQLImpl implements DAO<Movimenti> {
      * <br>
      * Il parametro {@code m} può essere utilizzato come filtro (opzionale): se {@code null}
      * vengono restituiti tutti i movimenti. Il parametro {@code c} è attualmente non utilizzato
-     * ma mantiene la firma coerente con l'interfaccia {@link DAO}.
+     * ma mantiene la firma coerente con l'interfaccia {@link MovimentiDAO}.
+     * <br>
+     * Legge l'intero storico: per la visualizzazione usare {@link #selectPage(Movimenti, int)}.
      *
      * @param m filtro opzionale di tipo {@link Movimenti}; se {@code null} nessun filtro è applicato
      * @param c flag opzionale la cui semantica dipende dall'implementazione (non usato qui)
-     * @return lista di oggetti {@link Movimenti} ordinata per data decrescente
+     * @return lista di oggetti {@link Movimenti} ordinata per data (e idMovimento) decrescente
      * @throws DAOException se si verifica un errore durante l'esecuzione della query SQL
      */
     @Override
     public List<Movimenti> select(Movimenti m, boolean c) throws DAOException {
-        StringBuilder query = new StringBuilder("SELECT * FROM movimenti WHERE 1=1 ");
+        StringBuilder query = new StringBuilder("SELECT * FROM movimenti WHERE 1=1");
 
-        query.append(" ORDER BY data DESC;");
+        query.append(" ORDER BY data DESC, idMovimento DESC");
 
         try{
             logger.info("SQL: " + query);
@@ -134,6 +397,720 @@ public class MovimentiDAOMySQLImpl implements DAO<Movimenti> {
         return executeQuery(query.toString());
     }
 
+    /**
+     * Conta i movimenti presenti nella tabella movimenti.
+     *
+     * @return il numero di movimenti
+     * @throws DAOException se si verifica un errore durante l'esecuzione della query SQL
+     */
+    @Override
+    public int count() throws DAOException {
+        String query = "SELECT COUNT(*) FROM movimenti";
+
+        try {
+            logger.info("SQL: " + query);
+        } catch (NullPointerException nullPointerException) {
+            System.out.println("SQL: " + query);
+        }
+
+        Connection connection = null;
+        try {
+            connection = DAOMySQLSettings.getConnection();
+            try (ResultSet rs = DAOMySQLSettings.prepareStatement(connection, query).executeQuery()) {
+                rs.next();
+                return rs.getInt(1);
+            }
+        } catch (SQLException e) {
+            throw new DAOException("In count(): " + e.getMessage(), e);
+        } finally {
+            DAOMySQLSettings.releaseConnection(connection);
+        }
+    }
+
+    /**
+     * Legge l'intero storico in streaming: con {@code fetchSize = Integer.MIN_VALUE} il driver MySQL
+     * legge le righe dal socket una alla volta con un cursore forward-only, invece di caricare l'intero
+     * risultato in memoria prima di restituire la prima riga.
+     * <br>
+     * Finché la lettura è in corso la connessione non può eseguire altre query, quindi il visitatore
+     * non deve accedere al database. Se il visitatore interrompe la lettura o fallisce, la query viene annullata
+     * sul server: chiudere un risultato in streaming obbligherebbe altrimenti il driver a ricevere tutte le righe rimanenti.
+     *
+     * @param visitatore destinatario delle righe
+     * @return il numero di righe consegnate
+     * @throws DAOException se {@code visitatore} è {@code null} o si verifica un errore SQL
+     * @throws IOException  se {@code visitatore} fallisce
+     */
+    @Override
+    public long scorriStorico(VisitatoreMovimenti visitatore) throws DAOException, IOException {
+        if (visitatore == null) {
+            throw new DAOException("In scorriStorico: visitatore nullo.");
+        }
+
+        try {
+            logger.info("SQL: " + STORICO_QUERY);
+        } catch (NullPointerException e) {
+            System.out.println("SQL: " + STORICO_QUERY);
+        }
+
+        long righe = 0;
+        Connection connection = null;
+        PreparedStatement ps = null;
+        try {
+            connection = DAOMySQLSettings.getConnection();
+            ps = DAOMySQLSettings.prepareStatement(connection, STORICO_QUERY);
+            ps.setFetchSize(Integer.MIN_VALUE);
+            try (ResultSet rs = ps.executeQuery()) {
+                boolean letto = false;
+                try {
+                    boolean continua = true;
+                    while (continua && rs.next()) {
+                        Date data = rs.getDate(5);
+                        continua = visitatore.visita(rs.getInt(1), rs.getString(2), rs.getString(3), rs.getInt(4),
+                                (data != null) ? data.toLocalDate() : null, rs.getString(6));
+                        if (continua) {
+                            righe++;
+                        }
+                    }
+                    letto = continua;
+                } finally {
+                    if (!letto) {
+                        try {
+                            ps.cancel();
+                        } catch (SQLException ignored) {
+                        }
+                    }
+                }
+            }
+        } catch (SQLException e) {
+            throw new DAOException("In scorriStorico(): " + e.getMessage(), e);
+        } finally {
+            if (ps != null) {
+                try {
+                    // Lo statement resta nella cache della connessione: le altre letture non devono essere in streaming.
+                    ps.setFetchSize(0);
+                } catch (SQLException ignored) {
+                }
+            }
+            DAOMySQLSettings.releaseConnection(connection);
+        }
+        return righe;
+    }
+
+    /**
+     * Registra il movimento e aggiorna la giacenza del prodotto in un'unica transazione sulla stessa connessione.
+     * <br>
+     * Nella stessa transazione viene aggiornato anche il riepilogo giornaliero.
+     * <br>
+     * L'UPDATE relativo blocca la riga del prodotto fino al commit, quindi due movimenti concorrenti sullo
+     * stesso prodotto vengono serializzati da MySQL senza perdere aggiornamenti. Per uno SCARICO la condizione
+     * {@code quantita >= ?} rende il controllo di disponibilità e il decremento un'unica operazione atomica.
+     *
+     * @param m il movimento da registrare; al termine il suo idMovimento è impostato
+     * @return la nuova quantità del prodotto
+     * @throws DAOException se il movimento non è valido, il prodotto non esiste, la giacenza è insufficiente
+     *                      o si verifica un errore SQL (la transazione viene annullata)
+     */
+    @Override
+    public int registraMovimento(Movimenti m) throws DAOException {
+        verifyObject(m);
+
+        boolean carico = "CARICO".equals(m.getTipo());
+        if (!carico && !"SCARICO".equals(m.getTipo())) {
+            throw new DAOException("Tipo di movimento non valido: " + m.getTipo());
+        }
+
+        String updateQuery = carico ? CARICO_QUERY : SCARICO_QUERY;
+        try {
+            logger.info("SQL: " + updateQuery + "; " + INSERT_QUERY + " " + m);
+        } catch (NullPointerException e) {
+            System.out.println("SQL: " + updateQuery + "; " + INSERT_QUERY + " " + m);
+        }
+
+        Connection connection = null;
+        try {
+            connection = DAOMySQLSettings.getConnection();
+            connection.setAutoCommit(false);
+
+            PreparedStatement update = DAOMySQLSettings.prepareStatement(connection, updateQuery);
+            if (carico) {
+                DAOMySQLSettings.setParameters(update, m.getQuantita(), m.getIdProdotto());
+            } else {
+                DAOMySQLSettings.setParameters(update, m.getQuantita(), m.getIdProdotto(), m.getQuantita());
+            }
+            if (update.executeUpdate() == 0) {
+                connection.rollback();
+                throw new DAOException(carico
+                        ? "Prodotto " + m.getIdProdotto() + " inesistente."
+                        : "Quantità insufficiente o prodotto " + m.getIdProdotto() + " inesistente.");
+            }
+
+            PreparedStatement insert = DAOMySQLSettings.prepareStatementWithKeys(connection, INSERT_QUERY);
+            DAOMySQLSettings.setParameters(insert, m.getIdProdotto(), m.getTipo(), m.getQuantita(), m.getData(), m.getDescrizione());
+            insert.executeUpdate();
+            try (ResultSet rs = insert.getGeneratedKeys()) {
+                if (rs.next()) {
+                    m.setIdMovimento(rs.getInt(1));
+                }
+            }
+            aggiornaRiepilogo(connection, Collections.singletonList(m), Collections.emptyList());
+
+            int nuovaQuantita;
+            PreparedStatement select = DAOMySQLSettings.prepareStatement(connection, QUANTITA_QUERY);
+            DAOMySQLSettings.setParameters(select, m.getIdProdotto());
+            try (ResultSet rs = select.executeQuery()) {
+                rs.next();
+                nuovaQuantita = rs.getInt("quantita");
+            }
+
+            connection.commit();
+            return nuovaQuantita;
+        } catch (SQLException e) {
+            throw new DAOException("In registraMovimento(): " + e.getMessage(), e);
+        } finally {
+            DAOMySQLSettings.releaseConnection(connection);
+        }
+    }
+
+    /**
+     * Registra un blocco di movimenti in un'unica transazione sulla stessa connessione.
+     * <br>
+     * Le righe dei prodotti coinvolti vengono lette e bloccate con {@code SELECT ... FOR UPDATE}, in ordine
+     * di id così che blocchi concorrenti le blocchino nello stesso ordine; i movimenti sono poi applicati in
+     * memoria alle giacenze lette e quelli accettati vengono inviati con un batch di INSERT (una INSERT multi-riga
+     * grazie a {@code rewriteBatchedStatements}), seguito da un batch con le nuove giacenze e dall'aggiornamento
+     * del riepilogo giornaliero.
+     *
+     * @param movimenti i movimenti da registrare
+     * @return per ogni movimento scartato, la sua posizione in {@code movimenti} e il motivo
+     * @throws DAOException se si verifica un errore SQL (il blocco viene annullato)
+     */
+    @Override
+    public Map<Integer, String> registraMovimenti(List<Movimenti> movimenti) throws DAOException {
+        return registraMovimenti(movimenti, null);
+    }
+
+    /**
+     * Registra un blocco di movimenti come {@link #registraMovimenti(List)}, in modo idempotente.
+     * <br>
+     * Nella stessa transazione vengono lette le chiavi già presenti in {@code operazioni_applicate}, i cui
+     * movimenti vengono saltati, e inserite con un batch le chiavi dei movimenti registrati. La chiave
+     * primaria della tabella garantisce che due invii concorrenti dello stesso movimento non vengano
+     * confermati entrambi.
+     *
+     * @param movimenti i movimenti da registrare
+     * @param chiavi    la chiave di ogni movimento; {@code null} per una registrazione non idempotente
+     * @return per ogni movimento scartato, la sua posizione in {@code movimenti} e il motivo
+     * @throws DAOException se si verifica un errore SQL (il blocco viene annullato; l'errore SQL è la causa)
+     */
+    @Override
+    public Map<Integer, String> registraMovimenti(List<Movimenti> movimenti, List<String> chiavi) throws DAOException {
+        if (chiavi != null && chiavi.size() != movimenti.size()) {
+            throw new DAOException("In registraMovimenti(): numero di chiavi diverso dal numero di movimenti.");
+        }
+        Map<Integer, String> scartati = new TreeMap<>();
+        List<Integer> validi = new ArrayList<>(movimenti.size());
+        Set<Integer> idProdotti = new TreeSet<>();
+        for (int i = 0; i < movimenti.size(); i++) {
+            Movimenti m = movimenti.get(i);
+            try {
+                verifyObject(m);
+                if (!"CARICO".equals(m.getTipo()) && !"SCARICO".equals(m.getTipo())) {
+                    throw new DAOException("Tipo di movimento non valido: " + m.getTipo());
+                }
+                validi.add(i);
+                idProdotti.add(m.getIdProdotto());
+            } catch (DAOException e) {
+                scartati.put(i, e.getMessage());
+            }
+        }
+        if (validi.isEmpty()) {
+            return scartati;
+        }
+
+        try {
+            logger.info("SQL (batch " + validi.size() + "): " + INSERT_QUERY + "; " + IMPOSTA_QUANTITA_QUERY);
+        } catch (NullPointerException e) {
+            System.out.println("SQL (batch " + validi.size() + "): " + INSERT_QUERY + "; " + IMPOSTA_QUANTITA_QUERY);
+        }
+
+        Connection connection = null;
+        try {
+            connection = DAOMySQLSettings.getConnection();
+            connection.setAutoCommit(false);
+
+            Set<String> applicate = (chiavi == null) ? Collections.emptySet() : leggiChiavi(connection, chiavi);
+            Map<Integer, Integer> giacenze = leggiGiacenze(connection, idProdotti);
+            Set<Integer> modificati = new TreeSet<>();
+            List<Movimenti> registrati = new ArrayList<>(validi.size());
+            List<String> chiaviRegistrate = new ArrayList<>(validi.size());
+            for (int i : validi) {
+                Movimenti m = movimenti.get(i);
+                if (chiavi != null && applicate.contains(chiavi.get(i))) {
+                    continue;
+                }
+                Integer giacenza = giacenze.get(m.getIdProdotto());
+                if (giacenza == null) {
+                    scartati.put(i, "Prodotto " + m.getIdProdotto() + " inesistente.");
+                } else if ("SCARICO".equals(m.getTipo()) && giacenza < m.getQuantita()) {
+                    scartati.put(i, "Quantità insufficiente per il prodotto " + m.getIdProdotto()
+                            + " (disponibili " + giacenza + ").");
+                } else {
+                    giacenze.put(m.getIdProdotto(), "CARICO".equals(m.getTipo())
+                            ? giacenza + m.getQuantita() : giacenza - m.getQuantita());
+                    modificati.add(m.getIdProdotto());
+                    registrati.add(m);
+                    if (chiavi != null) {
+                        chiaviRegistrate.add(chiavi.get(i));
+                    }
+                }
+            }
+
+            if (!registrati.isEmpty()) {
+                List<Integer> ids = new ArrayList<>(registrati.size());
+                PreparedStatement insert = DAOMySQLSettings.prepareStatementWithKeys(connection, INSERT_QUERY);
+                try {
+                    for (Movimenti m : registrati) {
+                        DAOMySQLSettings.setParameters(insert, m.getIdProdotto(), m.getTipo(), m.getQuantita(),
+                                m.getData(), m.getDescrizione());
+                        insert.addBatch();
+                    }
+                    executeBatch(insert, ids);
+                } finally {
+                    insert.clearBatch();
+                }
+                for (int i = 0; i < ids.size() && i < registrati.size(); i++) {
+                    registrati.get(i).setIdMovimento(ids.get(i));
+                }
+
+                PreparedStatement update = DAOMySQLSettings.prepareStatement(connection, IMPOSTA_QUANTITA_QUERY);
+                try {
+                    for (int idProdotto : modificati) {
+                        DAOMySQLSettings.setParameters(update, giacenze.get(idProdotto), idProdotto);
+                        update.addBatch();
+                    }
+                    executeBatch(update, null);
+                } finally {
+                    update.clearBatch();
+                }
+
+                aggiornaRiepilogo(connection, registrati, Collections.emptyList());
+            }
+
+            if (!chiaviRegistrate.isEmpty()) {
+                PreparedStatement registra = DAOMySQLSettings.prepareStatement(connection, REGISTRA_CHIAVE_QUERY);
+                try {
+                    for (String chiave : chiaviRegistrate) {
+                        DAOMySQLSettings.setParameters(registra, chiave);
+                        registra.addBatch();
+                    }
+                    executeBatch(registra, null);
+                } finally {
+                    registra.clearBatch();
+                }
+            }
+
+            connection.commit();
+        } catch (SQLException e) {
+            throw new DAOException("In registraMovimenti(): " + e.getMessage(), e);
+        } finally {
+            DAOMySQLSettings.releaseConnection(connection);
+        }
+
+        return scartati;
+    }
+
+    /**
+     * Legge quali delle chiavi indicate sono già memorizzate in {@code operazioni_applicate}.
+     *
+     * @param connection connessione con autocommit disabilitato
+     * @param chiavi     le chiavi da cercare
+     * @return le chiavi già memorizzate
+     * @throws SQLException se si verifica un errore SQL
+     */
+    private Set<String> leggiChiavi(Connection connection, List<String> chiavi) throws SQLException {
+        Set<String> applicate = new HashSet<>();
+        for (int da = 0; da < chiavi.size(); da += DIMENSIONE_MASSIMA_IN) {
+            PreparedStatement select = prepareStatementIn(connection, "SELECT chiave FROM operazioni_applicate WHERE chiave",
+                    chiavi.subList(da, Math.min(chiavi.size(), da + DIMENSIONE_MASSIMA_IN)), "");
+            try (ResultSet rs = select.executeQuery()) {
+                while (rs.next()) {
+                    applicate.add(rs.getString("chiave"));
+                }
+            }
+        }
+        return applicate;
+    }
+
+    /**
+     * Legge e blocca fino al commit le giacenze dei prodotti indicati.
+     *
+     * @param connection connessione con autocommit disabilitato
+     * @param idProdotti id dei prodotti, in ordine crescente
+     * @return id del prodotto -&gt; giacenza, solo per i prodotti esistenti
+     * @throws SQLException se si verifica un errore SQL
+     */
+    private Map<Integer, Integer> leggiGiacenze(Connection connection, Set<Integer> idProdotti) throws SQLException {
+        List<Integer> ids = new ArrayList<>(idProdotti);
+        Map<Integer, Integer> giacenze = new TreeMap<>();
+        for (int da = 0; da < ids.size(); da += DIMENSIONE_MASSIMA_IN) {
+            PreparedStatement select = prepareStatementIn(connection, "SELECT idProdotto, quantita FROM prodotti WHERE idProdotto",
+                    ids.subList(da, Math.min(ids.size(), da + DIMENSIONE_MASSIMA_IN)), " ORDER BY idProdotto FOR UPDATE");
+            try (ResultSet rs = select.executeQuery()) {
+                while (rs.next()) {
+                    giacenze.put(rs.getInt("idProdotto"), rs.getInt("quantita"));
+                }
+            }
+        }
+        return giacenze;
+    }
+
+    /**
+     * Prepara una query con una lista {@code IN} e ne imposta i valori, completando la lista fino a una delle
+     * lunghezze di {@link #DIMENSIONI_IN} con l'ultimo valore (che non cambia il risultato della condizione).
+     *
+     * @param connection connessione ottenuta con {@link DAOMySQLSettings#getConnection()}
+     * @param prima      testo della query prima di {@code IN}
+     * @param valori     i valori della lista, da 1 a {@link #DIMENSIONE_MASSIMA_IN}
+     * @param dopo       testo della query dopo la lista
+     * @return lo statement preparato, con i parametri impostati
+     * @throws SQLException se la preparazione fallisce
+     */
+    private static PreparedStatement prepareStatementIn(Connection connection, String prima, List<?> valori, String dopo)
+            throws SQLException {
+        int dimensione = DIMENSIONE_MASSIMA_IN;
+        for (int d : DIMENSIONI_IN) {
+            if (d >= valori.size()) {
+                dimensione = d;
+                break;
+            }
+        }
+        StringBuilder query = new StringBuilder(prima).append(" IN (");
+        Object[] parametri = new Object[dimensione];
+        for (int i = 0; i < dimensione; i++) {
+            query.append(i == 0 ? "?" : ", ?");
+            parametri[i] = valori.get(Math.min(i, valori.size() - 1));
+        }
+        query.append(")").append(dopo);
+
+        PreparedStatement ps = DAOMySQLSettings.prepareStatement(connection, query.toString());
+        DAOMySQLSettings.setParameters(ps, parametri);
+        return ps;
+    }
+
+    /**
+     * Restituisce una pagina dello storico movimenti con paginazione a chiave su (data, idMovimento).
+     * <br>
+     * La condizione {@code data < ? OR (data = ? AND idMovimento < ?)} con {@code LIMIT} viene risolta
+     * come scansione di intervallo sull'indice {@code data_idMovimento}: MySQL legge solo le righe della
+     * pagina, a differenza di {@code OFFSET} che scorre tutte le righe delle pagine precedenti.
+     *
+     * @param ultimo     ultimo movimento della pagina precedente; {@code null} per la prima pagina
+     * @param dimensione numero massimo di movimenti da restituire
+     * @return i movimenti della pagina, dal più recente
+     * @throws DAOException se {@code dimensione} non è positiva o si verifica un errore SQL
+     */
+    @Override
+    public List<Movimenti> selectPage(Movimenti ultimo, int dimensione) throws DAOException {
+        if (dimensione <= 0) {
+            throw new DAOException("In selectPage: dimensione della pagina non valida.");
+        }
+
+        if (ultimo == null) {
+            try {
+                logger.info("SQL: " + PAGE_QUERY + " [" + dimensione + "]");
+            } catch (NullPointerException e) {
+                System.out.println("SQL: " + PAGE_QUERY + " [" + dimensione + "]");
+            }
+            return executeQuery(PAGE_QUERY, dimensione);
+        }
+
+        try {
+            logger.info("SQL: " + NEXT_PAGE_QUERY + " [" + ultimo.getData() + ", " + ultimo.getIdMovimento() + ", " + dimensione + "]");
+        } catch (NullPointerException e) {
+            System.out.println("SQL: " + NEXT_PAGE_QUERY + " [" + ultimo.getData() + ", " + ultimo.getIdMovimento() + ", " + dimensione + "]");
+        }
+        return executeQuery(NEXT_PAGE_QUERY, ultimo.getData(), ultimo.getData(), ultimo.getIdMovimento(), dimensione);
+    }
+
+    /**
+     * Legge dal riepilogo giornaliero i totali di carichi e scarichi nell'intervallo {@code [da, a)}.
+     * <br>
+     * Il costo dipende dal numero di coppie (prodotto, giorno) dell'intervallo e non dal numero di movimenti.
+     *
+     * @param da primo giorno dell'intervallo (incluso)
+     * @param a  ultimo giorno dell'intervallo (escluso)
+     * @return i totali per giorno, in ordine di data crescente
+     * @throws DAOException se gli estremi sono {@code null} o si verifica un errore SQL
+     */
+    @Override
+    public List<StatisticaGiornaliera> selectStatisticheGiornaliere(LocalDate da, LocalDate a) throws DAOException {
+        if (da == null || a == null) {
+            throw new DAOException("In selectStatisticheGiornaliere: intervallo di date non valido.");
+        }
+
+        try {
+            logger.info("SQL: " + STATISTICHE_GIORNALIERE_QUERY + " [" + da + ", " + a + "]");
+        } catch (NullPointerException e) {
+            System.out.println("SQL: " + STATISTICHE_GIORNALIERE_QUERY + " [" + da + ", " + a + "]");
+        }
+
+        Connection connection = null;
+        try {
+            connection = DAOMySQLSettings.getConnection();
+            return leggiStatisticheGiornaliere(connection, STATISTICHE_GIORNALIERE_QUERY, da, a);
+        } catch (SQLException e) {
+            throw new DAOException("In selectStatisticheGiornaliere(): " + e.getMessage(), e);
+        } finally {
+            DAOMySQLSettings.releaseConnection(connection);
+        }
+    }
+
+    /**
+     * Legge dal riepilogo giornaliero i totali di tutto lo storico, insieme all'id del movimento più recente e
+     * agli id degli ultimi {@link MovimentiDAO#FINESTRA_ID_RECENTI} movimenti, nella stessa transazione in sola lettura.
+     * <br>
+     * Le letture vedono la stessa istantanea del database (InnoDB, REPEATABLE READ) e il riepilogo è
+     * aggiornato nella stessa transazione dei movimenti, quindi gli id letti separano esattamente i movimenti
+     * già compresi nei totali da quelli da aggiungere in seguito con {@link RiepilogoPeriodi#aggiungi(Movimenti)},
+     * compresi quelli con un id minore dell'ultimo ma non ancora confermati al momento della lettura.
+     *
+     * @return i totali per giorno, settimana, mese, trimestre e anno
+     * @throws DAOException se si verifica un errore SQL
+     */
+    @Override
+    public RiepilogoPeriodi selectRiepilogoPeriodi() throws DAOException {
+        try {
+            logger.info("SQL: " + ULTIMO_ID_QUERY + "; " + ID_SUCCESSIVI_QUERY + "; " + STATISTICHE_TUTTI_GIORNI_QUERY);
+        } catch (NullPointerException e) {
+            System.out.println("SQL: " + ULTIMO_ID_QUERY + "; " + ID_SUCCESSIVI_QUERY + "; " + STATISTICHE_TUTTI_GIORNI_QUERY);
+        }
+
+        Connection connection = null;
+        try {
+            connection = DAOMySQLSettings.getConnection();
+            connection.setAutoCommit(false);
+            int ultimoId;
+            try (ResultSet rs = DAOMySQLSettings.prepareStatement(connection, ULTIMO_ID_QUERY).executeQuery()) {
+                rs.next();
+                ultimoId = rs.getInt(1);
+            }
+            int soglia = Math.max(0, ultimoId - FINESTRA_ID_RECENTI);
+            List<Integer> idSuccessivi = new ArrayList<>();
+            PreparedStatement ps = DAOMySQLSettings.prepareStatement(connection, ID_SUCCESSIVI_QUERY);
+            DAOMySQLSettings.setParameters(ps, soglia);
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    idSuccessivi.add(rs.getInt(1));
+                }
+            }
+            List<StatisticaGiornaliera> giorni = leggiStatisticheGiornaliere(connection, STATISTICHE_TUTTI_GIORNI_QUERY);
+            connection.commit();
+            return new RiepilogoPeriodi(giorni, soglia, idSuccessivi);
+        } catch (SQLException e) {
+            throw new DAOException("In selectRiepilogoPeriodi(): " + e.getMessage(), e);
+        } finally {
+            DAOMySQLSettings.releaseConnection(connection);
+        }
+    }
+
+    /**
+     * Esegue una query sul riepilogo giornaliero con colonne {@code giorno}, {@code carichi} e {@code scarichi}.
+     *
+     * @param connection connessione da usare
+     * @param query      la query
+     * @param parametri  i parametri della query
+     * @return una riga per giorno, nell'ordine della query
+     * @throws SQLException se si verifica un errore SQL
+     */
+    private List<StatisticaGiornaliera> leggiStatisticheGiornaliere(Connection connection, String query, Object... parametri)
+            throws SQLException {
+        List<StatisticaGiornaliera> lista = new ArrayList<>();
+        PreparedStatement ps = DAOMySQLSettings.prepareStatement(connection, query);
+        DAOMySQLSettings.setParameters(ps, parametri);
+        try (ResultSet rs = ps.executeQuery()) {
+            while (rs.next()) {
+                lista.add(new StatisticaGiornaliera(rs.getDate("giorno").toLocalDate(),
+                        rs.getInt("carichi"), rs.getInt("scarichi")));
+            }
+        }
+        return lista;
+    }
+
+    /**
+     * Legge dal riepilogo giornaliero i totali di carichi e scarichi per ogni prodotto.
+     * <br>
+     * Il costo dipende dal numero di coppie (prodotto, giorno) e non dal numero di movimenti.
+     *
+     * @return i totali per prodotto, in ordine di idProdotto
+     * @throws DAOException se si verifica un errore SQL
+     */
+    @Override
+    public List<StatisticaProdotto> selectStatisticheProdotti() throws DAOException {
+        try {
+            logger.info("SQL: " + STATISTICHE_PRODOTTI_QUERY);
+        } catch (NullPointerException e) {
+            System.out.println("SQL: " + STATISTICHE_PRODOTTI_QUERY);
+        }
+
+        List<StatisticaProdotto> lista = new ArrayList<>();
+
+        Connection connection = null;
+        try {
+            connection = DAOMySQLSettings.getConnection();
+            PreparedStatement ps = DAOMySQLSettings.prepareStatement(connection, STATISTICHE_PRODOTTI_QUERY);
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    lista.add(new StatisticaProdotto(rs.getInt("idProdotto"), rs.getInt("carichi"), rs.getInt("scarichi")));
+                }
+            }
+        } catch (SQLException e) {
+            throw new DAOException("In selectStatisticheProdotti(): " + e.getMessage(), e);
+        } finally {
+            DAOMySQLSettings.releaseConnection(connection);
+        }
+
+        return lista;
+    }
+
+    /**
+     * Restituisce i movimenti con id maggiore di {@code idMovimento}.
+     *
+     * @param idMovimento id dell'ultimo movimento già noto (escluso)
+     * @return i nuovi movimenti, in ordine di id crescente
+     * @throws DAOException se si verifica un errore SQL
+     */
+    @Override
+    public List<Movimenti> selectSuccessivi(int idMovimento) throws DAOException {
+        try {
+            logger.info("SQL: " + SUCCESSIVI_QUERY + " [" + idMovimento + "]");
+        } catch (NullPointerException e) {
+            System.out.println("SQL: " + SUCCESSIVI_QUERY + " [" + idMovimento + "]");
+        }
+
+        return executeQuery(SUCCESSIVI_QUERY, idMovimento);
+    }
+
+    /**
+     * Ricostruisce il riepilogo giornaliero dall'intero storico dei movimenti, in un'unica transazione.
+     * <br>
+     * Da eseguire dopo aver importato movimenti direttamente nel database (es. con gli script SQL)
+     * o per allineare un database creato prima dell'introduzione del riepilogo.
+     * L'{@code INSERT ... SELECT} blocca in lettura le righe dei movimenti, quindi le registrazioni
+     * concorrenti attendono la fine della ricostruzione invece di andare perse.
+     *
+     * @return il numero di righe (prodotto, giorno) del riepilogo ricostruito
+     * @throws DAOException se si verifica un errore SQL (il riepilogo precedente resta invariato)
+     */
+    @Override
+    public int ricostruisciRiepilogoGiornaliero() throws DAOException {
+        try {
+            logger.info("SQL: " + SVUOTA_RIEPILOGO_QUERY + "; " + RICOSTRUISCI_RIEPILOGO_QUERY);
+        } catch (NullPointerException e) {
+            System.out.println("SQL: " + SVUOTA_RIEPILOGO_QUERY + "; " + RICOSTRUISCI_RIEPILOGO_QUERY);
+        }
+
+        Connection connection = null;
+        try {
+            connection = DAOMySQLSettings.getConnection();
+            connection.setAutoCommit(false);
+            DAOMySQLSettings.prepareStatement(connection, SVUOTA_RIEPILOGO_QUERY).executeUpdate();
+            int righe = DAOMySQLSettings.prepareStatement(connection, RICOSTRUISCI_RIEPILOGO_QUERY).executeUpdate();
+            connection.commit();
+            return righe;
+        } catch (SQLException e) {
+            throw new DAOException("In ricostruisciRiepilogoGiornaliero(): " + e.getMessage(), e);
+        } finally {
+            DAOMySQLSettings.releaseConnection(connection);
+        }
+    }
+
+    /**
+     * Aggiorna un blocco di movimenti nella transazione corrente e la conferma: legge e blocca le righe
+     * precedenti, esegue il batch di UPDATE e riporta le differenze nel riepilogo giornaliero.
+     *
+     * @param connection connessione con autocommit disabilitato
+     * @param ps         statement di {@link #UPDATE_QUERY}
+     * @param blocco     i movimenti con i nuovi valori
+     * @throws SQLException se un movimento non esiste o si verifica un errore SQL
+     */
+    private void aggiornaBlocco(Connection connection, PreparedStatement ps, List<Movimenti> blocco) throws SQLException {
+        List<Integer> ids = new ArrayList<>(blocco.size());
+        for (Movimenti m : blocco) {
+            ids.add(m.getIdMovimento());
+        }
+
+        List<Movimenti> precedenti = new ArrayList<>(blocco.size());
+        for (int da = 0; da < ids.size(); da += DIMENSIONE_MASSIMA_IN) {
+            PreparedStatement select = prepareStatementIn(connection, "SELECT * FROM movimenti WHERE idMovimento",
+                    ids.subList(da, Math.min(ids.size(), da + DIMENSIONE_MASSIMA_IN)), " FOR UPDATE");
+            try (ResultSet rs = select.executeQuery()) {
+                while (rs.next()) {
+                    precedenti.add(new Movimenti(rs.getInt("idMovimento"), rs.getInt("idProdotto"), rs.getString("tipo"),
+                            rs.getInt("quantita"), rs.getDate("data").toLocalDate(), rs.getString("descrizione")));
+                }
+            }
+        }
+        if (precedenti.size() != blocco.size()) {
+            throw new SQLException((blocco.size() - precedenti.size()) + " movimenti da aggiornare non esistono.");
+        }
+
+        for (Movimenti m : blocco) {
+            DAOMySQLSettings.setParameters(ps, m.getIdProdotto(), m.getTipo(), m.getQuantita(), m.getData(),
+                    m.getDescrizione(), m.getIdMovimento());
+            ps.addBatch();
+        }
+        executeBatch(ps, null);
+        aggiornaRiepilogo(connection, blocco, precedenti);
+        connection.commit();
+    }
+
+    /**
+     * Riporta nel riepilogo giornaliero, nella transazione corrente, l'effetto dei movimenti aggiunti
+     * e rimossi.
+     * <br>
+     * Le variazioni vengono prima sommate per (giorno, idProdotto), così un blocco con molti movimenti
+     * dello stesso prodotto e giorno aggiorna una sola riga; le righe sono poi aggiornate nell'ordine
+     * della chiave primaria, così transazioni concorrenti le bloccano nello stesso ordine.
+     *
+     * @param connection connessione con autocommit disabilitato
+     * @param aggiunti   movimenti i cui valori vanno sommati
+     * @param rimossi    movimenti i cui valori vanno sottratti
+     * @throws SQLException se si verifica un errore SQL
+     */
+    private void aggiornaRiepilogo(Connection connection, Collection<Movimenti> aggiunti, Collection<Movimenti> rimossi)
+            throws SQLException {
+        Map<Movimenti, int[]> variazioni = new TreeMap<>(Comparator.comparing(Movimenti::getData)
+                .thenComparingInt(Movimenti::getIdProdotto));
+        for (Movimenti m : aggiunti) {
+            int[] v = variazioni.computeIfAbsent(m, k -> new int[2]);
+            v["CARICO".equals(m.getTipo()) ? 0 : 1] += m.getQuantita();
+        }
+        for (Movimenti m : rimossi) {
+            int[] v = variazioni.computeIfAbsent(m, k -> new int[2]);
+            v["CARICO".equals(m.getTipo()) ? 0 : 1] -= m.getQuantita();
+        }
+
+        PreparedStatement ps = DAOMySQLSettings.prepareStatement(connection, RIEPILOGO_QUERY);
+        try {
+            boolean vuoto = true;
+            for (Map.Entry<Movimenti, int[]> voce : variazioni.entrySet()) {
+                int[] v = voce.getValue();
+                if (v[0] == 0 && v[1] == 0) {
+                    continue;
+                }
+                DAOMySQLSettings.setParameters(ps, voce.getKey().getIdProdotto(), voce.getKey().getData(), v[0], v[1]);
+                ps.addBatch();
+                vuoto = false;
+            }
+            if (!vuoto) {
+                ps.executeBatch();
+            }
+        } finally {
+            ps.clearBatch();
+        }
+    }
+
     /**
      * Verifica che l'oggetto {@link Movimenti} sia valido.
      * <br>
@@ -167,46 +1144,55 @@ public class MovimentiDAOMySQLImpl implements DAO<Movimenti> {
     }
 
     /**
-     * Esegue una query di aggiornamento (INSERT, UPDATE, DELETE) sul database.
+     * Esegue il batch accumulato su {@code ps}; la transazione viene confermata dal chiamante.
      *
-     * @param query stringa SQL della query da eseguire
-     * @throws DAOException se si verifica un errore SQL durante l'esecuzione
+     * @param ps  statement con le righe del batch
+     * @param ids lista a cui aggiungere gli id generati; {@code null} se non interessano
+     * @throws SQLException se l'esecuzione fallisce
      */
-    private void executeUpdate(String query) throws DAOException {
-        try {
-            Statement st = DAOMySQLSettings.getStatement();
-            int n = st.executeUpdate(query);
-            DAOMySQLSettings.closeStatement(st);
-        } catch (SQLException e) {
-            throw new DAOException("In executeUpdate(): " + e.getMessage());
+    private void executeBatch(PreparedStatement ps, List<Integer> ids) throws SQLException {
+        ps.executeBatch();
+        if (ids != null) {
+            try (ResultSet rs = ps.getGeneratedKeys()) {
+                while (rs.next()) {
+                    ids.add(rs.getInt(1));
+                }
+            }
         }
     }
 
     /**
-     * Esegue una query di selezione sul database e mappa i risultati in una lista di oggetti {@link Movimenti}.
+     * Esegue con uno statement preparato (in cache) una query di selezione sul database
+     * e mappa i risultati in una lista di oggetti {@link Movimenti}.
      *
-     * @param query stringa SQL della query da eseguire
+     * @param query     stringa SQL della query da eseguire, con segnaposto {@code ?}
+     * @param parametri valori dei segnaposto, nell'ordine della query
      * @return lista di oggetti {@link Movimenti} risultanti dalla query
      * @throws DAOException se si verifica un errore SQL durante l'esecuzione
      */
-    private List<Movimenti> executeQuery(String query) throws DAOException {
+    private List<Movimenti> executeQuery(String query, Object... parametri) throws DAOException {
         List<Movimenti> lista = new ArrayList<>();
 
+        Connection connection = null;
         try {
-            Statement st = DAOMySQLSettings.getStatement();
-            ResultSet rs = st.executeQuery(query);
-            while(rs.next()){
-                lista.add(new Movimenti(
-                        rs.getInt("idMovimento"),
-                        rs.getInt("idProdotto"),
-                        rs.getString("tipo"),
-                        rs.getInt("quantita"),
-                        rs.getDate("data").toLocalDate(),
-                        rs.getString("descrizione")));
+            connection = DAOMySQLSettings.getConnection();
+            PreparedStatement ps = DAOMySQLSettings.prepareStatement(connection, query);
+            DAOMySQLSettings.setParameters(ps, parametri);
+            try (ResultSet rs = ps.executeQuery()) {
+                while(rs.next()){
+                    lista.add(new Movimenti(
+                            rs.getInt("idMovimento"),
+                            rs.getInt("idProdotto"),
+                            rs.getString("tipo"),
+                            rs.getInt("quantita"),
+                            rs.getDate("data").toLocalDate(),
+                            rs.getString("descrizione")));
+                }
             }
-            DAOMySQLSettings.closeStatement(st);
         } catch (SQLException e) {
-            throw new DAOException("In executeQuery(): " + e.getMessage());
+            throw new DAOException("In executeQuery(): " + e.getMessage(), e);
+        } finally {
+            DAOMySQLSettings.releaseConnection(connection);
         }
 
         return lista;
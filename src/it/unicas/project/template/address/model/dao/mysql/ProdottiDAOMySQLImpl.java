@@ -1,25 +1,37 @@
 package it.unicas.project.template.address.model.dao.mysql;
 
 import it.unicas.project.template.address.model.Prodotti;
-import it.unicas.project.template.address.model.dao.DAO;
 import it.unicas.project.template.address.model.dao.DAOException;
+import it.unicas.project.template.address.model.dao.ProdottiDAO;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
-import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
 import java.util.logging.Logger;
 
 /**
  * Implementazione MySQL del DAO per l'entità Prodotti.
  * <br>
  * Fornisce operazioni CRUD (create, read, update, delete) utilizzando query SQL
- * costruite dinamicamente. Utilizza un singleton per l'istanza del DAO.
+ * parametrizzate, eseguite tramite gli statement preparati in cache sulle connessioni
+ * del pool. Utilizza un singleton per l'istanza del DAO.
+ * <br>
+ * La colonna {@code ultimaModifica}, aggiornata da MySQL a ogni modifica della riga, permette
+ * di rileggere solo i prodotti cambiati con {@link #selectModificatiDa(LocalDateTime)}.
+ * <br>
+ * I caricamenti massivi (es. importazione da CSV) usano {@link #upsertAll(List)}: un'unica
+ * {@code INSERT ... ON DUPLICATE KEY UPDATE} multi-riga per blocco, grazie a {@code rewriteBatchedStatements}.
  *
  * @author Cristian Corsini, Simone Feola, Daniela Spitaleri
  * @since 19/11/2025
  */
-public class ProdottiDAOMySQLImpl implements DAO<Prodotti> {
+public class ProdottiDAOMySQLImpl implements ProdottiDAO {
 
     /**
      * Costruttore privato per applicare il pattern Singleton.
@@ -31,7 +43,7 @@ public class ProdottiDAOMySQLImpl implements DAO<Prodotti> {
      *
      * @see ProdottiDAOMySQLImpl#getInstance()
      */
-    private static DAO dao = null;
+    private static ProdottiDAO dao = null;
 
     /**
      * Logger per registrare le query e gli eventi rilevanti.
@@ -40,12 +52,38 @@ public class ProdottiDAOMySQLImpl implements DAO<Prodotti> {
      */
     private static Logger logger = null;
 
+    /**
+     * Inserimento di un prodotto con id esplicito (o NULL per generarlo) che, se l'id esiste già,
+     * sostituisce i valori del prodotto.
+     */
+    private static final String UPSERT_QUERY = "INSERT INTO prodotti (idProdotto, nome, descrizione, quantita, giacenzaMin, "
+            + "prezzoAcquisto, prezzoVendita) VALUES (?, ?, ?, ?, ?, ?, ?) ON DUPLICATE KEY UPDATE nome = VALUES(nome), "
+            + "descrizione = VALUES(descrizione), quantita = VALUES(quantita), giacenzaMin = VALUES(giacenzaMin), "
+            + "prezzoAcquisto = VALUES(prezzoAcquisto), prezzoVendita = VALUES(prezzoVendita)";
+
+    /**
+     * Aggiornamento di tutti i valori di un prodotto, per id.
+     */
+    private static final String UPDATE_QUERY = "UPDATE prodotti SET nome = ?, descrizione = ?, quantita = ?, giacenzaMin = ?, "
+            + "prezzoAcquisto = ?, prezzoVendita = ? WHERE idProdotto = ?";
+
+    /**
+     * Aggiornamento dei valori di un prodotto esclusa la quantità, che cambia solo con i movimenti, per id.
+     */
+    private static final String UPDATE_ANAGRAFICA_QUERY = "UPDATE prodotti SET nome = ?, descrizione = ?, giacenzaMin = ?, "
+            + "prezzoAcquisto = ?, prezzoVendita = ? WHERE idProdotto = ?";
+
+    /**
+     * Memorizzazione della chiave di un'operazione idempotente: non inserisce nulla se la chiave è già presente.
+     */
+    private static final String REGISTRA_CHIAVE_QUERY = "INSERT IGNORE INTO operazioni_applicate (chiave) VALUES (?)";
+
     /**
      * Restituisce l'istanza singleton del DAO per Prodotti.
      *
-     * @return l'istanza singleton di {@code DAO} per Prodotti
+     * @return l'istanza singleton di {@link ProdottiDAO}
      */
-    public static DAO getInstance() {
+    public static ProdottiDAO getInstance() {
         if (dao == null) {
             dao = new ProdottiDAOMySQLImpl();
             logger = Logger.getLogger(ProdottiDAOMySQLImpl.class.getName());
@@ -57,6 +95,9 @@ public class ProdottiDAOMySQLImpl implements DAO<Prodotti> {
      * Esegue una query di selezione sulla tabella prodotti utilizzando i campi
      * dell'oggetto filtro fornito. Se il parametro {@code critico} è true,
      * vengono selezionati solo i prodotti la cui quantità è minore o uguale alla giacenza minima.
+     * <br>
+     * I valori dei filtri sono passati come parametri: ogni combinazione di filtri applicati
+     * produce un testo SQL distinto, preparato una sola volta per connessione.
      *
      * @param a       oggetto {@code Prodotti} usato come filtro; se {@code null}
      *                viene usato un filtro vuoto che seleziona tutti i record
@@ -66,6 +107,28 @@ public class ProdottiDAOMySQLImpl implements DAO<Prodotti> {
      */
     @Override
     public List<Prodotti> select(Prodotti a, boolean critico) throws DAOException {
+        List<Object> parametri = new ArrayList<>();
+        String query = selectQuery(a, critico, parametri);
+
+        try{
+            logger.info("SQL: " + query + " " + parametri);
+        } catch(NullPointerException nullPointerException) {
+            System.out.println("SQL: " + query + " " + parametri);
+        }
+
+        return executeQuery(query, parametri.toArray());
+    }
+
+    /**
+     * Costruisce la query di {@link #select(Prodotti, boolean)}: una condizione con segnaposto per ogni campo
+     * valorizzato del filtro.
+     *
+     * @param a         oggetto {@code Prodotti} usato come filtro; se {@code null} seleziona tutti i record
+     * @param critico   true per filtrare i prodotti con quantità critica (&lt;= giacenzaMin)
+     * @param parametri lista a cui vengono aggiunti i valori dei segnaposto, nell'ordine della query
+     * @return la query
+     */
+    static String selectQuery(Prodotti a, boolean critico, List<Object> parametri) {
         if (a == null) {
             a = new Prodotti(null, "", "", -1, -1, 0.0, 0.0);
         }
@@ -73,15 +136,18 @@ public class ProdottiDAOMySQLImpl implements DAO<Prodotti> {
         StringBuilder query = new StringBuilder("SELECT * FROM prodotti WHERE 1=1");
 
         if (a.getNome() != null && !a.getNome().trim().isEmpty()) {
-            query.append(" AND nome LIKE '").append(a.getNome()).append("%'");
+            query.append(" AND nome LIKE ?");
+            parametri.add(escapeLike(a.getNome()) + "%");
         }
 
         if (a.getDescrizione() != null && !a.getDescrizione().trim().isEmpty()) {
-            query.append(" AND descrizione LIKE '").append(a.getDescrizione()).append("%'");
+            query.append(" AND descrizione LIKE ?");
+            parametri.add(escapeLike(a.getDescrizione()) + "%");
         }
 
         if (a.getQuantita() > -1) {
-            query.append(" AND quantita = ").append(a.getQuantita());
+            query.append(" AND quantita = ?");
+            parametri.add(a.getQuantita());
         }
 
         if (critico) {
@@ -89,24 +155,84 @@ public class ProdottiDAOMySQLImpl implements DAO<Prodotti> {
         }
 
         if (a.getGiacenzaMin() > -1) {
-                query.append(" AND giacenzaMin = ").append(a.getGiacenzaMin());
+            query.append(" AND giacenzaMin = ?");
+            parametri.add(a.getGiacenzaMin());
         }
 
         if (a.getPrezzoAcquisto() > 0.0) {
-            query.append(" AND prezzoAcquisto = ").append(a.getPrezzoAcquisto());
+            query.append(" AND prezzoAcquisto = ?");
+            parametri.add(a.getPrezzoAcquisto());
         }
 
         if (a.getPrezzoVendita() > 0.0) {
-            query.append(" AND prezzoVendita = ").append(a.getPrezzoVendita());
+            query.append(" AND prezzoVendita = ?");
+            parametri.add(a.getPrezzoVendita());
         }
 
-        try{
+        return query.toString();
+    }
+
+    /**
+     * Seleziona i prodotti con {@code ultimaModifica} maggiore o uguale a {@code da},
+     * sfruttando l'indice sulla colonna.
+     *
+     * @param da istante dell'ultima sincronizzazione (incluso); {@code null} per tutti i prodotti
+     * @return i prodotti modificati
+     * @throws DAOException se si verifica un errore durante l'esecuzione della query SQL
+     */
+    @Override
+    public List<Prodotti> selectModificatiDa(LocalDateTime da) throws DAOException {
+        if (da == null) {
+            return select(null, false);
+        }
+
+        String query = "SELECT * FROM prodotti WHERE ultimaModifica >= ?";
+
+        try {
+            logger.info("SQL: " + query + " [" + da + "]");
+        } catch (NullPointerException nullPointerException) {
+            System.out.println("SQL: " + query + " [" + da + "]");
+        }
+
+        return executeQuery(query, Timestamp.valueOf(da));
+    }
+
+    /**
+     * Conta i prodotti presenti nella tabella prodotti.
+     *
+     * @return il numero di prodotti
+     * @throws DAOException se si verifica un errore durante l'esecuzione della query SQL
+     */
+    @Override
+    public int count() throws DAOException {
+        String query = "SELECT COUNT(*) FROM prodotti";
+
+        try {
             logger.info("SQL: " + query);
-        } catch(NullPointerException nullPointerException) {
+        } catch (NullPointerException nullPointerException) {
             System.out.println("SQL: " + query);
         }
 
-        return executeQuery(query.toString());
+        return executeQueryInteri(query).get(0);
+    }
+
+    /**
+     * Restituisce gli id di tutti i prodotti; la query è risolta sul solo indice primario.
+     *
+     * @return la lista degli id dei prodotti
+     * @throws DAOException se si verifica un errore durante l'esecuzione della query SQL
+     */
+    @Override
+    public List<Integer> selectIdProdotti() throws DAOException {
+        String query = "SELECT idProdotto FROM prodotti";
+
+        try {
+            logger.info("SQL: " + query);
+        } catch (NullPointerException nullPointerException) {
+            System.out.println("SQL: " + query);
+        }
+
+        return executeQueryInteri(query);
     }
 
     /**
@@ -127,20 +253,64 @@ public class ProdottiDAOMySQLImpl implements DAO<Prodotti> {
     public void update(Prodotti a) throws DAOException {
         verifyObject(a);
 
-        String query = "UPDATE prodotti SET nome = '" + a.getNome() + "', descrizione = '" + a.getDescrizione()
-                + "', quantita = '" + a.getQuantita()
-                + "', giacenzaMin = '" + a.getGiacenzaMin()
-                + "', prezzoAcquisto = '" + a.getPrezzoAcquisto()
-                + "', prezzoVendita = '" + a.getPrezzoVendita()
-                + "' WHERE idProdotto = " + a.getIdProdotto() + ";";
+        try {
+            logger.info("SQL: " + UPDATE_QUERY + " " + a);
+        } catch (NullPointerException nullPointerException) {
+            System.out.println("SQL: " + UPDATE_QUERY + " " + a);
+        }
+
+        int n = executeUpdate(UPDATE_QUERY, a.getNome(), a.getDescrizione(), a.getQuantita(), a.getGiacenzaMin(),
+                a.getPrezzoAcquisto(), a.getPrezzoVendita(), a.getIdProdotto());
+    }
+
+    /**
+     * Aggiorna un prodotto in modo idempotente: in un'unica transazione memorizza la chiave in
+     * {@code operazioni_applicate} con {@code INSERT IGNORE} e, solo se non era già presente,
+     * esegue l'aggiornamento. La quantità non viene modificata.
+     *
+     * @param a      oggetto {@code Prodotti} contenente i nuovi valori e l'id del prodotto da aggiornare
+     * @param chiave chiave univoca dell'aggiornamento
+     * @return true se l'aggiornamento è stato applicato, false se la chiave era già memorizzata
+     * @throws DAOException se l'oggetto non è valido, il prodotto non esiste o si verifica un errore SQL
+     *                      (con l'errore SQL come causa)
+     */
+    @Override
+    public boolean update(Prodotti a, String chiave) throws DAOException {
+        verifyObject(a);
 
         try {
-            logger.info("SQL: " + query);
+            logger.info("SQL: " + REGISTRA_CHIAVE_QUERY + "; " + UPDATE_ANAGRAFICA_QUERY + " [" + chiave + "] " + a);
         } catch (NullPointerException nullPointerException) {
-            System.out.println("SQL: " + query);
+            System.out.println("SQL: " + REGISTRA_CHIAVE_QUERY + "; " + UPDATE_ANAGRAFICA_QUERY + " [" + chiave + "] " + a);
         }
 
-        int n = executeUpdate(query);
+        Connection connection = null;
+        try {
+            connection = DAOMySQLSettings.getConnection();
+            connection.setAutoCommit(false);
+
+            PreparedStatement registra = DAOMySQLSettings.prepareStatement(connection, REGISTRA_CHIAVE_QUERY);
+            DAOMySQLSettings.setParameters(registra, chiave);
+            if (registra.executeUpdate() == 0) {
+                connection.rollback();
+                return false;
+            }
+
+            PreparedStatement update = DAOMySQLSettings.prepareStatement(connection, UPDATE_ANAGRAFICA_QUERY);
+            DAOMySQLSettings.setParameters(update, a.getNome(), a.getDescrizione(), a.getGiacenzaMin(),
+                    a.getPrezzoAcquisto(), a.getPrezzoVendita(), a.getIdProdotto());
+            if (update.executeUpdate() == 0) {
+                connection.rollback();
+                throw new DAOException("Prodotto " + a.getIdProdotto() + " inesistente.");
+            }
+
+            connection.commit();
+            return true;
+        } catch (SQLException e) {
+            throw new DAOException("In update(): " + e.getMessage(), e);
+        } finally {
+            DAOMySQLSettings.releaseConnection(connection);
+        }
     }
 
     /**
@@ -160,20 +330,75 @@ public class ProdottiDAOMySQLImpl implements DAO<Prodotti> {
     public int insert(Prodotti a) throws DAOException {
         verifyObject(a);
 
-        String query = "INSERT INTO prodotti (idProdotto, nome, descrizione, quantita, giacenzaMin, prezzoAcquisto, prezzoVendita) VALUES  (NULL, '"
-                + a.getNome() + "', '"
-                + a.getDescrizione() + "', "
-                + a.getQuantita() + ", "
-                + a.getGiacenzaMin() + ", "
-                + a.getPrezzoAcquisto() + ", "
-                + a.getPrezzoVendita() + ");";
+        String query = "INSERT INTO prodotti (idProdotto, nome, descrizione, quantita, giacenzaMin, prezzoAcquisto, prezzoVendita) "
+                + "VALUES (NULL, ?, ?, ?, ?, ?, ?)";
+        try {
+            logger.info("SQL (Prodotti): " + query + " " + a);
+        } catch (NullPointerException nullPointerException) {
+            System.out.println("SQL (Prodotti): " + query + " " + a);
+        }
+
+        return executeUpdate(query, a.getNome(), a.getDescrizione(), a.getQuantita(), a.getGiacenzaMin(),
+                a.getPrezzoAcquisto(), a.getPrezzoVendita());
+    }
+
+    /**
+     * Inserisce o aggiorna un blocco di prodotti in un'unica transazione, con un batch JDBC di
+     * {@link #UPSERT_QUERY}.
+     * <br>
+     * Ogni prodotto viene prima verificato con {@link #verifyObject(Prodotti)}: quelli non validi sono
+     * scartati e gli altri inviati insieme.
+     *
+     * @param prodotti i prodotti da registrare; un id non positivo indica un nuovo prodotto
+     * @return per ogni prodotto scartato, la sua posizione in {@code prodotti} e il motivo
+     * @throws DAOException se si verifica un errore SQL (il blocco viene annullato)
+     */
+    @Override
+    public Map<Integer, String> upsertAll(List<Prodotti> prodotti) throws DAOException {
+        Map<Integer, String> scartati = new TreeMap<>();
+        List<Prodotti> validi = new ArrayList<>(prodotti.size());
+        for (int i = 0; i < prodotti.size(); i++) {
+            try {
+                verifyObject(prodotti.get(i));
+                validi.add(prodotti.get(i));
+            } catch (DAOException e) {
+                scartati.put(i, e.getMessage());
+            }
+        }
+        if (validi.isEmpty()) {
+            return scartati;
+        }
+
         try {
-            logger.info("SQL (Prodotti): " + query);
+            logger.info("SQL (batch " + validi.size() + "): " + UPSERT_QUERY);
         } catch (NullPointerException nullPointerException) {
-            System.out.println("SQL (Prodotti): " + query);
+            System.out.println("SQL (batch " + validi.size() + "): " + UPSERT_QUERY);
         }
 
-        return executeUpdate(query);
+        Connection connection = null;
+        try {
+            connection = DAOMySQLSettings.getConnection();
+            connection.setAutoCommit(false);
+            PreparedStatement ps = DAOMySQLSettings.prepareStatement(connection, UPSERT_QUERY);
+            try {
+                for (Prodotti p : validi) {
+                    Integer id = (p.getIdProdotto() > 0) ? p.getIdProdotto() : null;
+                    DAOMySQLSettings.setParameters(ps, id, p.getNome(), p.getDescrizione(),
+                            p.getQuantita(), p.getGiacenzaMin(), p.getPrezzoAcquisto(), p.getPrezzoVendita());
+                    ps.addBatch();
+                }
+                ps.executeBatch();
+            } finally {
+                ps.clearBatch();
+            }
+            connection.commit();
+        } catch (SQLException e) {
+            throw new DAOException("In upsertAll(): " + e.getMessage(), e);
+        } finally {
+            DAOMySQLSettings.releaseConnection(connection);
+        }
+
+        return scartati;
     }
 
     /**
@@ -195,24 +420,24 @@ public class ProdottiDAOMySQLImpl implements DAO<Prodotti> {
             throw new DAOException("In delete: il campo idProdotto non può essere null");
         }
 
-        String queryMovimento = "DELETE FROM movimenti WHERE idProdotto = '" + a.getIdProdotto() + "';";
-        String queryProdotto = "DELETE FROM prodotti WHERE idProdotto = '" + a.getIdProdotto() + "';";
+        String queryMovimento = "DELETE FROM movimenti WHERE idProdotto = ?";
+        String queryProdotto = "DELETE FROM prodotti WHERE idProdotto = ?";
 
         try {
-            logger.info("SQL (Movimenti): " + queryMovimento);
+            logger.info("SQL (Movimenti): " + queryMovimento + " [" + a.getIdProdotto() + "]");
         } catch (NullPointerException nullPointerException) {
-            System.out.println("SQL (Movimenti): " + queryMovimento);
+            System.out.println("SQL (Movimenti): " + queryMovimento + " [" + a.getIdProdotto() + "]");
         }
 
-        int n = executeUpdate(queryMovimento);
+        int n = executeUpdate(queryMovimento, a.getIdProdotto());
 
         try {
-            logger.info("SQL (Prodotto): " + queryProdotto);
+            logger.info("SQL (Prodotto): " + queryProdotto + " [" + a.getIdProdotto() + "]");
         } catch (NullPointerException nullPointerException) {
-            System.out.println("SQL (Prodotto): " + queryProdotto);
+            System.out.println("SQL (Prodotto): " + queryProdotto + " [" + a.getIdProdotto() + "]");
         }
 
-        int m = executeUpdate(queryProdotto);
+        int m = executeUpdate(queryProdotto, a.getIdProdotto());
     }
 
     /**
@@ -224,71 +449,144 @@ public class ProdottiDAOMySQLImpl implements DAO<Prodotti> {
      * </ul>
      *
      * @param a oggetto {@code Prodotti} da verificare
-     * @throws DAOException se uno dei campi numerici è negativo o se nome/descrizione sono null
+     * @throws DAOException se {@code a} è null, se uno dei campi numerici è negativo o se nome/descrizione sono null
      */
     private void verifyObject(Prodotti a) throws DAOException {
+        if (a == null) {
+            throw new DAOException("Il prodotto è null.");
+        }
+
         if (a.getQuantita() < 0 || a.getGiacenzaMin() < 0 || a.getPrezzoAcquisto() < 0 || a.getPrezzoVendita() < 0) {
             throw new DAOException("I campi numerici (quantità, giacenza e prezzi) non possono essere negativi.");
         }
 
-        if (a == null || a.getNome() == null || a.getDescrizione() == null) {
+        if (a.getNome() == null || a.getDescrizione() == null) {
             throw new DAOException("I campi Nome e Descrizione del Prodotto non possono essere null.");
         }
     }
 
     /**
-     * Esegue una query di aggiornamento/insert/delete e restituisce l'ID generato
-     * dal database (se disponibile).
+     * Esegue con uno statement preparato (in cache) una query di aggiornamento/insert/delete
+     * e restituisce l'ID generato dal database (se disponibile).
      *
-     * @param query stringa SQL da eseguire
+     * @param query      stringa SQL da eseguire, con segnaposto {@code ?}
+     * @param parametri  valori dei segnaposto, nell'ordine della query
      * @return id generato dal database o -1 se non disponibile
      * @throws DAOException se si verifica un errore durante l'esecuzione SQL
      */
-    private int executeUpdate(String query) throws DAOException {
+    private int executeUpdate(String query, Object... parametri) throws DAOException {
+        Connection connection = null;
         try {
-            Statement st = DAOMySQLSettings.getStatement();
-            int n = st.executeUpdate(query, Statement.RETURN_GENERATED_KEYS);
+            connection = DAOMySQLSettings.getConnection();
+            PreparedStatement ps = DAOMySQLSettings.prepareStatementWithKeys(connection, query);
+            DAOMySQLSettings.setParameters(ps, parametri);
+            int n = ps.executeUpdate();
             int generatedId = -1;
-            ResultSet rs = st.getGeneratedKeys();
-            if (rs.next()) {
-                generatedId = rs.getInt(1);
+            try (ResultSet rs = ps.getGeneratedKeys()) {
+                if (rs.next()) {
+                    generatedId = rs.getInt(1);
+                }
             }
-            DAOMySQLSettings.closeStatement(st);
-
             return generatedId;
         } catch (SQLException e) {
-            throw new DAOException("In executeUpdateID(): " + e.getMessage());
+            throw new DAOException("In executeUpdateID(): " + e.getMessage(), e);
+        } finally {
+            DAOMySQLSettings.releaseConnection(connection);
         }
     }
 
     /**
-     * Esegue una query di selezione e mappa i risultati in una lista di {@code Prodotti}.
+     * Esegue con uno statement preparato (in cache) una query di selezione
+     * e mappa i risultati in una lista di {@code Prodotti}.
      *
-     * @param query stringa SQL di selezione da eseguire
+     * @param query     stringa SQL di selezione da eseguire, con segnaposto {@code ?}
+     * @param parametri valori dei segnaposto, nell'ordine della query
      * @return lista di oggetti {@code Prodotti} risultanti dalla query
      * @throws DAOException se si verifica un errore durante l'esecuzione SQL
      */
-    private List<Prodotti> executeQuery(String query) throws DAOException {
+    private List<Prodotti> executeQuery(String query, Object... parametri) throws DAOException {
         List<Prodotti> lista = new ArrayList<>();
 
+        Connection connection = null;
         try {
-            Statement st = DAOMySQLSettings.getStatement();
-            ResultSet rs = st.executeQuery(query);
-            while(rs.next()){
-                lista.add(new Prodotti(
-                        rs.getInt("idProdotto"),
-                        rs.getString("nome"),
-                        rs.getString("descrizione"),
-                        rs.getInt("quantita"),
-                        rs.getInt("giacenzaMin"),
-                        rs.getDouble("prezzoAcquisto"),
-                        rs.getDouble("prezzoVendita")));
+            connection = DAOMySQLSettings.getConnection();
+            PreparedStatement ps = DAOMySQLSettings.prepareStatement(connection, query);
+            DAOMySQLSettings.setParameters(ps, parametri);
+            try (ResultSet rs = ps.executeQuery()) {
+                while(rs.next()){
+                    lista.add(leggiProdotto(rs));
+                }
             }
-            DAOMySQLSettings.closeStatement(st);
         } catch (SQLException e) {
-            throw new DAOException("In executeQuery(): " + e.getMessage());
+            throw new DAOException("In executeQuery(): " + e.getMessage(), e);
+        } finally {
+            DAOMySQLSettings.releaseConnection(connection);
         }
 
         return lista;
     }
+
+    /**
+     * Crea un oggetto {@code Prodotti} dalla riga corrente di un result set sulla tabella prodotti.
+     *
+     * @param rs result set posizionato su una riga
+     * @return il prodotto letto
+     * @throws SQLException se una colonna non può essere letta
+     */
+    static Prodotti leggiProdotto(ResultSet rs) throws SQLException {
+        Prodotti p = new Prodotti(
+                rs.getInt("idProdotto"),
+                rs.getString("nome"),
+                rs.getString("descrizione"),
+                rs.getInt("quantita"),
+                rs.getInt("giacenzaMin"),
+                rs.getDouble("prezzoAcquisto"),
+                rs.getDouble("prezzoVendita"));
+        Timestamp ultimaModifica = rs.getTimestamp("ultimaModifica");
+        if (ultimaModifica != null) {
+            p.setUltimaModifica(ultimaModifica.toLocalDateTime());
+        }
+        return p;
+    }
+
+    /**
+     * Esegue con uno statement preparato (in cache) una query che restituisce una colonna intera.
+     *
+     * @param query     stringa SQL di selezione da eseguire, con segnaposto {@code ?}
+     * @param parametri valori dei segnaposto, nell'ordine della query
+     * @return i valori della prima colonna, nell'ordine delle righe
+     * @throws DAOException se si verifica un errore durante l'esecuzione SQL
+     */
+    private List<Integer> executeQueryInteri(String query, Object... parametri) throws DAOException {
+        List<Integer> lista = new ArrayList<>();
+
+        Connection connection = null;
+        try {
+            connection = DAOMySQLSettings.getConnection();
+            PreparedStatement ps = DAOMySQLSettings.prepareStatement(connection, query);
+            DAOMySQLSettings.setParameters(ps, parametri);
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    lista.add(rs.getInt(1));
+                }
+            }
+        } catch (SQLException e) {
+            throw new DAOException("In executeQuery(): " + e.getMessage(), e);
+        } finally {
+            DAOMySQLSettings.releaseConnection(connection);
+        }
+
+        return lista;
+    }
+
+    /**
+     * Esegue l'escape dei caratteri speciali di {@code LIKE} ({@code \}, {@code %}, {@code _}),
+     * così che il testo cercato venga confrontato letteralmente.
+     *
+     * @param testo testo inserito dall'utente
+     * @return il testo con i caratteri speciali preceduti da {@code \}
+     */
+    private static String escapeLike(String testo) {
+        return testo.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
 }
\ No newline at end of file
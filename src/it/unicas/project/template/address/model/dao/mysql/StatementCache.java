@@ -0,0 +1,102 @@
+package it.unicas.project.template.address.model.dao.mysql;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Cache LRU di {@link PreparedStatement} associata a una singola connessione del pool.
+ * <br>
+ * La chiave è il testo SQL con i segnaposto {@code ?}: query con la stessa "forma"
+ * (es. la stessa combinazione di filtri applicata da {@code select}) riusano lo stesso
+ * statement già preparato sul server, indipendentemente dai valori dei parametri.
+ * Quando la cache supera la dimensione massima lo statement usato meno di recente viene chiuso.
+ * <br>
+ * La cache non è thread-safe: viene usata solo dal thread che ha in prestito la connessione.
+ *
+ * @author Cristian Corsini, Simone Feola, Daniela Spitaleri
+ * @since 19/11/2025
+ * @see ConnectionPool#prepareStatement(Connection, String, int)
+ */
+class StatementCache {
+
+    /**
+     * Connessione su cui vengono preparati gli statement.
+     */
+    private final Connection connection;
+
+    /**
+     * Statement preparati, in ordine di accesso (il primo è il meno recente).
+     */
+    private final LinkedHashMap<String, PreparedStatement> statements;
+
+    /**
+     * Contatori condivisi con il pool per le statistiche.
+     */
+    private final LongAdder hits;
+    private final LongAdder misses;
+
+    /**
+     * Crea una cache vuota per la connessione fornita.
+     *
+     * @param connection connessione proprietaria degli statement
+     * @param maxSize    numero massimo di statement mantenuti aperti
+     * @param hits       contatore dei riusi
+     * @param misses     contatore delle nuove preparazioni
+     */
+    StatementCache(Connection connection, int maxSize, LongAdder hits, LongAdder misses) {
+        this.connection = connection;
+        this.hits = hits;
+        this.misses = misses;
+        this.statements = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, PreparedStatement> eldest) {
+                if (size() > maxSize) {
+                    closeQuietly(eldest.getValue());
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    /**
+     * Restituisce lo statement preparato per {@code sql}, creandolo se non presente in cache.
+     * <br>
+     * Lo statement restituito appartiene alla cache e non deve essere chiuso dal chiamante;
+     * i parametri vanno reimpostati a ogni esecuzione.
+     *
+     * @param sql               testo SQL con segnaposto
+     * @param autoGeneratedKeys {@link Statement#RETURN_GENERATED_KEYS} o {@link Statement#NO_GENERATED_KEYS}
+     * @return lo statement preparato
+     * @throws SQLException se la preparazione fallisce
+     */
+    PreparedStatement prepare(String sql, int autoGeneratedKeys) throws SQLException {
+        String key = (autoGeneratedKeys == Statement.RETURN_GENERATED_KEYS) ? "#" + sql : sql;
+        PreparedStatement ps = statements.get(key);
+        if (ps != null && !ps.isClosed()) {
+            hits.increment();
+            return ps;
+        }
+        misses.increment();
+        ps = connection.prepareStatement(sql, autoGeneratedKeys);
+        statements.put(key, ps);
+        return ps;
+    }
+
+    /**
+     * Chiude uno statement ignorando eventuali errori.
+     *
+     * @param ps statement da chiudere
+     */
+    private static void closeQuietly(PreparedStatement ps) {
+        try {
+            ps.close();
+        } catch (SQLException ignored) {
+        }
+    }
+}
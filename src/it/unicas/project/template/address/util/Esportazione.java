@@ -1,24 +1,44 @@
 package it.unicas.project.template.address.util;
 
-import it.unicas.project.template.address.model.Movimenti;
 import it.unicas.project.template.address.model.Prodotti;
-import javafx.collections.ObservableList;
+import it.unicas.project.template.address.model.dao.DAOException;
+import it.unicas.project.template.address.model.dao.MovimentiDAO;
+import it.unicas.project.template.address.model.dao.DAOFactory;
+import javafx.concurrent.Task;
 import javafx.stage.FileChooser;
 import javafx.stage.Stage;
 import java.io.File;
-import java.io.FileWriter;
+import java.io.FileOutputStream;
 import java.io.IOException;
-import java.io.PrintWriter;
-import java.time.format.DateTimeFormatter;
-import java.util.HashMap;
-import java.util.Map;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.logging.Level;
 import java.util.logging.Logger;
+import java.util.zip.GZIPOutputStream;
 
 /**
  * Utility per l'esportazione dei dati dell'applicazione in formato CSV.
- * Fornisce metodi per aprire un FileChooser e scrivere le collezioni di
- * Prodotti e Movimenti su file CSV utilizzando un separatore definito.
+ * Fornisce metodi per aprire un FileChooser e creare i {@link Task} JavaFX che scrivono i Prodotti
+ * e lo storico dei Movimenti su file CSV utilizzando un separatore definito.
+ * <br>
+ * Le esportazioni vengono eseguite in background (es. con
+ * {@link it.unicas.project.template.address.model.dao.AsyncDAO#avvia(Task)}): ogni task pubblica l'avanzamento
+ * con {@link Task#progressProperty()}, può essere annullato con {@link Task#cancel()} (il file parziale viene
+ * eliminato) e più esportazioni possono essere eseguite contemporaneamente.
+ * <br>
+ * Se il nome del file termina con {@value #ESTENSIONE_GZIP} il CSV viene compresso con gzip durante la scrittura.
+ * <br>
+ * Lo storico dei movimenti non passa dalle liste in memoria: le righe sono lette dal database in streaming
+ * e scritte subito nel file, quindi la memoria usata non dipende dalla dimensione dello storico.
+ * <br>
+ * I file seguono RFC 4180 e sono scritti con {@link ScrittoreCSV}: i testi che contengono il separatore,
+ * doppi apici o a capo sono racchiusi tra doppi apici invece di essere alterati, i prezzi hanno sempre due
+ * decimali con il punto e le righe terminano con CRLF.
  *
  * Questa classe è composta esclusivamente da metodi statici e non deve essere istanziata.
  *
@@ -34,62 +54,190 @@ public class Esportazione {
      */
     private static final Logger LOGGER = Logger.getLogger(Esportazione.class.getName());
 
+    /**
+     * Dimensione in caratteri del buffer di {@link ScrittoreCSV} (e in byte di quello di compressione):
+     * il file riceve una scrittura ogni 64K invece di una per riga.
+     */
+    private static final int DIMENSIONE_BUFFER = ScrittoreCSV.DIMENSIONE_BUFFER;
+
+    /**
+     * Estensione dei file CSV compressi con gzip.
+     */
+    public static final String ESTENSIONE_GZIP = ".gz";
+
+    /**
+     * Ogni quante righe i task aggiornano l'avanzamento e controllano l'annullamento.
+     */
+    private static final int RIGHE_PER_AVANZAMENTO = 1024;
+
     /**
      * Separatore utilizzato per i file CSV generati da questa utility.
      *
-     * @see #writeProdottiToCSV(File, ObservableList)
-     * @see #writeMovimentiToCSV(File, ObservableList, ObservableList)
+     * @see #prodottiTask(File, List)
+     * @see #storicoMovimentiTask(File)
      */
-    private static final String CSV_SEPARATOR = ";";
+    private static final char CSV_SEPARATOR = ';';
 
     /**
-     * Apre un FileChooser e scrive la lista di Prodotti nel file selezionato.
-     * Effettua la scrittura chiamando internamente {@link #writeProdottiToCSV(File, ObservableList)}.
-     *
-     * @param stage    Lo Stage genitore per la finestra di dialogo.
-     * @param prodotti La lista di prodotti da esportare.
-     * @return true se l'esportazione è stata completata con successo; false se l'utente ha annullato o si è verificato un errore.
+     * Cifre decimali dei prezzi esportati.
      */
-    public static boolean exportProdottiToCSV(Stage stage, ObservableList<Prodotti> prodotti) {
-        FileChooser fileChooser = setupFileChooser("Esporta Inventario Prodotti", "inventario_prodotti.csv");
-        File file = fileChooser.showSaveDialog(stage);
+    private static final int DECIMALI_PREZZO = 2;
 
-        if (file != null) {
-            try {
-                writeProdottiToCSV(file, prodotti);
-                return true;
-            } catch (Exception e) {
-                e.printStackTrace();
-                return false;
-            }
-        } else {
-            return false;
+    /**
+     * Esito di un'esportazione: righe scritte e tempo impiegato.
+     */
+    public static final class Risultato {
+
+        private final File file;
+        private final long righe;
+        private final long nanosecondi;
+
+        Risultato(File file, long righe, long nanosecondi) {
+            this.file = file;
+            this.righe = righe;
+            this.nanosecondi = nanosecondi;
+        }
+
+        /**
+         * @return il file scritto
+         */
+        public File getFile() {
+            return file;
+        }
+
+        /**
+         * @return il numero di righe di dati scritte (intestazione esclusa)
+         */
+        public long getRighe() {
+            return righe;
+        }
+
+        /**
+         * @return la durata dell'esportazione in millisecondi
+         */
+        public long getMillisecondi() {
+            return nanosecondi / 1_000_000;
+        }
+
+        /**
+         * @return le righe scritte al secondo
+         */
+        public long getRigheAlSecondo() {
+            return (nanosecondi == 0) ? righe : righe * 1_000_000_000L / nanosecondi;
         }
     }
 
     /**
-     * Apre un FileChooser e scrive la lista di Movimenti nel file selezionato.
-     * Effettua la scrittura chiamando internamente {@link #writeMovimentiToCSV(File, ObservableList, ObservableList)}.
-     *
-     * @param stage     Lo Stage genitore per la finestra di dialogo.
-     * @param movimenti La lista di movimenti da esportare.
-     * @param prodotti  La lista dei prodotti utilizzata per risolvere i nomi dei prodotti riferiti dai movimenti.
+     * Riceve l'avanzamento della scrittura delle righe.
      */
-    public static boolean exportMovimentiToCSV(Stage stage, ObservableList<Movimenti> movimenti, ObservableList<Prodotti> prodotti) {
-        FileChooser fileChooser = setupFileChooser("Esporta Storico Movimenti", "storico_movimenti.csv");
-        File file = fileChooser.showSaveDialog(stage);
+    @FunctionalInterface
+    interface Avanzamento {
+
+        /**
+         * @param righe  righe scritte finora
+         * @param totale righe attese; non positivo se non noto
+         * @return false se la scrittura va interrotta
+         */
+        boolean avanza(long righe, long totale);
+    }
+
+    /**
+     * Task di esportazione: apre il file (compresso se richiesto), delega la scrittura delle righe
+     * a {@link #scrivi(ScrittoreCSV)} e ne misura la durata.
+     * <br>
+     * Se la scrittura fallisce o il task viene annullato il file parziale viene eliminato.
+     */
+    private abstract static class EsportazioneTask extends Task<Risultato> {
+
+        private final String titolo;
+        private final File file;
+
+        EsportazioneTask(String titolo, File file) {
+            this.titolo = titolo;
+            this.file = file;
+            updateTitle(titolo);
+            updateMessage(file.getName());
+        }
+
+        /**
+         * Scrive intestazione e righe del CSV.
+         *
+         * @param csv destinazione, eventualmente compressa
+         * @return il numero di righe di dati scritte
+         * @throws Exception se la lettura dei dati o la scrittura falliscono
+         */
+        protected abstract long scrivi(ScrittoreCSV csv) throws Exception;
 
-        if (file != null) {
+        /**
+         * Pubblica l'avanzamento ogni {@value #RIGHE_PER_AVANZAMENTO} righe.
+         *
+         * @param righe  righe scritte finora
+         * @param totale righe attese; non positivo se non noto
+         * @return false se il task è stato annullato e la scrittura va interrotta
+         */
+        protected boolean avanza(long righe, long totale) {
+            if (righe % RIGHE_PER_AVANZAMENTO == 0) {
+                if (totale > 0) {
+                    updateProgress(Math.min(righe, totale), totale);
+                }
+                return !isCancelled();
+            }
+            return true;
+        }
+
+        @Override
+        protected Risultato call() throws Exception {
+            long inizio = System.nanoTime();
+            long righe = -1;
             try {
-                writeMovimentiToCSV(file, movimenti, prodotti);
-                return true;
-            } catch (Exception e) {
-                e.printStackTrace();
-                return false;
+                try (ScrittoreCSV csv = new ScrittoreCSV(apriFile(file), CSV_SEPARATOR, DIMENSIONE_BUFFER)) {
+                    righe = scrivi(csv);
+                }
+            } finally {
+                if (righe < 0 || isCancelled()) {
+                    Files.deleteIfExists(file.toPath());
+                }
             }
-        } else {
-            return false;
+            if (isCancelled()) {
+                LOGGER.log(Level.INFO, titolo + " annullata: " + file.getAbsolutePath());
+                return null;
+            }
+            updateProgress(1, 1);
+
+            Risultato risultato = new Risultato(file, righe, System.nanoTime() - inizio);
+            LOGGER.log(Level.INFO, titolo + " completata in: " + file.getAbsolutePath() + " ("
+                    + risultato.getRighe() + " righe in " + risultato.getMillisecondi() + " ms, "
+                    + risultato.getRigheAlSecondo() + " righe/s)");
+            return risultato;
         }
+
+        @Override
+        protected void failed() {
+            LOGGER.log(Level.SEVERE, "Errore durante " + titolo.toLowerCase() + " in CSV: "
+                    + getException().getMessage());
+        }
+    }
+
+    /**
+     * Apre un FileChooser per scegliere il file in cui esportare l'inventario dei prodotti.
+     *
+     * @param stage Lo Stage genitore per la finestra di dialogo.
+     * @return il file scelto, oppure {@code null} se l'utente ha annullato.
+     */
+    public static File chooseProdottiFile(Stage stage) {
+        FileChooser fileChooser = setupFileChooser("Esporta Inventario Prodotti", "inventario_prodotti.csv");
+        return fileChooser.showSaveDialog(stage);
+    }
+
+    /**
+     * Apre un FileChooser per scegliere il file in cui esportare lo storico dei movimenti.
+     *
+     * @param stage Lo Stage genitore per la finestra di dialogo.
+     * @return il file scelto, oppure {@code null} se l'utente ha annullato.
+     */
+    public static File chooseMovimentiFile(Stage stage) {
+        FileChooser fileChooser = setupFileChooser("Esporta Storico Movimenti", "storico_movimenti.csv");
+        return fileChooser.showSaveDialog(stage);
     }
 
     /**
@@ -97,92 +245,146 @@ public class Esportazione {
      *
      * @param title           Titolo della finestra FileChooser.
      * @param defaultFileName Nome file iniziale suggerito nella finestra di salvataggio.
-     * @return FileChooser configurato con filtro CSV e nome di default.
+     * @return FileChooser configurato con i filtri CSV e CSV compresso e con il nome di default.
      */
     private static FileChooser setupFileChooser(String title, String defaultFileName) {
         FileChooser fileChooser = new FileChooser();
         fileChooser.setTitle(title);
         fileChooser.setInitialFileName(defaultFileName);
-        // Aggiunge un filtro per i file CSV
-        fileChooser.getExtensionFilters().add(
-                new FileChooser.ExtensionFilter("CSV files (*.csv)", "*.csv")
+        // Aggiunge un filtro per i file CSV e uno per i CSV compressi con gzip
+        fileChooser.getExtensionFilters().addAll(
+                new FileChooser.ExtensionFilter("CSV files (*.csv)", "*.csv"),
+                new FileChooser.ExtensionFilter("CSV compressi (*.csv.gz)", "*.csv" + ESTENSIONE_GZIP)
         );
         return fileChooser;
     }
 
     /**
-     * Logica di scrittura effettiva per i Prodotti.
-     * Scrive l'intestazione e successivamente ogni riga corrispondente a un prodotto nella lista.
-     * Eventuali IOException vengono gestite internamente e loggate.
+     * Apre il file di destinazione in scrittura con codifica UTF-8; se il nome termina con
+     * {@value #ESTENSIONE_GZIP} i dati vengono compressi con gzip. Il buffer dei caratteri è quello
+     * di {@link ScrittoreCSV}.
      *
-     * @param file     File di destinazione dove scrivere il CSV.
-     * @param prodotti Lista di prodotti da esportare.
+     * @param file il file di destinazione
+     * @return il writer da chiudere al termine della scrittura
+     * @throws IOException se il file non può essere aperto
      */
-    private static void writeProdottiToCSV(File file, ObservableList<Prodotti> prodotti) {
-        try (PrintWriter writer = new PrintWriter(new FileWriter(file))) {
-
-            writer.println("ID_Prodotto" + CSV_SEPARATOR + "Nome" + CSV_SEPARATOR + "Descrizione" + CSV_SEPARATOR +
-                    "Quantita_Attuale" + CSV_SEPARATOR + "Giacenza_Minima" + CSV_SEPARATOR +
-                    "Prezzo_Acquisto" + CSV_SEPARATOR + "Prezzo_Vendita");
-
-            for (Prodotti p : prodotti) {
-                writer.println(
-                        p.getIdProdotto() + CSV_SEPARATOR +
-                                p.getNome() + CSV_SEPARATOR +
-                                p.getDescrizione() + CSV_SEPARATOR +
-                                p.getQuantita() + CSV_SEPARATOR +
-                                p.getGiacenzaMin() + CSV_SEPARATOR +
-                                p.getPrezzoAcquisto() + CSV_SEPARATOR +
-                                p.getPrezzoVendita()
-                );
+    static Writer apriFile(File file) throws IOException {
+        OutputStream out = new FileOutputStream(file);
+        try {
+            if (file.getName().endsWith(ESTENSIONE_GZIP)) {
+                out = new GZIPOutputStream(out, DIMENSIONE_BUFFER);
             }
-            LOGGER.log(Level.INFO, "Inventario prodotti esportato con successo in: " + file.getAbsolutePath());
-
+            return new OutputStreamWriter(out, StandardCharsets.UTF_8);
         } catch (IOException e) {
-            LOGGER.log(Level.SEVERE, "Errore durante l'esportazione dei Prodotti in CSV: " + e.getMessage());
+            out.close();
+            throw e;
         }
     }
 
     /**
-     * Logica di scrittura effettiva per i Movimenti.
-     * Costruisce una mappa id->nome prodotto per migliorare l'efficienza durante la scrittura.
-     * La data viene formattata usando il pattern yyyy-MM-dd; la descrizione viene sanificata
-     * rimuovendo il separatore CSV per evitare rotture del formato.
+     * Crea il task che esporta l'inventario dei prodotti.
+     * <br>
+     * La lista viene copiata alla creazione del task, che va quindi creato dal thread JavaFX;
+     * la scrittura avviene poi sulla copia.
      *
-     * @param file      File di destinazione dove scrivere il CSV.
-     * @param movimenti Lista di movimenti da esportare.
-     * @param prodotti  Lista di prodotti utilizzata per risolvere i nomi dei prodotti nei movimenti.
+     * @param file     File di destinazione dove scrivere il CSV.
+     * @param prodotti Lista di prodotti da esportare.
+     * @return il task, da avviare in background
      */
-    private static void writeMovimentiToCSV(File file, ObservableList<Movimenti> movimenti, ObservableList<Prodotti> prodotti) {
-        try (PrintWriter writer = new PrintWriter(new FileWriter(file))) {
-
-            writer.println("ID_Movimento" + CSV_SEPARATOR + "Nome prodotto" + CSV_SEPARATOR + "Tipo" + CSV_SEPARATOR +
-                    "Quantita" + CSV_SEPARATOR + "Data" + CSV_SEPARATOR + "Descrizione");
+    public static Task<Risultato> prodottiTask(File file, List<Prodotti> prodotti) {
+        List<Prodotti> copia = new ArrayList<>(prodotti);
+        return new EsportazioneTask("Esportazione inventario prodotti", file) {
+            @Override
+            protected long scrivi(ScrittoreCSV csv) throws IOException {
+                return scriviProdotti(csv, copia, this::avanza);
+            }
+        };
+    }
 
-            // Formattatore per la data del movimento
-            DateTimeFormatter dateFormatter = DateTimeFormatter.ofPattern("yyyy-MM-dd");
+    /**
+     * Scrive intestazione e righe dell'inventario dei prodotti.
+     *
+     * @param csv         destinazione
+     * @param prodotti    prodotti da esportare
+     * @param avanzamento riceve l'avanzamento e può interrompere la scrittura
+     * @return il numero di righe di dati scritte
+     * @throws IOException se la scrittura fallisce
+     */
+    static long scriviProdotti(ScrittoreCSV csv, List<Prodotti> prodotti, Avanzamento avanzamento) throws IOException {
+        csv.campo("ID_Prodotto").campo("Nome").campo("Descrizione").campo("Quantita_Attuale")
+                .campo("Giacenza_Minima").campo("Prezzo_Acquisto").campo("Prezzo_Vendita").nuovaRiga();
 
-            Map<Integer, String> prodottoMap = new HashMap<>();
-            for (Prodotti p : prodotti) {
-                prodottoMap.put(p.getIdProdotto(), p.getNome());
+        long righe = 0;
+        for (Prodotti p : prodotti) {
+            if (p.getIdProdotto() != null) {
+                csv.campo(p.getIdProdotto().intValue());
+            } else {
+                csv.campo((CharSequence) null);
             }
+            csv.campo(p.getNome())
+                    .campo(p.getDescrizione())
+                    .campo(p.getQuantita())
+                    .campo(p.getGiacenzaMin())
+                    .campo(p.getPrezzoAcquisto(), DECIMALI_PREZZO)
+                    .campo(p.getPrezzoVendita(), DECIMALI_PREZZO)
+                    .nuovaRiga();
+            if (!avanzamento.avanza(++righe, prodotti.size())) {
+                break;
+            }
+        }
+        return righe;
+    }
 
-            for (Movimenti m : movimenti) {
-                String dataFormatted = (m.getData() != null) ? m.getData().format(dateFormatter) : "";
-
-                writer.println(
-                        m.getIdMovimento() + CSV_SEPARATOR +
-                                prodottoMap.get(m.getIdProdotto()) + CSV_SEPARATOR +
-                                m.getTipo() + CSV_SEPARATOR +
-                                m.getQuantita() + CSV_SEPARATOR +
-                                dataFormatted + CSV_SEPARATOR +
-                                m.getDescrizione().replace(CSV_SEPARATOR, "") // Rimuovi il separatore dalla descrizione per sicurezza
-                );
+    /**
+     * Crea il task che esporta l'intero storico dei movimenti, leggendolo dal database in streaming
+     * con {@link MovimentiDAO#scorriStorico(MovimentiDAO.VisitatoreMovimenti)}.
+     * <br>
+     * Il numero di movimenti viene letto prima dell'esportazione per calcolare l'avanzamento.
+     * Ogni riga viene scritta appena letta, campo per campo e senza creare stringhe; il nome del prodotto
+     * arriva già dalla query. La data viene formattata usando il pattern yyyy-MM-dd; la descrizione viene
+     * racchiusa tra doppi apici se contiene il separatore. Annullando il task la query viene interrotta.
+     *
+     * @param file File di destinazione dove scrivere il CSV.
+     * @return il task, da avviare in background
+     */
+    public static Task<Risultato> storicoMovimentiTask(File file) {
+        return new EsportazioneTask("Esportazione storico movimenti", file) {
+            @Override
+            protected long scrivi(ScrittoreCSV csv) throws Exception {
+                return scriviStorico(csv, DAOFactory.getCurrentDAOFactory().getMovimentiDAO(), this::avanza);
             }
-            LOGGER.log(Level.INFO, "Storico movimenti esportato con successo in: " + file.getAbsolutePath());
+        };
+    }
 
-        } catch (IOException e) {
-            LOGGER.log(Level.SEVERE, "Errore durante l'esportazione dei Movimenti in CSV: " + e.getMessage());
-        }
+    /**
+     * Scrive intestazione e righe dello storico dei movimenti letto in streaming da {@code dao}.
+     *
+     * @param csv         destinazione
+     * @param dao         DAO da cui leggere lo storico
+     * @param avanzamento riceve l'avanzamento e può interrompere la lettura
+     * @return il numero di righe di dati scritte
+     * @throws DAOException se la lettura fallisce
+     * @throws IOException  se la scrittura fallisce
+     */
+    static long scriviStorico(ScrittoreCSV csv, MovimentiDAO dao, Avanzamento avanzamento)
+            throws DAOException, IOException {
+        int totale = dao.count();
+
+        csv.campo("ID_Movimento").campo("Nome prodotto").campo("Tipo").campo("Quantita").campo("Data")
+                .campo("Descrizione").nuovaRiga();
+
+        long[] righe = {0};
+
+        dao.scorriStorico((idMovimento, nomeProdotto, tipo, quantita, data, descrizione) -> {
+            csv.campo(idMovimento)
+                    .campo(nomeProdotto)
+                    .campo(tipo)
+                    .campo(quantita)
+                    .campo(data)
+                    .campo(descrizione)
+                    .nuovaRiga();
+            return avanzamento.avanza(++righe[0], totale);
+        });
+        return righe[0];
     }
 }
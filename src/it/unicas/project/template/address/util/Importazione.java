@@ -0,0 +1,606 @@
+package it.unicas.project.template.address.util;
+
+import it.unicas.project.template.address.model.Movimenti;
+import it.unicas.project.template.address.model.Prodotti;
+import it.unicas.project.template.address.model.dao.DAOException;
+import it.unicas.project.template.address.model.dao.DAOFactory;
+import javafx.concurrent.Task;
+import javafx.stage.FileChooser;
+import javafx.stage.Stage;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * Utility per l'importazione di Prodotti e Movimenti da file CSV nel formato scritto da {@link Esportazione}
+ * (separatore {@code ;}, eventualmente compresso con gzip).
+ * <br>
+ * Come le esportazioni, le importazioni sono {@link Task} JavaFX da eseguire in background: pubblicano
+ * l'avanzamento (in base ai byte letti dal file) e possono essere annullate.
+ * <br>
+ * Il file viene letto in streaming con {@link LettoreCSV}, oppure, se è grande e non compresso, mappato in memoria
+ * e convertito in parallelo con {@link LettoreCSVMappato}. Le righe sono registrate a blocchi: ogni blocco
+ * di {@code dimensioneTransazione} righe viene inviato al DAO con un batch JDBC e confermato in una propria
+ * transazione. Annullando l'importazione, o se si verifica un errore del database, i blocchi già confermati
+ * restano registrati.
+ * <br>
+ * Le righe non valide non interrompono l'importazione: quelle che non possono essere convertite e quelle
+ * rifiutate dal DAO (stesse regole di {@code verifyObject}, prodotto inesistente, giacenza insufficiente)
+ * vengono scritte, con numero di riga e motivo, in un file di scarti accanto al file importato.
+ * <br>
+ * Questa classe è composta esclusivamente da metodi statici e non deve essere istanziata.
+ *
+ * @author Cristian Corsini, Simone Feola, Daniela Spitaleri
+ * @since 19/11/2025
+ */
+public class Importazione {
+
+    /**
+     * Logger per la classe Importazione.
+     *
+     * @see java.util.logging.Logger
+     */
+    private static final Logger LOGGER = Logger.getLogger(Importazione.class.getName());
+
+    /**
+     * Dimensione in byte del buffer di decompressione.
+     */
+    private static final int DIMENSIONE_BUFFER = 1 << 16;
+
+    /**
+     * Separatore dei file CSV, lo stesso di {@link Esportazione}.
+     */
+    private static final char CSV_SEPARATOR = ';';
+
+    /**
+     * Suffisso aggiunto al nome del file importato per ottenere il file degli scarti.
+     */
+    public static final String SUFFISSO_SCARTI = "_scarti.csv";
+
+    /**
+     * Dimensione minima in byte dei file non compressi letti in parallelo con {@link LettoreCSVMappato}.
+     */
+    static final long SOGLIA_PARALLELA = 16L << 20;
+
+    /**
+     * Esito di un'importazione: righe registrate, righe scartate e tempo impiegato.
+     */
+    public static final class Risultato {
+
+        private final File file;
+        private final long importate;
+        private final long scartate;
+        private final File scarti;
+        private final long nanosecondi;
+
+        Risultato(File file, long importate, long scartate, File scarti, long nanosecondi) {
+            this.file = file;
+            this.importate = importate;
+            this.scartate = scartate;
+            this.scarti = scarti;
+            this.nanosecondi = nanosecondi;
+        }
+
+        /**
+         * @return il file importato
+         */
+        public File getFile() {
+            return file;
+        }
+
+        /**
+         * @return il numero di righe registrate
+         */
+        public long getImportate() {
+            return importate;
+        }
+
+        /**
+         * @return il numero di righe scartate
+         */
+        public long getScartate() {
+            return scartate;
+        }
+
+        /**
+         * @return il file con le righe scartate, oppure {@code null} se non ce ne sono
+         */
+        public File getScarti() {
+            return scarti;
+        }
+
+        /**
+         * @return la durata dell'importazione in millisecondi
+         */
+        public long getMillisecondi() {
+            return nanosecondi / 1_000_000;
+        }
+
+        /**
+         * @return le righe lette (registrate o scartate) al secondo
+         */
+        public long getRigheAlSecondo() {
+            long righe = importate + scartate;
+            return (nanosecondi == 0) ? righe : righe * 1_000_000_000L / nanosecondi;
+        }
+    }
+
+    /**
+     * Una riga letta dal file: i campi originali e l'oggetto convertito, oppure il motivo dello scarto.
+     *
+     * @param <T> il tipo delle righe importate
+     */
+    private static final class Riga<T> {
+
+        private final long numero;
+        private final String[] campi;
+        private final T oggetto;
+        private final String errore;
+
+        Riga(long numero, String[] campi, T oggetto, String errore) {
+            this.numero = numero;
+            this.campi = campi;
+            this.oggetto = oggetto;
+            this.errore = errore;
+        }
+    }
+
+    /**
+     * Task di importazione: legge il file, converte ogni riga con {@link #converti(String[])}
+     * e registra le righe a blocchi con {@link #registra(List)}, scrivendo gli scarti.
+     * <br>
+     * I file non compressi di almeno {@link Importazione#SOGLIA_PARALLELA} byte sono letti con {@link LettoreCSVMappato}:
+     * lettura e conversione avvengono in parallelo sul pool comune, mentre i blocchi sono registrati da questo
+     * thread nell'ordine del file. Gli altri file sono letti in streaming con {@link LettoreCSV}.
+     *
+     * @param <T> il tipo delle righe importate
+     */
+    private abstract static class ImportazioneTask<T> extends Task<Risultato> {
+
+        private final String titolo;
+        private final File file;
+        private final String primaColonna;
+        private final int numeroColonne;
+        private final int dimensioneTransazione;
+
+        /**
+         * Blocco di righe convertite in attesa di essere registrate, con campi e numeri di riga.
+         */
+        private final List<T> blocco;
+        private final List<String[]> righeBlocco;
+        private final long[] numeriBlocco;
+        private long importate = 0;
+
+        /**
+         * Scrittore del file degli scarti, aperto alla prima riga scartata.
+         */
+        private ScrittoreCSV scarti;
+        private File fileScarti;
+        private long scartate = 0;
+
+        ImportazioneTask(String titolo, File file, String primaColonna, int numeroColonne, int dimensioneTransazione) {
+            if (dimensioneTransazione <= 0) {
+                throw new IllegalArgumentException("Dimensione della transazione non valida: " + dimensioneTransazione);
+            }
+            this.titolo = titolo;
+            this.file = file;
+            this.primaColonna = primaColonna;
+            this.numeroColonne = numeroColonne;
+            this.dimensioneTransazione = dimensioneTransazione;
+            this.blocco = new ArrayList<>(dimensioneTransazione);
+            this.righeBlocco = new ArrayList<>(dimensioneTransazione);
+            this.numeriBlocco = new long[dimensioneTransazione];
+            updateTitle(titolo);
+            updateMessage(file.getName());
+        }
+
+        /**
+         * Prepara i dati necessari alla conversione delle righe, prima della lettura del file.
+         *
+         * @throws DAOException se la lettura dal database fallisce
+         */
+        protected void prepara() throws DAOException {
+        }
+
+        /**
+         * Converte una riga, che ha almeno il numero di campi atteso. Può essere invocato in parallelo da più
+         * thread: i dati preparati da {@link #prepara()} vanno solo letti.
+         *
+         * @param campi i campi della riga
+         * @return l'oggetto da registrare
+         * @throws IllegalArgumentException con il motivo, se la riga non è valida
+         */
+        protected abstract T converti(String[] campi);
+
+        /**
+         * Registra un blocco di righe in un'unica transazione.
+         *
+         * @param blocco le righe convertite
+         * @return per ogni riga scartata, la sua posizione in {@code blocco} e il motivo
+         * @throws DAOException se si verifica un errore del database
+         */
+        protected abstract Map<Integer, String> registra(List<T> blocco) throws DAOException;
+
+        @Override
+        protected Risultato call() throws Exception {
+            long inizio = System.nanoTime();
+            prepara();
+
+            try {
+                if (!file.getName().endsWith(Esportazione.ESTENSIONE_GZIP) && file.length() >= SOGLIA_PARALLELA) {
+                    leggiParallelo();
+                } else {
+                    leggiSequenziale();
+                }
+                if (!blocco.isEmpty() && !isCancelled()) {
+                    registraBlocco();
+                }
+            } finally {
+                if (scarti != null) {
+                    scarti.close();
+                }
+            }
+
+            if (isCancelled()) {
+                LOGGER.log(Level.INFO, titolo + " annullata: " + file.getAbsolutePath() + " (" + importate
+                        + " righe già registrate)");
+                return null;
+            }
+            updateProgress(1, 1);
+
+            Risultato risultato = new Risultato(file, importate, scartate, fileScarti, System.nanoTime() - inizio);
+            LOGGER.log(Level.INFO, titolo + " completata da: " + file.getAbsolutePath() + " ("
+                    + risultato.getImportate() + " righe registrate, " + risultato.getScartate() + " scartate in "
+                    + risultato.getMillisecondi() + " ms, " + risultato.getRigheAlSecondo() + " righe/s)");
+            return risultato;
+        }
+
+        /**
+         * Legge il file in streaming, una riga alla volta.
+         */
+        private void leggiSequenziale() throws IOException, DAOException {
+            try (FileInputStream fis = new FileInputStream(file);
+                 LettoreCSV csv = new LettoreCSV(new InputStreamReader(apriFile(file, fis), StandardCharsets.UTF_8),
+                         CSV_SEPARATOR)) {
+                FileChannel canale = fis.getChannel();
+                long dimensioneFile = Math.max(1, file.length());
+
+                while (!isCancelled() && csv.leggiRiga()) {
+                    Riga<T> riga = riga(csv.getNumeroRiga(), campi(csv));
+                    if (riga != null && accoda(riga)) {
+                        updateProgress(Math.min(canale.position(), dimensioneFile), dimensioneFile);
+                    }
+                }
+            }
+        }
+
+        /**
+         * Legge il file mappato in memoria, convertendo le porzioni in parallelo.
+         */
+        private void leggiParallelo() throws IOException, DAOException {
+            try (LettoreCSVMappato<Riga<T>> csv = new LettoreCSVMappato<>(file.toPath(), CSV_SEPARATOR, this::riga)) {
+                long dimensioneFile = Math.max(1, csv.getDimensione());
+                List<Riga<T>> righe;
+                while (!isCancelled() && (righe = csv.prossimo()) != null) {
+                    for (Riga<T> riga : righe) {
+                        if (isCancelled()) {
+                            return;
+                        }
+                        accoda(riga);
+                    }
+                    updateProgress(csv.getPosizione(), dimensioneFile);
+                }
+            }
+        }
+
+        /**
+         * Converte una riga letta dal file.
+         *
+         * @param numero numero della riga di testo su cui inizia la riga
+         * @param campi  i campi della riga
+         * @return la riga convertita o con il motivo dello scarto; {@code null} per l'intestazione e le righe vuote
+         */
+        private Riga<T> riga(long numero, String[] campi) {
+            if ((campi.length == 1 && campi[0].isEmpty()) || (numero == 1 && primaColonna.equals(campi[0]))) {
+                return null;
+            }
+            try {
+                if (campi.length < numeroColonne) {
+                    throw new IllegalArgumentException("Numero di campi non valido: " + campi.length
+                            + " (attesi " + numeroColonne + ")");
+                }
+                return new Riga<>(numero, campi, converti(campi), null);
+            } catch (IllegalArgumentException e) {
+                return new Riga<>(numero, campi, null, e.getMessage());
+            }
+        }
+
+        /**
+         * Aggiunge una riga al blocco, registrandolo se è pieno, oppure la scrive negli scarti.
+         *
+         * @return true se il blocco è stato registrato
+         */
+        private boolean accoda(Riga<T> riga) throws DAOException, IOException {
+            if (riga.errore != null) {
+                scarta(riga.numero, riga.errore, riga.campi);
+                return false;
+            }
+            numeriBlocco[blocco.size()] = riga.numero;
+            blocco.add(riga.oggetto);
+            righeBlocco.add(riga.campi);
+            if (blocco.size() < dimensioneTransazione) {
+                return false;
+            }
+            registraBlocco();
+            return true;
+        }
+
+        /**
+         * Registra il blocco, scrive le righe rifiutate negli scarti e svuota il blocco.
+         */
+        private void registraBlocco() throws DAOException, IOException {
+            Map<Integer, String> rifiutate = registra(blocco);
+            for (Map.Entry<Integer, String> riga : rifiutate.entrySet()) {
+                scarta(numeriBlocco[riga.getKey()], riga.getValue(), righeBlocco.get(riga.getKey()));
+            }
+            importate += blocco.size() - rifiutate.size();
+            blocco.clear();
+            righeBlocco.clear();
+        }
+
+        /**
+         * Scrive una riga nel file degli scarti: numero di riga, motivo e campi originali.
+         */
+        private void scarta(long numeroRiga, String motivo, String[] campi) throws IOException {
+            if (scarti == null) {
+                String nome = file.getName();
+                int estensione = nome.indexOf('.');
+                fileScarti = new File(file.getAbsoluteFile().getParentFile(),
+                        ((estensione > 0) ? nome.substring(0, estensione) : nome) + SUFFISSO_SCARTI);
+                scarti = new ScrittoreCSV(new OutputStreamWriter(new FileOutputStream(fileScarti),
+                        StandardCharsets.UTF_8), CSV_SEPARATOR);
+                scarti.campo("Riga").campo("Motivo").nuovaRiga();
+            }
+            scarti.campo(numeroRiga).campo(motivo);
+            for (String campo : campi) {
+                scarti.campo(campo);
+            }
+            scarti.nuovaRiga();
+            scartate++;
+        }
+
+        @Override
+        protected void failed() {
+            LOGGER.log(Level.SEVERE, "Errore durante " + titolo.toLowerCase() + " da CSV: "
+                    + getException().getMessage());
+        }
+    }
+
+    /**
+     * Apre un FileChooser per scegliere il file CSV dei prodotti da importare.
+     *
+     * @param stage Lo Stage genitore per la finestra di dialogo.
+     * @return il file scelto, oppure {@code null} se l'utente ha annullato.
+     */
+    public static File chooseProdottiFile(Stage stage) {
+        return setupFileChooser("Importa Prodotti").showOpenDialog(stage);
+    }
+
+    /**
+     * Apre un FileChooser per scegliere il file CSV dei movimenti da importare.
+     *
+     * @param stage Lo Stage genitore per la finestra di dialogo.
+     * @return il file scelto, oppure {@code null} se l'utente ha annullato.
+     */
+    public static File chooseMovimentiFile(Stage stage) {
+        return setupFileChooser("Importa Movimenti").showOpenDialog(stage);
+    }
+
+    /**
+     * Configura il FileChooser con i filtri per i file CSV e CSV compressi.
+     *
+     * @param title Titolo della finestra FileChooser.
+     * @return FileChooser configurato.
+     */
+    private static FileChooser setupFileChooser(String title) {
+        FileChooser fileChooser = new FileChooser();
+        fileChooser.setTitle(title);
+        fileChooser.getExtensionFilters().addAll(
+                new FileChooser.ExtensionFilter("CSV files (*.csv, *.csv.gz)", "*.csv", "*.csv" + Esportazione.ESTENSIONE_GZIP)
+        );
+        return fileChooser;
+    }
+
+    /**
+     * Restituisce il flusso dei byte del CSV, decompresso se il nome del file termina con
+     * {@value Esportazione#ESTENSIONE_GZIP}.
+     *
+     * @param file il file da importare
+     * @param fis  il flusso aperto su {@code file}
+     * @return il flusso da cui leggere il testo
+     * @throws IOException se l'intestazione gzip non è valida
+     */
+    static InputStream apriFile(File file, FileInputStream fis) throws IOException {
+        if (file.getName().endsWith(Esportazione.ESTENSIONE_GZIP)) {
+            return new GZIPInputStream(fis, DIMENSIONE_BUFFER);
+        }
+        return fis;
+    }
+
+    /**
+     * Crea il task che importa i prodotti con blocchi della dimensione indicata dalla sorgente dati in uso
+     * ({@link DAOFactory#getDimensioneLotto()}).
+     *
+     * @param file il file CSV da importare
+     * @return il task, da avviare in background
+     * @see #prodottiTask(File, int)
+     */
+    public static Task<Risultato> prodottiTask(File file) {
+        return prodottiTask(file, DAOFactory.getCurrentDAOFactory().getDimensioneLotto());
+    }
+
+    /**
+     * Crea il task che importa i prodotti, con le colonne dell'inventario esportato: ID_Prodotto, Nome,
+     * Descrizione, Quantita_Attuale, Giacenza_Minima, Prezzo_Acquisto, Prezzo_Vendita.
+     * <br>
+     * Una riga con ID_Prodotto vuoto crea un nuovo prodotto; con ID_Prodotto valorizzato aggiorna il prodotto
+     * con quell'id, o lo crea se non esiste. I prezzi accettano sia il punto sia la virgola come separatore
+     * decimale.
+     *
+     * @param file                  il file CSV da importare
+     * @param dimensioneTransazione numero di righe registrate in ogni transazione
+     * @return il task, da avviare in background
+     * @throws IllegalArgumentException se {@code dimensioneTransazione} non è positiva
+     */
+    public static Task<Risultato> prodottiTask(File file, int dimensioneTransazione) {
+        return new ImportazioneTask<Prodotti>("Importazione prodotti", file, "ID_Prodotto", 7, dimensioneTransazione) {
+            @Override
+            protected Prodotti converti(String[] campi) {
+                Integer id = null;
+                if (!campi[0].isBlank()) {
+                    id = intero(campi, 0, "ID_Prodotto");
+                    if (id <= 0) {
+                        throw new IllegalArgumentException("ID_Prodotto non valido: " + id);
+                    }
+                }
+                String nome = campi[1].strip();
+                if (nome.isEmpty()) {
+                    throw new IllegalArgumentException("Il nome del prodotto non può essere vuoto.");
+                }
+                return new Prodotti(id, nome, campi[2], intero(campi, 3, "Quantita_Attuale"),
+                        intero(campi, 4, "Giacenza_Minima"), decimale(campi, 5, "Prezzo_Acquisto"),
+                        decimale(campi, 6, "Prezzo_Vendita"));
+            }
+
+            @Override
+            protected Map<Integer, String> registra(List<Prodotti> blocco) throws DAOException {
+                return DAOFactory.getCurrentDAOFactory().getProdottiDAO().upsertAll(blocco);
+            }
+        };
+    }
+
+    /**
+     * Crea il task che importa i movimenti con blocchi della dimensione indicata dalla sorgente dati in uso
+     * ({@link DAOFactory#getDimensioneLotto()}).
+     *
+     * @param file il file CSV da importare
+     * @return il task, da avviare in background
+     * @see #movimentiTask(File, int)
+     */
+    public static Task<Risultato> movimentiTask(File file) {
+        return movimentiTask(file, DAOFactory.getCurrentDAOFactory().getDimensioneLotto());
+    }
+
+    /**
+     * Crea il task che importa i movimenti, con le colonne dello storico esportato: ID_Movimento, Nome prodotto,
+     * Tipo, Quantita, Data (yyyy-MM-dd), Descrizione.
+     * <br>
+     * Ogni riga registra un nuovo movimento e aggiorna la giacenza del prodotto, come la registrazione
+     * dal dialogo dei movimenti; ID_Movimento viene ignorato (può essere vuoto). Il prodotto è cercato per nome,
+     * che deve corrispondere a un solo prodotto esistente. Le righe sono applicate nell'ordine del file.
+     *
+     * @param file                  il file CSV da importare
+     * @param dimensioneTransazione numero di righe registrate in ogni transazione
+     * @return il task, da avviare in background
+     * @throws IllegalArgumentException se {@code dimensioneTransazione} non è positiva
+     */
+    public static Task<Risultato> movimentiTask(File file, int dimensioneTransazione) {
+        return new ImportazioneTask<Movimenti>("Importazione movimenti", file, "ID_Movimento", 6, dimensioneTransazione) {
+
+            /**
+             * Nome del prodotto -&gt; id; -1 per i nomi usati da più prodotti. Dopo {@link #prepara()} è solo
+             * letta, anche dai thread della lettura parallela.
+             */
+            private final Map<String, Integer> idPerNome = new HashMap<>();
+
+            @Override
+            protected void prepara() throws DAOException {
+                for (Prodotti p : DAOFactory.getCurrentDAOFactory().getProdottiDAO().select(null, false)) {
+                    idPerNome.merge(p.getNome(), p.getIdProdotto(), (a, b) -> -1);
+                }
+            }
+
+            @Override
+            protected Movimenti converti(String[] campi) {
+                String nome = campi[1];
+                Integer idProdotto = idPerNome.get(nome);
+                if (idProdotto == null) {
+                    throw new IllegalArgumentException("Prodotto inesistente: " + nome);
+                }
+                if (idProdotto < 0) {
+                    throw new IllegalArgumentException("Più prodotti si chiamano " + nome);
+                }
+                String tipo = campi[2].strip().toUpperCase(Locale.ROOT);
+                LocalDate data;
+                try {
+                    data = LocalDate.parse(campi[4].strip());
+                } catch (DateTimeParseException e) {
+                    throw new IllegalArgumentException("Data non valida: '" + campi[4] + "'");
+                }
+                return new Movimenti(-1, idProdotto, tipo, intero(campi, 3, "Quantita"), data, campi[5]);
+            }
+
+            @Override
+            protected Map<Integer, String> registra(List<Movimenti> blocco) throws DAOException {
+                return DAOFactory.getCurrentDAOFactory().getMovimentiDAO().registraMovimenti(blocco);
+            }
+        };
+    }
+
+    /**
+     * Copia i campi della riga corrente, per il file degli scarti.
+     */
+    private static String[] campi(LettoreCSV csv) {
+        String[] campi = new String[csv.getNumeroCampi()];
+        for (int i = 0; i < campi.length; i++) {
+            campi[i] = csv.campo(i);
+        }
+        return campi;
+    }
+
+    /**
+     * Converte un campo intero.
+     *
+     * @throws IllegalArgumentException se il campo non è un intero
+     */
+    private static int intero(String[] campi, int indice, String colonna) {
+        try {
+            return Integer.parseInt(campi[indice].strip());
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException(colonna + " non è un numero intero: '" + campi[indice] + "'");
+        }
+    }
+
+    /**
+     * Converte un campo decimale, con il punto o la virgola come separatore decimale.
+     *
+     * @throws IllegalArgumentException se il campo non è un numero
+     */
+    private static double decimale(String[] campi, int indice, String colonna) {
+        try {
+            double valore = Double.parseDouble(campi[indice].strip().replace(',', '.'));
+            if (Double.isNaN(valore) || Double.isInfinite(valore)) {
+                throw new NumberFormatException();
+            }
+            return valore;
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException(colonna + " non è un numero: '" + campi[indice] + "'");
+        }
+    }
+}
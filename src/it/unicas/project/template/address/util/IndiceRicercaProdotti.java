@@ -0,0 +1,362 @@
+package it.unicas.project.template.address.util;
+
+import it.unicas.project.template.address.model.Prodotti;
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.regex.Pattern;
+import javafx.beans.InvalidationListener;
+import javafx.beans.property.ReadOnlyIntegerProperty;
+import javafx.beans.property.ReadOnlyIntegerWrapper;
+import javafx.collections.ListChangeListener;
+import javafx.collections.ObservableList;
+
+/**
+ * Indice di ricerca in memoria sulle parole di nome e descrizione dei prodotti.
+ * <br>
+ * Le parole (in minuscolo e senza accenti) sono mantenute in una mappa ordinata parola -&gt; prodotti:
+ * la ricerca di un prefisso è una visita dell'intervallo di parole che iniziano con esso, quindi il costo
+ * dipende dal numero di corrispondenze e non dal numero di prodotti.
+ * <br>
+ * Sulle stesse parole è mantenuto un {@link IndiceTrigrammi} per la ricerca tollerante agli errori
+ * di battitura ({@link #cercaSimili(String, int)}).
+ * <br>
+ * L'indice si aggiorna in modo incrementale osservando la lista dei prodotti (aggiunte e rimozioni)
+ * e le proprietà nome e descrizione di ciascun prodotto (modifiche in place).
+ * {@link #versioneProperty()} viene incrementata a ogni aggiornamento, così le viste possono
+ * ripetere la ricerca corrente.
+ * <br>
+ * La classe non è thread-safe: va usata solo dal thread che modifica la lista (il thread JavaFX).
+ *
+ * @author Cristian Corsini, Simone Feola, Daniela Spitaleri
+ * @since 19/11/2025
+ */
+public class IndiceRicercaProdotti {
+
+    /**
+     * Separatori tra le parole: tutto ciò che non è lettera o cifra.
+     */
+    private static final Pattern SEPARATORI = Pattern.compile("[^\\p{L}\\p{N}]+");
+
+    /**
+     * Segni diacritici rimossi dopo la decomposizione Unicode (es. "è" -&gt; "e").
+     */
+    private static final Pattern DIACRITICI = Pattern.compile("\\p{M}+");
+
+    /**
+     * Parola -&gt; prodotti che la contengono nel nome o nella descrizione.
+     */
+    private final NavigableMap<String, Set<Prodotti>> parole = new TreeMap<>();
+
+    /**
+     * Indice a trigrammi sulle parole (chiavi) di {@link #parole}.
+     */
+    private final IndiceTrigrammi trigrammi = new IndiceTrigrammi();
+
+    /**
+     * Numero di parole del vocabolario confrontate con la distanza di edit per ogni parola cercata.
+     */
+    private static final int CANDIDATI_SIMILI = 64;
+
+    /**
+     * Prodotto -&gt; parole indicizzate, per rimuoverlo o reindicizzarlo senza scandire {@link #parole}.
+     */
+    private final Map<Prodotti, List<String>> paroleProdotto = new IdentityHashMap<>();
+
+    /**
+     * Prodotto -&gt; listener registrato sulle sue proprietà nome e descrizione.
+     */
+    private final Map<Prodotti, InvalidationListener> osservatori = new IdentityHashMap<>();
+
+    /**
+     * Contatore degli aggiornamenti dell'indice.
+     */
+    private final ReadOnlyIntegerWrapper versione = new ReadOnlyIntegerWrapper(0);
+
+    /**
+     * Crea l'indice sui prodotti della lista e lo collega alla lista per gli aggiornamenti successivi.
+     *
+     * @param prodotti la lista osservabile dei prodotti da indicizzare
+     */
+    public IndiceRicercaProdotti(ObservableList<Prodotti> prodotti) {
+        for (Prodotti p : prodotti) {
+            aggiungi(p);
+        }
+        prodotti.addListener(this::aggiorna);
+    }
+
+    /**
+     * Cerca i prodotti che, per ogni parola del testo, hanno nel nome o nella descrizione
+     * una parola che inizia con essa (maiuscole e accenti sono ignorati).
+     * <br>
+     * Viene visitato l'intervallo dell'indice per la parola più lunga del testo (di norma la più selettiva);
+     * i candidati trovati vengono poi filtrati con le altre parole confrontando le sole parole del prodotto.
+     *
+     * @param testo il testo cercato
+     * @return l'insieme (per identità) dei prodotti corrispondenti, oppure {@code null} se il testo
+     *         non contiene parole e quindi non va applicato alcun filtro
+     */
+    public Set<Prodotti> cerca(String testo) {
+        List<String> richieste = parole(testo);
+        if (richieste.isEmpty()) {
+            return null;
+        }
+        String piuLunga = Collections.max(richieste, (a, b) -> Integer.compare(a.length(), b.length()));
+
+        Set<Prodotti> risultati = Collections.newSetFromMap(new IdentityHashMap<>());
+        for (Set<Prodotti> insieme : parole.subMap(piuLunga, true, piuLunga + Character.MAX_VALUE, false).values()) {
+            risultati.addAll(insieme);
+        }
+        if (richieste.size() > 1) {
+            risultati.removeIf(p -> !corrisponde(paroleProdotto.get(p), richieste));
+        }
+        return risultati;
+    }
+
+    /**
+     * Cerca i prodotti con parole simili a quelle del testo, tollerando errori di battitura.
+     * <br>
+     * Ogni parola del testo viene cercata nell'{@link IndiceTrigrammi} del vocabolario; un prodotto
+     * è restituito se per ogni parola cercata contiene una parola il cui inizio è entro la distanza di edit
+     * consentita. I candidati sono i prodotti della parola cercata con meno corrispondenze; le altre parole
+     * vengono verificate sulle sole parole di ciascun candidato. I prodotti sono ordinati per somma
+     * delle distanze crescente e, a parità, per similarità dei trigrammi decrescente.
+     *
+     * @param testo  il testo cercato
+     * @param limite numero massimo di prodotti restituiti
+     * @return i prodotti più simili, dal più simile; lista vuota se il testo non contiene parole
+     */
+    public List<Prodotti> cercaSimili(String testo, int limite) {
+        List<String> richieste = parole(testo);
+        List<Map<String, IndiceTrigrammi.Corrispondenza>> corrispondenze = new ArrayList<>();
+        int guida = -1;
+        int prodottiGuida = Integer.MAX_VALUE;
+        for (String richiesta : richieste) {
+            Map<String, IndiceTrigrammi.Corrispondenza> trovate = new HashMap<>();
+            int numeroProdotti = 0;
+            for (IndiceTrigrammi.Corrispondenza c : trigrammi.cerca(richiesta, CANDIDATI_SIMILI)) {
+                trovate.put(c.parola, c);
+                numeroProdotti += parole.get(c.parola).size();
+            }
+            if (trovate.isEmpty()) {
+                return new ArrayList<>();
+            }
+            if (numeroProdotti < prodottiGuida) {
+                prodottiGuida = numeroProdotti;
+                guida = corrispondenze.size();
+            }
+            corrispondenze.add(trovate);
+        }
+        if (guida < 0) {
+            return new ArrayList<>();
+        }
+
+        // Prodotto -> {somma delle distanze, somma delle similarità} sulle parole cercate.
+        Map<Prodotti, double[]> punteggi = new IdentityHashMap<>();
+        for (IndiceTrigrammi.Corrispondenza c : corrispondenze.get(guida).values()) {
+            for (Prodotti p : parole.get(c.parola)) {
+                if (punteggi.containsKey(p)) {
+                    continue;
+                }
+                double[] totale = new double[2];
+                boolean completo = true;
+                for (Map<String, IndiceTrigrammi.Corrispondenza> trovate : corrispondenze) {
+                    IndiceTrigrammi.Corrispondenza migliore = migliore(paroleProdotto.get(p), trovate);
+                    if (migliore == null) {
+                        completo = false;
+                        break;
+                    }
+                    totale[0] += migliore.distanza;
+                    totale[1] += migliore.similarita;
+                }
+                if (completo) {
+                    punteggi.put(p, totale);
+                }
+            }
+        }
+
+        List<Prodotti> risultato = new ArrayList<>(punteggi.keySet());
+        risultato.sort(Comparator.<Prodotti>comparingDouble(p -> punteggi.get(p)[0])
+                .thenComparing(Comparator.<Prodotti>comparingDouble(p -> punteggi.get(p)[1]).reversed()));
+        return (risultato.size() > limite) ? new ArrayList<>(risultato.subList(0, limite)) : risultato;
+    }
+
+    /**
+     * Restituisce, tra le parole di un prodotto, la corrispondenza con distanza minore
+     * (a parità, con similarità maggiore).
+     *
+     * @param paroleDelProdotto le parole indicizzate del prodotto
+     * @param trovate           le corrispondenze di una parola cercata, per parola del vocabolario
+     * @return la corrispondenza migliore, o {@code null} se nessuna parola del prodotto corrisponde
+     */
+    private static IndiceTrigrammi.Corrispondenza migliore(List<String> paroleDelProdotto,
+                                                          Map<String, IndiceTrigrammi.Corrispondenza> trovate) {
+        IndiceTrigrammi.Corrispondenza migliore = null;
+        for (String parola : paroleDelProdotto) {
+            IndiceTrigrammi.Corrispondenza c = trovate.get(parola);
+            if (c != null && (migliore == null || c.distanza < migliore.distanza
+                    || (c.distanza == migliore.distanza && c.similarita > migliore.similarita))) {
+                migliore = c;
+            }
+        }
+        return migliore;
+    }
+
+    /**
+     * Proprietà incrementata a ogni modifica dell'indice.
+     *
+     * @return la proprietà in sola lettura
+     */
+    public ReadOnlyIntegerProperty versioneProperty() {
+        return versione.getReadOnlyProperty();
+    }
+
+    /**
+     * Scompone un testo nelle parole indicizzate: minuscole, senza accenti, separate da ogni carattere
+     * che non sia lettera o cifra. Le parole ripetute vengono riportate una sola volta.
+     *
+     * @param testo il testo da scomporre (può essere {@code null})
+     * @return le parole del testo, eventualmente nessuna
+     */
+    public static List<String> parole(String testo) {
+        List<String> risultato = new ArrayList<>();
+        if (testo == null || testo.isEmpty()) {
+            return risultato;
+        }
+        String normalizzato = DIACRITICI.matcher(Normalizer.normalize(testo, Normalizer.Form.NFD)).replaceAll("")
+                .toLowerCase(Locale.ROOT);
+        for (String parola : SEPARATORI.split(normalizzato)) {
+            if (!parola.isEmpty() && !risultato.contains(parola)) {
+                risultato.add(parola);
+            }
+        }
+        return risultato;
+    }
+
+    /**
+     * Verifica che ogni parola richiesta sia prefisso di almeno una parola del prodotto.
+     *
+     * @param paroleDelProdotto le parole indicizzate del prodotto
+     * @param richieste         le parole cercate
+     * @return true se il prodotto corrisponde a tutte le parole cercate
+     */
+    private static boolean corrisponde(List<String> paroleDelProdotto, List<String> richieste) {
+        for (String richiesta : richieste) {
+            boolean trovata = false;
+            for (String parola : paroleDelProdotto) {
+                if (parola.startsWith(richiesta)) {
+                    trovata = true;
+                    break;
+                }
+            }
+            if (!trovata) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Applica all'indice le aggiunte e le rimozioni notificate dalla lista dei prodotti.
+     *
+     * @param change modifica notificata dalla lista osservabile
+     */
+    private void aggiorna(ListChangeListener.Change<? extends Prodotti> change) {
+        while (change.next()) {
+            for (Prodotti p : change.getRemoved()) {
+                rimuovi(p);
+            }
+            for (Prodotti p : change.getAddedSubList()) {
+                aggiungi(p);
+            }
+        }
+        versione.set(versione.get() + 1);
+    }
+
+    /**
+     * Indicizza un prodotto e ne osserva nome e descrizione.
+     *
+     * @param p il prodotto da indicizzare
+     */
+    private void aggiungi(Prodotti p) {
+        if (osservatori.containsKey(p)) {
+            return;
+        }
+        indicizza(p);
+        InvalidationListener listener = osservabile -> {
+            deindicizza(p);
+            indicizza(p);
+            versione.set(versione.get() + 1);
+        };
+        p.nomeProperty().addListener(listener);
+        p.descrizioneProperty().addListener(listener);
+        osservatori.put(p, listener);
+    }
+
+    /**
+     * Rimuove un prodotto dall'indice e smette di osservarne le proprietà.
+     *
+     * @param p il prodotto da rimuovere
+     */
+    private void rimuovi(Prodotti p) {
+        InvalidationListener listener = osservatori.remove(p);
+        if (listener == null) {
+            return;
+        }
+        p.nomeProperty().removeListener(listener);
+        p.descrizioneProperty().removeListener(listener);
+        deindicizza(p);
+    }
+
+    /**
+     * Inserisce nell'indice le parole correnti di nome e descrizione del prodotto.
+     *
+     * @param p il prodotto
+     */
+    private void indicizza(Prodotti p) {
+        List<String> paroleDelProdotto = parole(p.getNome());
+        for (String parola : parole(p.getDescrizione())) {
+            if (!paroleDelProdotto.contains(parola)) {
+                paroleDelProdotto.add(parola);
+            }
+        }
+        for (String parola : paroleDelProdotto) {
+            parole.computeIfAbsent(parola, k -> {
+                trigrammi.aggiungi(k);
+                return Collections.newSetFromMap(new IdentityHashMap<>());
+            }).add(p);
+        }
+        paroleProdotto.put(p, paroleDelProdotto);
+    }
+
+    /**
+     * Rimuove dall'indice le parole registrate per il prodotto.
+     *
+     * @param p il prodotto
+     */
+    private void deindicizza(Prodotti p) {
+        List<String> paroleDelProdotto = paroleProdotto.remove(p);
+        if (paroleDelProdotto == null) {
+            return;
+        }
+        for (String parola : paroleDelProdotto) {
+            Set<Prodotti> insieme = parole.get(parola);
+            if (insieme != null) {
+                insieme.remove(p);
+                if (insieme.isEmpty()) {
+                    parole.remove(parola);
+                    trigrammi.rimuovi(parola);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,328 @@
+package it.unicas.project.template.address.util;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+
+/**
+ * Indice a trigrammi su un vocabolario di parole, per la ricerca tollerante agli errori di battitura.
+ * <br>
+ * Ogni parola è scomposta nei trigrammi della parola preceduta da due spazi e seguita da uno
+ * (es. "mouse" -&gt; "  m", " mo", "mou", "ous", "use", "se "); per ogni trigramma l'indice mantiene
+ * la lista degli id delle parole che lo contengono. La ricerca conta i trigrammi in comune con la parola
+ * cercata, tiene le parole più simili in un heap di dimensione fissa e su queste sole calcola la distanza
+ * di edit, limitata in base alla lunghezza della parola cercata.
+ * <br>
+ * L'indice lavora sul vocabolario e non sui prodotti: più prodotti che condividono una parola
+ * la indicizzano una sola volta.
+ * <br>
+ * La classe non è thread-safe.
+ *
+ * @author Cristian Corsini, Simone Feola, Daniela Spitaleri
+ * @since 19/11/2025
+ * @see IndiceRicercaProdotti#cercaSimili(String, int)
+ */
+class IndiceTrigrammi {
+
+    /**
+     * Parola del vocabolario trovata da {@link #cerca(String, int)}.
+     */
+    static final class Corrispondenza {
+
+        /**
+         * La parola del vocabolario.
+         */
+        final String parola;
+
+        /**
+         * Distanza di edit tra la parola cercata e il prefisso più vicino di {@link #parola}.
+         */
+        final int distanza;
+
+        /**
+         * Similarità di Jaccard tra i trigrammi della parola cercata e quelli di {@link #parola}, tra 0 e 1.
+         */
+        final double similarita;
+
+        Corrispondenza(String parola, int distanza, double similarita) {
+            this.parola = parola;
+            this.distanza = distanza;
+            this.similarita = similarita;
+        }
+    }
+
+    /**
+     * Lista di id di parole associata a un trigramma; l'ordine degli elementi non è significativo.
+     */
+    private static final class ListaId {
+        int[] id = new int[4];
+        int n = 0;
+
+        void aggiungi(int valore) {
+            if (n == id.length) {
+                id = Arrays.copyOf(id, n * 2);
+            }
+            id[n++] = valore;
+        }
+
+        void rimuovi(int valore) {
+            for (int i = 0; i < n; i++) {
+                if (id[i] == valore) {
+                    id[i] = id[--n];
+                    return;
+                }
+            }
+        }
+    }
+
+    /**
+     * Parola -&gt; id.
+     */
+    private final Map<String, Integer> idParole = new HashMap<>();
+
+    /**
+     * Id -&gt; parola ({@code null} per gli id liberi).
+     */
+    private final List<String> parole = new ArrayList<>();
+
+    /**
+     * Id -&gt; trigrammi distinti della parola.
+     */
+    private final List<String[]> trigrammiParole = new ArrayList<>();
+
+    /**
+     * Trigramma -&gt; id delle parole che lo contengono.
+     */
+    private final Map<String, ListaId> liste = new HashMap<>();
+
+    /**
+     * Id delle parole rimosse, riusati dalle aggiunte successive.
+     */
+    private final ArrayDeque<Integer> idLiberi = new ArrayDeque<>();
+
+    /**
+     * Contatori dei trigrammi in comune per id di parola e id delle parole toccate dalla ricerca corrente,
+     * riusati tra le ricerche per non allocare un array per ogni ricerca.
+     */
+    private int[] conteggi = new int[0];
+    private int[] toccati = new int[0];
+
+    /**
+     * Aggiunge una parola al vocabolario, se non è già presente.
+     *
+     * @param parola la parola normalizzata (minuscola, senza accenti)
+     */
+    void aggiungi(String parola) {
+        if (idParole.containsKey(parola)) {
+            return;
+        }
+        int id;
+        String[] trigrammi = trigrammi(parola, true);
+        if (idLiberi.isEmpty()) {
+            id = parole.size();
+            parole.add(parola);
+            trigrammiParole.add(trigrammi);
+        } else {
+            id = idLiberi.pop();
+            parole.set(id, parola);
+            trigrammiParole.set(id, trigrammi);
+        }
+        idParole.put(parola, id);
+        for (String t : trigrammi) {
+            liste.computeIfAbsent(t, k -> new ListaId()).aggiungi(id);
+        }
+    }
+
+    /**
+     * Rimuove una parola dal vocabolario, se presente.
+     *
+     * @param parola la parola da rimuovere
+     */
+    void rimuovi(String parola) {
+        Integer id = idParole.remove(parola);
+        if (id == null) {
+            return;
+        }
+        for (String t : trigrammiParole.get(id)) {
+            ListaId lista = liste.get(t);
+            lista.rimuovi(id);
+            if (lista.n == 0) {
+                liste.remove(t);
+            }
+        }
+        parole.set(id, null);
+        trigrammiParole.set(id, null);
+        idLiberi.push(id);
+    }
+
+    /**
+     * Cerca nel vocabolario le parole il cui inizio è vicino alla parola cercata.
+     * <br>
+     * Le {@code candidati} parole con più trigrammi in comune (a parità, con similarità di Jaccard maggiore)
+     * vengono confrontate con la distanza di edit sul prefisso (inserimenti, cancellazioni, sostituzioni
+     * e scambi di caratteri adiacenti); sono restituite quelle entro {@link #distanzaMassima(int)}.
+     *
+     * @param parola    la parola cercata, normalizzata
+     * @param candidati numero massimo di parole su cui calcolare la distanza di edit
+     * @return le corrispondenze ordinate per distanza crescente e similarità decrescente
+     */
+    List<Corrispondenza> cerca(String parola, int candidati) {
+        List<Corrispondenza> risultato = new ArrayList<>();
+        if (parola.isEmpty()) {
+            return risultato;
+        }
+        int massima = distanzaMassima(parola.length());
+        if (conteggi.length < parole.size()) {
+            conteggi = new int[parole.size()];
+            toccati = new int[parole.size()];
+        }
+
+        // Trigrammi della parola cercata senza quello finale: la parola può essere l'inizio di una più lunga.
+        String[] richiesti = trigrammi(parola, false);
+        int nToccati = 0;
+        for (String t : richiesti) {
+            ListaId lista = liste.get(t);
+            if (lista == null) {
+                continue;
+            }
+            for (int i = 0; i < lista.n; i++) {
+                int id = lista.id[i];
+                if (conteggi[id]++ == 0) {
+                    toccati[nToccati++] = id;
+                }
+            }
+        }
+
+        int[] comuni = new int[nToccati];
+        double[] similarita = new double[nToccati];
+        // Heap con il candidato peggiore in testa: prima il numero di trigrammi in comune, poi la similarità.
+        Comparator<Integer> ordine = (a, b) -> comuni[a] != comuni[b]
+                ? Integer.compare(comuni[a], comuni[b])
+                : Double.compare(similarita[a], similarita[b]);
+        PriorityQueue<Integer> migliori = new PriorityQueue<>(candidati + 1, ordine);
+        for (int i = 0; i < nToccati; i++) {
+            int id = toccati[i];
+            comuni[i] = conteggi[id];
+            conteggi[id] = 0;
+            similarita[i] = similarita(comuni[i], richiesti.length, trigrammiParole.get(id).length);
+            if (migliori.size() < candidati) {
+                migliori.offer(i);
+            } else if (ordine.compare(i, migliori.peek()) > 0) {
+                migliori.poll();
+                migliori.offer(i);
+            }
+        }
+
+        for (int indice : migliori) {
+            String candidata = parole.get(toccati[indice]);
+            int distanza = distanzaPrefisso(parola, candidata, massima);
+            if (distanza <= massima) {
+                risultato.add(new Corrispondenza(candidata, distanza, similarita[indice]));
+            }
+        }
+        risultato.sort((a, b) -> a.distanza != b.distanza
+                ? Integer.compare(a.distanza, b.distanza)
+                : Double.compare(b.similarita, a.similarita));
+        return risultato;
+    }
+
+    /**
+     * Distanza di edit massima accettata per una parola cercata della lunghezza indicata:
+     * nessun errore fino a 2 caratteri, uno fino a 5, due oltre.
+     *
+     * @param lunghezza lunghezza della parola cercata
+     * @return la distanza massima
+     */
+    static int distanzaMassima(int lunghezza) {
+        if (lunghezza <= 2) {
+            return 0;
+        }
+        return (lunghezza <= 5) ? 1 : 2;
+    }
+
+    /**
+     * Scompone una parola nei trigrammi distinti della parola preceduta da due spazi e,
+     * se {@code chiusa}, seguita da uno spazio.
+     *
+     * @param parola la parola
+     * @param chiusa true per includere il trigramma finale
+     * @return i trigrammi distinti
+     */
+    static String[] trigrammi(String parola, boolean chiusa) {
+        String estesa = "  " + parola + (chiusa ? " " : "");
+        Set<String> risultato = new LinkedHashSet<>();
+        for (int i = 0; i + 3 <= estesa.length(); i++) {
+            risultato.add(estesa.substring(i, i + 3));
+        }
+        return risultato.toArray(new String[0]);
+    }
+
+    /**
+     * Similarità di Jaccard tra due insiemi di trigrammi.
+     *
+     * @param comuni trigrammi in comune
+     * @param primo  trigrammi del primo insieme
+     * @param secondo trigrammi del secondo insieme
+     * @return un valore tra 0 e 1
+     */
+    private static double similarita(int comuni, int primo, int secondo) {
+        int unione = primo + secondo - comuni;
+        return (unione == 0) ? 0.0 : comuni / (double) unione;
+    }
+
+    /**
+     * Distanza di edit (con scambio di caratteri adiacenti) tra {@code a} e il prefisso di {@code b}
+     * più vicino ad {@code a}.
+     * <br>
+     * Il calcolo si interrompe appena tutte le celle di una riga superano {@code massima}.
+     *
+     * @param a       la parola cercata
+     * @param b       la parola del vocabolario
+     * @param massima distanza oltre la quale il valore esatto non interessa
+     * @return la distanza, oppure {@code massima + 1} se la supera
+     */
+    static int distanzaPrefisso(String a, String b, int massima) {
+        int n = a.length();
+        int m = b.length();
+        int[] precedente2 = new int[m + 1];
+        int[] precedente = new int[m + 1];
+        int[] corrente = new int[m + 1];
+        for (int j = 0; j <= m; j++) {
+            precedente[j] = j;
+        }
+        for (int i = 1; i <= n; i++) {
+            corrente[0] = i;
+            int minimo = corrente[0];
+            char ca = a.charAt(i - 1);
+            for (int j = 1; j <= m; j++) {
+                char cb = b.charAt(j - 1);
+                int costo = (ca == cb) ? 0 : 1;
+                int valore = Math.min(Math.min(precedente[j] + 1, corrente[j - 1] + 1), precedente[j - 1] + costo);
+                if (i > 1 && j > 1 && ca == b.charAt(j - 2) && a.charAt(i - 2) == cb) {
+                    valore = Math.min(valore, precedente2[j - 2] + 1);
+                }
+                corrente[j] = valore;
+                minimo = Math.min(minimo, valore);
+            }
+            if (minimo > massima) {
+                return massima + 1;
+            }
+            int[] libero = precedente2;
+            precedente2 = precedente;
+            precedente = corrente;
+            corrente = libero;
+        }
+        int risultato = precedente[0];
+        for (int j = 1; j <= m; j++) {
+            risultato = Math.min(risultato, precedente[j]);
+        }
+        return Math.min(risultato, massima + 1);
+    }
+}
@@ -0,0 +1,259 @@
+package it.unicas.project.template.address.util;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Lettore di file CSV secondo RFC 4180, con separatore configurabile: legge i file scritti da
+ * {@link ScrittoreCSV} e quelli salvati dai comuni fogli di calcolo.
+ * <br>
+ * Il testo viene letto a blocchi in un buffer di caratteri riusato, così come il buffer del campo corrente;
+ * per ogni riga viene creata solo una stringa per campo.
+ * <br>
+ * Regole di lettura:
+ * <ul>
+ *     <li>un campo tra doppi apici può contenere il separatore, CR e LF; {@code ""} al suo interno
+ *     è un doppio apice;</li>
+ *     <li>i caratteri che seguono il doppio apice di chiusura, fino al separatore, sono aggiunti al campo;</li>
+ *     <li>le righe possono terminare con CRLF, LF o CR;</li>
+ *     <li>un BOM UTF-8 all'inizio del testo viene ignorato.</li>
+ * </ul>
+ * La classe non è thread-safe.
+ *
+ * @author Cristian Corsini, Simone Feola, Daniela Spitaleri
+ * @since 19/11/2025
+ * @see ScrittoreCSV
+ */
+public class LettoreCSV implements Closeable {
+
+    /**
+     * Dimensione del buffer di lettura, in caratteri.
+     */
+    private static final int DIMENSIONE_BUFFER = 1 << 16;
+
+    /**
+     * Sorgente dei caratteri.
+     */
+    private final Reader in;
+
+    /**
+     * Separatore dei campi.
+     */
+    private final char separatore;
+
+    /**
+     * Buffer dei caratteri letti e non ancora consumati.
+     */
+    private final char[] buffer = new char[DIMENSIONE_BUFFER];
+
+    /**
+     * Posizione del prossimo carattere da consumare in {@link #buffer}.
+     */
+    private int posizione = 0;
+
+    /**
+     * Numero di caratteri validi in {@link #buffer}.
+     */
+    private int limite = 0;
+
+    /**
+     * Campo in costruzione, riusato tra un campo e l'altro.
+     */
+    private final StringBuilder campo = new StringBuilder();
+
+    /**
+     * Campi della riga corrente.
+     */
+    private final List<String> campi = new ArrayList<>();
+
+    /**
+     * Numero della prossima riga di testo da leggere (da 1).
+     */
+    private int rigaTesto = 1;
+
+    /**
+     * Numero della riga di testo su cui inizia la riga CSV corrente.
+     */
+    private int rigaCorrente = 0;
+
+    /**
+     * True quando la sorgente è esaurita.
+     */
+    private boolean fine = false;
+
+    /**
+     * Crea un lettore.
+     *
+     * @param in         sorgente dei caratteri
+     * @param separatore separatore dei campi (non può essere un doppio apice, CR o LF)
+     * @throws IllegalArgumentException se il separatore non è valido
+     */
+    public LettoreCSV(Reader in, char separatore) {
+        if (separatore == '"' || separatore == '\r' || separatore == '\n') {
+            throw new IllegalArgumentException("Separatore non valido: " + separatore);
+        }
+        this.in = in;
+        this.separatore = separatore;
+    }
+
+    /**
+     * Legge la riga successiva, i cui campi sono poi disponibili con {@link #campo(int)}.
+     *
+     * @return false se il testo è terminato
+     * @throws IOException se la lettura dalla sorgente fallisce
+     */
+    public boolean leggiRiga() throws IOException {
+        campi.clear();
+        int c = leggi();
+        if (c == -1) {
+            return false;
+        }
+        if (rigaTesto == 1 && rigaCorrente == 0 && c == '\uFEFF') {
+            c = leggi();
+        }
+        rigaCorrente = rigaTesto;
+
+        while (true) {
+            campo.setLength(0);
+            if (c == '"') {
+                c = leggiTraApici();
+            }
+            while (c != separatore && c != '\r' && c != '\n' && c != -1) {
+                campo.append((char) c);
+                c = leggi();
+            }
+            campi.add(campo.toString());
+
+            if (c == separatore) {
+                c = leggi();
+                continue;
+            }
+            if (c == '\r') {
+                if (sbircia() == '\n') {
+                    leggi();
+                }
+                rigaTesto++;
+            } else if (c == '\n') {
+                rigaTesto++;
+            }
+            return true;
+        }
+    }
+
+    /**
+     * Legge un campo tra doppi apici, dopo il doppio apice di apertura.
+     *
+     * @return il carattere che segue il doppio apice di chiusura
+     */
+    private int leggiTraApici() throws IOException {
+        while (true) {
+            int c = leggi();
+            if (c == -1) {
+                return -1;
+            }
+            if (c == '"') {
+                c = leggi();
+                if (c != '"') {
+                    return c;
+                }
+            } else if (c == '\n' || (c == '\r' && sbircia() != '\n')) {
+                rigaTesto++;
+            }
+            campo.append((char) c);
+        }
+    }
+
+    /**
+     * @return il numero di campi della riga corrente
+     */
+    public int getNumeroCampi() {
+        return campi.size();
+    }
+
+    /**
+     * Restituisce un campo della riga corrente.
+     *
+     * @param indice posizione del campo, da 0
+     * @return il testo del campo, senza doppi apici; vuoto per un campo vuoto
+     * @throws IndexOutOfBoundsException se la riga non ha il campo richiesto
+     */
+    public String campo(int indice) {
+        return campi.get(indice);
+    }
+
+    /**
+     * @return true se la riga corrente è vuota (un solo campo vuoto)
+     */
+    public boolean isRigaVuota() {
+        return campi.size() == 1 && campi.get(0).isEmpty();
+    }
+
+    /**
+     * Numero della riga di testo su cui inizia la riga corrente; differisce dalla posizione della riga CSV
+     * se le righe precedenti contengono campi su più righe.
+     *
+     * @return il numero di riga, da 1
+     */
+    public int getNumeroRiga() {
+        return rigaCorrente;
+    }
+
+    /**
+     * Chiude la sorgente.
+     *
+     * @throws IOException se la chiusura fallisce
+     */
+    @Override
+    public void close() throws IOException {
+        in.close();
+    }
+
+    /**
+     * Consuma il prossimo carattere.
+     *
+     * @return il carattere, oppure -1 alla fine del testo
+     */
+    private int leggi() throws IOException {
+        if (posizione == limite && !riempi()) {
+            return -1;
+        }
+        return buffer[posizione++];
+    }
+
+    /**
+     * Restituisce il prossimo carattere senza consumarlo.
+     *
+     * @return il carattere, oppure -1 alla fine del testo
+     */
+    private int sbircia() throws IOException {
+        if (posizione == limite && !riempi()) {
+            return -1;
+        }
+        return buffer[posizione];
+    }
+
+    /**
+     * Legge il blocco successivo della sorgente in {@link #buffer}.
+     *
+     * @return false se la sorgente è esaurita
+     */
+    private boolean riempi() throws IOException {
+        if (fine) {
+            return false;
+        }
+        int n;
+        do {
+            n = in.read(buffer, 0, buffer.length);
+        } while (n == 0);
+        if (n < 0) {
+            fine = true;
+            return false;
+        }
+        posizione = 0;
+        limite = n;
+        return true;
+    }
+}
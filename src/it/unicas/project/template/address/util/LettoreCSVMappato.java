@@ -0,0 +1,402 @@
+package it.unicas.project.template.address.util;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.stream.IntStream;
+
+/**
+ * Lettore parallelo di file CSV di grandi dimensioni, con le stesse regole di {@link LettoreCSV}
+ * (righe terminate da CRLF, LF o CR).
+ * <br>
+ * Il file viene mappato in memoria con {@link FileChannel#map} a blocchi di {@code dimensioneBlocco} byte,
+ * senza copiarlo nell'heap, e diviso in porzioni che iniziano sempre all'inizio di una riga. Le porzioni sono
+ * lette e convertite in parallelo su un {@link ForkJoinPool}, e restituite da {@link #prossimo()} nell'ordine
+ * del file. Al più {@code anticipo} porzioni sono in lettura o in attesa di essere consumate: se il consumatore
+ * (es. la scrittura sul database) è più lento, la lettura si ferma e la memoria usata resta limitata.
+ * <br>
+ * Un campo tra doppi apici può contenere a capo, quindi un a capo non indica sempre la fine di una riga.
+ * Poiché nel formato CSV ogni doppio apice dentro un campo è raddoppiato, un a capo è fuori dai doppi apici
+ * se e solo se il numero di doppi apici che lo precedono è pari. Una prima passata parallela conta doppi apici e
+ * a capo di ogni blocco; da questi conteggi ogni confine viene spostato al primo a capo fuori dai doppi apici e
+ * ogni porzione conosce il numero della sua prima riga. Come in {@link LettoreCSV}, è un a capo un LF oppure un CR
+ * non seguito da LF: CRLF conta una volta sola e un confine non cade mai tra CR e LF. Il doppio apice, CR e LF
+ * non compaiono mai nelle sequenze multi-byte di UTF-8, quindi il conteggio avviene direttamente sui byte.
+ * <br>
+ * La classe non è thread-safe: {@link #prossimo()} va invocato da un solo thread.
+ *
+ * @param <R> il tipo delle righe convertite
+ * @author Cristian Corsini, Simone Feola, Daniela Spitaleri
+ * @since 19/11/2025
+ * @see LettoreCSV
+ */
+public class LettoreCSVMappato<R> implements Closeable {
+
+    /**
+     * Dimensione di default dei blocchi, in byte.
+     */
+    public static final long DIMENSIONE_BLOCCO = 2L << 20;
+
+    /**
+     * Conversione di una riga, eseguita in parallelo sui thread del pool.
+     *
+     * @param <R> il tipo della riga convertita
+     */
+    @FunctionalInterface
+    public interface Convertitore<R> {
+
+        /**
+         * Converte una riga; deve essere thread-safe.
+         *
+         * @param numeroRiga numero della riga di testo su cui inizia la riga CSV, da 1
+         * @param campi      i campi della riga
+         * @return la riga convertita, oppure {@code null} per ignorarla
+         */
+        R converti(long numeroRiga, String[] campi);
+    }
+
+    private final FileChannel canale;
+    private final char separatore;
+    private final Convertitore<R> convertitore;
+    private final ForkJoinPool pool;
+    private final long dimensioneBlocco;
+    private final int anticipo;
+
+    /**
+     * Confini delle porzioni: la porzione {@code i} va da {@code confini[i]} (incluso) a {@code confini[i + 1]}.
+     */
+    private final long[] confini;
+
+    /**
+     * Numero della prima riga di ogni porzione.
+     */
+    private final long[] primeRighe;
+
+    /**
+     * Porzioni avviate e non ancora restituite, nell'ordine del file.
+     */
+    private final ArrayDeque<ForkJoinTask<List<R>>> inCorso = new ArrayDeque<>();
+
+    /**
+     * Indice della prossima porzione da avviare.
+     */
+    private int prossimaPorzione = 0;
+
+    /**
+     * Byte del file già restituiti da {@link #prossimo()}.
+     */
+    private long posizione = 0;
+
+    /**
+     * Apre il file con blocchi di {@link #DIMENSIONE_BLOCCO} byte, usando il pool comune con al più
+     * due porzioni in anticipo per thread.
+     *
+     * @param file         il file da leggere
+     * @param separatore   separatore dei campi
+     * @param convertitore conversione delle righe
+     * @throws IOException se il file non può essere letto
+     */
+    public LettoreCSVMappato(Path file, char separatore, Convertitore<R> convertitore) throws IOException {
+        this(file, separatore, convertitore, ForkJoinPool.commonPool(), DIMENSIONE_BLOCCO,
+                2 * ForkJoinPool.commonPool().getParallelism());
+    }
+
+    /**
+     * Apre il file e ne calcola le porzioni, contando in parallelo doppi apici e a capo di ogni blocco.
+     *
+     * @param file             il file da leggere
+     * @param separatore       separatore dei campi (non può essere un doppio apice, CR o LF)
+     * @param convertitore     conversione delle righe
+     * @param pool             pool su cui leggere le porzioni
+     * @param dimensioneBlocco dimensione nominale delle porzioni, in byte (minore di {@link Integer#MAX_VALUE})
+     * @param anticipo         numero massimo di porzioni in lettura o in attesa di essere consumate
+     * @throws IOException              se il file non può essere letto
+     * @throws IllegalArgumentException se un parametro non è valido
+     */
+    public LettoreCSVMappato(Path file, char separatore, Convertitore<R> convertitore, ForkJoinPool pool,
+                             long dimensioneBlocco, int anticipo) throws IOException {
+        if (separatore == '"' || separatore == '\r' || separatore == '\n' || separatore > 0x7F) {
+            throw new IllegalArgumentException("Separatore non valido: " + separatore);
+        }
+        if (dimensioneBlocco <= 0 || dimensioneBlocco >= Integer.MAX_VALUE || anticipo <= 0) {
+            throw new IllegalArgumentException("Dimensione del blocco o anticipo non validi");
+        }
+        this.separatore = separatore;
+        this.convertitore = convertitore;
+        this.pool = pool;
+        this.dimensioneBlocco = dimensioneBlocco;
+        this.anticipo = anticipo;
+        this.canale = FileChannel.open(file, StandardOpenOption.READ);
+
+        try {
+            long dimensione = canale.size();
+            int blocchi = (int) Math.max(1, (dimensione + dimensioneBlocco - 1) / dimensioneBlocco);
+            long[][] conteggi = new long[blocchi][];
+            esegui(() -> IntStream.range(0, blocchi).parallel().forEach(i -> {
+                long inizio = i * dimensioneBlocco;
+                conteggi[i] = conta(inizio, Math.min(dimensione, inizio + dimensioneBlocco), dimensione);
+            }));
+
+            confini = new long[blocchi + 1];
+            primeRighe = new long[blocchi];
+            confini[blocchi] = dimensione;
+            primeRighe[0] = 1;
+            long apici = 0;
+            long righe = 1;
+            for (int i = 1; i < blocchi; i++) {
+                apici += conteggi[i - 1][0];
+                righe += conteggi[i - 1][1];
+                long[] allineato = allinea(i * dimensioneBlocco, dimensione, apici % 2 != 0);
+                confini[i] = Math.max(confini[i - 1], allineato[0]);
+                primeRighe[i] = righe + allineato[1];
+            }
+        } catch (IOException | RuntimeException e) {
+            canale.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Restituisce le righe convertite della porzione successiva, avviando la lettura delle porzioni
+     * seguenti fino all'anticipo consentito.
+     *
+     * @return le righe della porzione (eventualmente nessuna), oppure {@code null} alla fine del file
+     * @throws IOException se la lettura del file fallisce
+     */
+    public List<R> prossimo() throws IOException {
+        while (inCorso.size() < anticipo && prossimaPorzione < primeRighe.length) {
+            int porzione = prossimaPorzione++;
+            inCorso.addLast(pool.submit(() -> leggiPorzione(porzione)));
+        }
+        ForkJoinTask<List<R>> task = inCorso.pollFirst();
+        if (task == null) {
+            return null;
+        }
+        List<R> righe = attendi(task);
+        posizione = confini[prossimaPorzione - inCorso.size()];
+        return righe;
+    }
+
+    /**
+     * @return i byte del file già restituiti da {@link #prossimo()}
+     */
+    public long getPosizione() {
+        return posizione;
+    }
+
+    /**
+     * @return la dimensione del file, in byte
+     */
+    public long getDimensione() {
+        return confini[confini.length - 1];
+    }
+
+    /**
+     * Annulla le porzioni ancora in lettura e chiude il file.
+     *
+     * @throws IOException se la chiusura fallisce
+     */
+    @Override
+    public void close() throws IOException {
+        for (ForkJoinTask<List<R>> task : inCorso) {
+            task.cancel(false);
+        }
+        inCorso.clear();
+        canale.close();
+    }
+
+    /**
+     * Conta doppi apici e a capo di un intervallo del file; per un CR finale viene letto anche il byte seguente.
+     *
+     * @return {apici, a capo}
+     */
+    private long[] conta(long inizio, long fine, long dimensione) {
+        MappedByteBuffer buffer = mappa(inizio, Math.min(dimensione, fine + 1));
+        long apici = 0;
+        long righe = 0;
+        for (int i = 0, n = (int) (fine - inizio); i < n; i++) {
+            byte b = buffer.get(i);
+            if (b == '"') {
+                apici++;
+            } else if (aCapo(buffer, i)) {
+                righe++;
+            }
+        }
+        return new long[]{apici, righe};
+    }
+
+    /**
+     * Trova il primo inizio di riga a partire da {@code da}.
+     *
+     * @param da          posizione nominale del confine
+     * @param dimensione  dimensione del file
+     * @param dentroApici true se {@code da} si trova dentro un campo tra doppi apici
+     * @return {posizione del confine, a capo tra {@code da} e il confine}
+     */
+    private long[] allinea(long da, long dimensione, boolean dentroApici) {
+        long righe = 0;
+        for (long inizio = da; inizio < dimensione; inizio += dimensioneBlocco) {
+            long fine = Math.min(dimensione, inizio + dimensioneBlocco);
+            MappedByteBuffer buffer = mappa(inizio, Math.min(dimensione, fine + 1));
+            for (int i = 0, n = (int) (fine - inizio); i < n; i++) {
+                byte b = buffer.get(i);
+                if (b == '"') {
+                    dentroApici = !dentroApici;
+                } else if (aCapo(buffer, i)) {
+                    righe++;
+                    if (!dentroApici) {
+                        return new long[]{inizio + i + 1, righe};
+                    }
+                }
+            }
+        }
+        return new long[]{dimensione, righe};
+    }
+
+    /**
+     * Indica se il byte in posizione {@code i} termina una riga di testo: un LF, oppure un CR non seguito da LF
+     * (un CR nell'ultima posizione del buffer è seguito dalla fine del file).
+     */
+    private static boolean aCapo(MappedByteBuffer buffer, int i) {
+        byte b = buffer.get(i);
+        return b == '\n' || (b == '\r' && (i + 1 == buffer.limit() || buffer.get(i + 1) != '\n'));
+    }
+
+    /**
+     * Legge e converte le righe di una porzione.
+     */
+    private List<R> leggiPorzione(int porzione) {
+        MappedByteBuffer buffer = mappa(confini[porzione], confini[porzione + 1]);
+        int n = buffer.limit();
+        int pos = 0;
+        if (porzione == 0 && n >= 3 && buffer.get(0) == (byte) 0xEF && buffer.get(1) == (byte) 0xBB
+                && buffer.get(2) == (byte) 0xBF) {
+            pos = 3;
+        }
+
+        List<R> risultato = new ArrayList<>();
+        List<String> campi = new ArrayList<>();
+        byte[] campo = new byte[256];
+        long riga = primeRighe[porzione];
+        while (pos < n) {
+            long inizioRiga = riga;
+            campi.clear();
+            while (true) {
+                int lunghezza = 0;
+                if (buffer.get(pos) == '"') {
+                    pos++;
+                    while (pos < n) {
+                        byte b = buffer.get(pos++);
+                        if (b == '"') {
+                            if (pos < n && buffer.get(pos) == '"') {
+                                pos++;
+                            } else {
+                                break;
+                            }
+                        } else if (aCapo(buffer, pos - 1)) {
+                            riga++;
+                        }
+                        if (lunghezza == campo.length) {
+                            campo = Arrays.copyOf(campo, campo.length * 2);
+                        }
+                        campo[lunghezza++] = b;
+                    }
+                }
+                while (pos < n) {
+                    byte b = buffer.get(pos);
+                    if (b == separatore || b == '\n' || b == '\r') {
+                        break;
+                    }
+                    if (lunghezza == campo.length) {
+                        campo = Arrays.copyOf(campo, campo.length * 2);
+                    }
+                    campo[lunghezza++] = b;
+                    pos++;
+                }
+                campi.add(new String(campo, 0, lunghezza, StandardCharsets.UTF_8));
+
+                if (pos == n) {
+                    break;
+                }
+                byte b = buffer.get(pos++);
+                if (b == separatore) {
+                    if (pos == n) {
+                        campi.add("");
+                        break;
+                    }
+                    continue;
+                }
+                if (b == '\r') {
+                    if (pos < n && buffer.get(pos) == '\n') {
+                        pos++;
+                    }
+                    riga++;
+                } else if (b == '\n') {
+                    riga++;
+                }
+                break;
+            }
+
+            R convertita = convertitore.converti(inizioRiga, campi.toArray(new String[0]));
+            if (convertita != null) {
+                risultato.add(convertita);
+            }
+        }
+        return risultato;
+    }
+
+    /**
+     * Mappa in sola lettura un intervallo del file (al più {@link Integer#MAX_VALUE} byte).
+     */
+    private MappedByteBuffer mappa(long inizio, long fine) {
+        try {
+            return canale.map(FileChannel.MapMode.READ_ONLY, inizio, fine - inizio);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Esegue sul pool un'operazione parallela e ne attende la fine.
+     */
+    private void esegui(Runnable operazione) throws IOException {
+        attendi(pool.submit(operazione));
+    }
+
+    /**
+     * Attende il risultato di un task del pool, riportando gli errori di lettura come {@link IOException}.
+     */
+    private static <T> T attendi(ForkJoinTask<T> task) throws IOException {
+        try {
+            return task.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            task.cancel(false);
+            throw new IOException("Lettura interrotta", e);
+        } catch (ExecutionException e) {
+            Throwable causa = e.getCause();
+            if (causa instanceof UncheckedIOException) {
+                throw ((UncheckedIOException) causa).getCause();
+            }
+            if (causa instanceof RuntimeException) {
+                throw (RuntimeException) causa;
+            }
+            if (causa instanceof Error) {
+                throw (Error) causa;
+            }
+            throw new IOException(causa);
+        }
+    }
+}
@@ -0,0 +1,354 @@
+package it.unicas.project.template.address.util;
+
+import java.io.Closeable;
+import java.io.Flushable;
+import java.io.IOException;
+import java.io.Writer;
+import java.time.LocalDate;
+
+/**
+ * Scrittore di file CSV secondo RFC 4180, con separatore configurabile.
+ * <br>
+ * I campi vengono scritti direttamente in un buffer di caratteri riusato, svuotato sul {@link Writer}
+ * sottostante solo quando è pieno: numeri e date sono convertiti cifra per cifra nel buffer e i testi
+ * vi sono copiati senza creare stringhe intermedie, quindi la scrittura di una riga non alloca oggetti.
+ * <br>
+ * Regole di formato:
+ * <ul>
+ *     <li>un campo di testo è racchiuso tra doppi apici solo se contiene il separatore, un doppio apice,
+ *     CR o LF; i doppi apici al suo interno sono raddoppiati;</li>
+ *     <li>{@code null} produce un campo vuoto;</li>
+ *     <li>i numeri usano sempre il punto come separatore decimale e nessun separatore delle migliaia,
+ *     indipendentemente dal {@link java.util.Locale} di default;</li>
+ *     <li>le date sono scritte come {@code yyyy-MM-dd};</li>
+ *     <li>ogni riga termina con CRLF.</li>
+ * </ul>
+ * La classe non è thread-safe.
+ *
+ * @author Cristian Corsini, Simone Feola, Daniela Spitaleri
+ * @since 19/11/2025
+ */
+public class ScrittoreCSV implements Closeable, Flushable {
+
+    /**
+     * Dimensione di default del buffer, in caratteri.
+     */
+    public static final int DIMENSIONE_BUFFER = 1 << 16;
+
+    /**
+     * Potenze di 10 usate per arrotondare i numeri decimali.
+     */
+    private static final long[] POTENZE_DI_DIECI = {1L, 10L, 100L, 1_000L, 10_000L, 100_000L, 1_000_000L,
+            10_000_000L, 100_000_000L, 1_000_000_000L};
+
+    /**
+     * Destinazione dei caratteri.
+     */
+    private final Writer out;
+
+    /**
+     * Separatore dei campi.
+     */
+    private final char separatore;
+
+    /**
+     * Buffer dei caratteri non ancora passati a {@link #out}.
+     */
+    private final char[] buffer;
+
+    /**
+     * Numero di caratteri occupati in {@link #buffer}.
+     */
+    private int posizione = 0;
+
+    /**
+     * True se il prossimo campo è il primo della riga (non va preceduto dal separatore).
+     */
+    private boolean inizioRiga = true;
+
+    /**
+     * Crea uno scrittore con buffer di {@link #DIMENSIONE_BUFFER} caratteri.
+     *
+     * @param out        destinazione dei caratteri
+     * @param separatore separatore dei campi (non può essere un doppio apice, CR o LF)
+     */
+    public ScrittoreCSV(Writer out, char separatore) {
+        this(out, separatore, DIMENSIONE_BUFFER);
+    }
+
+    /**
+     * Crea uno scrittore con buffer della dimensione indicata.
+     *
+     * @param out        destinazione dei caratteri
+     * @param separatore separatore dei campi (non può essere un doppio apice, CR o LF)
+     * @param dimensione dimensione del buffer in caratteri (almeno 32)
+     * @throws IllegalArgumentException se il separatore o la dimensione non sono validi
+     */
+    public ScrittoreCSV(Writer out, char separatore, int dimensione) {
+        if (separatore == '"' || separatore == '\r' || separatore == '\n') {
+            throw new IllegalArgumentException("Separatore non valido: " + separatore);
+        }
+        if (dimensione < 32) {
+            throw new IllegalArgumentException("Buffer troppo piccolo: " + dimensione);
+        }
+        this.out = out;
+        this.separatore = separatore;
+        this.buffer = new char[dimensione];
+    }
+
+    /**
+     * Scrive un campo di testo, tra doppi apici se necessario.
+     *
+     * @param valore il testo; {@code null} per un campo vuoto
+     * @return questo scrittore
+     * @throws IOException se la scrittura sul writer sottostante fallisce
+     */
+    public ScrittoreCSV campo(CharSequence valore) throws IOException {
+        iniziaCampo();
+        if (valore == null) {
+            return this;
+        }
+        int lunghezza = valore.length();
+        if (!daRacchiudere(valore, lunghezza)) {
+            copia(valore, lunghezza);
+            return this;
+        }
+        carattere('"');
+        for (int i = 0; i < lunghezza; i++) {
+            char c = valore.charAt(i);
+            if (c == '"') {
+                carattere('"');
+            }
+            carattere(c);
+        }
+        carattere('"');
+        return this;
+    }
+
+    /**
+     * Scrive un campo intero.
+     *
+     * @param valore il numero
+     * @return questo scrittore
+     * @throws IOException se la scrittura sul writer sottostante fallisce
+     */
+    public ScrittoreCSV campo(long valore) throws IOException {
+        iniziaCampo();
+        cifre(valore);
+        return this;
+    }
+
+    /**
+     * Scrive un campo decimale con il numero di decimali indicato e il punto come separatore decimale;
+     * le metà sono arrotondate lontano da zero.
+     * <br>
+     * I valori non finiti (NaN, infiniti) e quelli che non stanno in un {@code long} una volta scalati
+     * sono scritti con {@link Double#toString(double)}.
+     *
+     * @param valore   il numero
+     * @param decimali numero di cifre decimali, da 0 a 9
+     * @return questo scrittore
+     * @throws IOException              se la scrittura sul writer sottostante fallisce
+     * @throws IllegalArgumentException se {@code decimali} è fuori intervallo
+     */
+    public ScrittoreCSV campo(double valore, int decimali) throws IOException {
+        if (decimali < 0 || decimali >= POTENZE_DI_DIECI.length) {
+            throw new IllegalArgumentException("Numero di decimali non valido: " + decimali);
+        }
+        iniziaCampo();
+        double scalato = Math.abs(valore) * POTENZE_DI_DIECI[decimali];
+        if (!(scalato < Long.MAX_VALUE)) {
+            String testo = Double.toString(valore);
+            copia(testo, testo.length());
+            return this;
+        }
+        long arrotondato = Math.round(scalato);
+        if (valore < 0 && arrotondato != 0) {
+            carattere('-');
+        }
+        long potenza = POTENZE_DI_DIECI[decimali];
+        cifre(arrotondato / potenza);
+        if (decimali > 0) {
+            carattere('.');
+            long resto = arrotondato % potenza;
+            for (long p = potenza / 10; p > 0; p /= 10) {
+                carattere((char) ('0' + (resto / p) % 10));
+            }
+        }
+        return this;
+    }
+
+    /**
+     * Scrive un campo data nel formato {@code yyyy-MM-dd}.
+     *
+     * @param data la data; {@code null} per un campo vuoto
+     * @return questo scrittore
+     * @throws IOException se la scrittura sul writer sottostante fallisce
+     */
+    public ScrittoreCSV campo(LocalDate data) throws IOException {
+        iniziaCampo();
+        if (data == null) {
+            return this;
+        }
+        int anno = data.getYear();
+        if (anno < 0 || anno > 9999) {
+            String testo = data.toString();
+            copia(testo, testo.length());
+            return this;
+        }
+        spazio(10);
+        dueCifre(anno / 100);
+        dueCifre(anno % 100);
+        buffer[posizione++] = '-';
+        dueCifre(data.getMonthValue());
+        buffer[posizione++] = '-';
+        dueCifre(data.getDayOfMonth());
+        return this;
+    }
+
+    /**
+     * Termina la riga corrente con CRLF.
+     *
+     * @return questo scrittore
+     * @throws IOException se la scrittura sul writer sottostante fallisce
+     */
+    public ScrittoreCSV nuovaRiga() throws IOException {
+        spazio(2);
+        buffer[posizione++] = '\r';
+        buffer[posizione++] = '\n';
+        inizioRiga = true;
+        return this;
+    }
+
+    /**
+     * Passa al writer sottostante i caratteri nel buffer e ne esegue il flush.
+     *
+     * @throws IOException se la scrittura fallisce
+     */
+    @Override
+    public void flush() throws IOException {
+        svuota();
+        out.flush();
+    }
+
+    /**
+     * Passa al writer sottostante i caratteri nel buffer e lo chiude.
+     *
+     * @throws IOException se la scrittura o la chiusura falliscono
+     */
+    @Override
+    public void close() throws IOException {
+        try {
+            svuota();
+        } finally {
+            out.close();
+        }
+    }
+
+    /**
+     * Scrive il separatore se il campo non è il primo della riga.
+     */
+    private void iniziaCampo() throws IOException {
+        if (inizioRiga) {
+            inizioRiga = false;
+        } else {
+            carattere(separatore);
+        }
+    }
+
+    /**
+     * Indica se il testo contiene caratteri che richiedono i doppi apici.
+     */
+    private boolean daRacchiudere(CharSequence valore, int lunghezza) {
+        for (int i = 0; i < lunghezza; i++) {
+            char c = valore.charAt(i);
+            if (c == separatore || c == '"' || c == '\n' || c == '\r') {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Copia il testo nel buffer, a blocchi se non c'è spazio sufficiente.
+     */
+    private void copia(CharSequence valore, int lunghezza) throws IOException {
+        int da = 0;
+        while (da < lunghezza) {
+            if (posizione == buffer.length) {
+                svuota();
+            }
+            int n = Math.min(lunghezza - da, buffer.length - posizione);
+            if (valore instanceof String) {
+                ((String) valore).getChars(da, da + n, buffer, posizione);
+            } else {
+                for (int i = 0; i < n; i++) {
+                    buffer[posizione + i] = valore.charAt(da + i);
+                }
+            }
+            posizione += n;
+            da += n;
+        }
+    }
+
+    /**
+     * Scrive le cifre decimali di un intero, con il segno se negativo.
+     */
+    private void cifre(long valore) throws IOException {
+        spazio(20);
+        if (valore == Long.MIN_VALUE) {
+            copia("-9223372036854775808", 20);
+            return;
+        }
+        if (valore < 0) {
+            buffer[posizione++] = '-';
+            valore = -valore;
+        }
+        int cifre = 1;
+        for (long v = valore; v >= 10; v /= 10) {
+            cifre++;
+        }
+        for (int i = posizione + cifre - 1; i >= posizione; i--) {
+            buffer[i] = (char) ('0' + valore % 10);
+            valore /= 10;
+        }
+        posizione += cifre;
+    }
+
+    /**
+     * Scrive un numero da 0 a 99 su due cifre; lo spazio nel buffer deve essere già garantito.
+     */
+    private void dueCifre(int valore) {
+        buffer[posizione++] = (char) ('0' + valore / 10);
+        buffer[posizione++] = (char) ('0' + valore % 10);
+    }
+
+    /**
+     * Aggiunge un carattere al buffer.
+     */
+    private void carattere(char c) throws IOException {
+        if (posizione == buffer.length) {
+            svuota();
+        }
+        buffer[posizione++] = c;
+    }
+
+    /**
+     * Garantisce che nel buffer ci siano almeno {@code n} caratteri liberi.
+     */
+    private void spazio(int n) throws IOException {
+        if (buffer.length - posizione < n) {
+            svuota();
+        }
+    }
+
+    /**
+     * Passa il contenuto del buffer al writer sottostante.
+     */
+    private void svuota() throws IOException {
+        if (posizione > 0) {
+            out.write(buffer, 0, posizione);
+            posizione = 0;
+        }
+    }
+}
@@ -0,0 +1,333 @@
+package it.unicas.project.template.address.util;
+
+import it.unicas.project.template.address.model.Movimenti;
+import it.unicas.project.template.address.model.Prodotti;
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.zip.CRC32;
+import java.util.zip.CheckedOutputStream;
+
+/**
+ * Copia locale su disco dei dati mostrati all'avvio: tutti i prodotti, i movimenti più recenti e il punto
+ * di sincronizzazione con il database (istante di modifica più recente dei prodotti e id dell'ultimo movimento).
+ * <br>
+ * All'avvio la copia viene letta in un'unica operazione e mostrata subito, senza attendere il database; le differenze
+ * vengono poi lette in background a partire dal punto di sincronizzazione, come in {@code MainApp.aggiornaDati()}.
+ * <br>
+ * Formato del file (interi big-endian):
+ * <ul>
+ *     <li>intestazione: {@link #MAGIC}, {@link #VERSIONE_FORMATO} e la sorgente dati a cui si riferisce;</li>
+ *     <li>punto di sincronizzazione, indicatore di storico completo, prodotti e movimenti, ognuno preceduto
+ *     dal numero di elementi;</li>
+ *     <li>CRC32 di tutti i byte precedenti.</li>
+ * </ul>
+ * Le stringhe sono scritte come lunghezza in byte UTF-8 (-1 per {@code null}) seguita dai byte.
+ * Il file viene scritto accanto a quello definitivo e poi rinominato, così una scrittura interrotta
+ * non sostituisce la copia precedente.
+ *
+ * @author Cristian Corsini, Simone Feola, Daniela Spitaleri
+ * @since 19/11/2025
+ */
+public final class SnapshotLocale {
+
+    /**
+     * Primi quattro byte del file ("MAGZ").
+     */
+    public static final int MAGIC = 0x4D41475A;
+
+    /**
+     * Versione del formato: una copia con versione diversa viene ignorata.
+     */
+    public static final int VERSIONE_FORMATO = 1;
+
+    private final String sorgente;
+    private final List<Prodotti> prodotti;
+    private final List<Movimenti> movimenti;
+    private final boolean movimentiCompleti;
+    private final LocalDateTime ultimaSincronizzazioneProdotti;
+    private final int ultimoIdMovimento;
+
+    /**
+     * Crea una copia dei dati.
+     *
+     * @param sorgente                       identificativo della sorgente dati (es. host, schema e utente)
+     * @param prodotti                       tutti i prodotti
+     * @param movimenti                      i movimenti più recenti, dal più recente
+     * @param movimentiCompleti              true se {@code movimenti} contiene tutto lo storico
+     * @param ultimaSincronizzazioneProdotti istante di modifica più recente dei prodotti (può essere {@code null})
+     * @param ultimoIdMovimento              id del movimento più recente letto dal database
+     */
+    public SnapshotLocale(String sorgente, List<Prodotti> prodotti, List<Movimenti> movimenti,
+                          boolean movimentiCompleti, LocalDateTime ultimaSincronizzazioneProdotti,
+                          int ultimoIdMovimento) {
+        this.sorgente = sorgente;
+        this.prodotti = Collections.unmodifiableList(prodotti);
+        this.movimenti = Collections.unmodifiableList(movimenti);
+        this.movimentiCompleti = movimentiCompleti;
+        this.ultimaSincronizzazioneProdotti = ultimaSincronizzazioneProdotti;
+        this.ultimoIdMovimento = ultimoIdMovimento;
+    }
+
+    /**
+     * @return l'identificativo della sorgente dati
+     */
+    public String getSorgente() {
+        return sorgente;
+    }
+
+    /**
+     * @return i prodotti
+     */
+    public List<Prodotti> getProdotti() {
+        return prodotti;
+    }
+
+    /**
+     * @return i movimenti più recenti, dal più recente
+     */
+    public List<Movimenti> getMovimenti() {
+        return movimenti;
+    }
+
+    /**
+     * @return true se i movimenti sono tutto lo storico
+     */
+    public boolean isMovimentiCompleti() {
+        return movimentiCompleti;
+    }
+
+    /**
+     * @return l'istante di modifica più recente dei prodotti, oppure {@code null}
+     */
+    public LocalDateTime getUltimaSincronizzazioneProdotti() {
+        return ultimaSincronizzazioneProdotti;
+    }
+
+    /**
+     * @return l'id del movimento più recente letto dal database
+     */
+    public int getUltimoIdMovimento() {
+        return ultimoIdMovimento;
+    }
+
+    /**
+     * Scrive la copia su file, sostituendo quella precedente solo a scrittura completata.
+     * <br>
+     * Pre-condizione: va invocato dal thread JavaFX se prodotti e movimenti sono mostrati dalla UI.
+     *
+     * @param file il file di destinazione; la cartella viene creata se non esiste
+     * @throws IOException se la scrittura fallisce
+     */
+    public void salva(Path file) throws IOException {
+        Path cartella = file.toAbsolutePath().getParent();
+        Files.createDirectories(cartella);
+        Path temporaneo = Files.createTempFile(cartella, file.getFileName().toString(), ".tmp");
+        try {
+            try (OutputStream fos = Files.newOutputStream(temporaneo)) {
+                CRC32 crc = new CRC32();
+                DataOutputStream out = new DataOutputStream(new CheckedOutputStream(
+                        new BufferedOutputStream(fos, 1 << 16), crc));
+                scrivi(out);
+                out.flush();
+                new DataOutputStream(fos).writeInt((int) crc.getValue());
+            }
+            try {
+                Files.move(temporaneo, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(temporaneo, file, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } finally {
+            Files.deleteIfExists(temporaneo);
+        }
+    }
+
+    /**
+     * Scrive intestazione e dati.
+     */
+    private void scrivi(DataOutputStream out) throws IOException {
+        out.writeInt(MAGIC);
+        out.writeInt(VERSIONE_FORMATO);
+        scriviStringa(out, sorgente);
+
+        scriviIstante(out, ultimaSincronizzazioneProdotti);
+        out.writeInt(ultimoIdMovimento);
+        out.writeBoolean(movimentiCompleti);
+
+        out.writeInt(prodotti.size());
+        for (Prodotti p : prodotti) {
+            out.writeInt(p.getIdProdotto());
+            scriviStringa(out, p.getNome());
+            scriviStringa(out, p.getDescrizione());
+            out.writeInt(p.getQuantita());
+            out.writeInt(p.getGiacenzaMin());
+            out.writeDouble(p.getPrezzoAcquisto());
+            out.writeDouble(p.getPrezzoVendita());
+            scriviIstante(out, p.getUltimaModifica());
+        }
+
+        out.writeInt(movimenti.size());
+        for (Movimenti m : movimenti) {
+            out.writeInt(m.getIdMovimento());
+            out.writeInt(m.getIdProdotto());
+            scriviStringa(out, m.getTipo());
+            out.writeInt(m.getQuantita());
+            out.writeLong((m.getData() == null) ? Long.MIN_VALUE : m.getData().toEpochDay());
+            scriviStringa(out, m.getDescrizione());
+        }
+    }
+
+    /**
+     * Legge la copia salvata per una sorgente dati con un'unica lettura in un buffer in memoria.
+     * <br>
+     * Il file non viene mappato: una mappatura resta attiva finché il buffer non viene raccolto dal garbage
+     * collector e su Windows impedirebbe a {@link #salva(Path)} di sostituire il file alla chiusura.
+     *
+     * @param file     il file scritto da {@link #salva(Path)}
+     * @param sorgente identificativo della sorgente dati attuale
+     * @return la copia, oppure {@code null} se il file non esiste, ha un'altra versione del formato o si riferisce
+     * a un'altra sorgente
+     * @throws IOException se il file non può essere letto o è danneggiato
+     */
+    public static SnapshotLocale carica(Path file, String sorgente) throws IOException {
+        ByteBuffer buffer;
+        try (FileChannel canale = FileChannel.open(file, StandardOpenOption.READ)) {
+            long dimensione = canale.size();
+            if (dimensione < 12 || dimensione > Integer.MAX_VALUE - 8) {
+                throw new IOException("Snapshot non valido: " + file);
+            }
+            buffer = ByteBuffer.allocate((int) dimensione);
+            while (buffer.hasRemaining()) {
+                if (canale.read(buffer) < 0) {
+                    throw new EOFException("Snapshot troncato durante la lettura: " + file);
+                }
+            }
+            buffer.flip();
+        } catch (NoSuchFileException e) {
+            return null;
+        }
+
+        try {
+            int dati = buffer.limit() - Integer.BYTES;
+            CRC32 crc = new CRC32();
+            crc.update(buffer.duplicate().limit(dati));
+            if (buffer.getInt(dati) != (int) crc.getValue()) {
+                throw new IOException("Snapshot danneggiato: " + file);
+            }
+            buffer.limit(dati);
+
+            if (buffer.getInt() != MAGIC) {
+                throw new IOException("Snapshot non valido: " + file);
+            }
+            if (buffer.getInt() != VERSIONE_FORMATO || !sorgente.equals(leggiStringa(buffer))) {
+                return null;
+            }
+            return leggi(buffer, sorgente);
+        } catch (BufferUnderflowException | IllegalArgumentException e) {
+            throw new IOException("Snapshot non valido: " + file, e);
+        }
+    }
+
+    /**
+     * Legge i dati che seguono l'intestazione.
+     */
+    private static SnapshotLocale leggi(ByteBuffer in, String sorgente) {
+        LocalDateTime ultimaSincronizzazione = leggiIstante(in);
+        int ultimoIdMovimento = in.getInt();
+        boolean movimentiCompleti = in.get() != 0;
+
+        int numeroProdotti = numeroElementi(in);
+        List<Prodotti> prodotti = new ArrayList<>(numeroProdotti);
+        for (int i = 0; i < numeroProdotti; i++) {
+            Prodotti p = new Prodotti(in.getInt(), leggiStringa(in), leggiStringa(in), in.getInt(), in.getInt(),
+                    in.getDouble(), in.getDouble());
+            p.setUltimaModifica(leggiIstante(in));
+            prodotti.add(p);
+        }
+
+        int numeroMovimenti = numeroElementi(in);
+        List<Movimenti> movimenti = new ArrayList<>(numeroMovimenti);
+        for (int i = 0; i < numeroMovimenti; i++) {
+            int idMovimento = in.getInt();
+            int idProdotto = in.getInt();
+            String tipo = leggiStringa(in);
+            int quantita = in.getInt();
+            long giorno = in.getLong();
+            movimenti.add(new Movimenti(idMovimento, idProdotto, tipo, quantita,
+                    (giorno == Long.MIN_VALUE) ? null : LocalDate.ofEpochDay(giorno), leggiStringa(in)));
+        }
+        if (in.hasRemaining()) {
+            throw new IllegalArgumentException("Byte in eccesso");
+        }
+        return new SnapshotLocale(sorgente, prodotti, movimenti, movimentiCompleti, ultimaSincronizzazione,
+                ultimoIdMovimento);
+    }
+
+    /**
+     * Legge un numero di elementi, verificando che non superi i byte rimasti.
+     */
+    private static int numeroElementi(ByteBuffer in) {
+        int numero = in.getInt();
+        if (numero < 0 || numero > in.remaining()) {
+            throw new IllegalArgumentException("Numero di elementi non valido: " + numero);
+        }
+        return numero;
+    }
+
+    private static void scriviStringa(DataOutputStream out, String s) throws IOException {
+        if (s == null) {
+            out.writeInt(-1);
+            return;
+        }
+        byte[] bytes = s.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    private static String leggiStringa(ByteBuffer in) {
+        int lunghezza = in.getInt();
+        if (lunghezza == -1) {
+            return null;
+        }
+        if (lunghezza < 0 || lunghezza > in.remaining()) {
+            throw new IllegalArgumentException("Lunghezza non valida: " + lunghezza);
+        }
+        byte[] bytes = new byte[lunghezza];
+        in.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static void scriviIstante(DataOutputStream out, LocalDateTime istante) throws IOException {
+        out.writeBoolean(istante != null);
+        if (istante != null) {
+            out.writeLong(istante.toEpochSecond(ZoneOffset.UTC));
+            out.writeInt(istante.getNano());
+        }
+    }
+
+    private static LocalDateTime leggiIstante(ByteBuffer in) {
+        if (in.get() == 0) {
+            return null;
+        }
+        long secondi = in.getLong();
+        return LocalDateTime.ofEpochSecond(secondi, in.getInt(), ZoneOffset.UTC);
+    }
+}
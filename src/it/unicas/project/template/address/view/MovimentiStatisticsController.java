@@ -1,32 +1,71 @@
 package it.unicas.project.template.address.view;
 
+import it.unicas.project.template.address.model.ClassificaProdotti;
+import it.unicas.project.template.address.model.Periodo;
 import it.unicas.project.template.address.model.Prodotti;
-import it.unicas.project.template.address.model.Movimenti;
+import it.unicas.project.template.address.model.RiepilogoPeriodi;
+import it.unicas.project.template.address.model.StatisticaPeriodo;
+import it.unicas.project.template.address.model.StatisticaProdotto;
+import it.unicas.project.template.address.model.dao.AsyncDAO;
+import it.unicas.project.template.address.model.dao.DAOFactory;
 import java.time.LocalDate;
+import java.util.HashSet;
 import java.util.List;
-import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.IntConsumer;
+import javafx.beans.InvalidationListener;
+import javafx.beans.WeakInvalidationListener;
 import javafx.collections.FXCollections;
 import javafx.collections.ObservableList;
 import javafx.fxml.FXML;
+import javafx.scene.Cursor;
 import javafx.scene.chart.BarChart;
+import javafx.scene.control.Alert;
 import javafx.scene.chart.CategoryAxis;
 import javafx.scene.chart.NumberAxis;
 import javafx.scene.chart.XYChart;
+import javafx.scene.control.Button;
+import javafx.scene.control.ComboBox;
+import javafx.scene.control.DatePicker;
+import javafx.scene.control.Label;
+import javafx.scene.layout.HBox;
 
 /**
  * Controller per la visualizzazione delle statistiche dei movimenti.
  * <br>
  * Questa classe costruisce e popola istogrammi (BarChart) per rappresentare:
  * <ul>
- *   <li>i carichi e gli scarichi giornalieri di un mese</li>
- *   <li>i totali di carichi e scarichi per prodotto</li>
+ *   <li>i carichi e gli scarichi di un giorno, una settimana, un mese, un trimestre o un anno, suddivisi nei
+ *   periodi di dettaglio (es. i giorni di un mese); facendo clic su una barra si passa al periodo corrispondente
+ *   (drill-down) e con "Periodo superiore" si risale</li>
+ *   <li>i totali di carichi e scarichi dei prodotti più movimentati, più una barra "Altri"
+ *   con i totali di tutti gli altri prodotti</li>
  * </ul>
+ * I totali per periodo sono letti da un {@link RiepilogoPeriodi} già aggregato e mantenuto aggiornato dalla
+ * {@link it.unicas.project.template.address.MainApp}: cambiare periodo non accede al database e il grafico
+ * si ridisegna quando arrivano nuovi movimenti. I totali per prodotto sono calcolati dal database con
+ * {@link it.unicas.project.template.address.model.dao.MovimentiDAO#selectStatisticheProdotti()}, in background
+ * tramite {@link AsyncDAO}.
  *
  * @author Cristian Corsini, Simone Feola, Daniela Spitaleri
  * @since 19/11/2025
  */
 public class MovimentiStatisticsController {
 
+    /**
+     * Numero di default di prodotti mostrati nel grafico dei prodotti più movimentati.
+     *
+     * @see #setProdottiData(Map, int)
+     */
+    public static final int NUMERO_PRODOTTI_CLASSIFICA = 15;
+
+    /**
+     * Etichetta della barra che raccoglie i prodotti esclusi dalla classifica.
+     */
+    private static final String ALTRI = "Altri";
+
     /**
      * Grafico a barre usato per mostrare le statistiche.
      *
@@ -53,18 +92,70 @@ public class MovimentiStatisticsController {
     private NumberAxis yAxis;
 
     /**
-     * Lista di etichette contenente i giorni del mese da visualizzare sull'asse X.
+     * Barra di selezione del periodo, nascosta nel grafico dei prodotti.
+     */
+    @FXML
+    private HBox barraPeriodo;
+
+    /**
+     * Ampiezza del periodo mostrato.
+     */
+    @FXML
+    private ComboBox<Periodo> periodoComboBox;
+
+    /**
+     * Giorno di riferimento: viene mostrato il periodo che lo contiene.
+     */
+    @FXML
+    private DatePicker dataPicker;
+
+    /**
+     * Pulsante per risalire al periodo che contiene quello mostrato.
+     */
+    @FXML
+    private Button superioreButton;
+
+    /**
+     * Totali di carichi e scarichi del periodo mostrato.
+     */
+    @FXML
+    private Label totaliLabel;
+
+    /**
+     * Lista di etichette contenente i periodi di dettaglio da visualizzare sull'asse X.
      * <br>
-     * Viene popolata da {@link #setMovimentiData(List, LocalDate)}.
+     * Viene popolata da {@link #disegnaPeriodo()}.
      *
      * @see #xAxis
      */
-    private ObservableList<String> giorniMese = FXCollections.observableArrayList();
+    private ObservableList<String> etichettePeriodi = FXCollections.observableArrayList();
+
+    /**
+     * Totali per periodo da cui è disegnato il grafico; {@code null} finché non è disponibile.
+     */
+    private RiepilogoPeriodi riepilogo;
+
+    /**
+     * Ampiezza e primo giorno del periodo mostrato.
+     */
+    private Periodo periodo = Periodo.MESE;
+    private LocalDate inizio;
+
+    /**
+     * True mentre i controlli vengono allineati al periodo mostrato, per ignorarne gli eventi.
+     */
+    private boolean allineamentoControlli = false;
+
+    /**
+     * Ridisegna il grafico quando il riepilogo cambia; registrato come listener debole, così il riepilogo
+     * (che vive quanto l'applicazione) non trattiene la finestra dopo la chiusura.
+     */
+    private final InvalidationListener ridisegna = osservabile -> disegnaPeriodo();
 
     /**
      * Lista di etichette contenente i nomi dei prodotti da visualizzare sull'asse X.
      * <br>
-     * Viene popolata da {@link #setProdottiData(List, List)}.
+     * Viene popolata da {@link #setProdottiData(Map, int)}.
      *
      * @see #xAxis
      */
@@ -80,136 +171,262 @@ public class MovimentiStatisticsController {
     private void initialize() {
         yAxis.setLabel("Quantità movimentate");
         yAxis.setTickUnit(1);
+
+        periodoComboBox.getItems().setAll(Periodo.values());
+        periodoComboBox.valueProperty().addListener((obs, vecchio, nuovo) -> {
+            if (!allineamentoControlli && nuovo != null) {
+                mostraPeriodo(nuovo, inizio);
+            }
+        });
+        dataPicker.valueProperty().addListener((obs, vecchio, nuovo) -> {
+            if (!allineamentoControlli && nuovo != null) {
+                mostraPeriodo(periodo, nuovo);
+            }
+        });
     }
 
     /**
-     * Costruisce e popola un grafico giornaliero dei carichi e scarichi per il mese precedente alla data fornita.
+     * Mostra i carichi e gli scarichi giornalieri del mese precedente alla data fornita; da lì l'utente può
+     * scegliere un altro periodo, spostarsi avanti e indietro o fare drill-down.
      * <br>
      * Se {@code data} è {@code null} viene utilizzata la data corrente.
      * <br>
-     * Il metodo:
-     * <ul>
-     *     <li>calcola il mese precedente rispetto a {@code data}</li>
-     *     <li>riempie l'asse X con i giorni del mese</li>
-     *     <li>accumula le quantità giornaliere di carico e scarico dai movimenti forniti</li>
-     *     <li>aggiorna il {@link #barChart} con due serie: "Carichi" e "Scarichi"</li>
-     * </ul>
-     * Pre-condizioni: {@code movimenti} non deve essere {@code null} (se è {@code null} il comportamento è non definito).
-     * <br>
-     * Post-condizioni: il grafico viene aggiornato con i dati del mese calcolato e {@link #giorniMese} contiene le etichette dei giorni del mese.
+     * Post-condizioni: al completamento di {@code riepilogo} il grafico mostra il mese calcolato e si ridisegna
+     * a ogni modifica del riepilogo.
      *
-     * @param movimenti lista dei movimenti da analizzare; ogni elemento fornisce tipo (CARICO/SCARICO),
-     *                  data e quantità.
-     * @param data data di riferimento; se {@code null} viene usata la data odierna. Il mese visualizzato
-     *             è il mese precedente a questa data.
+     * @param riepilogo i totali per periodo, come restituiti da
+     *                  {@link it.unicas.project.template.address.MainApp#getRiepilogoPeriodi()}
+     * @param data      data di riferimento; se {@code null} viene usata la data odierna. Il mese visualizzato
+     *                  è il mese precedente a questa data.
      */
-    public void setMovimentiData(List<Movimenti> movimenti, LocalDate data) {
+    public void setMovimentiData(CompletableFuture<RiepilogoPeriodi> riepilogo, LocalDate data) {
         if (data == null) {
             data = LocalDate.now();
         }
-
         LocalDate mesePrecedente = data.minusMonths(1);
-        int numeroGiorni = mesePrecedente.lengthOfMonth();
-        String nomeMese = mesePrecedente.getMonth().getDisplayName(java.time.format.TextStyle.FULL, Locale.ITALIAN);
 
-        barChart.setTitle("Carichi e scarichi di " + nomeMese);
-        xAxis.setLabel("Giorni del mese");
+        barChart.setTitle("Caricamento statistiche...");
         barChart.getData().clear();
+        periodoComboBox.setDisable(true);
+        dataPicker.setDisable(true);
 
-        for (int i = 1; i <= numeroGiorni; i++) {
-            giorniMese.add(String.valueOf(i));
-        }
+        AsyncDAO.suFX(riepilogo, r -> {
+            this.riepilogo = r;
+            r.versioneProperty().addListener(new WeakInvalidationListener(ridisegna));
+            periodoComboBox.setDisable(false);
+            dataPicker.setDisable(false);
+            mostraPeriodo(Periodo.MESE, mesePrecedente);
+        }, e -> showError(e.getMessage()));
+    }
 
-        xAxis.setCategories(giorniMese);
+    /**
+     * Mostra il periodo di ampiezza {@code periodo} che contiene {@code giorno} e allinea i controlli.
+     *
+     * @param periodo ampiezza del periodo
+     * @param giorno  un giorno del periodo
+     */
+    private void mostraPeriodo(Periodo periodo, LocalDate giorno) {
+        this.periodo = periodo;
+        this.inizio = periodo.inizio(giorno);
 
-        int[] carichiDay = new int[numeroGiorni];
-        int[] scarichiDay = new int[numeroGiorni];
+        allineamentoControlli = true;
+        periodoComboBox.setValue(periodo);
+        dataPicker.setValue(inizio);
+        allineamentoControlli = false;
+        superioreButton.setDisable(periodo.superiore() == null);
 
-        int day;
-        for (Movimenti m : movimenti) {
-            if (m.getData().getMonth() == mesePrecedente.getMonth() && m.getData().getYear() == mesePrecedente.getYear()) {
-                day = m.getData().getDayOfMonth() - 1;
+        disegnaPeriodo();
+    }
 
-                if ("CARICO".equalsIgnoreCase(m.getTipo())) {
-                    carichiDay[day]+=m.getQuantita();
-                } else if ("SCARICO".equalsIgnoreCase(m.getTipo())) {
-                    scarichiDay[day]+=m.getQuantita();
-                }
-            }
+    /**
+     * Disegna il periodo corrente suddiviso nei suoi periodi di dettaglio, leggendo i totali da {@link #riepilogo}.
+     * <br>
+     * Il costo dipende solo dal numero di barre (al più 31), non dallo storico dei movimenti.
+     */
+    private void disegnaPeriodo() {
+        if (riepilogo == null || inizio == null) {
+            return;
         }
+        List<StatisticaPeriodo> dettaglio = riepilogo.dettaglio(periodo, inizio);
+        Periodo livello = dettaglio.get(0).getPeriodo();
 
-        XYChart.Series<String, Number> carichi = new XYChart.Series<>();
-        carichi.setName("Carichi");
+        barChart.setTitle("Carichi e scarichi - " + periodo.descrizione(inizio));
+        xAxis.setLabel(livello.toString());
 
-        XYChart.Series<String, Number> scarichi = new XYChart.Series<>();
-        scarichi.setName("Scarichi");
+        long[] carichi = new long[dettaglio.size()];
+        long[] scarichi = new long[dettaglio.size()];
+        etichettePeriodi.clear();
+        for (int i = 0; i < dettaglio.size(); i++) {
+            StatisticaPeriodo s = dettaglio.get(i);
+            etichettePeriodi.add(livello.etichetta(s.getInizio()));
+            carichi[i] = s.getCarichi();
+            scarichi[i] = s.getScarichi();
+        }
+        xAxis.setCategories(etichettePeriodi);
+        mostraSerie(etichettePeriodi, carichi, scarichi, (livello == periodo) ? null
+                : indice -> mostraPeriodo(livello, dettaglio.get(indice).getInizio()));
+
+        StatisticaPeriodo totale = riepilogo.totale(periodo, inizio);
+        totaliLabel.setText("Carichi: " + totale.getCarichi() + " - Scarichi: " + totale.getScarichi());
+    }
 
-        for (int i = 0; i < carichiDay.length && i < giorniMese.size(); i++) {
-            String giorno = giorniMese.get(i);
-            carichi.getData().add(new XYChart.Data<>(giorno, carichiDay[i]));
-            scarichi.getData().add(new XYChart.Data<>(giorno, scarichiDay[i]));
+    /**
+     * Mostra il periodo precedente della stessa ampiezza.
+     */
+    @FXML
+    private void handlePrecedente() {
+        if (inizio != null) {
+            mostraPeriodo(periodo, periodo.precedente(inizio));
         }
+    }
 
-        barChart.getData().clear();
-        barChart.getData().addAll(carichi, scarichi);
+    /**
+     * Mostra il periodo successivo della stessa ampiezza.
+     */
+    @FXML
+    private void handleSuccessivo() {
+        if (inizio != null) {
+            mostraPeriodo(periodo, periodo.successivo(inizio));
+        }
     }
 
     /**
-     * Costruisce e popola un grafico che mostra, per ogni prodotto, il totale dei carichi e degli scarichi.
+     * Risale al periodo che contiene quello mostrato (es. dal mese al trimestre).
+     */
+    @FXML
+    private void handleSuperiore() {
+        if (inizio != null && periodo.superiore() != null) {
+            mostraPeriodo(periodo.superiore(), inizio);
+        }
+    }
+
+    /**
+     * Costruisce e popola il grafico dei prodotti più movimentati con il numero di default di prodotti.
+     *
+     * @param prodotti i prodotti per id, usati per le etichette delle barre
+     * @see #setProdottiData(Map, int)
+     */
+    public void setProdottiData(Map<Integer, Prodotti> prodotti) {
+        setProdottiData(prodotti, NUMERO_PRODOTTI_CLASSIFICA);
+    }
+
+    /**
+     * Costruisce e popola un grafico con i totali di carichi e scarichi dei {@code n} prodotti più movimentati
+     * (carichi + scarichi) e una barra "Altri" con i totali di tutti i prodotti esclusi.
      * <br>
      * Il metodo:
      * <ul>
-     *     <li>usa la lista {@code prodotti} per ottenere i nomi dei prodotti e l'ordine</li>
-     *     <li>scorre la lista {@code movimenti} per sommare quantità di tipo CARICO e SCARICO associate a ciascun prodotto</li>
-     *     <li>aggiorna il {@link #barChart} con due serie: "Carichi" e "Scarichi"</li>
+     *     <li>legge dal database i totali di CARICO e SCARICO per prodotto (una riga per prodotto movimentato)</li>
+     *     <li>seleziona i primi {@code n} con {@link ClassificaProdotti}, in un solo passaggio e con un heap
+     *     di dimensione {@code n}</li>
+     *     <li>aggiorna il {@link #barChart} con due serie, "Carichi" e "Scarichi", di al più {@code n + 1} barre</li>
      * </ul>
-     * Pre-condizioni: {@code prodotti} e {@code movimenti} non devono essere {@code null}.
+     * Lettura e selezione avvengono in background, quindi la finestra si apre subito anche con cataloghi grandi;
+     * sul thread JavaFX vengono solo risolti i nomi dei prodotti in classifica.
      * <br>
-     * Post-condizioni: {@link #nomeProdotti} contiene i nomi dei prodotti visualizzati e il grafico è aggiornato con i totali per prodotto.
+     * Pre-condizioni: {@code prodotti} non deve essere {@code null} e {@code n} deve essere positivo.
+     * <br>
+     * Post-condizioni: {@link #nomeProdotti} contiene le etichette delle barre e il grafico è aggiornato.
      *
-     * @param prodotti lista dei prodotti da includere nel grafico; l'ordine nella lista determina l'ordine delle barre.
-     * @param movimenti lista dei movimenti usata per calcolare i totali per ogni prodotto.
+     * @param prodotti i prodotti per id, usati per le etichette delle barre
+     * @param n        numero di prodotti in classifica
      */
-    public void setProdottiData(List<Prodotti> prodotti, List<Movimenti> movimenti) {
+    public void setProdottiData(Map<Integer, Prodotti> prodotti, int n) {
+        barraPeriodo.setVisible(false);
+        barraPeriodo.setManaged(false);
         barChart.setTitle("Prodotti più movimentati");
         xAxis.setLabel("Prodotti");
 
-        int numeroProdotti = prodotti.size();
-        int[] totaleCarichi = new int[numeroProdotti];
-        int[] totaleScarichi = new int[numeroProdotti];
-
-        int index = 0;
-
-        for (Prodotti p : prodotti) {
-            nomeProdotti.add(p.getNome());
-            totaleCarichi[index] = 0;
-            totaleScarichi[index] = 0;
+        AsyncDAO.esegui(() -> ClassificaProdotti.calcola(DAOFactory.getCurrentDAOFactory().getMovimentiDAO().selectStatisticheProdotti(), n),
+                classifica -> {
+                    List<StatisticaProdotto> primi = classifica.getPrimi();
+                    boolean conAltri = classifica.getNumeroAltri() > 0;
+                    int barre = primi.size() + (conAltri ? 1 : 0);
+                    long[] totaleCarichi = new long[barre];
+                    long[] totaleScarichi = new long[barre];
 
-            for (Movimenti m : movimenti) {
-                if (m.getIdProdotto() == p.getIdProdotto()) {
-                    if ("CARICO".equalsIgnoreCase(m.getTipo())) {
-                        totaleCarichi[index] += m.getQuantita();
-                    } else if ("SCARICO".equalsIgnoreCase(m.getTipo())) {
-                        totaleScarichi[index] += m.getQuantita();
+                    // Le categorie dell'asse devono essere distinte: i nomi ripetuti ricevono l'id del prodotto.
+                    Set<String> usate = new HashSet<>();
+                    nomeProdotti.clear();
+                    for (int i = 0; i < primi.size(); i++) {
+                        StatisticaProdotto s = primi.get(i);
+                        Prodotti p = prodotti.get(s.getIdProdotto());
+                        String nome = (p != null) ? p.getNome() : "#" + s.getIdProdotto();
+                        if (!usate.add(nome)) {
+                            nome = nome + " (#" + s.getIdProdotto() + ")";
+                            usate.add(nome);
+                        }
+                        nomeProdotti.add(nome);
+                        totaleCarichi[i] = s.getCarichi();
+                        totaleScarichi[i] = s.getScarichi();
                     }
-                }
-            }
-            index++;
-        }
-        xAxis.setCategories(nomeProdotti);
+                    if (conAltri) {
+                        nomeProdotti.add(ALTRI + " (" + classifica.getNumeroAltri() + ")");
+                        totaleCarichi[barre - 1] = classifica.getAltriCarichi();
+                        totaleScarichi[barre - 1] = classifica.getAltriScarichi();
+                    }
+                    xAxis.setCategories(nomeProdotti);
+                    mostraSerie(nomeProdotti, totaleCarichi, totaleScarichi, null);
+                }, e -> showError(e.getMessage()));
+    }
 
+    /**
+     * Sostituisce i dati del {@link #barChart} con le serie "Carichi" e "Scarichi".
+     *
+     * @param categorie etichette dell'asse X, nello stesso ordine dei valori
+     * @param carichiValori quantità caricate per ciascuna categoria
+     * @param scarichiValori quantità scaricate per ciascuna categoria
+     * @param suClic azione invocata con l'indice della categoria al clic su una barra; {@code null} se le barre
+     *               non sono cliccabili
+     */
+    private void mostraSerie(List<String> categorie, long[] carichiValori, long[] scarichiValori, IntConsumer suClic) {
         XYChart.Series<String, Number> carichi = new XYChart.Series<>();
         carichi.setName("Carichi");
 
         XYChart.Series<String, Number> scarichi = new XYChart.Series<>();
         scarichi.setName("Scarichi");
 
-        for (int i = 0; i < totaleCarichi.length && i < nomeProdotti.size(); i++) {
-            carichi.getData().add(new XYChart.Data<>(nomeProdotti.get(i), totaleCarichi[i]));
-            scarichi.getData().add(new XYChart.Data<>(nomeProdotti.get(i), totaleScarichi[i]));
+        for (int i = 0; i < carichiValori.length && i < categorie.size(); i++) {
+            XYChart.Data<String, Number> carico = new XYChart.Data<>(categorie.get(i), carichiValori[i]);
+            XYChart.Data<String, Number> scarico = new XYChart.Data<>(categorie.get(i), scarichiValori[i]);
+            if (suClic != null) {
+                rendiCliccabile(carico, i, suClic);
+                rendiCliccabile(scarico, i, suClic);
+            }
+            carichi.getData().add(carico);
+            scarichi.getData().add(scarico);
         }
 
         barChart.getData().clear();
         barChart.getData().addAll(carichi, scarichi);
     }
+
+    /**
+     * Installa l'azione di clic sulla barra di un dato, appena il grafico ne crea il nodo.
+     *
+     * @param dato   il dato del grafico
+     * @param indice indice della categoria del dato
+     * @param suClic azione da invocare con {@code indice}
+     */
+    private static void rendiCliccabile(XYChart.Data<String, Number> dato, int indice, IntConsumer suClic) {
+        dato.nodeProperty().addListener((obs, vecchio, nodo) -> {
+            if (nodo != null) {
+                nodo.setCursor(Cursor.HAND);
+                nodo.setOnMouseClicked(evento -> suClic.accept(indice));
+            }
+        });
+    }
+
+    /**
+     * Mostra un messaggio di errore relativo al caricamento delle statistiche.
+     *
+     * @param msg il contenuto del messaggio
+     */
+    private void showError(String msg) {
+        Alert alert = new Alert(Alert.AlertType.ERROR);
+        alert.setTitle("Errore");
+        alert.setHeaderText("Errore caricamento statistiche");
+        alert.setContentText(msg);
+        alert.showAndWait();
+    }
 }
@@ -2,18 +2,25 @@ package it.unicas.project.template.address.view;
 
 import it.unicas.project.template.address.model.Movimenti;
 import it.unicas.project.template.address.model.Prodotti;
-import it.unicas.project.template.address.model.dao.mysql.MovimentiDAOMySQLImpl;
-import it.unicas.project.template.address.model.dao.mysql.ProdottiDAOMySQLImpl;
-import it.unicas.project.template.address.model.dao.DAOException;
+import it.unicas.project.template.address.model.dao.DAOFactory;
+import it.unicas.project.template.address.model.dao.AsyncDAO;
 import it.unicas.project.template.address.MainApp;
+import javafx.animation.PauseTransition;
+import javafx.beans.value.ChangeListener;
+import javafx.beans.value.WeakChangeListener;
+import javafx.collections.transformation.FilteredList;
+import javafx.collections.transformation.SortedList;
 import javafx.fxml.FXML;
 import javafx.scene.control.*;
 import javafx.scene.control.Alert.AlertType;
 import javafx.scene.layout.Region;
 import javafx.scene.layout.HBox;
+import javafx.util.Duration;
 import java.time.LocalDate;
-import java.util.List;
+import java.util.Locale;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Predicate;
 
 /**
  * Controller per la vista principale di gestione dei prodotti.
@@ -21,6 +28,9 @@ import java.util.Optional;
  * Coordina la visualizzazione delle tabelle (prodotti, prodotti critici, movimenti),
  * gestisce le azioni utente (nuovo, modifica, elimina, sposta, ricerca) e aggiorna i dati
  * nell'interfaccia in seguito alle operazioni sul database.
+ * <br>
+ * Le operazioni sul database sono eseguite in background tramite {@link AsyncDAO}: l'interfaccia resta
+ * reattiva e gli indicatori di attività sono visibili finché le operazioni non sono concluse.
  *
  * @author Cristian Corsini, Simone Feola, Daniela Spitaleri
  * @since 19/11/2025
@@ -152,11 +162,26 @@ public class ProdottiOverviewController {
     private Label statusLabel;
 
     /**
-     * Campo di ricerca (FXML). Utilizzato dal metodo {@link #resetFilters()}.
+     * Campo di ricerca (FXML): filtra i prodotti durante la digitazione.
+     *
+     * @see #applicaFiltri()
+     * @see #resetFilters()
      */
     @FXML
     private TextField searchField;
 
+    /**
+     * Indicatori di attività mostrati mentre sono in corso letture della rispettiva tabella (FXML).
+     *
+     * @see MainApp#getAttivitaProdotti()
+     * @see MainApp#getAttivitaMovimenti()
+     */
+    @FXML
+    private ProgressIndicator prodottiProgressIndicator;
+
+    @FXML
+    private ProgressIndicator movimentiProgressIndicator;
+
     /**
      * Riferimento all'istanza principale dell'applicazione.
      * <br>
@@ -165,6 +190,51 @@ public class ProdottiOverviewController {
      */
     private MainApp mainApp;
 
+    /**
+     * Numero di righe dalla fine della tabella movimenti entro cui viene richiesta la pagina successiva.
+     *
+     * @see #richiediPaginaMovimenti()
+     */
+    private static final int SOGLIA_PAGINA_MOVIMENTI = 20;
+
+    /**
+     * Attesa (ms) dopo l'ultimo tasto prima di applicare la ricerca, per non filtrare a ogni carattere.
+     */
+    private static final int RITARDO_RICERCA_MS = 150;
+
+    /**
+     * Numero massimo di prodotti mostrati dalla ricerca tollerante agli errori di battitura.
+     */
+    private static final int LIMITE_RICERCA_SIMILI = 50;
+
+    /**
+     * Vista filtrata di {@link MainApp#getProdottiData()} mostrata nella tabella dei prodotti.
+     */
+    private FilteredList<Prodotti> prodottiFiltrati;
+
+    /**
+     * Timer della ricerca: viene riavviato a ogni modifica e applica i filtri allo scadere.
+     */
+    private final PauseTransition ritardoRicerca = new PauseTransition(Duration.millis(RITARDO_RICERCA_MS));
+
+    /**
+     * Filtro impostato dalla ricerca avanzata; {@code null} se non attivo.
+     *
+     * @see #handleSearchProdotti()
+     */
+    private Predicate<Prodotti> filtroAvanzato = null;
+
+    /**
+     * Listener sulle modifiche dell'indice di ricerca: ripete la ricerca corrente.
+     * <br>
+     * È registrato sull'indice come listener debole, quindi il riferimento forte va mantenuto qui.
+     */
+    private final ChangeListener<Number> indiceModificato = (osservabile, prima, dopo) -> {
+        if (filtroAvanzato != null || !searchField.getText().isEmpty()) {
+            ritardoRicerca.playFromStart();
+        }
+    };
+
     /**
      * Costruttore vuoto richiesto da JavaFX.
      */
@@ -203,6 +273,9 @@ public class ProdottiOverviewController {
         }
         // ---------------------------------------------------------
 
+        ritardoRicerca.setOnFinished(event -> applicaFiltri());
+        searchField.textProperty().addListener((osservabile, prima, dopo) -> ritardoRicerca.playFromStart());
+
         showProdottoDetails(null);
         prodottiTableView.getSelectionModel().selectedItemProperty().addListener(
                 (observable, oldValue, newValue) -> showProdottoDetails(newValue)
@@ -217,30 +290,90 @@ public class ProdottiOverviewController {
      */
     public void setMainApp(MainApp mainApp) {
         this.mainApp = mainApp;
-        prodottiTableView.setItems(mainApp.getProdottiData());
+
+        prodottiProgressIndicator.visibleProperty().bind(mainApp.getAttivitaProdotti().occupatoProperty());
+        movimentiProgressIndicator.visibleProperty().bind(mainApp.getAttivitaMovimenti().occupatoProperty());
+
+        // La tabella mostra una vista filtrata e ordinata della lista: l'ordinamento per colonna
+        // non modifica la lista condivisa.
+        prodottiFiltrati = new FilteredList<>(mainApp.getProdottiData());
+        SortedList<Prodotti> prodottiOrdinati = new SortedList<>(prodottiFiltrati);
+        prodottiOrdinati.comparatorProperty().bind(prodottiTableView.comparatorProperty());
+        prodottiTableView.setItems(prodottiOrdinati);
+        mainApp.getIndiceRicerca().versioneProperty().addListener(new WeakChangeListener<>(indiceModificato));
+
         criticitaTableView.setItems(mainApp.getProdottiCritici());
         movimentiTableView.setItems(mainApp.getMovimentiData());
 
+        // Le righe vicine alla fine della tabella, quando vengono mostrate durante lo scroll,
+        // richiedono la pagina successiva dello storico movimenti.
+        movimentiTableView.setRowFactory(tableView -> new TableRow<Movimenti>() {
+            @Override
+            protected void updateItem(Movimenti movimento, boolean empty) {
+                super.updateItem(movimento, empty);
+                if (!empty && getIndex() >= tableView.getItems().size() - SOGLIA_PAGINA_MOVIMENTI) {
+                    richiediPaginaMovimenti();
+                }
+            }
+        });
+
+        // Ricerca per id tramite l'indice di MainApp: la cella resta legata al nome del prodotto
+        // e si aggiorna se questo viene modificato.
         nomeProdottoMovimentoColumn.setCellValueFactory(cellData -> {
             int pid = cellData.getValue().getIdProdotto();
-            Prodotti prod = mainApp.getProdottiData()
-                    .stream()
-                    .filter(p -> p.getIdProdotto() == pid)
-                    .findFirst()
-                    .orElse(null);
-            String display = (prod != null) ? prod.getNome() : String.valueOf(pid);
-            return new javafx.beans.property.SimpleStringProperty(display);
+            Prodotti prod = mainApp.getProdotto(pid);
+            return (prod != null) ? prod.nomeProperty() : new javafx.beans.property.SimpleStringProperty(String.valueOf(pid));
         });
     }
 
+    /**
+     * Richiede il caricamento della pagina successiva dello storico movimenti.
+     * <br>
+     * La lettura è asincrona: la lista visualizzata dalla tabella viene modificata solo al termine,
+     * sul thread JavaFX e fuori dal layout delle righe. Richieste ripetute prima del caricamento
+     * vengono ignorate da {@link MainApp#caricaAltriMovimenti()}.
+     */
+    private void richiediPaginaMovimenti() {
+        if (!mainApp.isMovimentiCompleti()) {
+            mainApp.caricaAltriMovimenti();
+        }
+    }
+
     /**
      * Resetta i filtri di ricerca presenti nella vista.
-     * Se il campo di ricerca esiste, il suo contenuto viene svuotato.
+     * Il campo di ricerca viene svuotato, la ricerca avanzata annullata e tutti i prodotti tornano visibili.
      */
     public void resetFilters() {
+        filtroAvanzato = null;
         if (searchField != null) {
             searchField.setText("");
         }
+        ritardoRicerca.stop();
+        applicaFiltri();
+    }
+
+    /**
+     * Applica alla tabella dei prodotti il testo del campo di ricerca e l'eventuale ricerca avanzata.
+     * <br>
+     * Il testo viene cercato nell'indice di {@link MainApp#getIndiceRicerca()}, quindi il costo dipende
+     * dal numero di prodotti corrispondenti; il filtro della lista controlla solo l'appartenenza
+     * all'insieme trovato. Se nessun prodotto inizia con le parole digitate vengono mostrati
+     * i prodotti più simili, così un errore di battitura non svuota la tabella.
+     */
+    private void applicaFiltri() {
+        if (prodottiFiltrati == null) {
+            return;
+        }
+        Set<Prodotti> trovati = mainApp.getIndiceRicerca().cerca(searchField.getText());
+        if (trovati != null && trovati.isEmpty()) {
+            trovati.addAll(mainApp.getIndiceRicerca().cercaSimili(searchField.getText(), LIMITE_RICERCA_SIMILI));
+        }
+        Predicate<Prodotti> filtro = filtroAvanzato;
+        if (trovati != null) {
+            Predicate<Prodotti> testo = trovati::contains;
+            filtro = (filtro == null) ? testo : filtro.and(testo);
+        }
+        prodottiFiltrati.setPredicate(filtro);
     }
 
     /**
@@ -317,13 +450,10 @@ public class ProdottiOverviewController {
 
             Optional<ButtonType> result = alert.showAndWait();
             if (result.isPresent() && result.get() == ButtonType.OK) {
-                try {
-                    ProdottiDAOMySQLImpl.getInstance().delete(selectedProdotto);
-
-                    mainApp.caricaDati();
-                } catch (DAOException e) {
-                    showError("Errore di Eliminazione", e.getMessage());
-                }
+                AsyncDAO.esegui(mainApp.getAttivitaProdotti(), () -> {
+                    DAOFactory.getCurrentDAOFactory().getProdottiDAO().delete(selectedProdotto);
+                    return null;
+                }, nessuno -> mainApp.aggiornaDati(), e -> showError("Errore di Eliminazione", e.getMessage()));
             }
         } else {
             showWarning("Nessuna Selezione", "Seleziona un prodotto da eliminare.");
@@ -341,73 +471,113 @@ public class ProdottiOverviewController {
         Prodotti temp = new Prodotti();
         boolean okClicked = mainApp.showProdottiDialog(temp, true, "Nuovo prodotto", "file:resources/images/new.png");
         if (okClicked) {
-            try {
-                int id = ProdottiDAOMySQLImpl.getInstance().insert(temp);
-                temp.setIdProdotto(id);
+            AsyncDAO.esegui(mainApp.getAttivitaProdotti(), () -> {
+                int id = DAOFactory.getCurrentDAOFactory().getProdottiDAO().insert(temp);
 
                 Movimenti movimento = new Movimenti(null, id, "CARICO", temp.getQuantita(), LocalDate.now(), "Carico iniziale");
-                MovimentiDAOMySQLImpl.getInstance().insert(movimento);
-
-                mainApp.caricaDati();
-                prodottiTableView.getSelectionModel().select(temp);
-                prodottiTableView.scrollTo(temp);
-                showProdottoDetails(temp);
-            } catch (DAOException e) {
-
+                DAOFactory.getCurrentDAOFactory().getMovimentiDAO().insert(movimento);
+                return id;
+            }, id -> {
+                temp.setIdProdotto(id);
+                mainApp.aggiornaDati().thenRun(() -> selezionaProdotto(id));
+            }, e -> {
                 String msg = e.getMessage();
                 if (msg != null && msg.contains("Duplicate entry") && msg.contains("prodotti.nome_UNIQUE")) {
                     showError("Attenzione", "Il nome '" + temp.getNome() + "' è già presente in archivio.");
                 }
                 else showError("Errore Database", e.getMessage());
-            }
+            });
         }
     }
 
     /**
-     * Gestisce l'azione di ricerca prodotti.
+     * Gestisce l'azione di ricerca avanzata dei prodotti.
      * <br>
-     * Mostra una dialog per l'inserimento dei criteri di ricerca,
-     * esegue la query sul database e aggiorna la lista dei prodotti
-     * visualizzati nell'interfaccia utente.
+     * Mostra una dialog per l'inserimento dei criteri di ricerca e li applica come filtro
+     * sui prodotti già caricati, insieme al testo del campo di ricerca, senza interrogare il database.
+     * I criteri sono gli stessi di {@link it.unicas.project.template.address.model.dao.mysql.ProdottiDAOMySQLImpl#select(Prodotti, boolean)}.
      */
     @FXML
     private void handleSearchProdotti() {
         Prodotti tempProdotto = new Prodotti(null, "", "", -1, -1, 0.0, 0.0);
         boolean okClicked = mainApp.showProdottiDialog(tempProdotto, false, "Cerca prodotti", "file:resources/images/search.png");
         if (okClicked) {
-            try {
-                List<Prodotti> list = ProdottiDAOMySQLImpl.getInstance().select(tempProdotto, false);
+            filtroAvanzato = filtroDa(tempProdotto);
+            applicaFiltri();
+        }
+    }
 
-                mainApp.getProdottiData().clear();
-                mainApp.getProdottiData().addAll(list);
-            } catch (DAOException e) {
-                showError("Errore Ricerca", e.getMessage());
-            }
+    /**
+     * Costruisce il filtro corrispondente ai criteri della ricerca avanzata: nome e descrizione per prefisso
+     * (senza distinzione tra maiuscole e minuscole), quantità, giacenza minima e prezzi per uguaglianza.
+     * I criteri lasciati vuoti (stringhe vuote, interi -1, prezzi 0) non vengono applicati.
+     *
+     * @param criteri il prodotto compilato nella dialog di ricerca
+     * @return il filtro, o {@code null} se nessun criterio è impostato
+     */
+    private static Predicate<Prodotti> filtroDa(Prodotti criteri) {
+        Predicate<Prodotti> filtro = null;
+        String nome = criteri.getNome() == null ? "" : criteri.getNome().trim().toLowerCase(Locale.ROOT);
+        String descrizione = criteri.getDescrizione() == null ? "" : criteri.getDescrizione().trim().toLowerCase(Locale.ROOT);
+
+        if (!nome.isEmpty()) {
+            filtro = combina(filtro, p -> p.getNome() != null && p.getNome().toLowerCase(Locale.ROOT).startsWith(nome));
+        }
+        if (!descrizione.isEmpty()) {
+            filtro = combina(filtro, p -> p.getDescrizione() != null
+                    && p.getDescrizione().toLowerCase(Locale.ROOT).startsWith(descrizione));
+        }
+        if (criteri.getQuantita() > -1) {
+            int quantita = criteri.getQuantita();
+            filtro = combina(filtro, p -> p.getQuantita() == quantita);
+        }
+        if (criteri.getGiacenzaMin() > -1) {
+            int giacenzaMin = criteri.getGiacenzaMin();
+            filtro = combina(filtro, p -> p.getGiacenzaMin() == giacenzaMin);
         }
+        if (criteri.getPrezzoAcquisto() > 0.0) {
+            double prezzoAcquisto = criteri.getPrezzoAcquisto();
+            filtro = combina(filtro, p -> p.getPrezzoAcquisto() == prezzoAcquisto);
+        }
+        if (criteri.getPrezzoVendita() > 0.0) {
+            double prezzoVendita = criteri.getPrezzoVendita();
+            filtro = combina(filtro, p -> p.getPrezzoVendita() == prezzoVendita);
+        }
+        return filtro;
+    }
+
+    /**
+     * Combina due filtri in AND.
+     *
+     * @param filtro     il filtro corrente, eventualmente {@code null}
+     * @param condizione la condizione da aggiungere
+     * @return la condizione se {@code filtro} è {@code null}, altrimenti la congiunzione dei due
+     */
+    private static Predicate<Prodotti> combina(Predicate<Prodotti> filtro, Predicate<Prodotti> condizione) {
+        return (filtro == null) ? condizione : filtro.and(condizione);
     }
 
     /**
      * Gestisce l'azione di modifica del prodotto selezionato.
      * <br>
-     * Mostra una dialog per l'editing dei dati, aggiorna il prodotto
-     * nel database e riflette le modifiche nell'interfaccia utente.
+     * Mostra una dialog per l'editing dei dati e registra la modifica con
+     * {@link MainApp#modificaProdotto(Prodotti, int)}, che la invia al database in background.
      */
     @FXML
     private void handleEditProdotti() {
         Prodotti selectedProdotto = prodottiTableView.getSelectionModel().getSelectedItem();
         if (selectedProdotto != null) {
+            int quantitaPrecedente = selectedProdotto.getQuantita();
             boolean okClicked = mainApp.showProdottiDialog(selectedProdotto, true, "Modifica prodotto", "file:resources/images/edit.png");
             if (okClicked) {
-                try {
-                    ProdottiDAOMySQLImpl.getInstance().update(selectedProdotto);
-
-                    mainApp.caricaDati();
-                    showProdottoDetails(selectedProdotto);
-                    prodottiTableView.getSelectionModel().select(selectedProdotto);
-                    prodottiTableView.scrollTo(selectedProdotto);
-                } catch (DAOException e) {
-                    e.printStackTrace();
-                }
+                int id = selectedProdotto.getIdProdotto();
+                mainApp.modificaProdotto(selectedProdotto, quantitaPrecedente).whenComplete((nessuno, errore) -> {
+                    if (errore != null) {
+                        showError("Errore Database", AsyncDAO.causa(errore).getMessage());
+                    } else {
+                        selezionaProdotto(id);
+                    }
+                });
             }
         } else {
             showWarning("Nessuna selezione", "Seleziona un prodotto nel catalogo");
@@ -417,8 +587,9 @@ public class ProdottiOverviewController {
     /**
      * Gestisce l'azione di movimento (carico/scarico) del prodotto selezionato.
      * <br>
-     * Mostra una dialog per l'inserimento del movimento, aggiorna il database
-     * e riflette le modifiche nell'interfaccia utente.
+     * Mostra una dialog per l'inserimento del movimento e lo registra con
+     * {@link MainApp#registraMovimento(Prodotti, Movimenti)}, che lo applica subito alla giacenza
+     * e lo invia al database in background, anche se al momento non è raggiungibile.
      */
     @FXML
     private void handleMoveProdotto() {
@@ -427,31 +598,36 @@ public class ProdottiOverviewController {
         if (selectedProdotto != null) {
             boolean okClicked = mainApp.showMovimentoDialog(selectedProdotto, movimento);
             if (okClicked) {
-                try {
-                    MovimentiDAOMySQLImpl.getInstance().insert(movimento);
-
-                    int nuovaQuantita = selectedProdotto.getQuantita();
-                    if (movimento.getTipo().equals("CARICO")) {
-                        nuovaQuantita += movimento.getQuantita();
-                    } else if (movimento.getTipo().equals("SCARICO")) {
-                        nuovaQuantita -= movimento.getQuantita();
+                // Nella dialog l'utente può aver scelto un prodotto diverso da quello selezionato.
+                Prodotti prodotto = mainApp.getProdotto(movimento.getIdProdotto());
+                Prodotti movimentato = (prodotto != null) ? prodotto : selectedProdotto;
+                mainApp.registraMovimento(movimentato, movimento).whenComplete((nessuno, errore) -> {
+                    if (errore != null) {
+                        showError("Errore Movimento", AsyncDAO.causa(errore).getMessage());
+                    } else if (movimentato == prodottiTableView.getSelectionModel().getSelectedItem()) {
+                        showProdottoDetails(movimentato);
                     }
-                    selectedProdotto.setQuantita(nuovaQuantita);
-                    ProdottiDAOMySQLImpl.getInstance().update(selectedProdotto);
-
-                    mainApp.caricaDati();
-                    showProdottoDetails(selectedProdotto);
-                    prodottiTableView.getSelectionModel().select(selectedProdotto);
-                    prodottiTableView.scrollTo(selectedProdotto);
-                } catch (DAOException e) {
-                    e.printStackTrace();
-                }
+                });
             }
         } else {
             showWarning("Nessuna selezione", "Seleziona un prodotto nel catalogo");
         }
     }
 
+    /**
+     * Seleziona nella tabella principale il prodotto con l'id indicato, se presente, e ne mostra i dettagli.
+     *
+     * @param idProdotto l'id del prodotto da selezionare
+     */
+    private void selezionaProdotto(int idProdotto) {
+        Prodotti prodotto = mainApp.getProdotto(idProdotto);
+        if (prodotto != null) {
+            prodottiTableView.getSelectionModel().select(prodotto);
+            prodottiTableView.scrollTo(prodotto);
+            showProdottoDetails(prodotto);
+        }
+    }
+
     /**
      * Mostra un messaggio di errore in una finestra di dialog.
      *
@@ -1,18 +1,35 @@
 package it.unicas.project.template.address.view;
 
 import it.unicas.project.template.address.MainApp;
+import it.unicas.project.template.address.model.dao.AsyncDAO;
+import it.unicas.project.template.address.model.dao.mysql.ConnectionPoolStatistics;
 import it.unicas.project.template.address.model.dao.mysql.DAOMySQLSettings;
+import it.unicas.project.template.address.model.dao.DAOFactory;
 import it.unicas.project.template.address.util.Esportazione;
+import it.unicas.project.template.address.util.Importazione;
+import java.io.File;
+import javafx.concurrent.Task;
 import javafx.fxml.FXML;
+import javafx.geometry.Insets;
+import javafx.geometry.Pos;
 import javafx.scene.control.Alert;
 import javafx.scene.control.Alert.AlertType;
+import javafx.scene.control.Button;
+import javafx.scene.control.Label;
+import javafx.scene.control.ProgressBar;
+import javafx.scene.layout.HBox;
+import javafx.scene.layout.VBox;
 import javafx.stage.Stage;
 
 /**
  * Controller per il layout radice dell'applicazione.
  * <br>
- * Fornisce i gestori delle voci di menu (settings, about, home, exit, esportazioni, statistiche)
+ * Fornisce i gestori delle voci di menu (settings, about, home, exit, importazioni, esportazioni, statistiche)
  * e coordina azioni globali che coinvolgono la MainApp.
+ * <br>
+ * Importazioni ed esportazioni sono eseguite in background come {@link Task}: per ognuna viene mostrata in fondo
+ * alla finestra una riga con barra di avanzamento e pulsante di annullamento, e più operazioni possono procedere
+ * insieme.
  *
  * @author Cristian Corsini, Simone Feola, Daniela Spitaleri
  * @since 19/11/2025
@@ -26,6 +43,12 @@ public class RootLayoutController {
      */
     private MainApp mainApp;
 
+    /**
+     * Contenitore delle righe di avanzamento delle importazioni ed esportazioni in corso.
+     */
+    @FXML
+    private VBox esportazioniBox;
+
     /**
      * Imposta il riferimento all'istanza principale dell'applicazione.
      *
@@ -77,6 +100,35 @@ public class RootLayoutController {
         }
     }
 
+    /**
+     * Mostra le statistiche del pool di connessioni al database
+     * (connessioni aperte, tempi di attesa, timeout e leak rilevati).
+     * Se non è ancora stata aperta alcuna connessione il pool non viene creato.
+     */
+    @FXML
+    private void handleShowPoolStatistics() {
+        ConnectionPoolStatistics stats = DAOMySQLSettings.getPoolStatistics();
+
+        Alert alert = new Alert(AlertType.INFORMATION);
+        alert.initOwner(mainApp.getPrimaryStage());
+        alert.setTitle("Statistiche connessioni");
+        alert.setHeaderText("Pool di connessioni MySQL");
+        if (stats == null) {
+            alert.setContentText("Nessuna connessione al database è stata ancora aperta.");
+            alert.showAndWait();
+            return;
+        }
+        alert.setContentText(String.format(
+                "Connessioni aperte: %d / %d%\nIn uso: %d - Libere: %d - In attesa: %d%\n"
+                        + "Richieste servite: %d%\nAttesa media: %.3f ms - Attesa massima: %.3f ms%\n"
+                        + "Timeout: %d - Connessioni scartate: %d - Leak segnalati: %d",
+                stats.getTotali(), stats.getMassimo(), stats.getInUso(), stats.getLibere(), stats.getInAttesa(),
+                stats.getRichieste(), stats.getAttesaMediaMillis(), stats.getAttesaMassimaMillis(),
+                stats.getTimeout(), stats.getValidazioniFallite(), stats.getLeak()));
+
+        alert.showAndWait();
+    }
+
     /**
      * Gestore per l'azione di uscita dall'applicazione.
      */
@@ -102,40 +154,192 @@ public class RootLayoutController {
     }
 
     /**
-     * Esporta l'inventario prodotti in un file CSV.
+     * Ricostruisce in background il riepilogo giornaliero da cui sono lette le statistiche,
+     * a partire dall'intero storico dei movimenti (es. dopo un'importazione diretta nel database).
      */
     @FXML
-    private void handleExportProdotti() {
+    private void handleRicostruisciRiepilogo() {
         Stage stage = mainApp.getPrimaryStage();
 
-        boolean esportazione = Esportazione.exportProdottiToCSV(stage, mainApp.getProdottiData());
-
-        if (esportazione) {
+        AsyncDAO.esegui(() -> DAOFactory.getCurrentDAOFactory().getMovimentiDAO().ricostruisciRiepilogoGiornaliero(), righe -> {
             Alert alert = new Alert(AlertType.INFORMATION);
             alert.initOwner(stage);
-            alert.setTitle("Esportazione Completata");
+            alert.setTitle("Riepilogo Ricalcolato");
             alert.setHeaderText(null);
-            alert.setContentText("L'inventario dei prodotti è stato esportato in formato CSV.");
+            alert.setContentText("Il riepilogo giornaliero dei movimenti è stato ricalcolato (" + righe + " righe).");
             alert.showAndWait();
+        }, errore -> {
+            Alert alert = new Alert(AlertType.ERROR);
+            alert.initOwner(stage);
+            alert.setTitle("Errore");
+            alert.setHeaderText("Impossibile ricalcolare il riepilogo giornaliero");
+            alert.setContentText(errore.getMessage());
+            alert.showAndWait();
+        });
+    }
+
+    /**
+     * Importa i prodotti da un file CSV (compresso se il nome termina con .gz), in background.
+     */
+    @FXML
+    private void handleImportProdotti() {
+        File file = Importazione.chooseProdottiFile(mainApp.getPrimaryStage());
+        if (file != null) {
+            avviaImportazione(Importazione.prodottiTask(file), "I prodotti sono stati importati.");
         }
     }
 
     /**
-     * Esporta lo storico dei movimenti in un file CSV.
+     * Importa movimenti da un file CSV (compresso se il nome termina con .gz), in background:
+     * ogni riga registra un movimento e aggiorna la giacenza del prodotto.
+     */
+    @FXML
+    private void handleImportMovimenti() {
+        File file = Importazione.chooseMovimentiFile(mainApp.getPrimaryStage());
+        if (file != null) {
+            avviaImportazione(Importazione.movimentiTask(file), "I movimenti sono stati importati.");
+        }
+    }
+
+    /**
+     * Esporta l'inventario prodotti in un file CSV (compresso se il nome termina con .gz), in background.
+     */
+    @FXML
+    private void handleExportProdotti() {
+        File file = Esportazione.chooseProdottiFile(mainApp.getPrimaryStage());
+        if (file != null) {
+            avviaEsportazione(Esportazione.prodottiTask(file, mainApp.getProdottiData()),
+                    "L'inventario dei prodotti è stato esportato in formato CSV.");
+        }
+    }
+
+    /**
+     * Esporta lo storico dei movimenti in un file CSV (compresso se il nome termina con .gz), in background.
+     * <br>
+     * Le righe sono lette dal database in streaming e scritte senza caricare lo storico in memoria.
      */
     @FXML
     private void handleExportMovimenti() {
+        File file = Esportazione.chooseMovimentiFile(mainApp.getPrimaryStage());
+        if (file != null) {
+            avviaEsportazione(Esportazione.storicoMovimentiTask(file),
+                    "Lo storico dei movimenti è stato esportato in formato CSV.");
+        }
+    }
+
+    /**
+     * Avvia un task di esportazione e ne mostra l'avanzamento in {@link #esportazioniBox}
+     * fino alla conclusione.
+     * <br>
+     * Al completamento viene mostrato un messaggio con righe esportate e velocità; in caso di errore
+     * un messaggio di errore; l'annullamento rimuove solo la riga (il file parziale è già stato eliminato dal task).
+     *
+     * @param task      il task di esportazione
+     * @param messaggio testo del messaggio di completamento
+     */
+    private void avviaEsportazione(Task<Esportazione.Risultato> task, String messaggio) {
         Stage stage = mainApp.getPrimaryStage();
+        HBox riga = mostraAvanzamento(task);
 
-        boolean esportazione = Esportazione.exportMovimentiToCSV(stage, mainApp.getMovimentiData(), mainApp.getProdottiData());
+        task.setOnSucceeded(event -> {
+            esportazioniBox.getChildren().remove(riga);
+            Esportazione.Risultato risultato = task.getValue();
 
-        if (esportazione) {
             Alert alert = new Alert(AlertType.INFORMATION);
             alert.initOwner(stage);
             alert.setTitle("Esportazione Completata");
             alert.setHeaderText(null);
-            alert.setContentText("Lo storico dei movimenti è stato esportato in formato CSV.");
-            alert.showAndWait();
-        }
+            alert.setContentText(String.format("%s%n%d righe in %d ms (%d righe/s).", messaggio,
+                    risultato.getRighe(), risultato.getMillisecondi(), risultato.getRigheAlSecondo()));
+            alert.show();
+        });
+        task.setOnFailed(event -> {
+            esportazioniBox.getChildren().remove(riga);
+
+            Alert alert = new Alert(AlertType.ERROR);
+            alert.initOwner(stage);
+            alert.setTitle("Errore");
+            alert.setHeaderText(task.getTitle() + " non riuscita");
+            alert.setContentText(AsyncDAO.causa(task.getException()).getMessage());
+            alert.show();
+        });
+        task.setOnCancelled(event -> esportazioniBox.getChildren().remove(riga));
+
+        AsyncDAO.avvia(task);
+    }
+
+    /**
+     * Avvia un task di importazione e ne mostra l'avanzamento in {@link #esportazioniBox}
+     * fino alla conclusione.
+     * <br>
+     * Al termine, anche se annullata o fallita, i dati vengono ricaricati perché i blocchi già confermati
+     * restano registrati. Il messaggio di completamento riporta righe importate e scartate e, se ce ne sono,
+     * il file con le righe scartate e il motivo.
+     *
+     * @param task      il task di importazione
+     * @param messaggio testo del messaggio di completamento
+     */
+    private void avviaImportazione(Task<Importazione.Risultato> task, String messaggio) {
+        Stage stage = mainApp.getPrimaryStage();
+        HBox riga = mostraAvanzamento(task);
+
+        task.setOnSucceeded(event -> {
+            esportazioniBox.getChildren().remove(riga);
+            mainApp.caricaDati();
+            Importazione.Risultato risultato = task.getValue();
+
+            Alert alert = new Alert(risultato.getScartate() == 0 ? AlertType.INFORMATION : AlertType.WARNING);
+            alert.initOwner(stage);
+            alert.setTitle("Importazione Completata");
+            alert.setHeaderText(null);
+            String testo = String.format("%s%n%d righe importate, %d scartate in %d ms (%d righe/s).", messaggio,
+                    risultato.getImportate(), risultato.getScartate(), risultato.getMillisecondi(),
+                    risultato.getRigheAlSecondo());
+            if (risultato.getScarti() != null) {
+                testo += String.format("%nLe righe scartate e il motivo sono in:%n%s", risultato.getScarti().getAbsolutePath());
+            }
+            alert.setContentText(testo);
+            alert.show();
+        });
+        task.setOnFailed(event -> {
+            esportazioniBox.getChildren().remove(riga);
+            mainApp.caricaDati();
+
+            Alert alert = new Alert(AlertType.ERROR);
+            alert.initOwner(stage);
+            alert.setTitle("Errore");
+            alert.setHeaderText(task.getTitle() + " non riuscita");
+            alert.setContentText(AsyncDAO.causa(task.getException()).getMessage());
+            alert.show();
+        });
+        task.setOnCancelled(event -> {
+            esportazioniBox.getChildren().remove(riga);
+            mainApp.caricaDati();
+        });
+
+        AsyncDAO.avvia(task);
+    }
+
+    /**
+     * Aggiunge a {@link #esportazioniBox} la riga con titolo, barra di avanzamento e pulsante di annullamento
+     * del task; la riga va rimossa dal chiamante alla conclusione del task.
+     *
+     * @param task il task da seguire
+     * @return la riga aggiunta
+     */
+    private HBox mostraAvanzamento(Task<?> task) {
+        ProgressBar avanzamento = new ProgressBar();
+        avanzamento.setPrefWidth(200);
+        avanzamento.progressProperty().bind(task.progressProperty());
+        Label titolo = new Label();
+        titolo.textProperty().bind(task.titleProperty().concat(": ").concat(task.messageProperty()));
+        Button annulla = new Button("Annulla");
+        annulla.setOnAction(event -> task.cancel());
+
+        HBox riga = new HBox(10, titolo, avanzamento, annulla);
+        riga.setAlignment(Pos.CENTER_LEFT);
+        riga.setPadding(new Insets(5, 10, 5, 10));
+        esportazioniBox.getChildren().add(riga);
+        return riga;
     }
 }
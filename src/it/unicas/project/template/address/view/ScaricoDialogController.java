@@ -2,10 +2,15 @@ package it.unicas.project.template.address.view;
 
 import it.unicas.project.template.address.model.Movimenti;
 import it.unicas.project.template.address.model.Prodotti;
+import it.unicas.project.template.address.util.IndiceRicercaProdotti;
+import javafx.animation.PauseTransition;
 import javafx.fxml.FXML;
 import javafx.scene.control.*;
 import javafx.stage.Stage;
+import javafx.util.Duration;
+import javafx.util.StringConverter;
 import java.time.LocalDate;
+import java.util.List;
 
 /**
  * Controller per la finestra di dialogo che gestisce i movimenti di carico/scarico di un prodotto.
@@ -18,15 +23,17 @@ import java.time.LocalDate;
 public class ScaricoDialogController {
 
     /**
-     * Label che mostra il nome del prodotto selezionato.
+     * ComboBox modificabile che mostra il prodotto del movimento e permette di cercarne un altro
+     * per nome o descrizione, anche con errori di battitura.
      * @see #setProdotto(Prodotti)
+     * @see #aggiornaSuggerimenti()
      */
     @FXML
-    private Label nomeProdottoLabel;
+    private ComboBox<Prodotti> prodottoComboBox;
 
     /**
      * Label che mostra la quantità attuale disponibile del prodotto.
-     * @see #updateQuantitaProdotto()
+     * @see #setProdotto(Prodotti)
      */
     @FXML
     private Label quantitaAttualeLabel;
@@ -74,6 +81,21 @@ public class ScaricoDialogController {
      */
     private Movimenti movimento;
 
+    /**
+     * Indice usato per suggerire i prodotti mentre l'utente digita; {@code null} disattiva i suggerimenti.
+     */
+    private IndiceRicercaProdotti indiceRicerca;
+
+    /**
+     * Numero massimo di prodotti suggeriti.
+     */
+    private static final int LIMITE_SUGGERIMENTI = 10;
+
+    /**
+     * Timer dei suggerimenti: viene riavviato a ogni tasto e cerca allo scadere.
+     */
+    private final PauseTransition ritardoRicerca = new PauseTransition(Duration.millis(150));
+
     /**
      * Flag che indica se l'utente ha confermato l'operazione con OK.
      */
@@ -92,6 +114,54 @@ public class ScaricoDialogController {
     private void initialize() {
         movimentoChoiceBox.setValue("SCARICO");
         datePicker.setValue(LocalDate.now());
+
+        prodottoComboBox.setConverter(new StringConverter<Prodotti>() {
+            @Override
+            public String toString(Prodotti p) {
+                return (p == null) ? "" : p.getNome();
+            }
+
+            @Override
+            public Prodotti fromString(String testo) {
+                // Il testo digitato non identifica un prodotto: resta quello scelto finché non se ne seleziona un altro.
+                return prodotto;
+            }
+        });
+        prodottoComboBox.valueProperty().addListener((osservabile, prima, dopo) -> {
+            if (dopo != null && dopo != prodotto) {
+                mostraProdotto(dopo);
+            }
+        });
+        ritardoRicerca.setOnFinished(event -> aggiornaSuggerimenti());
+        prodottoComboBox.getEditor().textProperty().addListener((osservabile, prima, dopo) -> {
+            if (prodotto == null || !dopo.equals(prodotto.getNome())) {
+                ritardoRicerca.playFromStart();
+            }
+        });
+    }
+
+    /**
+     * Imposta l'indice usato per suggerire i prodotti durante la digitazione.
+     *
+     * @param indiceRicerca l'indice dei prodotti caricati
+     */
+    public void setIndiceRicerca(IndiceRicercaProdotti indiceRicerca) {
+        this.indiceRicerca = indiceRicerca;
+    }
+
+    /**
+     * Sostituisce le voci della ComboBox con i prodotti più simili al testo digitato
+     * (ricerca tollerante agli errori di battitura) e apre l'elenco.
+     */
+    private void aggiornaSuggerimenti() {
+        if (indiceRicerca == null) {
+            return;
+        }
+        List<Prodotti> simili = indiceRicerca.cercaSimili(prodottoComboBox.getEditor().getText(), LIMITE_SUGGERIMENTI);
+        prodottoComboBox.getItems().setAll(simili);
+        if (!simili.isEmpty() && !prodottoComboBox.isShowing()) {
+            prodottoComboBox.show();
+        }
     }
 
     /**
@@ -107,20 +177,30 @@ public class ScaricoDialogController {
     /**
      * Imposta il prodotto da modificare nella dialog.
      * Questo metodo popola anche i campi della UI con i dati del prodotto.
-     * Post-condizione: {@link #nomeProdottoLabel} e {@link #quantitaAttualeLabel} sono aggiornati.
+     * Post-condizione: {@link #prodottoComboBox} e {@link #quantitaAttualeLabel} sono aggiornati.
      *
      * @param prodotto Il prodotto selezionato nella tabella principale; non deve essere null.
      */
     public void setProdotto(Prodotti prodotto) {
-        this.prodotto = prodotto;
-
-        nomeProdottoLabel.setText(prodotto.getNome());
-        quantitaAttualeLabel.setText(String.valueOf(prodotto.getQuantita()));
+        mostraProdotto(prodotto);
 
         quantitaTextField.setText("");
         descrizioneTextArea.setText("");
     }
 
+    /**
+     * Rende {@code prodotto} il prodotto del movimento e ne mostra nome e quantità attuale.
+     *
+     * @param prodotto il prodotto scelto; non deve essere null
+     */
+    private void mostraProdotto(Prodotti prodotto) {
+        this.prodotto = prodotto;
+
+        prodottoComboBox.setValue(prodotto);
+        prodottoComboBox.getEditor().setText(prodotto.getNome());
+        quantitaAttualeLabel.setText(String.valueOf(prodotto.getQuantita()));
+    }
+
     /**
      * Imposta l'oggetto movimento che verrà popolato quando l'utente conferma.
      *
@@ -141,7 +221,8 @@ public class ScaricoDialogController {
 
     /**
      * Chiamato quando l'utente clicca OK.
-     * Se i dati sono validi, popola l'oggetto {@link #movimento} e aggiorna la quantità del prodotto.
+     * Se i dati sono validi, popola l'oggetto {@link #movimento}; la quantità del prodotto
+     * viene aggiornata dal DAO alla registrazione del movimento.
      * <br>
      * Post-condizione: se ritorna con successo {@link #okClicked} è true e {@link #dialogStage} è chiuso.
      */
@@ -154,8 +235,6 @@ public class ScaricoDialogController {
             movimento.setData(datePicker.getValue());
             movimento.setDescrizione(descrizioneTextArea.getText());
 
-            updateQuantitaProdotto();
-
             okClicked = true;
             dialogStage.close();
         }
@@ -170,21 +249,6 @@ public class ScaricoDialogController {
     }
 
 
-    /**
-     * Aggiorna la quantità del prodotto in base al tipo di movimento selezionato.
-     * <br>
-     * Legge la quantità dal campo di testo e modifica lo stato di {@link #prodotto}.
-     */
-    private void updateQuantitaProdotto() {
-        int quantitaInput = Integer.parseInt(quantitaTextField.getText());
-
-        if ("Carico".equals(movimentoChoiceBox.getValue())) {
-            prodotto.setQuantita(prodotto.getQuantita() + quantitaInput);
-        } else if ("Scarico".equals(movimentoChoiceBox.getValue())) {
-            prodotto.setQuantita(prodotto.getQuantita() - quantitaInput);
-        }
-    }
-
     /**
      * Valida l'input dell'utente nei campi della dialog.
      *
@@ -0,0 +1,52 @@
+import it.unicas.project.template.address.model.ClassificaProdotti;
+import it.unicas.project.template.address.model.StatisticaProdotto;
+import java.util.List;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test di unità per la classe ClassificaProdotti.
+ * <br>
+ * Verifica la selezione dei prodotti più movimentati e il calcolo dei totali degli altri prodotti.
+ *
+ * @author Cristian Corsini, Simone Feola, Daniela Spitaleri
+ * @since 19/11/2025
+ */
+class ClassificaProdottiTest {
+
+    /**
+     * Verifica che vengano scelti i prodotti con più carichi + scarichi, in ordine decrescente,
+     * e che gli esclusi confluiscano nei totali degli altri.
+     */
+    @Test
+    @DisplayName("Test Primi N e Altri")
+    void testPrimiEAltri() {
+        List<StatisticaProdotto> statistiche = List.of(
+                new StatisticaProdotto(1, 5, 0),
+                new StatisticaProdotto(2, 50, 30),
+                new StatisticaProdotto(3, 10, 10),
+                new StatisticaProdotto(4, 1, 2),
+                new StatisticaProdotto(5, 0, 40));
+
+        ClassificaProdotti classifica = ClassificaProdotti.calcola(statistiche, 3);
+
+        assertEquals(List.of(2, 5, 3), classifica.getPrimi().stream().map(StatisticaProdotto::getIdProdotto).toList());
+        assertEquals(2, classifica.getNumeroAltri());
+        assertEquals(6, classifica.getAltriCarichi());
+        assertEquals(2, classifica.getAltriScarichi());
+    }
+
+    /**
+     * Verifica il caso con meno prodotti di quelli richiesti e la validazione di N.
+     */
+    @Test
+    @DisplayName("Test Pochi Prodotti e N non Valido")
+    void testCasiLimite() {
+        ClassificaProdotti classifica = ClassificaProdotti.calcola(List.of(new StatisticaProdotto(7, 3, 1)), 10);
+
+        assertEquals(1, classifica.getPrimi().size());
+        assertEquals(0, classifica.getNumeroAltri());
+        assertThrows(IllegalArgumentException.class, () -> ClassificaProdotti.calcola(List.of(), 0));
+    }
+}
@@ -0,0 +1,188 @@
+import it.unicas.project.template.address.model.Movimenti;
+import it.unicas.project.template.address.model.Prodotti;
+import it.unicas.project.template.address.model.dao.DAOException;
+import it.unicas.project.template.address.model.dao.DAOFactory;
+import it.unicas.project.template.address.model.dao.MovimentiDAO;
+import it.unicas.project.template.address.model.dao.ProdottiDAO;
+import it.unicas.project.template.address.model.dao.memoria.DAOFileFactory;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test di unità per la classe DAOFileFactory.
+ * <br>
+ * Verifica che i dati scritti sul file vengano ricostruiti alla riapertura, che una transazione interrotta
+ * venga scartata per intero, che il checkpoint compatti il file e che le scritture concorrenti siano tutte salvate.
+ *
+ * @author Cristian Corsini, Simone Feola, Daniela Spitaleri
+ * @since 19/11/2025
+ */
+class DAOFileFactoryTest {
+
+    private static final LocalDate GIORNO = LocalDate.of(2025, 11, 19);
+
+    @TempDir
+    Path cartella;
+
+    private Path file;
+    private DAOFactory daoFactory;
+
+    @BeforeEach
+    void setUp() {
+        file = cartella.resolve("magazzino.db");
+        daoFactory = new DAOFileFactory(file);
+    }
+
+    @AfterEach
+    void tearDown() {
+        daoFactory.chiudi();
+    }
+
+    private void riapri() {
+        daoFactory.chiudi();
+        daoFactory = new DAOFileFactory(file);
+    }
+
+    /**
+     * Verifica che prodotti, movimenti, chiavi delle operazioni idempotenti e contatori degli id
+     * vengano ricostruiti alla riapertura.
+     */
+    @Test
+    @DisplayName("Test Riapertura")
+    void testRiapertura() throws DAOException {
+        ProdottiDAO prodotti = daoFactory.getProdottiDAO();
+        MovimentiDAO movimenti = daoFactory.getMovimentiDAO();
+        prodotti.insert(new Prodotti(null, "Mouse", "Periferica", 10, 2, 8.5, 15.0));
+        prodotti.insert(new Prodotti(null, "Monitor", "Schermo", 0, 1, 150.0, 229.9));
+        prodotti.insert(new Prodotti(null, "Cavo", "HDMI", 5, 1, 2.0, 4.0));
+        movimenti.registraMovimenti(List.of(new Movimenti(null, 1, "SCARICO", 3, GIORNO, "Vendita")), List.of("k1"));
+        movimenti.registraMovimento(new Movimenti(null, 3, "CARICO", 1, GIORNO, "Riordino"));
+        prodotti.update(new Prodotti(2, "Monitor 27\"", "Schermo IPS", 4, 1, 150.0, 229.9));
+        prodotti.delete(new Prodotti(3, "", "", 0, 0, 0, 0));
+        assertThrows(DAOException.class, () -> prodotti.insert(new Prodotti(null, "mouse", "", 1, 1, 1, 1)));
+
+        riapri();
+        ProdottiDAO riaperti = daoFactory.getProdottiDAO();
+        List<Prodotti> lista = riaperti.select(null, false);
+        assertEquals(2, lista.size());
+        assertEquals(7, lista.get(0).getQuantita());
+        assertEquals("Monitor 27\"", lista.get(1).getNome());
+        assertEquals("Schermo IPS", lista.get(1).getDescrizione());
+        assertEquals(1, daoFactory.getMovimentiDAO().count());
+        assertEquals(3, daoFactory.getMovimentiDAO().selectStatisticheProdotti().get(0).getScarichi());
+
+        assertTrue(daoFactory.getMovimentiDAO().registraMovimenti(
+                List.of(new Movimenti(null, 1, "SCARICO", 3, GIORNO, "Vendita")), List.of("k1")).isEmpty());
+        assertEquals(7, riaperti.select(null, false).get(0).getQuantita());
+        assertEquals(4, riaperti.insert(new Prodotti(null, "Hub", "USB-C", 1, 1, 10, 20)));
+        assertThrows(DAOException.class, () -> riaperti.insert(new Prodotti(null, "MOUSE", "", 1, 1, 1, 1)));
+    }
+
+    /**
+     * Verifica che un record finale troncato (scrittura interrotta) venga eliminato: la transazione è scartata
+     * per intero e le precedenti restano valide.
+     */
+    @Test
+    @DisplayName("Test Transazione Interrotta")
+    void testTransazioneInterrotta() throws DAOException, IOException {
+        daoFactory.getProdottiDAO().insert(new Prodotti(null, "Mouse", "Periferica", 10, 2, 8.5, 15.0));
+        daoFactory.getProdottiDAO().insert(new Prodotti(null, "Monitor", "Schermo", 0, 1, 150.0, 229.9));
+        riapri();
+        daoFactory.getMovimentiDAO().registraMovimenti(List.of(
+                new Movimenti(null, 1, "CARICO", 5, GIORNO, "Riordino"),
+                new Movimenti(null, 1, "SCARICO", 2, GIORNO, "Vendita")));
+        daoFactory.chiudi();
+
+        long dimensione = Files.size(file);
+        try (RandomAccessFile f = new RandomAccessFile(file.toFile(), "rw")) {
+            f.setLength(dimensione - 3);
+        }
+        daoFactory = new DAOFileFactory(file);
+        assertEquals(0, daoFactory.getMovimentiDAO().count());
+        assertEquals(10, daoFactory.getProdottiDAO().select(null, false).get(0).getQuantita());
+        assertEquals(2, daoFactory.getProdottiDAO().count());
+
+        daoFactory.getMovimentiDAO().registraMovimento(new Movimenti(null, 1, "CARICO", 1, GIORNO, "Riordino"));
+        riapri();
+        assertEquals(11, daoFactory.getProdottiDAO().select(null, false).get(0).getQuantita());
+        assertEquals(1, daoFactory.getMovimentiDAO().count());
+    }
+
+    /**
+     * Verifica che alla chiusura il checkpoint riscriva il file con il solo stato corrente.
+     */
+    @Test
+    @DisplayName("Test Checkpoint")
+    void testCheckpoint() throws DAOException, IOException {
+        ProdottiDAO prodotti = daoFactory.getProdottiDAO();
+        prodotti.insert(new Prodotti(null, "Mouse", "Periferica", 0, 2, 8.5, 15.0));
+        for (int i = 1; i <= 2000; i++) {
+            prodotti.update(new Prodotti(1, "Mouse", "Periferica", i, 2, 8.5, 15.0));
+        }
+        daoFactory.chiudi();
+        assertTrue(Files.size(file) < 200, "dimensione dopo il checkpoint: " + Files.size(file));
+
+        daoFactory = new DAOFileFactory(file);
+        assertEquals(2000, daoFactory.getProdottiDAO().select(null, false).get(0).getQuantita());
+    }
+
+    /**
+     * Verifica che i movimenti registrati da più thread, salvati con sincronizzazioni su disco condivise,
+     * siano tutti presenti alla riapertura.
+     */
+    @Test
+    @DisplayName("Test Scritture Concorrenti")
+    void testScrittureConcorrenti() throws Exception {
+        daoFactory.getProdottiDAO().insert(new Prodotti(null, "Mouse", "Periferica", 0, 2, 8.5, 15.0));
+        MovimentiDAO movimenti = daoFactory.getMovimentiDAO();
+        ExecutorService esecutore = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<?>> risultati = new ArrayList<>();
+            for (int t = 0; t < 4; t++) {
+                risultati.add(esecutore.submit(() -> {
+                    for (int i = 0; i < 50; i++) {
+                        movimenti.registraMovimento(new Movimenti(null, 1, "CARICO", 1, GIORNO, "Riordino"));
+                    }
+                    return null;
+                }));
+            }
+            for (Future<?> risultato : risultati) {
+                risultato.get();
+            }
+        } finally {
+            esecutore.shutdown();
+        }
+
+        riapri();
+        assertEquals(200, daoFactory.getMovimentiDAO().count());
+        assertEquals(200, daoFactory.getProdottiDAO().select(null, false).get(0).getQuantita());
+    }
+
+    /**
+     * Verifica che il file non possa essere aperto due volte e che dopo la chiusura le scritture vengano rifiutate.
+     */
+    @Test
+    @DisplayName("Test File in Uso e Chiusura")
+    void testFileInUso() throws DAOException {
+        ProdottiDAO prodotti = daoFactory.getProdottiDAO();
+        assertThrows(IllegalStateException.class, () -> new DAOFileFactory(file).getProdottiDAO());
+
+        daoFactory.chiudi();
+        assertThrows(DAOException.class, () -> prodotti.insert(new Prodotti(null, "Mouse", "", 1, 1, 1, 1)));
+        assertEquals(0, prodotti.count());
+    }
+}
@@ -0,0 +1,219 @@
+import it.unicas.project.template.address.model.Movimenti;
+import it.unicas.project.template.address.model.Prodotti;
+import it.unicas.project.template.address.model.dao.DAOException;
+import it.unicas.project.template.address.model.dao.GiornaleOperazioni;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test di unità per la classe GiornaleOperazioni.
+ * <br>
+ * Usa una destinazione in memoria che, come il database, registra le chiavi delle operazioni applicate
+ * e ignora quelle già viste; verifica il recupero dopo un'interruzione, i nuovi tentativi dopo un errore
+ * di connessione e che un nuovo invio non conti due volte lo stesso movimento.
+ *
+ * @author Cristian Corsini, Simone Feola, Daniela Spitaleri
+ * @since 19/11/2025
+ */
+class GiornaleOperazioniTest {
+
+    /**
+     * Destinazione in memoria: giacenza per prodotto, modifiche di prodotto applicate e chiavi applicate;
+     * finché {@code scollegata} è true ogni invio fallisce con un errore di connessione. Come il database,
+     * una modifica di prodotto non cambia la giacenza.
+     */
+    private static class DestinazioneFinta implements GiornaleOperazioni.Destinazione {
+
+        final Map<Integer, Integer> giacenze = new HashMap<>();
+        final Set<String> chiavi = new HashSet<>();
+        volatile int modifiche = 0;
+        volatile boolean scollegata = false;
+        volatile int tentativi = 0;
+
+        @Override
+        public synchronized Map<Integer, String> registraMovimenti(List<Movimenti> movimenti, List<String> chiavi)
+                throws DAOException {
+            tentativi++;
+            if (scollegata) {
+                throw new DAOException("Connessione persa", new SQLException("Communications link failure", "08S01"));
+            }
+            Map<Integer, String> rifiutati = new HashMap<>();
+            for (int i = 0; i < movimenti.size(); i++) {
+                Movimenti m = movimenti.get(i);
+                if (this.chiavi.contains(chiavi.get(i))) {
+                    continue;
+                }
+                int giacenza = giacenze.getOrDefault(m.getIdProdotto(), 0);
+                int nuova = giacenza + ("CARICO".equals(m.getTipo()) ? m.getQuantita() : -m.getQuantita());
+                if (nuova < 0) {
+                    rifiutati.put(i, "Quantità insufficiente");
+                    continue;
+                }
+                giacenze.put(m.getIdProdotto(), nuova);
+                this.chiavi.add(chiavi.get(i));
+            }
+            return rifiutati;
+        }
+
+        @Override
+        public synchronized boolean aggiornaProdotto(Prodotti prodotto, String chiave) throws DAOException {
+            tentativi++;
+            if (scollegata) {
+                throw new DAOException("Connessione persa", new SQLException("Communications link failure", "08S01"));
+            }
+            if (!chiavi.add(chiave)) {
+                return false;
+            }
+            modifiche++;
+            return true;
+        }
+    }
+
+    private Path file;
+    private DestinazioneFinta destinazione;
+    private final LinkedBlockingQueue<String> esiti = new LinkedBlockingQueue<>();
+
+    @BeforeEach
+    void setUp() throws IOException {
+        file = Files.createTempDirectory("giornale").resolve("giornale.log");
+        destinazione = new DestinazioneFinta();
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        try (var files = Files.list(file.getParent())) {
+            for (Path p : (Iterable<Path>) files::iterator) {
+                Files.delete(p);
+            }
+        }
+        Files.delete(file.getParent());
+    }
+
+    private static Movimenti movimento(int idProdotto, String tipo, int quantita) {
+        return new Movimenti(null, idProdotto, tipo, quantita, LocalDate.of(2025, 11, 19), "Test");
+    }
+
+    /**
+     * Avvia l'invio registrando in {@link #esiti} "A:n" per le operazioni applicate e "R:n" per quelle rifiutate.
+     */
+    private void avvia(GiornaleOperazioni giornale) {
+        giornale.avvia((applicate, rifiutate) -> {
+            applicate.forEach(o -> esiti.add("A:" + (o.isMovimento() ? o.getMovimento().getQuantita() : o.getProdotto().getNome())));
+            rifiutate.keySet().forEach(o -> esiti.add("R:" + o.getMovimento().getQuantita()));
+        });
+    }
+
+    private String prossimoEsito() throws InterruptedException {
+        String esito = esiti.poll(10, TimeUnit.SECONDS);
+        assertNotNull(esito, "Nessun esito entro il tempo massimo");
+        return esito;
+    }
+
+    /**
+     * Verifica che le operazioni sopravvivano alla riapertura del giornale e che un record finale
+     * incompleto (scrittura interrotta) venga scartato senza perdere i precedenti.
+     */
+    @Test
+    @DisplayName("Test Recupero dopo Interruzione")
+    void testRecupero() throws IOException {
+        try (GiornaleOperazioni giornale = new GiornaleOperazioni(file, destinazione)) {
+            giornale.registraMovimento(movimento(1, "CARICO", 10));
+            giornale.registraModifica(new Prodotti(2, "Mouse", "Wireless", 5, 1, 10.0, 20.0));
+            giornale.registraMovimento(movimento(1, "SCARICO", 3));
+        }
+        long integro = Files.size(file);
+        Files.write(file, new byte[]{0, 0, 0, 40, 1, 2, 3}, StandardOpenOption.APPEND);
+
+        try (GiornaleOperazioni giornale = new GiornaleOperazioni(file, destinazione)) {
+            List<GiornaleOperazioni.Operazione> inAttesa = giornale.getInAttesa();
+            assertEquals(3, inAttesa.size());
+            assertEquals(10, inAttesa.get(0).getMovimento().getQuantita());
+            assertEquals("Mouse", inAttesa.get(1).getProdotto().getNome());
+            assertEquals(0, inAttesa.get(1).getProdotto().getQuantita());
+            assertEquals("SCARICO", inAttesa.get(2).getMovimento().getTipo());
+            assertEquals(LocalDate.of(2025, 11, 19), inAttesa.get(2).getMovimento().getData());
+            assertEquals(integro, Files.size(file));
+        }
+    }
+
+    /**
+     * Verifica che, dopo un errore di connessione, le operazioni vengano inviate una sola volta al ritorno
+     * della connessione, che un movimento non registrabile venga rifiutato senza bloccare gli altri
+     * e che alla fine il giornale sia vuoto.
+     */
+    @Test
+    @DisplayName("Test Invio dopo Errore di Connessione")
+    void testInvioDopoErrore() throws Exception {
+        destinazione.scollegata = true;
+        try (GiornaleOperazioni giornale = new GiornaleOperazioni(file, destinazione)) {
+            giornale.registraMovimento(movimento(1, "CARICO", 10));
+            giornale.registraMovimento(movimento(1, "SCARICO", 50));
+            giornale.registraMovimento(movimento(1, "SCARICO", 4));
+            avvia(giornale);
+
+            long limite = System.currentTimeMillis() + 10_000;
+            while (destinazione.tentativi == 0 && System.currentTimeMillis() < limite) {
+                Thread.sleep(10);
+            }
+            assertTrue(esiti.isEmpty());
+            assertEquals(3, giornale.getInAttesa().size());
+
+            destinazione.scollegata = false;
+            List<String> ricevuti = new ArrayList<>();
+            while (ricevuti.size() < 3) {
+                ricevuti.add(prossimoEsito());
+            }
+            assertTrue(ricevuti.containsAll(List.of("A:10", "R:50", "A:4")), ricevuti.toString());
+            assertEquals(6, destinazione.giacenze.get(1));
+            assertTrue(giornale.getInAttesa().isEmpty());
+            assertEquals(0, Files.size(file));
+        }
+    }
+
+    /**
+     * Simula un arresto dopo la registrazione sul database ma prima della conferma nel giornale:
+     * il nuovo invio delle stesse operazioni non deve modificare di nuovo la giacenza.
+     */
+    @Test
+    @DisplayName("Test Nuovo Invio Idempotente")
+    void testNuovoInvioIdempotente() throws Exception {
+        Path copia = file.resolveSibling("copia.log");
+        try (GiornaleOperazioni giornale = new GiornaleOperazioni(file, destinazione)) {
+            giornale.registraMovimento(movimento(1, "CARICO", 10));
+            giornale.registraModifica(new Prodotti(2, "Mouse", "Wireless", 5, 1, 10.0, 20.0));
+            Files.copy(file, copia);
+            avvia(giornale);
+            assertEquals("A:10", prossimoEsito());
+            assertEquals("A:Mouse", prossimoEsito());
+        }
+        destinazione.giacenze.put(2, 7);
+
+        try (GiornaleOperazioni giornale = new GiornaleOperazioni(copia, destinazione)) {
+            assertEquals(2, giornale.getInAttesa().size());
+            avvia(giornale);
+            assertEquals("A:10", prossimoEsito());
+            assertEquals("A:Mouse", prossimoEsito());
+            assertTrue(giornale.getInAttesa().isEmpty());
+        }
+        assertEquals(10, destinazione.giacenze.get(1));
+        assertEquals(7, destinazione.giacenze.get(2));
+        assertEquals(1, destinazione.modifiche);
+    }
+}
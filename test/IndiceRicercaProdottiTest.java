@@ -0,0 +1,97 @@
+import it.unicas.project.template.address.model.Prodotti;
+import it.unicas.project.template.address.util.IndiceRicercaProdotti;
+import java.util.List;
+import java.util.Set;
+import javafx.collections.FXCollections;
+import javafx.collections.ObservableList;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test di unità per la classe IndiceRicercaProdotti.
+ * <br>
+ * Verifica la ricerca per prefisso delle parole e l'aggiornamento incrementale dell'indice
+ * quando la lista o i prodotti vengono modificati.
+ *
+ * @author Cristian Corsini, Simone Feola, Daniela Spitaleri
+ * @since 19/11/2025
+ */
+class IndiceRicercaProdottiTest {
+
+    private ObservableList<Prodotti> prodotti;
+    private IndiceRicercaProdotti indice;
+    private Prodotti notebook;
+    private Prodotti mouse;
+
+    /**
+     * Prepara una lista di due prodotti e l'indice collegato.
+     */
+    @BeforeEach
+    void setUp() {
+        notebook = new Prodotti(1, "Notebook HP", "Portatile con SSD da 512GB", 5, 2, 500.0, 700.0);
+        mouse = new Prodotti(2, "Mouse Logitech", "Mouse senza fili", 20, 5, 10.0, 25.0);
+        prodotti = FXCollections.observableArrayList(notebook, mouse);
+        indice = new IndiceRicercaProdotti(prodotti);
+    }
+
+    /**
+     * Verifica la ricerca per prefisso di parola su nome e descrizione, ignorando le maiuscole,
+     * e che più parole vengano combinate in AND.
+     */
+    @Test
+    @DisplayName("Test Ricerca per Prefisso")
+    void testRicercaPrefisso() {
+        assertEquals(Set.of(notebook), indice.cerca("note"));
+        assertEquals(Set.of(mouse), indice.cerca("FILI"));
+        assertEquals(Set.of(notebook), indice.cerca("hp ssd"));
+        assertTrue(indice.cerca("mouse ssd").isEmpty());
+        assertNull(indice.cerca("  "));
+    }
+
+    /**
+     * Verifica la ricerca tollerante agli errori di battitura: parole con un carattere sbagliato,
+     * mancante o scambiato trovano comunque il prodotto, quello più simile è il primo.
+     */
+    @Test
+    @DisplayName("Test Ricerca con Errori di Battitura")
+    void testRicercaSimili() {
+        assertEquals(List.of(notebook), indice.cercaSimili("notebok", 10));
+        assertEquals(List.of(mouse), indice.cercaSimili("muose logitec", 10));
+        assertEquals(notebook, indice.cercaSimili("portatle", 10).get(0));
+        assertTrue(indice.cercaSimili("stampante", 10).isEmpty());
+        assertTrue(indice.cercaSimili("", 10).isEmpty());
+    }
+
+    /**
+     * Verifica che maiuscole e accenti non influenzino la scomposizione in parole.
+     */
+    @Test
+    @DisplayName("Test Normalizzazione Parole")
+    void testNormalizzazione() {
+        assertEquals(List.of("perche", "cosi"), IndiceRicercaProdotti.parole("Perché così?"));
+    }
+
+    /**
+     * Verifica che l'indice segua aggiunte, rimozioni e modifiche in place dei prodotti.
+     */
+    @Test
+    @DisplayName("Test Aggiornamento Incrementale")
+    void testAggiornamentoIncrementale() {
+        int versione = indice.versioneProperty().get();
+
+        Prodotti monitor = new Prodotti(3, "Monitor Dell", "Schermo 27 pollici", 3, 1, 150.0, 220.0);
+        prodotti.add(monitor);
+        assertEquals(Set.of(mouse, monitor), indice.cerca("mo"));
+
+        prodotti.remove(mouse);
+        assertEquals(Set.of(monitor), indice.cerca("mo"));
+
+        notebook.setNome("Ultrabook Lenovo");
+        assertTrue(indice.cerca("notebook").isEmpty());
+        assertEquals(Set.of(notebook), indice.cerca("lenovo"));
+
+        assertTrue(indice.versioneProperty().get() > versione);
+    }
+}
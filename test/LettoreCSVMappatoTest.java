@@ -0,0 +1,166 @@
+import it.unicas.project.template.address.util.LettoreCSV;
+import it.unicas.project.template.address.util.LettoreCSVMappato;
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test di unità per la classe LettoreCSVMappato.
+ * <br>
+ * Verifica, con porzioni molto piccole, che la lettura parallela restituisca le stesse righe e gli stessi
+ * numeri di riga di LettoreCSV, anche con campi su più righe a cavallo dei confini e righe terminate da CR.
+ *
+ * @author Cristian Corsini, Simone Feola, Daniela Spitaleri
+ * @since 19/11/2025
+ */
+class LettoreCSVMappatoTest {
+
+    private ForkJoinPool pool;
+    private Path file;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        pool = new ForkJoinPool(4);
+        file = Files.createTempFile("lettore", ".csv");
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        pool.shutdownNow();
+        Files.deleteIfExists(file);
+    }
+
+    /**
+     * Legge il testo con LettoreCSV: numero di riga seguito dai campi.
+     */
+    private static List<List<String>> leggiSequenziale(String testo) throws IOException {
+        List<List<String>> righe = new ArrayList<>();
+        try (LettoreCSV csv = new LettoreCSV(new StringReader(testo), ';')) {
+            while (csv.leggiRiga()) {
+                List<String> riga = new ArrayList<>();
+                riga.add(String.valueOf(csv.getNumeroRiga()));
+                for (int i = 0; i < csv.getNumeroCampi(); i++) {
+                    riga.add(csv.campo(i));
+                }
+                righe.add(riga);
+            }
+        }
+        return righe;
+    }
+
+    /**
+     * Legge il file con LettoreCSVMappato: numero di riga seguito dai campi.
+     */
+    private List<List<String>> leggiParallelo(long dimensioneBlocco) throws IOException {
+        List<List<String>> righe = new ArrayList<>();
+        try (LettoreCSVMappato<List<String>> csv = new LettoreCSVMappato<>(file, ';', (numero, campi) -> {
+            List<String> riga = new ArrayList<>();
+            riga.add(String.valueOf(numero));
+            riga.addAll(List.of(campi));
+            return riga;
+        }, pool, dimensioneBlocco, 2)) {
+            List<List<String>> porzione;
+            while ((porzione = csv.prossimo()) != null) {
+                righe.addAll(porzione);
+                assertTrue(csv.getPosizione() <= csv.getDimensione());
+            }
+            assertEquals(csv.getDimensione(), csv.getPosizione());
+        }
+        return righe;
+    }
+
+    /**
+     * Verifica BOM, CRLF, campi tra doppi apici con separatore, doppi apici e a capo, caratteri multi-byte
+     * e ultima riga senza terminatore, per diverse dimensioni delle porzioni.
+     */
+    @Test
+    @DisplayName("Test Stesse Righe di LettoreCSV")
+    void testStesseRighe() throws IOException {
+        StringBuilder testo = new StringBuilder("\uFEFFID_Prodotto;Nome;Descrizione\r\n");
+        for (int i = 1; i <= 200; i++) {
+            testo.append(i).append(";Prodotto è ").append(i).append(';');
+            if (i % 3 == 0) {
+                testo.append("\"riga uno\r\n\"\"citata\"\";\nriga tre\"");
+            } else if (i % 7 == 0) {
+                testo.append("\"\"");
+            } else {
+                testo.append("descrizione ").append(i);
+            }
+            testo.append((i % 2 == 0) ? "\r\n" : "\n");
+        }
+        testo.append("\r\nultima;riga;");
+        Files.write(file, testo.toString().getBytes(StandardCharsets.UTF_8));
+
+        List<List<String>> attese = leggiSequenziale(testo.toString());
+        for (long dimensioneBlocco : new long[]{16, 61, 1000, 1 << 20}) {
+            assertEquals(attese, leggiParallelo(dimensioneBlocco), "Blocchi di " + dimensioneBlocco + " byte");
+        }
+    }
+
+    /**
+     * Verifica che righe terminate solo da CR, anche mescolate a LF e CRLF e dentro campi tra doppi apici,
+     * vengano divise e numerate come da LettoreCSV e che il file sia diviso in più porzioni.
+     */
+    @Test
+    @DisplayName("Test Righe Terminate da CR")
+    void testRigheTerminateDaCR() throws IOException {
+        StringBuilder testo = new StringBuilder("ID_Prodotto;Nome;Descrizione\r");
+        for (int i = 1; i <= 100; i++) {
+            testo.append(i).append(";Prodotto ").append(i).append(';');
+            testo.append((i % 4 == 0) ? "\"riga uno\rriga due\r\nriga tre\"" : "descrizione " + i);
+            testo.append((i % 5 == 0) ? "\r\n" : (i % 9 == 0) ? "\n" : "\r");
+        }
+        Files.write(file, testo.toString().getBytes(StandardCharsets.UTF_8));
+
+        List<List<String>> attese = leggiSequenziale(testo.toString());
+        for (long dimensioneBlocco : new long[]{7, 16, 61, 1000}) {
+            assertEquals(attese, leggiParallelo(dimensioneBlocco), "Blocchi di " + dimensioneBlocco + " byte");
+        }
+
+        List<Integer> porzioni = new ArrayList<>();
+        try (LettoreCSVMappato<String> csv = new LettoreCSVMappato<>(file, ';', (numero, campi) -> campi[0], pool, 256, 1)) {
+            List<String> porzione;
+            while ((porzione = csv.prossimo()) != null) {
+                porzioni.add(porzione.size());
+            }
+        }
+        assertTrue(porzioni.size() > 1, porzioni.toString());
+    }
+
+    /**
+     * Verifica che le righe per cui la conversione restituisce null vengano ignorate e che un file vuoto
+     * non abbia righe.
+     */
+    @Test
+    @DisplayName("Test Righe Ignorate e File Vuoto")
+    void testRigheIgnorate() throws IOException {
+        Files.write(file, "a;1\nb;2\nc;3\n".getBytes(StandardCharsets.UTF_8));
+        List<String> lette = new ArrayList<>();
+        try (LettoreCSVMappato<String> csv = new LettoreCSVMappato<>(file, ';',
+                (numero, campi) -> campi[0].equals("b") ? null : campi[0] + numero, pool, 4, 1)) {
+            List<String> porzione;
+            while ((porzione = csv.prossimo()) != null) {
+                lette.addAll(porzione);
+            }
+        }
+        assertEquals(List.of("a1", "c3"), lette);
+
+        Files.write(file, new byte[0]);
+        try (LettoreCSVMappato<String> csv = new LettoreCSVMappato<>(file, ';', (numero, campi) -> "x")) {
+            List<String> porzione;
+            while ((porzione = csv.prossimo()) != null) {
+                assertTrue(porzione.isEmpty());
+            }
+        }
+    }
+}
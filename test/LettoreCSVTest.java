@@ -0,0 +1,93 @@
+import it.unicas.project.template.address.util.LettoreCSV;
+import it.unicas.project.template.address.util.ScrittoreCSV;
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test di unità per la classe LettoreCSV.
+ * <br>
+ * Verifica la lettura dei campi tra doppi apici, dei diversi terminatori di riga e dei numeri di riga,
+ * e la rilettura di quanto scritto da ScrittoreCSV.
+ *
+ * @author Cristian Corsini, Simone Feola, Daniela Spitaleri
+ * @since 19/11/2025
+ */
+class LettoreCSVTest {
+
+    /**
+     * Legge tutte le righe del testo.
+     */
+    private static List<List<String>> leggi(String testo) throws IOException {
+        List<List<String>> righe = new ArrayList<>();
+        try (LettoreCSV csv = new LettoreCSV(new StringReader(testo), ';')) {
+            while (csv.leggiRiga()) {
+                List<String> campi = new ArrayList<>();
+                for (int i = 0; i < csv.getNumeroCampi(); i++) {
+                    campi.add(csv.campo(i));
+                }
+                righe.add(campi);
+            }
+        }
+        return righe;
+    }
+
+    /**
+     * Verifica campi tra doppi apici con separatore, doppi apici e a capo, campi vuoti,
+     * terminatori LF, CRLF e CR, BOM iniziale e ultima riga senza terminatore.
+     */
+    @Test
+    @DisplayName("Test Formato RFC 4180")
+    void testFormato() throws IOException {
+        String testo = "\uFEFFa;\"b;c\";\"d \"\"e\"\"\"\r\n;\n\"due\r\nrighe\";x\rfine";
+
+        assertEquals(List.of(
+                List.of("a", "b;c", "d \"e\""),
+                List.of("", ""),
+                List.of("due\r\nrighe", "x"),
+                List.of("fine")), leggi(testo));
+    }
+
+    /**
+     * Verifica che il numero di riga tenga conto dei campi su più righe.
+     */
+    @Test
+    @DisplayName("Test Numeri di Riga")
+    void testNumeriDiRiga() throws IOException {
+        try (LettoreCSV csv = new LettoreCSV(new StringReader("uno\n\"a\nb\nc\";x\n\ntre\n"), ';')) {
+            assertTrue(csv.leggiRiga());
+            assertEquals(1, csv.getNumeroRiga());
+            assertTrue(csv.leggiRiga());
+            assertEquals(2, csv.getNumeroRiga());
+            assertTrue(csv.leggiRiga());
+            assertEquals(5, csv.getNumeroRiga());
+            assertTrue(csv.isRigaVuota());
+            assertTrue(csv.leggiRiga());
+            assertEquals(6, csv.getNumeroRiga());
+            assertEquals("tre", csv.campo(0));
+            assertFalse(csv.leggiRiga());
+        }
+    }
+
+    /**
+     * Verifica che quanto scritto da ScrittoreCSV venga riletto invariato.
+     */
+    @Test
+    @DisplayName("Test Scrittura e Rilettura")
+    void testRilettura() throws IOException {
+        StringWriter out = new StringWriter();
+        try (ScrittoreCSV scrittore = new ScrittoreCSV(out, ';')) {
+            scrittore.campo(17).campo("Mouse; wireless").campo("Reso \"urgente\"\nseconda riga")
+                    .campo(12.5, 2).campo(LocalDate.of(2025, 11, 19)).nuovaRiga();
+        }
+
+        assertEquals(List.of(List.of("17", "Mouse; wireless", "Reso \"urgente\"\nseconda riga", "12.50", "2025-11-19")),
+                leggi(out.toString()));
+    }
+}
@@ -0,0 +1,168 @@
+import it.unicas.project.template.address.model.Movimenti;
+import it.unicas.project.template.address.model.Prodotti;
+import it.unicas.project.template.address.model.StatisticaGiornaliera;
+import it.unicas.project.template.address.model.dao.DAOException;
+import it.unicas.project.template.address.model.dao.DAOFactory;
+import it.unicas.project.template.address.model.dao.MovimentiDAO;
+import it.unicas.project.template.address.model.dao.ProdottiDAO;
+import it.unicas.project.template.address.model.dao.memoria.DAOMemoriaFactory;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test di unità per la classe MovimentiDAOMemoriaImpl.
+ * <br>
+ * Verifica la registrazione atomica e idempotente dei movimenti, la paginazione dello storico,
+ * le statistiche e la coerenza delle giacenze con più thread in scrittura.
+ *
+ * @author Cristian Corsini, Simone Feola, Daniela Spitaleri
+ * @since 19/11/2025
+ */
+class MovimentiDAOMemoriaImplTest {
+
+    private static final LocalDate GIORNO = LocalDate.of(2025, 11, 19);
+
+    private ProdottiDAO prodotti;
+    private MovimentiDAO dao;
+
+    @BeforeEach
+    void setUp() throws DAOException {
+        DAOFactory daoFactory = new DAOMemoriaFactory();
+        prodotti = daoFactory.getProdottiDAO();
+        dao = daoFactory.getMovimentiDAO();
+        prodotti.insert(new Prodotti(null, "Mouse", "Periferica", 10, 2, 8.5, 15.0));
+        prodotti.insert(new Prodotti(null, "Monitor", "Schermo", 0, 1, 150.0, 229.9));
+    }
+
+    private int quantita(int idProdotto) throws DAOException {
+        return prodotti.select(null, false).get(idProdotto - 1).getQuantita();
+    }
+
+    /**
+     * Verifica che registraMovimento aggiorni la giacenza e rifiuti gli scarichi oltre la giacenza,
+     * mentre insert registra solo il movimento.
+     */
+    @Test
+    @DisplayName("Test Registrazione Movimento")
+    void testRegistraMovimento() throws DAOException {
+        Movimenti carico = new Movimenti(null, 2, "CARICO", 4, GIORNO, "Riordino");
+        assertEquals(4, dao.registraMovimento(carico));
+        assertEquals(1, carico.getIdMovimento());
+        assertEquals(6, dao.registraMovimento(new Movimenti(null, 1, "SCARICO", 4, GIORNO, "Vendita")));
+
+        assertThrows(DAOException.class, () -> dao.registraMovimento(new Movimenti(null, 2, "SCARICO", 5, GIORNO, "")));
+        assertThrows(DAOException.class, () -> dao.registraMovimento(new Movimenti(null, 3, "CARICO", 1, GIORNO, "")));
+        assertThrows(DAOException.class, () -> dao.insert(new Movimenti(null, 3, "CARICO", 1, GIORNO, "")));
+        assertEquals(2, dao.count());
+
+        assertEquals(3, dao.insert(new Movimenti(null, 2, "SCARICO", 1, GIORNO, "Rettifica")));
+        assertEquals(4, quantita(2));
+    }
+
+    /**
+     * Verifica che un blocco scarti i movimenti non validi tenendo conto delle giacenze aggiornate dal blocco stesso,
+     * e che i movimenti con una chiave già registrata non vengano applicati due volte.
+     */
+    @Test
+    @DisplayName("Test Registrazione Idempotente di un Blocco")
+    void testRegistraMovimenti() throws DAOException {
+        List<Movimenti> blocco = List.of(
+                new Movimenti(null, 2, "CARICO", 3, GIORNO, "Riordino"),
+                new Movimenti(null, 2, "SCARICO", 5, GIORNO, "Vendita"),
+                new Movimenti(null, 2, "SCARICO", 3, GIORNO, "Vendita"),
+                new Movimenti(null, 9, "CARICO", 1, GIORNO, ""));
+        List<String> chiavi = List.of("a", "b", "c", "d");
+
+        Map<Integer, String> scartati = dao.registraMovimenti(blocco, chiavi);
+        assertEquals(List.of(1, 3), new ArrayList<>(scartati.keySet()));
+        assertEquals(2, dao.count());
+        assertEquals(0, quantita(2));
+
+        prodotti.update(new Prodotti(2, "Monitor", "Schermo", 10, 1, 150.0, 229.9));
+        scartati = dao.registraMovimenti(blocco, chiavi);
+        assertEquals(List.of(3), new ArrayList<>(scartati.keySet()));
+        assertEquals(3, dao.count());
+        assertEquals(5, quantita(2));
+
+        assertThrows(DAOException.class, () -> dao.registraMovimenti(blocco, List.of("e")));
+    }
+
+    /**
+     * Verifica la paginazione dello storico (per data e id decrescenti), i movimenti successivi a un id
+     * e le statistiche, anche dopo la modifica di un movimento e la ricostruzione del riepilogo.
+     */
+    @Test
+    @DisplayName("Test Storico e Statistiche")
+    void testStoricoEStatistiche() throws DAOException {
+        for (int i = 0; i < 5; i++) {
+            dao.registraMovimento(new Movimenti(null, 1, "CARICO", i + 1, GIORNO.plusDays(i % 2), "Riordino " + i));
+        }
+        List<Movimenti> pagina = dao.selectPage(null, 2);
+        assertEquals(List.of(4, 2), pagina.stream().map(Movimenti::getIdMovimento).toList());
+        pagina = dao.selectPage(pagina.get(1), 2);
+        assertEquals(List.of(5, 3), pagina.stream().map(Movimenti::getIdMovimento).toList());
+        assertEquals(List.of(1), dao.selectPage(pagina.get(1), 2).stream().map(Movimenti::getIdMovimento).toList());
+        assertEquals(List.of(4, 5), dao.selectSuccessivi(3).stream().map(Movimenti::getIdMovimento).toList());
+
+        List<StatisticaGiornaliera> giorni = dao.selectStatisticheGiornaliere(GIORNO, GIORNO.plusDays(2));
+        assertEquals(2, giorni.size());
+        assertEquals(1 + 3 + 5, giorni.get(0).getCarichi());
+        assertEquals(2 + 4, giorni.get(1).getCarichi());
+
+        dao.update(new Movimenti(5, 1, "SCARICO", 5, GIORNO, "Rettifica"));
+        assertEquals(4, dao.selectStatisticheGiornaliere(GIORNO, GIORNO.plusDays(1)).get(0).getCarichi());
+        assertEquals(5, dao.selectStatisticheProdotti().get(0).getScarichi());
+        assertEquals(2, dao.ricostruisciRiepilogoGiornaliero());
+        assertEquals(10, dao.selectStatisticheProdotti().get(0).getCarichi());
+        assertEquals(GIORNO.plusDays(1), dao.selectRiepilogoPeriodi().getUltimoGiorno());
+    }
+
+    /**
+     * Verifica che carichi e scarichi concorrenti sullo stesso prodotto lascino una giacenza coerente
+     * con lo storico registrato.
+     */
+    @Test
+    @DisplayName("Test Movimenti Concorrenti")
+    void testConcorrenza() throws Exception {
+        ExecutorService esecutore = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<?>> risultati = new ArrayList<>();
+            for (int t = 0; t < 4; t++) {
+                String tipo = (t % 2 == 0) ? "CARICO" : "SCARICO";
+                risultati.add(esecutore.submit(() -> {
+                    for (int i = 0; i < 500; i++) {
+                        try {
+                            dao.registraMovimento(new Movimenti(null, 1, tipo, 1, GIORNO, ""));
+                        } catch (DAOException e) {
+                            // scarico oltre la giacenza: il movimento non viene registrato
+                        }
+                        prodotti.select(new Prodotti(null, "mo", "", -1, -1, 0, 0), false);
+                    }
+                    return null;
+                }));
+            }
+            for (Future<?> risultato : risultati) {
+                risultato.get();
+            }
+        } finally {
+            esecutore.shutdown();
+        }
+
+        int saldo = 0;
+        for (Movimenti m : dao.select(null, false)) {
+            saldo += "CARICO".equals(m.getTipo()) ? m.getQuantita() : -m.getQuantita();
+        }
+        assertEquals(1000, dao.selectStatisticheProdotti().get(0).getCarichi());
+        assertEquals(10 + saldo, quantita(1));
+        assertTrue(quantita(1) >= 0);
+    }
+}
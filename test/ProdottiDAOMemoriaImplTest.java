@@ -0,0 +1,180 @@
+import it.unicas.project.template.address.model.Movimenti;
+import it.unicas.project.template.address.model.Prodotti;
+import it.unicas.project.template.address.model.dao.DAOException;
+import it.unicas.project.template.address.model.dao.DAOFactory;
+import it.unicas.project.template.address.model.dao.MovimentiDAO;
+import it.unicas.project.template.address.model.dao.ProdottiDAO;
+import it.unicas.project.template.address.model.dao.memoria.DAOMemoriaFactory;
+import java.time.Clock;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test di unità per la classe ProdottiDAOMemoriaImpl.
+ * <br>
+ * Verifica la scelta del fornitore per nome, i filtri di select (gli stessi della query MySQL), i vincoli
+ * dello schema e la cancellazione a cascata dei movimenti.
+ *
+ * @author Cristian Corsini, Simone Feola, Daniela Spitaleri
+ * @since 19/11/2025
+ */
+class ProdottiDAOMemoriaImplTest {
+
+    /**
+     * Orologio fermo che avanza solo con {@link #avanza(long)}, per rendere deterministici gli istanti delle modifiche.
+     */
+    private static class OrologioManuale extends Clock {
+
+        private Instant istante = Instant.parse("2025-11-19T10:00:00Z");
+
+        void avanza(long millisecondi) {
+            istante = istante.plusMillis(millisecondi);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return istante;
+        }
+    }
+
+    private final OrologioManuale orologio = new OrologioManuale();
+    private ProdottiDAO dao;
+    private MovimentiDAO movimenti;
+
+    @BeforeEach
+    void setUp() throws DAOException {
+        DAOFactory daoFactory = new DAOMemoriaFactory(orologio);
+        dao = daoFactory.getProdottiDAO();
+        movimenti = daoFactory.getMovimentiDAO();
+        dao.insert(new Prodotti(null, "Mouse wireless", "Periferica USB", 10, 5, 8.5, 15.0));
+        dao.insert(new Prodotti(null, "Monitor 27\"", "Schermo IPS", 2, 3, 150.0, 229.9));
+        dao.insert(new Prodotti(null, "Tastiera 100%_IT", "Periferica USB", 5, 5, 20.0, 35.0));
+    }
+
+    private static List<String> nomi(List<Prodotti> prodotti) {
+        return prodotti.stream().map(Prodotti::getNome).toList();
+    }
+
+    /**
+     * Verifica che i fornitori registrati vengano trovati per nome, senza distinzione tra maiuscole e minuscole.
+     */
+    @Test
+    @DisplayName("Test Scelta del Fornitore")
+    void testCarica() {
+        assertEquals("memoria", DAOFactory.carica("Memoria").getNome());
+        assertEquals("mysql", DAOFactory.carica("mysql").getNome());
+        assertThrows(IllegalStateException.class, () -> DAOFactory.carica("oracle"));
+    }
+
+    /**
+     * Verifica i filtri: prefisso senza distinzione tra maiuscole e minuscole e con i caratteri speciali di LIKE
+     * confrontati letteralmente, campi numerici ignorati se -1 (o prezzi a 0) e prodotti critici.
+     */
+    @Test
+    @DisplayName("Test Filtri di Select")
+    void testSelect() throws DAOException {
+        assertEquals(List.of("Mouse wireless", "Monitor 27\"", "Tastiera 100%_IT"), nomi(dao.select(null, false)));
+        assertEquals(List.of("Mouse wireless", "Monitor 27\""), nomi(dao.select(new Prodotti(null, "mo", "", -1, -1, 0, 0), false)));
+        assertEquals(List.of("Tastiera 100%_IT"), nomi(dao.select(new Prodotti(null, "Tastiera 100%_", "", -1, -1, 0, 0), false)));
+        assertEquals(List.of(), nomi(dao.select(new Prodotti(null, "Tastiera 1000", "", -1, -1, 0, 0), false)));
+        assertEquals(List.of("Mouse wireless", "Tastiera 100%_IT"), nomi(dao.select(new Prodotti(null, " ", "periferica", -1, -1, 0, 0), false)));
+        assertEquals(List.of("Tastiera 100%_IT"), nomi(dao.select(new Prodotti(null, "", "", -1, 5, 0, 35.0), false)));
+        assertEquals(List.of("Monitor 27\"", "Tastiera 100%_IT"), nomi(dao.select(null, true)));
+        assertEquals(List.of("Monitor 27\""), nomi(dao.select(new Prodotti(null, "", "", 2, -1, 0, 0), true)));
+    }
+
+    /**
+     * Verifica il nome univoco senza distinzione tra maiuscole e minuscole, l'arrotondamento dei prezzi
+     * a due decimali e l'inserimento o aggiornamento di upsertAll, anche per nome.
+     */
+    @Test
+    @DisplayName("Test Vincoli e Upsert")
+    void testVincoli() throws DAOException {
+        assertThrows(DAOException.class, () -> dao.insert(new Prodotti(null, "MOUSE WIRELESS", "", 1, 1, 1, 1)));
+        assertThrows(DAOException.class, () -> dao.insert(new Prodotti(null, "Cavo", "", 1, 1, 1000, 1)));
+        assertThrows(DAOException.class, () -> dao.update(new Prodotti(1, "Monitor 27\"", "", 1, 1, 1, 1)));
+
+        int id = dao.insert(new Prodotti(null, "Cavo", "HDMI", 1, 1, 2.345, 4.999));
+        assertEquals(4, id);
+        Prodotti cavo = dao.select(new Prodotti(null, "Cavo", "", -1, -1, 0, 0), false).get(0);
+        assertEquals(2.35, cavo.getPrezzoAcquisto());
+        assertEquals(5.0, cavo.getPrezzoVendita());
+
+        Map<Integer, String> scartati = dao.upsertAll(List.of(
+                new Prodotti(null, "cavo", "HDMI 2.1", 7, 1, 3, 6),
+                new Prodotti(10, "Hub", "USB-C", 3, 1, 12, 25),
+                new Prodotti(null, "Webcam", "HD", -1, 1, 20, 40),
+                new Prodotti(null, "Webcam", "HD", 4, 1, 20, 40)));
+        assertEquals(Map.of(2, "I campi numerici (quantità, giacenza e prezzi) non possono essere negativi."), scartati);
+        assertEquals(List.of(1, 2, 3, 4, 10, 11), dao.selectIdProdotti());
+        assertEquals(7, dao.select(new Prodotti(null, "Cavo", "", -1, -1, 0, 0), false).get(0).getQuantita());
+        assertEquals("cavo", dao.select(new Prodotti(null, "Cavo", "", -1, -1, 0, 0), false).get(0).getNome());
+
+        assertThrows(DAOException.class, () -> dao.upsertAll(List.of(
+                new Prodotti(11, "Webcam 4K", "", 1, 1, 1, 1),
+                new Prodotti(1, "Hub", "", 1, 1, 1, 1))));
+        assertEquals("Webcam", dao.select(new Prodotti(null, "Webcam", "", -1, -1, 0, 0), false).get(0).getNome());
+    }
+
+    /**
+     * Verifica che l'aggiornamento con chiave venga applicato una sola volta e non modifichi la giacenza,
+     * che cambia solo con i movimenti.
+     */
+    @Test
+    @DisplayName("Test Modifica Idempotente")
+    void testModificaIdempotente() throws DAOException {
+        movimenti.registraMovimento(new Movimenti(null, 2, "CARICO", 5, LocalDate.of(2025, 11, 19), "Riordino"));
+        assertTrue(dao.update(new Prodotti(2, "Monitor 27\" IPS", "Schermo IPS", 0, 4, 150.0, 229.9), "modifica"));
+        assertFalse(dao.update(new Prodotti(2, "Monitor", "", 0, 1, 1, 1), "modifica"));
+
+        Prodotti monitor = dao.select(new Prodotti(null, "Monitor", "", -1, -1, 0, 0), false).get(0);
+        assertEquals("Monitor 27\" IPS", monitor.getNome());
+        assertEquals(4, monitor.getGiacenzaMin());
+        assertEquals(7, monitor.getQuantita());
+    }
+
+    /**
+     * Verifica che gli oggetti restituiti siano copie, che ultimaModifica venga aggiornata
+     * e che la cancellazione di un prodotto elimini i suoi movimenti e le sue statistiche.
+     */
+    @Test
+    @DisplayName("Test Copie, Modifiche e Cancellazione")
+    void testModificheECancellazione() throws DAOException {
+        Prodotti mouse = dao.select(null, false).get(0);
+        mouse.setQuantita(99);
+        assertEquals(10, dao.select(null, false).get(0).getQuantita());
+
+        orologio.avanza(1);
+        movimenti.registraMovimento(new Movimenti(null, 2, "CARICO", 5, LocalDate.of(2025, 11, 19), "Riordino"));
+        List<Prodotti> modificati = dao.selectModificatiDa(dao.select(null, false).get(1).getUltimaModifica());
+        assertEquals(List.of("Monitor 27\""), nomi(modificati));
+        assertEquals(7, modificati.get(0).getQuantita());
+
+        movimenti.registraMovimento(new Movimenti(null, 1, "SCARICO", 4, LocalDate.of(2025, 11, 19), "Vendita"));
+        dao.delete(new Prodotti(2, "", "", 0, 0, 0, 0));
+        assertEquals(2, dao.count());
+        assertEquals(1, movimenti.count());
+        assertEquals(1, movimenti.selectStatisticheProdotti().size());
+        assertEquals(0, movimenti.selectStatisticheGiornaliere(LocalDate.of(2025, 11, 19), LocalDate.of(2025, 11, 20))
+                .get(0).getCarichi());
+        assertThrows(DAOException.class, () -> dao.update(new Prodotti(2, "Monitor", "", 1, 1, 1, 1), "chiave"));
+    }
+}
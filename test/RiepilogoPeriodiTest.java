@@ -0,0 +1,110 @@
+import it.unicas.project.template.address.model.Movimenti;
+import it.unicas.project.template.address.model.Periodo;
+import it.unicas.project.template.address.model.RiepilogoPeriodi;
+import it.unicas.project.template.address.model.StatisticaGiornaliera;
+import it.unicas.project.template.address.model.StatisticaPeriodo;
+import java.time.LocalDate;
+import java.util.List;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test di unità per la classe RiepilogoPeriodi.
+ * <br>
+ * Verifica l'aggregazione dei totali giornalieri nei periodi superiori, il drill-down
+ * e l'aggiornamento incrementale con i nuovi movimenti.
+ *
+ * @author Cristian Corsini, Simone Feola, Daniela Spitaleri
+ * @since 19/11/2025
+ */
+class RiepilogoPeriodiTest {
+
+    /**
+     * Riepilogo con tre giorni: due nella stessa settimana di novembre 2025 e uno a dicembre. Comprende tutti
+     * i movimenti fino all'id 90 e, oltre, i movimenti 95 e 100.
+     */
+    private static RiepilogoPeriodi riepilogo() {
+        return new RiepilogoPeriodi(List.of(
+                new StatisticaGiornaliera(LocalDate.of(2025, 11, 17), 10, 2),
+                new StatisticaGiornaliera(LocalDate.of(2025, 11, 23), 5, 0),
+                new StatisticaGiornaliera(LocalDate.of(2025, 12, 1), 0, 7)), 90, List.of(95, 100));
+    }
+
+    /**
+     * Verifica che i giorni confluiscano in settimana, mese, trimestre e anno.
+     */
+    @Test
+    @DisplayName("Test Totali per Periodo")
+    void testTotali() {
+        RiepilogoPeriodi r = riepilogo();
+        LocalDate giorno = LocalDate.of(2025, 11, 20);
+
+        assertEquals(15, r.totale(Periodo.SETTIMANA, giorno).getCarichi());
+        assertEquals(LocalDate.of(2025, 11, 17), r.totale(Periodo.SETTIMANA, giorno).getInizio());
+        assertEquals(15, r.totale(Periodo.MESE, giorno).getCarichi());
+        assertEquals(2, r.totale(Periodo.MESE, giorno).getScarichi());
+        assertEquals(9, r.totale(Periodo.TRIMESTRE, giorno).getScarichi());
+        assertEquals(15, r.totale(Periodo.ANNO, giorno).getCarichi());
+        assertEquals(0, r.totale(Periodo.GIORNO, giorno).getCarichi());
+    }
+
+    /**
+     * Verifica il drill-down: l'anno in trimestri, il trimestre in mesi, il mese in giorni (con i giorni vuoti).
+     */
+    @Test
+    @DisplayName("Test Dettaglio dei Periodi")
+    void testDettaglio() {
+        RiepilogoPeriodi r = riepilogo();
+
+        List<StatisticaPeriodo> trimestri = r.dettaglio(Periodo.ANNO, LocalDate.of(2025, 6, 1));
+        assertEquals(4, trimestri.size());
+        assertEquals(15, trimestri.get(3).getCarichi());
+
+        List<StatisticaPeriodo> mesi = r.dettaglio(Periodo.TRIMESTRE, LocalDate.of(2025, 11, 1));
+        assertEquals(List.of(0L, 15L, 0L), mesi.stream().map(StatisticaPeriodo::getCarichi).toList());
+
+        List<StatisticaPeriodo> giorni = r.dettaglio(Periodo.MESE, LocalDate.of(2025, 11, 1));
+        assertEquals(30, giorni.size());
+        assertEquals(10, giorni.get(16).getCarichi());
+        assertEquals(Periodo.GIORNO, giorni.get(0).getPeriodo());
+    }
+
+    /**
+     * Verifica che i nuovi movimenti aggiornino tutti i livelli e che quelli già contati vengano ignorati.
+     */
+    @Test
+    @DisplayName("Test Aggiunta Incrementale")
+    void testAggiungi() {
+        RiepilogoPeriodi r = riepilogo();
+        int versione = r.versioneProperty().get();
+        Movimenti scarico = new Movimenti(101, 1, "SCARICO", 3, LocalDate.of(2025, 11, 18), "Vendita");
+
+        assertTrue(r.aggiungi(scarico));
+        assertFalse(r.aggiungi(scarico));
+        assertFalse(r.aggiungi(new Movimenti(50, 1, "CARICO", 8, LocalDate.of(2025, 11, 18), "Già contato")));
+
+        assertEquals(3, r.totale(Periodo.GIORNO, LocalDate.of(2025, 11, 18)).getScarichi());
+        assertEquals(5, r.totale(Periodo.SETTIMANA, LocalDate.of(2025, 11, 18)).getScarichi());
+        assertEquals(12, r.totale(Periodo.ANNO, LocalDate.of(2025, 1, 1)).getScarichi());
+        assertEquals(versione + 1, r.versioneProperty().get());
+    }
+
+    /**
+     * Verifica che un movimento con id minore dell'ultimo letto, ma non compreso nei totali (confermato dopo
+     * la loro lettura), venga sommato, mentre quelli già compresi vengano ignorati.
+     */
+    @Test
+    @DisplayName("Test Movimento Confermato in Ritardo")
+    void testAggiungiConfermatoInRitardo() {
+        RiepilogoPeriodi r = riepilogo();
+
+        assertFalse(r.aggiungi(new Movimenti(100, 1, "CARICO", 4, LocalDate.of(2025, 11, 18), "Già contato")));
+        assertFalse(r.aggiungi(new Movimenti(95, 1, "CARICO", 4, LocalDate.of(2025, 11, 18), "Già contato")));
+        assertTrue(r.aggiungi(new Movimenti(97, 1, "CARICO", 4, LocalDate.of(2025, 11, 18), "In ritardo")));
+        assertFalse(r.aggiungi(new Movimenti(97, 1, "CARICO", 4, LocalDate.of(2025, 11, 18), "In ritardo")));
+
+        assertEquals(4, r.totale(Periodo.GIORNO, LocalDate.of(2025, 11, 18)).getCarichi());
+        assertEquals(19, r.totale(Periodo.SETTIMANA, LocalDate.of(2025, 11, 18)).getCarichi());
+    }
+}
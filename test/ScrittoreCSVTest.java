@@ -0,0 +1,74 @@
+import it.unicas.project.template.address.util.ScrittoreCSV;
+import java.io.IOException;
+import java.io.StringWriter;
+import java.time.LocalDate;
+import java.util.Locale;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test di unità per la classe ScrittoreCSV.
+ * <br>
+ * Verifica l'uso dei doppi apici secondo RFC 4180 e la formattazione di numeri e date.
+ *
+ * @author Cristian Corsini, Simone Feola, Daniela Spitaleri
+ * @since 19/11/2025
+ */
+class ScrittoreCSVTest {
+
+    /**
+     * Verifica che i campi con separatore, doppi apici o a capo siano racchiusi tra doppi apici
+     * e che gli altri siano scritti invariati.
+     */
+    @Test
+    @DisplayName("Test Doppi Apici")
+    void testDoppiApici() throws IOException {
+        StringWriter out = new StringWriter();
+        try (ScrittoreCSV csv = new ScrittoreCSV(out, ';')) {
+            csv.campo("semplice").campo("con;separatore").campo("con \"apici\"").campo("due\nrighe")
+                    .campo((CharSequence) null).campo("").nuovaRiga();
+            csv.campo("a,b").nuovaRiga();
+        }
+
+        assertEquals("semplice;\"con;separatore\";\"con \"\"apici\"\"\";\"due\nrighe\";;\r\na,b\r\n", out.toString());
+    }
+
+    /**
+     * Verifica interi, decimali arrotondati con il punto anche con Locale italiano, e date.
+     */
+    @Test
+    @DisplayName("Test Numeri e Date")
+    void testNumeriEDate() throws IOException {
+        Locale predefinito = Locale.getDefault();
+        Locale.setDefault(Locale.ITALY);
+        try {
+            StringWriter out = new StringWriter();
+            try (ScrittoreCSV csv = new ScrittoreCSV(out, ';')) {
+                csv.campo(0).campo(-42).campo(Long.MIN_VALUE).campo(1234567.5, 2).campo(0.125, 2)
+                        .campo(-0.004, 2).campo(-3.5, 0).campo(9.99, 2).campo(LocalDate.of(2025, 1, 9))
+                        .campo((LocalDate) null).nuovaRiga();
+            }
+
+            assertEquals("0;-42;-9223372036854775808;1234567.50;0.13;0.00;-4;9.99;2025-01-09;\r\n", out.toString());
+        } finally {
+            Locale.setDefault(predefinito);
+        }
+    }
+
+    /**
+     * Verifica che un testo più lungo del buffer venga scritto per intero.
+     */
+    @Test
+    @DisplayName("Test Buffer Piccolo")
+    void testBufferPiccolo() throws IOException {
+        String lungo = "x".repeat(100) + ";" + "y".repeat(100);
+        StringWriter out = new StringWriter();
+        try (ScrittoreCSV csv = new ScrittoreCSV(out, ';', 32)) {
+            csv.campo(lungo).campo(123456789).nuovaRiga();
+        }
+
+        assertEquals("\"" + lungo + "\";123456789\r\n", out.toString());
+        assertThrows(IllegalArgumentException.class, () -> new ScrittoreCSV(out, '"'));
+    }
+}
@@ -0,0 +1,89 @@
+import it.unicas.project.template.address.model.Movimenti;
+import it.unicas.project.template.address.model.Prodotti;
+import it.unicas.project.template.address.util.SnapshotLocale;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test di unità per la classe SnapshotLocale.
+ * <br>
+ * Verifica la rilettura dei dati salvati e che le copie di un'altra sorgente o danneggiate non vengano usate.
+ *
+ * @author Cristian Corsini, Simone Feola, Daniela Spitaleri
+ * @since 19/11/2025
+ */
+class SnapshotLocaleTest {
+
+    private static final String SORGENTE = "utente@localhost/magazzino";
+
+    @TempDir
+    Path cartella;
+
+    private static SnapshotLocale esempio() {
+        Prodotti mouse = new Prodotti(1, "Mouse è", "Senza fili; \"ergonomico\"", 5, 10, 12.5, 19.99);
+        mouse.setUltimaModifica(LocalDateTime.of(2025, 11, 19, 10, 30, 15, 123_000_000));
+        Prodotti monitor = new Prodotti(2, "Monitor", null, 30, 2, 100, 150);
+        Movimenti carico = new Movimenti(8, 2, "CARICO", 30, LocalDate.of(2025, 11, 18), "Ordine n. 42");
+        Movimenti scarico = new Movimenti(9, 1, "SCARICO", 3, LocalDate.of(2025, 11, 19), null);
+        return new SnapshotLocale(SORGENTE, List.of(mouse, monitor), List.of(scarico, carico), false,
+                mouse.getUltimaModifica(), 9);
+    }
+
+    /**
+     * Verifica che prodotti, movimenti e punto di sincronizzazione vengano riletti invariati
+     * e che il salvataggio successivo sostituisca il precedente, anche subito dopo averlo letto.
+     */
+    @Test
+    @DisplayName("Test Salvataggio e Rilettura")
+    void testRilettura() throws IOException {
+        Path file = cartella.resolve("dati").resolve("snapshot.bin");
+        new SnapshotLocale(SORGENTE, List.of(), List.of(), true, null, 0).salva(file);
+        SnapshotLocale atteso = esempio();
+        atteso.salva(file);
+
+        SnapshotLocale letto = SnapshotLocale.carica(file, SORGENTE);
+
+        assertNotNull(letto);
+        assertEquals(atteso.getProdotti().toString(), letto.getProdotti().toString());
+        assertEquals(atteso.getMovimenti().toString(), letto.getMovimenti().toString());
+        assertEquals(atteso.getProdotti().get(0).getUltimaModifica(), letto.getProdotti().get(0).getUltimaModifica());
+        assertNull(letto.getProdotti().get(1).getUltimaModifica());
+        assertEquals(atteso.getUltimaSincronizzazioneProdotti(), letto.getUltimaSincronizzazioneProdotti());
+        assertEquals(9, letto.getUltimoIdMovimento());
+        assertFalse(letto.isMovimentiCompleti());
+
+        // Alla chiusura la copia appena letta viene sostituita: il file non deve restare aperto o mappato.
+        letto.salva(file);
+        assertEquals(9, SnapshotLocale.carica(file, SORGENTE).getUltimoIdMovimento());
+        try (var elenco = Files.list(file.getParent())) {
+            assertEquals(1, elenco.count(), "Nessun file temporaneo residuo");
+        }
+    }
+
+    /**
+     * Verifica che un file assente o di un'altra sorgente restituisca null e che un file modificato
+     * venga rifiutato.
+     */
+    @Test
+    @DisplayName("Test Copia Assente, di Altra Sorgente o Danneggiata")
+    void testCopiaNonUtilizzabile() throws IOException {
+        Path file = cartella.resolve("snapshot.bin");
+        assertNull(SnapshotLocale.carica(file, SORGENTE));
+
+        esempio().salva(file);
+        assertNull(SnapshotLocale.carica(file, "utente@altrohost/magazzino"));
+
+        byte[] bytes = Files.readAllBytes(file);
+        bytes[bytes.length / 2] ^= 1;
+        Files.write(file, bytes);
+        assertThrows(IOException.class, () -> SnapshotLocale.carica(file, SORGENTE));
+    }
+}